@@ -0,0 +1,117 @@
+package de.fraunhofer.isst.dataspaceconnector.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BackendConfiguration {
+    @Value("${http.timeout.connect}")
+    private long connectTimeout;
+
+    @Value("${http.timeout.read}")
+    private long readTimeout;
+
+    @Value("${http.timeout.write}")
+    private long writeTimeout;
+
+    @Value("${http.timeout.call}")
+    private long callTimeout;
+
+    @Value("${backend.http.max-concurrency}")
+    private int maxConcurrency;
+
+    @Value("${backend.http.acquire-timeout}")
+    private long acquireTimeout;
+
+    @Value("${backend.http.keep-alive}")
+    private long keepAlive;
+
+    @Value("${backend.http.http2}")
+    private boolean http2;
+
+    @Value("${backend.cache.max-size}")
+    private long cacheMaxSize;
+
+    @Value("${backend.cache.max-entry-size}")
+    private long cacheMaxEntrySize;
+
+    public long getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(long connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public long getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(long readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public long getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public void setWriteTimeout(long writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+
+    public long getCallTimeout() {
+        return callTimeout;
+    }
+
+    public void setCallTimeout(long callTimeout) {
+        this.callTimeout = callTimeout;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public long getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public void setAcquireTimeout(long acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public long getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(long keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public void setHttp2(boolean http2) {
+        this.http2 = http2;
+    }
+
+    public long getCacheMaxSize() {
+        return cacheMaxSize;
+    }
+
+    public void setCacheMaxSize(long cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize;
+    }
+
+    public long getCacheMaxEntrySize() {
+        return cacheMaxEntrySize;
+    }
+
+    public void setCacheMaxEntrySize(long cacheMaxEntrySize) {
+        this.cacheMaxEntrySize = cacheMaxEntrySize;
+    }
+}
@@ -0,0 +1,95 @@
+package de.fraunhofer.isst.dataspaceconnector.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HttpTraceConfiguration {
+    @Value("${http.trace.sample-rate}")
+    private double sampleRate;
+
+    @Value("${http.trace.max-body-size}")
+    private int maxBodySize;
+
+    @Value("${http.trace.excluded-paths}")
+    private String[] excludedPaths;
+
+    @Value("${http.trace.sinks}")
+    private String[] sinks;
+
+    @Value("${http.trace.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${http.trace.batch-size}")
+    private int batchSize;
+
+    @Value("${http.trace.flush-interval}")
+    private long flushInterval;
+
+    @Value("${http.trace.memory-size}")
+    private int memorySize;
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(int maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public String[] getExcludedPaths() {
+        return excludedPaths;
+    }
+
+    public void setExcludedPaths(String[] excludedPaths) {
+        this.excludedPaths = excludedPaths;
+    }
+
+    public String[] getSinks() {
+        return sinks;
+    }
+
+    public void setSinks(String[] sinks) {
+        this.sinks = sinks;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getMemorySize() {
+        return memorySize;
+    }
+
+    public void setMemorySize(int memorySize) {
+        this.memorySize = memorySize;
+    }
+}
@@ -0,0 +1,40 @@
+package de.fraunhofer.isst.dataspaceconnector.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MessagingConfiguration {
+    @Value("${messaging.async.pool-size}")
+    private int poolSize;
+
+    @Value("${messaging.async.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${messaging.batch.parallelism-per-recipient}")
+    private int batchParallelism;
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchParallelism() {
+        return batchParallelism;
+    }
+
+    public void setBatchParallelism(int batchParallelism) {
+        this.batchParallelism = batchParallelism;
+    }
+}
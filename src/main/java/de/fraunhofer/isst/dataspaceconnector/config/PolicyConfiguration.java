@@ -14,6 +14,15 @@ public class PolicyConfiguration {
     @Value("${policy.framework}")
     private UsageControlFramework usageControlFramework;
 
+    @Value("${policy.cache.size}")
+    private int cacheSize;
+
+    @Value("${policy.pip.local-endpoints}")
+    private String[] localPipEndpoints;
+
+    @Value("${policy.agreement.reuse-ttl}")
+    private long agreementReuseTtl;
+
     public boolean isPolicyNegotiation() {
         return policyNegotiation;
     }
@@ -38,6 +47,30 @@ public class PolicyConfiguration {
         this.usageControlFramework = usageControlFramework;
     }
 
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public String[] getLocalPipEndpoints() {
+        return localPipEndpoints;
+    }
+
+    public void setLocalPipEndpoints(String[] localPipEndpoints) {
+        this.localPipEndpoints = localPipEndpoints;
+    }
+
+    public long getAgreementReuseTtl() {
+        return agreementReuseTtl;
+    }
+
+    public void setAgreementReuseTtl(long agreementReuseTtl) {
+        this.agreementReuseTtl = agreementReuseTtl;
+    }
+
     public enum UsageControlFramework {
         INTERNAL("INTERNAL"),
         MYDATA("MYDATA"),
@@ -0,0 +1,18 @@
+package de.fraunhofer.isst.dataspaceconnector.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StorageConfiguration {
+    @Value("${storage.data.path}")
+    private String dataPath;
+
+    public String getDataPath() {
+        return dataPath;
+    }
+
+    public void setDataPath(String dataPath) {
+        this.dataPath = dataPath;
+    }
+}
@@ -211,7 +211,7 @@ public class BrokerController {
             try {
                 // Get the resource
                 final var resource =
-                    ((OfferedResourceServiceImpl) resourceService).getOfferedResources().get(resourceId);
+                    ((OfferedResourceServiceImpl) resourceService).getOfferedResource(resourceId);
                 if (resource == null) {
                     // The resource could not be found, reject and inform the requester.
                     return respondResourceNotFound(resourceId);
@@ -258,7 +258,7 @@ public class BrokerController {
             try {
                 // Get the resource
                 final var resource =
-                    ((OfferedResourceServiceImpl) resourceService).getOfferedResources().get(resourceId);
+                    ((OfferedResourceServiceImpl) resourceService).getOfferedResource(resourceId);
                 if (resource == null) {
                     // The resource could not be found, reject and inform the requester.
                     return respondResourceNotFound(resourceId);
@@ -10,6 +10,7 @@ import de.fraunhofer.isst.dataspaceconnector.exceptions.ConnectorConfigurationEx
 import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.RequestedResourceServiceImpl;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.ResourceService;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.SelfDescriptionCache;
 import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
 import de.fraunhofer.isst.ids.framework.configuration.SerializerProvider;
 import io.swagger.v3.oas.annotations.Operation;
@@ -43,6 +44,7 @@ public class MainController {
     private final ResourceService offeredResourceService, requestedResourceService;
     private final PolicyConfiguration policyConfiguration;
     private final ConfigurationContainer configurationContainer;
+    private final SelfDescriptionCache selfDescriptionCache;
 
     /**
      * Constructor for MainController.
@@ -50,6 +52,7 @@ public class MainController {
      * @param serializerProvider The provider for serialization
      * @param offeredResourceService The service for the offered resources
      * @param requestedResourceService The service for the requested resources
+     * @param selfDescriptionCache The cache for the self-description
      * @throws IllegalArgumentException if one of the parameters is null.
      */
     @Autowired
@@ -57,7 +60,8 @@ public class MainController {
                           OfferedResourceServiceImpl offeredResourceService,
                           RequestedResourceServiceImpl requestedResourceService,
                           ConfigurationContainer configurationContainer,
-                          PolicyConfiguration policyConfiguration) throws IllegalArgumentException {
+                          PolicyConfiguration policyConfiguration,
+                          SelfDescriptionCache selfDescriptionCache) throws IllegalArgumentException {
         if (serializerProvider == null)
             throw new IllegalArgumentException("The SerializerProvider cannot be null.");
 
@@ -73,11 +77,15 @@ public class MainController {
         if (configurationContainer == null)
             throw new IllegalArgumentException("The ConfigurationContainer cannot be null.");
 
+        if (selfDescriptionCache == null)
+            throw new IllegalArgumentException("The SelfDescriptionCache cannot be null.");
+
         this.serializerProvider = serializerProvider;
         this.offeredResourceService = offeredResourceService;
         this.requestedResourceService = requestedResourceService;
         this.policyConfiguration = policyConfiguration;
         this.configurationContainer = configurationContainer;
+        this.selfDescriptionCache = selfDescriptionCache;
     }
 
     /**
@@ -94,25 +102,14 @@ public class MainController {
     @ResponseBody
     public ResponseEntity<String> getPublicSelfDescription() {
         try {
-            // Get a local copy of the current connector.
-            var connector = (BaseConnectorImpl) configurationContainer.getConnector();
-
-            // Modify a connector for exposing the reduced self-description.
-            connector.setResourceCatalog(null);
-
-            return new ResponseEntity<>(serializerProvider.getSerializer().serialize(connector),
+            // Get the reduced self-description of the current connector.
+            return new ResponseEntity<>(selfDescriptionCache.getPublicSelfDescription(),
                 HttpStatus.OK);
         } catch (ConnectorConfigurationException exception) {
             // No connector found
             LOGGER.warn("No connector has been configurated.");
             return new ResponseEntity<>("No connector is currently available.",
                 HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (IOException exception) {
-            // Could not serialize the connector.
-            LOGGER.warn("Could not serialize the connector. [exception=({})]",
-                exception.getMessage());
-            return new ResponseEntity<>("No connector is currently available.",
-                HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
@@ -152,6 +149,20 @@ public class MainController {
         }
     }
 
+    /**
+     * Returns the statistics of the self-description cache.
+     *
+     * @return The cache statistics.
+     */
+    @Operation(summary = "Self-description Cache Statistics",
+        description = "Get the hit and miss counts and the rebuild time of the self-description cache.")
+    @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Ok") })
+    @RequestMapping(value = {"/admin/api/connector/cache"}, method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseEntity<Object> getSelfDescriptionCacheStatistics() {
+        return new ResponseEntity<>(selfDescriptionCache.getStatistics(), HttpStatus.OK);
+    }
+
     /**
      * Turns policy negotiation on or off.
      *
@@ -236,7 +247,7 @@ public class MainController {
 
     private ResourceCatalog buildResourceCatalog() throws ConstraintViolationException {
         return new ResourceCatalogBuilder()
-            ._offeredResource_(new ArrayList<>(offeredResourceService.getResources()))
+            ._offeredResource_(new ArrayList<>(selfDescriptionCache.getOfferedResources()))
             ._requestedResource_(new ArrayList<>(requestedResourceService.getResources()))
             .build();
     }
@@ -2,21 +2,27 @@ package de.fraunhofer.isst.dataspaceconnector.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fraunhofer.iais.eis.ContractRequest;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.RequestFormatException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.contract.ContractException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageBuilderException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageNotSentException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageRejectedException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageResponseException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.InvalidResourceException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceException;
-import de.fraunhofer.isst.dataspaceconnector.model.RequestedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.ArtifactRequestItem;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.BatchDataRequestService;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.DataRequestPipeline;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageService.ResponseType;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.NegotiationService;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ArtifactMessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ContractMessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.DescriptionMessageService;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.ConsumerAgreementService;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.RequestedResourceServiceImpl;
-import de.fraunhofer.isst.dataspaceconnector.services.resources.ResourceService;
 import de.fraunhofer.isst.dataspaceconnector.model.QueryInput;
 import de.fraunhofer.isst.dataspaceconnector.services.utils.ValidationUtils;
 import de.fraunhofer.isst.ids.framework.daps.DapsTokenProvider;
@@ -33,8 +39,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * This class provides endpoints for the communication with an IDS connector instance.
@@ -52,7 +61,10 @@ public class RequestController {
     private final DescriptionMessageService descriptionMessageService;
     private final ContractMessageService contractMessageService;
     private final NegotiationService negotiationService;
-    private final ResourceService resourceService;
+    private final RequestedResourceServiceImpl resourceService;
+    private final DataRequestPipeline dataRequestPipeline;
+    private final ConsumerAgreementService consumerAgreementService;
+    private final BatchDataRequestService batchDataRequestService;
     private final ObjectMapper objectMapper;
 
 
@@ -65,6 +77,9 @@ public class RequestController {
      * @param contractMessageService The service for contract messages
      * @param negotiationService The service for negotiations
      * @param requestedResourceService The service for the requested resources
+     * @param dataRequestPipeline The pipeline for requesting artifact data in one call
+     * @param consumerAgreementService The service for the agreements concluded as consumer
+     * @param batchDataRequestService The service for requesting many artifacts at once
      * @throws IllegalArgumentException if any of the parameters is null.
      */
     @Autowired
@@ -73,7 +88,10 @@ public class RequestController {
                              DescriptionMessageService descriptionMessageService,
                              ContractMessageService contractMessageService,
                              NegotiationService negotiationService,
-                             RequestedResourceServiceImpl requestedResourceService)
+                             RequestedResourceServiceImpl requestedResourceService,
+                             DataRequestPipeline dataRequestPipeline,
+                             ConsumerAgreementService consumerAgreementService,
+                             BatchDataRequestService batchDataRequestService)
         throws IllegalArgumentException {
         if (tokenProvider == null)
             throw new IllegalArgumentException("The TokenProvider cannot be null.");
@@ -93,12 +111,24 @@ public class RequestController {
         if (requestedResourceService == null)
             throw new IllegalArgumentException("The RequestedResourceServiceImpl cannot be null.");
 
+        if (dataRequestPipeline == null)
+            throw new IllegalArgumentException("The DataRequestPipeline cannot be null.");
+
+        if (consumerAgreementService == null)
+            throw new IllegalArgumentException("The ConsumerAgreementService cannot be null.");
+
+        if (batchDataRequestService == null)
+            throw new IllegalArgumentException("The BatchDataRequestService cannot be null.");
+
         this.tokenProvider = tokenProvider;
         this.artifactMessageService = artifactMessageService;
         this.descriptionMessageService = descriptionMessageService;
         this.contractMessageService = contractMessageService;
         this.negotiationService = negotiationService;
         this.resourceService = requestedResourceService;
+        this.dataRequestPipeline = dataRequestPipeline;
+        this.consumerAgreementService = consumerAgreementService;
+        this.batchDataRequestService = batchDataRequestService;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -117,7 +147,7 @@ public class RequestController {
             @ApiResponse(responseCode = "500", description = "Internal server error")})
     @RequestMapping(value = "/description", method = RequestMethod.POST)
     @ResponseBody
-    public ResponseEntity<String> requestMetadata(
+    public CompletableFuture<ResponseEntity<String>> requestMetadata(
         @Parameter(description = "The URI of the requested IDS connector.", required = true,
             example = "https://localhost:8080/api/ids/data")
         @RequestParam("recipient") URI recipient,
@@ -125,31 +155,28 @@ public class RequestController {
             example = "https://w3id.org/idsa/autogen/resource/a4212311-86e4-40b3-ace3-ef29cd687cf9")
         @RequestParam(value = "requestedResource", required = false) URI resourceId) {
         if (tokenProvider.getDAT() == null) {
-            return respondRejectUnauthorized(recipient, resourceId);
+            return CompletableFuture.completedFuture(
+                respondRejectUnauthorized(recipient, resourceId));
         }
 
-        Map<String, String> response;
-        try {
-            // Send DescriptionRequestMessage.
-            descriptionMessageService.setRequestParameters(recipient, resourceId);
-            response = descriptionMessageService.sendRequestMessage("");
-        } catch (MessageBuilderException exception) {
-            // Failed to build the description request message.
-            LOGGER.warn("Failed to build a request. [exception=({})]", exception.getMessage());
-            return new ResponseEntity<>("Failed to build the ids message.",
-                HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (MessageResponseException exception) {
-            // Failed to read the description response message.
-            LOGGER.debug("Received invalid ids response. [exception=({})]", exception.getMessage());
-            return new ResponseEntity<>("Failed to read the ids response message.",
-                HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (MessageNotSentException exception) {
-            // Failed to send the description request message.
-            LOGGER.warn("Failed to send a request. [exception=({})]", exception.getMessage());
-            return new ResponseEntity<>("Failed to send the ids message.",
-                    HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+        // Send DescriptionRequestMessage.
+        return descriptionMessageService.sendRequestMessageAsync(
+            MessageParameters.to(recipient).withResource(resourceId), "")
+            .handle((response, exception) -> exception != null
+                ? respondMessageFailure(exception)
+                : processDescriptionResponse(response, recipient, resourceId));
+    }
 
+    /**
+     * Processes the response to a description request.
+     *
+     * @param response The response content.
+     * @param recipient The target connector uri.
+     * @param resourceId The requested resource uri.
+     * @return OK or error response.
+     */
+    private ResponseEntity<String> processDescriptionResponse(Map<String, String> response,
+        URI recipient, URI resourceId) {
         String header, payload;
         try {
             header = response.get("header");
@@ -186,7 +213,9 @@ public class RequestController {
     }
 
     /**
-     * Sends a contract request to a connector by building an ContractRequestMessage.
+     * Sends a contract request to a connector by building an ContractRequestMessage. If a
+     * still valid agreement for the artifact with the same rules as the contract offer is known,
+     * it is returned without a new negotiation.
      *
      * @param recipient The URI of the requested IDS connector.
      * @param artifactId The URI of the requested artifact.
@@ -201,7 +230,7 @@ public class RequestController {
             @ApiResponse(responseCode = "500", description = "Internal server error")})
     @RequestMapping(value = "/contract", method = RequestMethod.POST)
     @ResponseBody
-    public ResponseEntity<String> requestContract(
+    public CompletableFuture<ResponseEntity<String>> requestContract(
         @Parameter(description = "The URI of the requested IDS connector.", required = true,
             example = "https://localhost:8080/api/ids/data")
         @RequestParam("recipient") URI recipient,
@@ -211,37 +240,47 @@ public class RequestController {
         @Parameter(description = "The contract offer for the requested resource.")
         @RequestBody(required = false) String contractOffer) {
         if (tokenProvider.getDAT() == null) {
-            return respondRejectUnauthorized(recipient, null);
+            return CompletableFuture.completedFuture(respondRejectUnauthorized(recipient, null));
+        }
+
+        final var knownAgreement = consumerAgreementService.getValidAgreement(recipient,
+            artifactId, contractOffer);
+        if (knownAgreement.isPresent()) {
+            LOGGER.debug("Reusing contract agreement. [recipient=({}), artifactId=({}), "
+                + "agreementId=({})]", recipient, artifactId, knownAgreement.get());
+            return CompletableFuture.completedFuture(
+                new ResponseEntity<>(String.valueOf(knownAgreement.get()), HttpStatus.OK));
         }
 
-        Map<String, String> response;
+        final ContractRequest request;
         try {
             // Start policy negotiation.
-            final var request = negotiationService.buildContractRequest(contractOffer, artifactId);
-            // Send ContractRequestMessage.
-            contractMessageService.setRequestParameters(recipient, request.getId());
-            response = contractMessageService.sendRequestMessage(request.toRdf());
+            request = negotiationService.buildContractRequest(contractOffer, artifactId);
         } catch (IllegalArgumentException exception) {
             LOGGER.warn("Failed to build contract request. [exception=({})]", exception.getMessage());
-            return new ResponseEntity<>("Failed to build contract request.",
-                HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (MessageBuilderException exception) {
-            // Failed to build the contract request message.
-            LOGGER.warn("Failed to build a request. [exception=({})]", exception.getMessage());
-            return new ResponseEntity<>("Failed to build the ids message.",
-                    HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (MessageResponseException exception) {
-            // Failed to read the contract response message.
-            LOGGER.debug("Received invalid ids response. [exception=({})]", exception.getMessage());
-            return new ResponseEntity<>("Failed to read the ids response message.",
-                    HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (MessageNotSentException exception) {
-            // Failed to send the contract request message.
-            LOGGER.warn("Failed to send a request. [exception=({})]", exception.getMessage());
-            return new ResponseEntity<>("Failed to send the ids message.",
-                    HttpStatus.INTERNAL_SERVER_ERROR);
+            return CompletableFuture.completedFuture(new ResponseEntity<>(
+                "Failed to build contract request.", HttpStatus.INTERNAL_SERVER_ERROR));
+        } catch (MessageException exception) {
+            return CompletableFuture.completedFuture(respondMessageFailure(exception));
         }
 
+        // Send ContractRequestMessage.
+        return contractMessageService.sendRequestMessageAsync(
+            MessageParameters.to(recipient).withContract(request.getId()), request.toRdf())
+            .handle((response, exception) -> exception != null
+                ? respondMessageFailure(exception)
+                : processContractResponse(response, recipient));
+    }
+
+    /**
+     * Processes the response to a contract request.
+     *
+     * @param response The response content.
+     * @param recipient The URI of the requested IDS connector.
+     * @return OK or error response.
+     */
+    private ResponseEntity<String> processContractResponse(Map<String, String> response,
+        URI recipient) {
         String header, payload;
         try {
             header = response.get("header");
@@ -305,7 +344,7 @@ public class RequestController {
             @ApiResponse(responseCode = "500", description = "Internal server error")})
     @RequestMapping(value = "/artifact", method = RequestMethod.POST)
     @ResponseBody
-    public ResponseEntity<String> requestData(
+    public CompletableFuture<ResponseEntity<String>> requestData(
             @Parameter(description = "The URI of the requested IDS connector.", required = true,
                     example = "https://localhost:8080/api/ids/data")
             @RequestParam("recipient") URI recipient,
@@ -321,7 +360,8 @@ public class RequestController {
                     "data from the backend system.")
             @RequestBody(required = false) QueryInput queryInput) {
         if (tokenProvider.getDAT() == null) {
-            return respondRejectUnauthorized(recipient, artifactId);
+            return CompletableFuture.completedFuture(
+                respondRejectUnauthorized(recipient, artifactId));
         }
 
         if (!resourceExists(key)) {
@@ -329,46 +369,45 @@ public class RequestController {
             LOGGER.warn(String.format("Failed data request due to invalid key.\nRecipient: " +
                     "%s\nrequestedArtifact:%s\nkey:%s", recipient.toString(),
                 artifactId.toString(), key.toString()));
-            return new ResponseEntity<>("Your key is not valid. Please request metadata first.",
-                HttpStatus.FORBIDDEN);
+            return CompletableFuture.completedFuture(new ResponseEntity<>(
+                "Your key is not valid. Please request metadata first.", HttpStatus.FORBIDDEN));
         }
 
+        final String query;
         try {
             ValidationUtils.validateQueryInput(queryInput);
+            query = objectMapper.writeValueAsString(queryInput);
         } catch (IllegalArgumentException exception) {
             // There is an empty key or value string in the params or headers map
             LOGGER.debug("Invalid input for headers or params. [exception=({})]", exception.getMessage());
-            return new ResponseEntity<>("Invalid input for headers or params. ",
-                    HttpStatus.BAD_REQUEST);
-        }
-
-        Map<String, String> response;
-        try {
-            // Send ArtifactRequestMessage.
-            artifactMessageService.setRequestParameters(recipient, artifactId, contractId);
-            response = artifactMessageService.sendRequestMessage(objectMapper.writeValueAsString(queryInput));
-        } catch (MessageBuilderException exception) {
-            // Failed to build the artifact request message.
-            LOGGER.warn("Failed to build a request. [exception=({})]", exception.getMessage());
-            return new ResponseEntity<>("Failed to build the ids message.",
-                    HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (MessageResponseException exception) {
-            // Failed to read the artifact response message.
-            LOGGER.debug("Received invalid ids response. [exception=({})]", exception.getMessage());
-            return new ResponseEntity<>("Received invalid ids response message.",
-                    HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (MessageNotSentException exception) {
-            // Failed to send the artifact request message.
-            LOGGER.warn("Failed to send a request. [exception=({})]", exception.getMessage());
-            return new ResponseEntity<>("Failed to send the ids message.",
-                    HttpStatus.INTERNAL_SERVER_ERROR);
+            return CompletableFuture.completedFuture(new ResponseEntity<>(
+                "Invalid input for headers or params. ", HttpStatus.BAD_REQUEST));
         } catch (JsonProcessingException exception) {
             // Could not parse query input (params and headers).
             LOGGER.debug("Could not parse query input from request body. [exception=({})]", exception.getMessage());
-            return new ResponseEntity<>("Could not parse query input from request body.",
-                    HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(new ResponseEntity<>(
+                "Could not parse query input from request body.", HttpStatus.BAD_REQUEST));
         }
 
+        // Send ArtifactRequestMessage.
+        return artifactMessageService.sendRequestMessageAsync(MessageParameters.to(recipient)
+            .withArtifact(artifactId).withContract(contractId), query)
+            .handle((response, exception) -> exception != null
+                ? respondMessageFailure(exception)
+                : processArtifactResponse(response, artifactId, contractId, key));
+    }
+
+    /**
+     * Processes the response to an artifact request.
+     *
+     * @param response The response content.
+     * @param artifactId The requested artifact uri.
+     * @param contractId The URI of the contract agreement.
+     * @param key The uuid of the requested resource.
+     * @return OK or error response.
+     */
+    private ResponseEntity<String> processArtifactResponse(Map<String, String> response,
+        URI artifactId, URI contractId, UUID key) {
         String header, payload;
         try {
             header = response.get("header");
@@ -387,9 +426,7 @@ public class RequestController {
 
         try {
             // Save contract agreement id and requested artifact.
-            final var resource = (RequestedResource) resourceService.getResource(key);
-            resource.setContractAgreement(contractId);
-            resource.setRequestedArtifact(artifactId);
+            resourceService.updateContract(key, artifactId, contractId);
         } catch (ResourceException exception) {
             LOGGER.warn("Could not update resource. [exception=({})]",
                     exception.getMessage());
@@ -410,6 +447,138 @@ public class RequestController {
         }
     }
 
+    /**
+     * Requests the data of an artifact from an external connector in one call. The description
+     * request, the contract negotiation and the artifact request are run as one pipeline.
+     *
+     * @param recipient  The target connector uri.
+     * @param resourceId The requested resource uri.
+     * @param artifactId The requested artifact uri.
+     * @param contractId The URI of a known contract agreement.
+     * @param queryInput The query for the backend of the provider.
+     * @return OK or error response.
+     */
+    @Operation(summary = "Data Request Pipeline",
+        description = "Request data from another IDS connector in one call. The metadata is "
+            + "requested and the contract offer of the resource is negotiated if necessary. "
+            + "Metadata and contract agreements of earlier requests are reused.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @RequestMapping(value = "/fetch", method = RequestMethod.POST)
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<String>> requestDataPipeline(
+            @Parameter(description = "The URI of the requested IDS connector.", required = true,
+                    example = "https://localhost:8080/api/ids/data")
+            @RequestParam("recipient") URI recipient,
+            @Parameter(description = "The URI of the requested resource.", required = true,
+                    example = "https://w3id.org/idsa/autogen/resource/a4212311-86e4-40b3-ace3-ef29cd687cf9")
+            @RequestParam("requestedResource") URI resourceId,
+            @Parameter(description = "The URI of the requested artifact.", required = true,
+                    example = "https://w3id.org/idsa/autogen/artifact/a4212311-86e4-40b3-ace3-ef29cd687cf9")
+            @RequestParam("requestedArtifact") URI artifactId,
+            @Parameter(description = "The URI of a known contract agreement.",
+                    example = "https://w3id.org/idsa/autogen/contractAgreement/a4212311-86e4-40b3-ace3-ef29cd687cf9")
+            @RequestParam(value = "transferContract", required = false) URI contractId,
+            @Parameter(description = "The query parameters and headers to use when fetching the " +
+                    "data from the backend system.")
+            @RequestBody(required = false) QueryInput queryInput) {
+        if (tokenProvider.getDAT() == null) {
+            return CompletableFuture.completedFuture(
+                respondRejectUnauthorized(recipient, artifactId));
+        }
+
+        final CompletableFuture<DataRequestPipeline.Result> result;
+        try {
+            ValidationUtils.validateQueryInput(queryInput);
+            result = dataRequestPipeline.fetch(recipient, resourceId, artifactId, contractId,
+                queryInput);
+        } catch (RequestFormatException exception) {
+            // Could not parse query input (params and headers).
+            LOGGER.debug("Could not parse query input from request body. [exception=({})]", exception.getMessage());
+            return CompletableFuture.completedFuture(new ResponseEntity<>(
+                "Could not parse query input from request body.", HttpStatus.BAD_REQUEST));
+        } catch (IllegalArgumentException exception) {
+            // There is an empty key or value string in the params or headers map
+            LOGGER.debug("Invalid input for headers or params. [exception=({})]", exception.getMessage());
+            return CompletableFuture.completedFuture(new ResponseEntity<>(
+                "Invalid input for headers or params. ", HttpStatus.BAD_REQUEST));
+        }
+
+        return result.handle((fetched, exception) -> exception != null
+            ? respondPipelineFailure(exception)
+            : new ResponseEntity<>(String.format("Saved at: %s\nContract: %s\nResponse: %s",
+                fetched.getKey(), fetched.getContractAgreement(), fetched.getData()),
+                HttpStatus.OK));
+    }
+
+    /**
+     * Requests the data of many artifacts from external connectors in one call. The items are
+     * requested concurrently, with a limited number of requests per recipient, and each item is
+     * stored as soon as its data arrives.
+     *
+     * @param items The artifacts to request.
+     * @return The status of every item or an error response.
+     */
+    @Operation(summary = "Batch Artifact Request",
+        description = "Request the data of many artifacts from other IDS connectors in one call. "
+            + "Items with a key are stored at the local resource with this key, otherwise the "
+            + "metadata of the requested resource is requested first. The response lists the "
+            + "status of every item.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")})
+    @RequestMapping(value = "/artifacts", method = RequestMethod.POST)
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<Object>> requestArtifacts(
+            @Parameter(description = "The artifacts to request.", required = true)
+            @RequestBody List<ArtifactRequestItem> items) {
+        if (tokenProvider.getDAT() == null) {
+            LOGGER.debug("Unauthorized call. No DAT token found. [items=({})]",
+                items == null ? 0 : items.size());
+            return CompletableFuture.completedFuture(
+                new ResponseEntity<>("Please check your DAT token.", HttpStatus.UNAUTHORIZED));
+        }
+
+        if (items == null || items.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                new ResponseEntity<>("No artifacts to request.", HttpStatus.BAD_REQUEST));
+        }
+
+        return batchDataRequestService.fetchAll(items)
+            .thenApply(results -> new ResponseEntity<Object>(results, HttpStatus.OK));
+    }
+
+    /**
+     * Maps a failed pipeline run to an http response.
+     *
+     * @param throwable The reason why the pipeline failed.
+     * @return An http response.
+     */
+    private ResponseEntity<String> respondPipelineFailure(Throwable throwable) {
+        final var exception = throwable instanceof CompletionException
+            && throwable.getCause() != null ? throwable.getCause() : throwable;
+
+        if (exception instanceof ContractException) {
+            LOGGER.debug("Could not negotiate contract. [exception=({})]", exception.getMessage());
+            return new ResponseEntity<>("Failed to negotiate the contract. "
+                + exception.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        } else if (exception instanceof ResourceException) {
+            LOGGER.warn("Could not save resource. [exception=({})]", exception.getMessage());
+            return new ResponseEntity<>("Failed to save the resource to database.",
+                HttpStatus.INTERNAL_SERVER_ERROR);
+        } else if (exception instanceof MessageRejectedException) {
+            // Rejections and unexpected responses carry the response in their message.
+            LOGGER.debug("Request was rejected. [exception=({})]", exception.getMessage());
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.OK);
+        } else {
+            return respondMessageFailure(exception);
+        }
+    }
+
     /**
      * The request was unauthorized.
      *
@@ -425,6 +594,38 @@ public class RequestController {
         return new ResponseEntity<>("Please check your DAT token.", HttpStatus.UNAUTHORIZED);
     }
 
+    /**
+     * Maps a failed message exchange to an http response.
+     *
+     * @param throwable The reason why the message exchange failed.
+     * @return An http response.
+     */
+    private ResponseEntity<String> respondMessageFailure(Throwable throwable) {
+        final var exception = throwable instanceof CompletionException
+            && throwable.getCause() != null ? throwable.getCause() : throwable;
+
+        if (exception instanceof MessageBuilderException) {
+            // Failed to build the request message.
+            LOGGER.warn("Failed to build a request. [exception=({})]", exception.getMessage());
+            return new ResponseEntity<>("Failed to build the ids message.",
+                HttpStatus.INTERNAL_SERVER_ERROR);
+        } else if (exception instanceof MessageResponseException) {
+            // Failed to read the response message.
+            LOGGER.debug("Received invalid ids response. [exception=({})]", exception.getMessage());
+            return new ResponseEntity<>("Failed to read the ids response message.",
+                HttpStatus.INTERNAL_SERVER_ERROR);
+        } else if (exception instanceof MessageNotSentException) {
+            // Failed to send the request message.
+            LOGGER.warn("Failed to send a request. [exception=({})]", exception.getMessage());
+            return new ResponseEntity<>("Failed to send the ids message.",
+                HttpStatus.INTERNAL_SERVER_ERROR);
+        } else {
+            LOGGER.warn("Message exchange failed. [exception=({})]", exception.getMessage());
+            return new ResponseEntity<>("Failed to send the ids message.",
+                HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Checks for rejection or contract rejection message.
      *
@@ -11,6 +11,7 @@ import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.RequestedResourceServiceImpl;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.ResourceService;
+import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.AccessCounter;
 import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.PolicyHandler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,12 +21,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
 
+import static de.fraunhofer.isst.dataspaceconnector.services.utils.ControllerUtils.respondResourceModifiedConcurrently;
+
 /**
  * This class provides endpoints for the internal resource handling. Resources can be created and
  * modified with it's {@link ResourceMetadata} including {@link de.fraunhofer.iais.eis.Contract} and
@@ -40,6 +44,7 @@ public class ResourceController {
 
     private final ResourceService offeredResourceService, requestedResourceService;
     private final PolicyHandler policyHandler;
+    private final AccessCounter accessCounter;
 
     /**
      * Constructor for ResourceController.
@@ -47,12 +52,13 @@ public class ResourceController {
      * @param offeredResourceService The service for the offered resources
      * @param policyHandler The service for handling policies
      * @param requestedResourceService The service for the requested resources
+     * @param accessCounter The counter of data accesses of requested resources
      * @throws IllegalArgumentException if any of the parameters is null.
      */
     @Autowired
     public ResourceController(OfferedResourceServiceImpl offeredResourceService,
-        PolicyHandler policyHandler, RequestedResourceServiceImpl requestedResourceService)
-        throws IllegalArgumentException {
+        PolicyHandler policyHandler, RequestedResourceServiceImpl requestedResourceService,
+        AccessCounter accessCounter) throws IllegalArgumentException {
         if (offeredResourceService == null)
             throw new IllegalArgumentException("The OfferedResourceService cannot be null.");
 
@@ -62,9 +68,13 @@ public class ResourceController {
         if (requestedResourceService == null)
             throw new IllegalArgumentException("The RequestedResourceService cannot be null.");
 
+        if (accessCounter == null)
+            throw new IllegalArgumentException("The AccessCounter cannot be null.");
+
         this.offeredResourceService = offeredResourceService;
         this.requestedResourceService = requestedResourceService;
         this.policyHandler = policyHandler;
+        this.accessCounter = accessCounter;
     }
 
     /**
@@ -122,6 +132,7 @@ public class ResourceController {
             @ApiResponse(responseCode = "200", description = "Ok"),
             @ApiResponse(responseCode = "400", description = "Invalid resource"),
             @ApiResponse(responseCode = "404", description = "Not found"),
+            @ApiResponse(responseCode = "409", description = "Concurrent modification"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
     @RequestMapping(value = "/{resource-id}", method = RequestMethod.PUT)
     @ResponseBody
@@ -141,6 +152,8 @@ public class ResourceController {
             LOGGER.debug("Failed to update the resource. The resource could not be found."
                 + "[exception=({})]", exception.getMessage());
             return new ResponseEntity<>("Resource could not be updated.", HttpStatus.NOT_FOUND);
+        } catch (OptimisticLockingFailureException exception) {
+            return respondResourceModifiedConcurrently(resourceId);
         } catch (ResourceException exception) {
             LOGGER.warn("Failed to update the resource. Something went wrong."
                 + "[exception=({})]", exception.getMessage());
@@ -244,6 +257,7 @@ public class ResourceController {
             @ApiResponse(responseCode = "200", description = "Ok"),
             @ApiResponse(responseCode = "400", description = "Invalid resource"),
             @ApiResponse(responseCode = "404", description = "Not found"),
+            @ApiResponse(responseCode = "409", description = "Concurrent modification"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
     @RequestMapping(value = "/{resource-id}/contract", method = RequestMethod.PUT)
     @ResponseBody
@@ -273,6 +287,8 @@ public class ResourceController {
                 + "[exception=({})]", exception.getMessage());
             return new ResponseEntity<>("The resource could not be received. Not a " +
                 "valid resource format.", HttpStatus.BAD_REQUEST);
+        } catch (OptimisticLockingFailureException exception) {
+            return respondResourceModifiedConcurrently(resourceId);
         } catch (ResourceException exception) {
             LOGGER.warn("Failed to update the resource contract. Something went wrong. "
                 + "[exception=({})]", exception.getMessage());
@@ -362,7 +378,7 @@ public class ResourceController {
                 return new ResponseEntity<>("Resource not found.", HttpStatus.NOT_FOUND);
             }
 
-            return new ResponseEntity<>(resource.getAccessed(), HttpStatus.OK);
+            return new ResponseEntity<>(accessCounter.get(resourceId), HttpStatus.OK);
         } catch (InvalidResourceException exception) {
             // The resource has been found but is in an invalid format.
             LOGGER.debug("Failed to receive the resource access. The resource is not valid. "
@@ -429,6 +445,8 @@ public class ResourceController {
                 exception.getMessage());
             return new ResponseEntity<>("The resource could not be received. Not a " +
                 "valid resource format.", HttpStatus.BAD_REQUEST);
+        } catch (OptimisticLockingFailureException exception) {
+            return respondResourceModifiedConcurrently(resourceId);
         } catch (ResourceException exception) {
             LOGGER.warn(
                 "Failed to add resource representation. Something went wrong. [exception=({})]",
@@ -452,6 +470,7 @@ public class ResourceController {
             @ApiResponse(responseCode = "200", description = "Ok"),
             @ApiResponse(responseCode = "400", description = "Invalid representation"),
             @ApiResponse(responseCode = "404", description = "Not found"),
+            @ApiResponse(responseCode = "409", description = "Concurrent modification"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
     @RequestMapping(value = "/{resource-id}/{representation-id}", method = RequestMethod.PUT)
     @ResponseBody
@@ -478,6 +497,8 @@ public class ResourceController {
                 + " [exception=({})]", exception.getMessage());
             return new ResponseEntity<>("The resource could not be received. Not a " +
                 "valid resource format.", HttpStatus.BAD_REQUEST);
+        } catch (OptimisticLockingFailureException exception) {
+            return respondResourceModifiedConcurrently(resourceId);
         } catch (ResourceException exception) {
             LOGGER.warn("Failed to update the resource representation. Something went wrong."
                 + " [exception=({})]", exception.getMessage());
@@ -543,6 +564,7 @@ public class ResourceController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ok"),
             @ApiResponse(responseCode = "404", description = "Not found"),
+            @ApiResponse(responseCode = "409", description = "Concurrent modification"),
             @ApiResponse(responseCode = "500", description = "Internal server error")})
     @RequestMapping(value = "/{resource-id}/{representation-id}", method = RequestMethod.DELETE)
     @ResponseBody
@@ -572,6 +594,8 @@ public class ResourceController {
                 + " [exception=({})]", exception.getMessage());
             return new ResponseEntity<>("The resource could not be received. Not a " +
                 "valid resource format.", HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (OptimisticLockingFailureException exception) {
+            return respondResourceModifiedConcurrently(resourceId);
         } catch (ResourceException exception) {
             LOGGER.warn("Failed to delete the resource representation. Something went wrong."
                 + " [exception=({})]", exception.getMessage());
@@ -13,10 +13,12 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -25,6 +27,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.UUID;
 
@@ -40,6 +43,11 @@ public class ResourceDataController { // Header: Content-Type: application/json
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ResourceDataController.class);
 
+    /**
+     * Size of the buffer used for copying streamed data.
+     */
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     private final OfferedResourceServiceImpl offeredResourceService;
     private final RequestedResourceServiceImpl requestedResourceService;
 
@@ -245,4 +253,73 @@ public class ResourceDataController { // Header: Content-Type: application/json
                     HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Streams offered resource data by representation id. The data is copied to the response in
+     * chunks and never held in memory as a whole.
+     *
+     * @param resourceId       The resource id.
+     * @param representationId The representation id.
+     * @param offset           The first byte to return.
+     * @param length           The number of bytes to return.
+     * @return Raw data or an error response.
+     */
+    @Operation(summary = "Request Data Stream by Representation",
+            description = "Stream an offered resource's data by representation.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok"),
+            @ApiResponse(responseCode = "400", description = "Invalid query input"),
+            @ApiResponse(responseCode = "404", description = "Not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @RequestMapping(value = "/{resource-id}/{representation-id}/data/stream",
+            method = RequestMethod.POST)
+    @ResponseBody
+    public ResponseEntity<Object> streamDataByRepresentation(
+            @Parameter(description = "The resource uuid.", required = true,
+                    example = "a4212311-86e4-40b3-ace3-ef29cd687cf9")
+            @PathVariable("resource-id") UUID resourceId,
+            @Parameter(description = "The representation uuid.", required = true)
+            @PathVariable("representation-id") UUID representationId,
+            @Parameter(description = "The query parameters and headers to use when fetching the " +
+                    "data from the backend system.")
+            @RequestBody(required = false) QueryInput queryInput,
+            @Parameter(description = "The first byte to return.")
+            @RequestParam(value = "offset", defaultValue = "0") long offset,
+            @Parameter(description = "The number of bytes to return. Returns all remaining " +
+                    "bytes if not set.")
+            @RequestParam(value = "length", defaultValue = "-1") long length) {
+        try {
+            ValidationUtils.validateQueryInput(queryInput);
+            final var data = offeredResourceService.getDataStreamByRepresentation(resourceId,
+                    representationId, queryInput, offset, length);
+
+            final StreamingResponseBody body = outputStream -> {
+                try (data) {
+                    IOUtils.copyLarge(data, outputStream, new byte[STREAM_BUFFER_SIZE]);
+                }
+            };
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(body);
+        } catch (ResourceNotFoundException exception) {
+            LOGGER.debug("Could not find resource. [id=({}), exception=({})]",
+                    resourceId, exception.getMessage());
+            return new ResponseEntity<>("Resource not found.", HttpStatus.NOT_FOUND);
+        } catch (InvalidResourceException exception) {
+            LOGGER.debug("The resource could be found but was invalid. [id=({}), exception=({})]",
+                    resourceId, exception.getMessage());
+            return new ResponseEntity<>("Resource not found.", HttpStatus.NOT_FOUND);
+        } catch (ResourceException exception) {
+            LOGGER.warn("Failed to retrieve data. [id=({}), exception=({})]", resourceId,
+                    exception.getMessage());
+            return new ResponseEntity<>("Failed to load data.",
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (IllegalArgumentException exception) {
+            LOGGER.debug("Failed to fetch resource data. [id=({}), exception=({})]",
+                    resourceId, exception.getMessage());
+            return new ResponseEntity<>("Invalid query input.",
+                    HttpStatus.BAD_REQUEST);
+        }
+    }
 }
@@ -0,0 +1,104 @@
+package de.fraunhofer.isst.dataspaceconnector.controller;
+
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTracePipeline;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.sink.MemoryTraceSink;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * This class provides endpoints for querying the recent http traces.
+ */
+@RestController
+@RequestMapping("/admin/api/traces")
+@Tag(name = "Connector: Tracing", description = "Endpoints for http traces")
+public class TraceController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final HttpTracePipeline tracePipeline;
+    private final MemoryTraceSink memoryTraceSink;
+
+    /**
+     * Constructor for TraceController.
+     *
+     * @param tracePipeline The pipeline passing traces to the sinks
+     * @param memoryTraceSink The sink keeping the recent traces
+     * @throws IllegalArgumentException if one of the parameters is null.
+     */
+    @Autowired
+    public TraceController(HttpTracePipeline tracePipeline, MemoryTraceSink memoryTraceSink)
+        throws IllegalArgumentException {
+        if (tracePipeline == null)
+            throw new IllegalArgumentException("The HttpTracePipeline cannot be null.");
+
+        if (memoryTraceSink == null)
+            throw new IllegalArgumentException("The MemoryTraceSink cannot be null.");
+
+        this.tracePipeline = tracePipeline;
+        this.memoryTraceSink = memoryTraceSink;
+    }
+
+    /**
+     * Returns the recent http traces, newest first.
+     *
+     * @param traceId The trace id of a request.
+     * @param status The response status.
+     * @param limit The maximum number of traces.
+     * @return The traces or an error response.
+     */
+    @Operation(summary = "Recent Http Traces",
+        description = "Get the recent http traces kept by the memory trace sink, newest first.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ok"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit"),
+        @ApiResponse(responseCode = "404", description = "The memory trace sink is not enabled")})
+    @RequestMapping(value = "", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseEntity<Object> getTraces(
+        @Parameter(description = "The trace id of a request.")
+        @RequestParam(value = "traceId", required = false) UUID traceId,
+        @Parameter(description = "The response status.")
+        @RequestParam(value = "status", required = false) Integer status,
+        @Parameter(description = "The maximum number of traces.")
+        @RequestParam(value = "limit", required = false, defaultValue = "100") int limit) {
+        if (!tracePipeline.isEnabled(MemoryTraceSink.NAME)) {
+            return new ResponseEntity<>("The memory trace sink is not enabled.",
+                HttpStatus.NOT_FOUND);
+        }
+
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return new ResponseEntity<>("The limit has to be between 1 and " + MAX_LIMIT + ".",
+                HttpStatus.BAD_REQUEST);
+        }
+
+        return new ResponseEntity<>(memoryTraceSink.find(traceId, status, limit), HttpStatus.OK);
+    }
+
+    /**
+     * Returns the statistics of the trace pipeline.
+     *
+     * @return The pipeline statistics.
+     */
+    @Operation(summary = "Http Trace Statistics",
+        description = "Get the queued, dropped, written and failed trace counts and the enabled "
+            + "trace sinks.")
+    @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Ok") })
+    @RequestMapping(value = "/statistics", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseEntity<Object> getStatistics() {
+        return new ResponseEntity<>(tracePipeline.getStatistics(), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,19 @@
+package de.fraunhofer.isst.dataspaceconnector.exceptions.message;
+
+/**
+ * Thrown to indicate that the recipient answered a message with a rejection or another
+ * unexpected response.
+ */
+public class MessageRejectedException extends MessageResponseException {
+    //Default serial version uid
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Construct a MessageRejectedException with the specified detail message.
+     *
+     * @param msg The detail message.
+     */
+    public MessageRejectedException(String msg) {
+        super(msg);
+    }
+}
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 /**
- * This class stores information about a http connection
+ * This class stores information about a http connection. Bodies are cut off after the configured
+ * maximum size, their sizes give the full length.
  */
 @Data
 @JsonInclude(Include.NON_NULL)
@@ -21,8 +22,13 @@ public class HttpTrace {
     public String method;
     public String url;
     public String body;
+    public Long bodySize;
     public String headers;
     public int status;
     public String client;
     public String parameterMap;
+    public String responseBody;
+    public Long responseBodySize;
+    public String responseHeaders;
+    public Long duration;
 }
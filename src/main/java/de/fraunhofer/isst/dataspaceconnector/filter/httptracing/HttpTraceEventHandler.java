@@ -1,10 +1,8 @@
 package de.fraunhofer.isst.dataspaceconnector.filter.httptracing;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 /**
@@ -13,27 +11,38 @@ import org.springframework.stereotype.Component;
 @Component
 public class HttpTraceEventHandler {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(HttpTraceEventHandler.class);
     private final ApplicationEventPublisher publisher;
+    private final HttpTracePipeline pipeline;
 
     /**
      * Constructor
      *
      * @param publisher The http trace event publisher
+     * @param pipeline The pipeline writing the traces to the trace sinks
+     * @throws IllegalArgumentException if any of the parameters is null.
      */
-    HttpTraceEventHandler(ApplicationEventPublisher publisher) {
+    @Autowired
+    HttpTraceEventHandler(ApplicationEventPublisher publisher, HttpTracePipeline pipeline)
+        throws IllegalArgumentException {
+        if (publisher == null)
+            throw new IllegalArgumentException("The ApplicationEventPublisher cannot be null.");
+
+        if (pipeline == null)
+            throw new IllegalArgumentException("The HttpTracePipeline cannot be null.");
+
         this.publisher = publisher;
+        this.pipeline = pipeline;
     }
 
     /**
-     * Processes raised HttpTraceEvents
+     * Processes raised HttpTraceEvents. The trace is queued for the trace sinks without
+     * blocking, or dropped if the queue is full.
      *
      * @param trace The HttpTrace that needs to be processed
      */
-    @Async
     @EventListener
     public void handleHttpTraceEvent(HttpTrace trace) {
-        LOGGER.info("{}", trace);
+        pipeline.offer(trace);
     }
 
     /**
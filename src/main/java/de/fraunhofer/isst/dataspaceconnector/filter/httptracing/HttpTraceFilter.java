@@ -1,140 +1,212 @@
 package de.fraunhofer.isst.dataspaceconnector.filter.httptracing;
 
+import de.fraunhofer.isst.dataspaceconnector.config.HttpTraceConfiguration;
 import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.internal.RequestWrapper;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.internal.ResponseWrapper;
 import de.fraunhofer.isst.dataspaceconnector.services.utils.UUIDUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.WebUtils;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
 
 /**
- * Use this class to log all incoming and outgoing http traffic.
+ * Use this class to log incoming http requests together with their responses. Every request gets
+ * a trace id, see {@link TraceContext}. Only a share of the requests is traced
+ * (http.trace.sample-rate), bodies are kept up to http.trace.max-body-size bytes while they pass
+ * through, and the paths in http.trace.excluded-paths are not traced at all. Requests that are
+ * not traced are not wrapped.
  */
 @Component
 @Order(1)
 public class HttpTraceFilter extends OncePerRequestFilter {
 
-    private UUID traceId;
+    private static final String TRACE_ATTRIBUTE = HttpTraceFilter.class.getName() + ".TRACE";
+
     private final HttpTraceEventHandler eventHandler;
+    private final HttpTraceConfiguration traceConfiguration;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
 
     /**
      * Constructor
      *
      * @param eventHandler The handler responsible for HttpTrace events raised by this class
+     * @param traceConfiguration The settings for sampling and body capture
+     * @throws IllegalArgumentException if any of the parameters is null.
      */
-    public HttpTraceFilter(HttpTraceEventHandler eventHandler) {
+    @Autowired
+    public HttpTraceFilter(HttpTraceEventHandler eventHandler,
+        HttpTraceConfiguration traceConfiguration) throws IllegalArgumentException {
+        if (eventHandler == null)
+            throw new IllegalArgumentException("The HttpTraceEventHandler cannot be null.");
+
+        if (traceConfiguration == null)
+            throw new IllegalArgumentException("The HttpTraceConfiguration cannot be null.");
+
         this.eventHandler = eventHandler;
+        this.traceConfiguration = traceConfiguration;
     }
 
     private static UUID generateUUID() {
         return UUIDUtils.createUUID(uuid -> false);
     }
 
+    /**
+     * Asynchronous requests are dispatched a second time to write the response, the response
+     * trace has to be taken then.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    /**
+     * Requests to excluded paths, e.g. data up- and downloads, are not traced.
+     */
+    private boolean isExcluded(HttpServletRequest request) {
+        final var excludedPaths = traceConfiguration.getExcludedPaths();
+        if (excludedPaths == null || excludedPaths.length == 0) {
+            return false;
+        }
+
+        final var path = urlPathHelper.getPathWithinApplication(request);
+        for (final var pattern : excludedPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Binds the trace id of the request to the current thread. A trace id received from another
+     * connector is kept, otherwise a new one is created. The id is returned in the response.
+     */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
         FilterChain filterChain) throws ServletException, IOException {
-        final var requestWrapper = new RequestWrapper(request);
-        final var responseWrapper = new ContentCachingResponseWrapper(response);
+        var traceId = (UUID) request.getAttribute(TraceContext.ATTRIBUTE);
+        if (traceId == null) {
+            traceId = TraceContext.parse(request.getHeader(TraceContext.HEADER));
+            if (traceId == null) {
+                traceId = generateUUID();
+            }
 
-        traceId = generateUUID();
-        beforeRequest(requestWrapper);
+            request.setAttribute(TraceContext.ATTRIBUTE, traceId);
+            response.setHeader(TraceContext.HEADER, traceId.toString());
+        }
 
+        TraceContext.setTraceId(traceId.toString());
         try {
-            filterChain.doFilter(requestWrapper, responseWrapper);
+            traceRequest(traceId, request, response, filterChain);
         } finally {
-            afterRequest(responseWrapper);
-            responseWrapper.copyBodyToResponse();
+            TraceContext.setTraceId(null);
         }
     }
 
-    private void beforeRequest(RequestWrapper request) {
-        final var trace = new HttpTrace();
-        trace.id = traceId;
-        trace.timestamp = LocalDateTime.now();
-        trace.url = request.getRequestURI();
-        trace.method = request.getMethod();
-        trace.client = request.getRemoteAddr();
-
-        trace.headers = "{";
-        var headerNames = request.getHeaderNames();
-        while (headerNames.hasMoreElements()) {
-            var key = headerNames.nextElement();
-            var value = request.getHeader(key);
-            trace.headers += key + ": " + value;
-
-            if (headerNames.hasMoreElements()) {
-                trace.headers += ", ";
+    private void traceRequest(UUID traceId, HttpServletRequest request,
+        HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        var trace = (HttpTrace) request.getAttribute(TRACE_ATTRIBUTE);
+        if (!isAsyncDispatch(request)) {
+            if (isExcluded(request) || !isSampled()) {
+                filterChain.doFilter(request, response);
+                return;
             }
+
+            trace = beforeRequest(traceId, request);
+            request.setAttribute(TRACE_ATTRIBUTE, trace);
+        } else if (trace == null) {
+            // The request has not been traced on its first dispatch.
+            filterChain.doFilter(request, response);
+            return;
         }
-        trace.headers += "}";
 
-        trace.parameterMap = "{";
-        var parameterNames = request.getParameterNames();
-        while (parameterNames.hasMoreElements()) {
-            var key = parameterNames.nextElement();
-            var value = request.getHeader(key);
-            trace.parameterMap += key + ": " + value;
+        // On an async dispatch, request and response are still wrapped from the first dispatch.
+        var requestWrapper = WebUtils.getNativeRequest(request, RequestWrapper.class);
+        if (requestWrapper == null) {
+            requestWrapper = new RequestWrapper(request, traceConfiguration.getMaxBodySize());
+        }
 
-            if (parameterNames.hasMoreElements()) {
-                trace.parameterMap += ", ";
-            }
+        var responseWrapper = WebUtils.getNativeResponse(response, ResponseWrapper.class);
+        if (responseWrapper == null) {
+            responseWrapper = new ResponseWrapper(response, traceConfiguration.getMaxBodySize());
         }
-        trace.parameterMap += "}";
 
-        try{
-            trace.body = new String(request.getRequestBody(), StandardCharsets.UTF_8);
-        }catch(IOException exception){
-            exception.printStackTrace();
+        try {
+            filterChain.doFilter(requestWrapper, responseWrapper);
+        } finally {
+            if (!isAsyncStarted(requestWrapper)) {
+                afterRequest(trace, requestWrapper, responseWrapper);
+            }
         }
+    }
 
-        eventHandler.sendHttpTraceEvent(trace);
+    private boolean isSampled() {
+        final var sampleRate = traceConfiguration.getSampleRate();
+        return sampleRate >= 1 || (sampleRate > 0
+            && ThreadLocalRandom.current().nextDouble() < sampleRate);
     }
 
-    private void afterRequest(
-        ContentCachingResponseWrapper responseWrapper) {
+    private HttpTrace beforeRequest(UUID traceId, HttpServletRequest request) {
         final var trace = new HttpTrace();
         trace.id = traceId;
         trace.timestamp = LocalDateTime.now();
-        trace.status = responseWrapper.getStatus();
-        trace.body = getResponseAsPayload(responseWrapper);
+        trace.url = request.getRequestURI();
+        trace.method = request.getMethod();
+        trace.client = request.getRemoteAddr();
+        trace.headers = format(Collections.list(request.getHeaderNames()), request::getHeader);
+        return trace;
+    }
 
-        trace.headers = "{";
-        var headerNames = responseWrapper.getHeaderNames();
-        for (var key : headerNames) {
-            var value = responseWrapper.getHeader(key);
-            trace.headers += key + ": " + value;
+    private void afterRequest(HttpTrace trace, RequestWrapper request,
+        ResponseWrapper response) {
+        // Parameters are read last, a form body has been consumed by the application then.
+        trace.parameterMap = format(Collections.list(request.getParameterNames()),
+            request::getParameter);
 
-            if (key != headerNames.toArray()[headerNames.toArray().length - 1]) {
-                trace.headers += ", ";
-            }
-        }
-        trace.headers += "}";
+        final var requestBody = request.getRequestBody();
+        trace.body = requestBody.toString(request.getCharset());
+        trace.bodySize = requestBody.getTotal();
+
+        final var responseBody = response.getResponseBody();
+        trace.status = response.getStatus();
+        trace.responseHeaders = format(response.getHeaderNames(), response::getHeader);
+        trace.responseBody = responseBody.toString(response.getCharset());
+        trace.responseBodySize = responseBody.getTotal();
+        trace.duration = Duration.between(trace.timestamp, LocalDateTime.now()).toMillis();
 
         eventHandler.sendHttpTraceEvent(trace);
     }
 
-    private String getResponseAsPayload(ContentCachingResponseWrapper wrappedResponse) {
-        try {
-            if (wrappedResponse.getContentSize() <= 0) {
-                return "";
+    private static String format(Collection<String> names, Function<String, String> values) {
+        final var builder = new StringBuilder("{");
+        for (final var name : names) {
+            if (builder.length() > 1) {
+                builder.append(", ");
             }
 
-            return new String(wrappedResponse.getContentAsByteArray(), 0,
-                wrappedResponse.getContentSize(),
-                wrappedResponse.getCharacterEncoding());
-        } catch (UnsupportedEncodingException e) {
-            return "ERROR";
+            builder.append(name).append(": ").append(values.apply(name));
         }
+
+        return builder.append('}').toString();
     }
 }
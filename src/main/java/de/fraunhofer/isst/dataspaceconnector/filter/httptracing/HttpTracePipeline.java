@@ -0,0 +1,225 @@
+package de.fraunhofer.isst.dataspaceconnector.filter.httptracing;
+
+import de.fraunhofer.isst.dataspaceconnector.config.HttpTraceConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.sink.HttpTraceSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * This class passes http traces from the request threads to the trace sinks. Traces are put into
+ * a bounded lock-free queue, so tracing never blocks a request. If the queue is full, the trace
+ * is dropped and counted. A single writer thread takes the traces from the queue in batches and
+ * hands them to the sinks listed in http.trace.sinks.
+ */
+@Component
+public class HttpTracePipeline implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpTracePipeline.class);
+
+    private final Queue<HttpTrace> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private final int capacity;
+    private final int batchSize;
+    private final List<HttpTraceSink> sinks;
+    private final ScheduledExecutorService writer;
+
+    /**
+     * Constructor for HttpTracePipeline.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public HttpTracePipeline(HttpTraceConfiguration traceConfiguration,
+        List<HttpTraceSink> sinks) throws IllegalArgumentException {
+        if (traceConfiguration == null)
+            throw new IllegalArgumentException("The HttpTraceConfiguration cannot be null.");
+
+        if (sinks == null)
+            throw new IllegalArgumentException("The HttpTraceSinks cannot be null.");
+
+        this.capacity = Math.max(1, traceConfiguration.getQueueCapacity());
+        this.batchSize = Math.max(1, traceConfiguration.getBatchSize());
+
+        final var enabled = traceConfiguration.getSinks() == null ? List.<String>of()
+            : Arrays.stream(traceConfiguration.getSinks())
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+        this.sinks = sinks.stream()
+            .filter(sink -> enabled.contains(sink.getName()))
+            .collect(Collectors.toList());
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "http-trace-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final var interval = Math.max(1, traceConfiguration.getFlushInterval());
+        this.writer.scheduleWithFixedDelay(this::flush, interval, interval,
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds a trace to the queue without blocking.
+     *
+     * @param trace the trace.
+     * @return true, if the trace has been queued; false, if it has been dropped.
+     */
+    public boolean offer(HttpTrace trace) {
+        if (sinks.isEmpty()) {
+            return false;
+        }
+
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            // Warn once per queue length of dropped traces, not for every trace.
+            final var count = dropped.incrementAndGet();
+            if ((count - 1) % capacity == 0) {
+                LOGGER.warn("Dropped http traces, the trace queue is full. [dropped=({})]",
+                    count);
+            }
+
+            return false;
+        }
+
+        queue.offer(trace);
+        return true;
+    }
+
+    /**
+     * Writes the queued traces to the sinks. Traces queued during the flush wait for the next
+     * one, so a flush ends under constant traffic. Called by the writer thread; only one flush
+     * runs at a time.
+     */
+    public synchronized void flush() {
+        final var batch = new ArrayList<HttpTrace>(batchSize);
+        var remaining = queued.get();
+        HttpTrace trace;
+        while (remaining-- > 0 && (trace = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(trace);
+            if (batch.size() >= batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Checks if a sink receives traces.
+     *
+     * @param name the name of the sink.
+     * @return true, if the sink is listed in http.trace.sinks.
+     */
+    public boolean isEnabled(String name) {
+        return sinks.stream().anyMatch(sink -> sink.getName().equals(name));
+    }
+
+    /**
+     * Returns the current pipeline statistics.
+     *
+     * @return the statistics.
+     */
+    public Statistics getStatistics() {
+        return new Statistics(queued.get(), dropped.get(), written.get(), failed.get(),
+            sinks.stream().map(HttpTraceSink::getName).collect(Collectors.toList()));
+    }
+
+    /**
+     * Writes the remaining traces on shutdown.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private void write(List<HttpTrace> batch) {
+        for (final var sink : sinks) {
+            try {
+                sink.write(batch);
+            } catch (RuntimeException exception) {
+                // A failing sink must neither stop the writer nor the other sinks.
+                failed.addAndGet(batch.size());
+                LOGGER.warn("Failed to write http traces. [sink=({}), traces=({}), "
+                    + "exception=({})]", sink.getName(), batch.size(), exception.getMessage());
+            }
+        }
+
+        written.addAndGet(batch.size());
+    }
+
+    /**
+     * The statistics of the pipeline.
+     */
+    public static class Statistics {
+        private final int queued;
+        private final long dropped;
+        private final long written;
+        private final long failed;
+        private final List<String> sinks;
+
+        /**
+         * Constructor for Statistics.
+         *
+         * @param queued number of traces waiting for the writer.
+         * @param dropped number of traces dropped because the queue was full.
+         * @param written number of traces passed to the sinks.
+         * @param failed number of traces a sink failed to write.
+         * @param sinks names of the enabled sinks.
+         */
+        public Statistics(int queued, long dropped, long written, long failed,
+            List<String> sinks) {
+            this.queued = queued;
+            this.dropped = dropped;
+            this.written = written;
+            this.failed = failed;
+            this.sinks = sinks;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public long getWritten() {
+            return written;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public List<String> getSinks() {
+            return sinks;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package de.fraunhofer.isst.dataspaceconnector.filter.httptracing;
+
+import org.slf4j.MDC;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * This class holds the trace id of the request that is processed by the current thread. The
+ * {@link HttpTraceFilter} sets it for every incoming request, it is logged with every message
+ * (MDC key traceId) and sent along with outgoing IDS messages and backend requests, so a request
+ * can be followed through this and the next connector.
+ */
+public final class TraceContext {
+
+    /**
+     * The http header carrying the trace id.
+     */
+    public static final String HEADER = "X-Trace-Id";
+
+    /**
+     * The MDC key of the trace id.
+     */
+    public static final String MDC_KEY = "traceId";
+
+    /**
+     * The request attribute holding the trace id, it is kept for asynchronous dispatches.
+     */
+    public static final String ATTRIBUTE = TraceContext.class.getName() + ".ID";
+
+    private TraceContext() {
+    }
+
+    /**
+     * Returns the trace id of the current thread.
+     *
+     * @return the trace id or null, if the thread does not process a request.
+     */
+    public static String getTraceId() {
+        return MDC.get(MDC_KEY);
+    }
+
+    /**
+     * Sets the trace id of the current thread.
+     *
+     * @param traceId the trace id, null to remove it.
+     */
+    public static void setTraceId(String traceId) {
+        if (traceId == null) {
+            MDC.remove(MDC_KEY);
+        } else {
+            MDC.put(MDC_KEY, traceId);
+        }
+    }
+
+    /**
+     * Reads a trace id received from another connector. Only UUIDs are accepted, so the header
+     * cannot inject arbitrary text into the logs.
+     *
+     * @param header the value of the trace header.
+     * @return the trace id or null, if the header is missing or no UUID.
+     */
+    public static UUID parse(String header) {
+        if (header == null || header.length() != 36) {
+            return null;
+        }
+
+        try {
+            return UUID.fromString(header);
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Adds the trace header of the current thread to the headers of an outgoing request.
+     *
+     * @param headers the headers, may be null.
+     * @return a copy of the headers including the trace header, if there is a trace id.
+     */
+    public static Map<String, String> withTraceHeader(Map<String, String> headers) {
+        final var result = headers == null
+            ? new HashMap<String, String>() : new HashMap<>(headers);
+        final var traceId = getTraceId();
+        if (traceId != null) {
+            result.put(HEADER, traceId);
+        }
+
+        return result;
+    }
+
+    /**
+     * Runs a call on an executor with the trace id of the current thread. The id is kept until
+     * the returned future is completed, so the dependent stages that are completed by the
+     * executor thread (e.g. thenApply, thenCompose or handle) run with the same trace id, and
+     * further messages sent by them carry it as well.
+     *
+     * @param call the call.
+     * @param executor the executor running the call.
+     * @param <T> the result type of the call.
+     * @return the future result of the call.
+     * @throws RejectedExecutionException if the executor does not accept the call.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> call, Executor executor)
+        throws RejectedExecutionException {
+        final var traceId = getTraceId();
+        final var future = new CompletableFuture<T>();
+        executor.execute(() -> {
+            final var previous = getTraceId();
+            setTraceId(traceId);
+            try {
+                final T result;
+                try {
+                    result = call.get();
+                } catch (Throwable throwable) {
+                    // Wrapped like CompletableFuture.supplyAsync does.
+                    future.completeExceptionally(throwable instanceof CompletionException
+                        ? throwable : new CompletionException(throwable));
+                    return;
+                }
+
+                future.complete(result);
+            } finally {
+                setTraceId(previous);
+            }
+        });
+
+        return future;
+    }
+}
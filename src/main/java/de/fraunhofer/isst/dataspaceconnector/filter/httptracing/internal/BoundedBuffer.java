@@ -0,0 +1,108 @@
+package de.fraunhofer.isst.dataspaceconnector.filter.httptracing.internal;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Keeps the first bytes of a message body up to a limit. Bytes beyond the limit are only counted.
+ * The buffer is sized by the expected length of the body, so it is usually allocated once.
+ */
+public class BoundedBuffer {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final int limit;
+    private byte[] bytes;
+    private int size;
+    private long total;
+
+    /**
+     * Constructor for BoundedBuffer.
+     *
+     * @param expectedSize the expected length of the body, negative if unknown.
+     * @param limit the maximum number of bytes to keep.
+     */
+    public BoundedBuffer(long expectedSize, int limit) {
+        this.limit = Math.max(limit, 0);
+
+        final long capacity = expectedSize < 0 ? DEFAULT_CAPACITY : expectedSize;
+        this.bytes = new byte[(int) Math.min(capacity, this.limit)];
+    }
+
+    /**
+     * Adds a single byte.
+     *
+     * @param b the byte.
+     */
+    public void write(int b) {
+        total++;
+        if (size < limit) {
+            ensureCapacity(size + 1);
+            bytes[size++] = (byte) b;
+        }
+    }
+
+    /**
+     * Adds a range of bytes.
+     *
+     * @param b the bytes.
+     * @param off the start of the range.
+     * @param len the length of the range.
+     */
+    public void write(byte[] b, int off, int len) {
+        if (len <= 0) {
+            return;
+        }
+
+        total += len;
+        final var kept = Math.min(len, limit - size);
+        if (kept > 0) {
+            ensureCapacity(size + kept);
+            System.arraycopy(b, off, bytes, size, kept);
+            size += kept;
+        }
+    }
+
+    /**
+     * Counts bytes without keeping them.
+     *
+     * @param len the number of bytes.
+     */
+    public void skip(long len) {
+        if (len > 0) {
+            total += len;
+        }
+    }
+
+    /**
+     * @return the number of bytes that are still kept.
+     */
+    public int getRemaining() {
+        return limit - size;
+    }
+
+    /**
+     * @return the number of bytes written, including the ones that were not kept.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Decodes the kept bytes.
+     *
+     * @param charset the charset of the body.
+     * @return the kept part of the body.
+     */
+    public String toString(Charset charset) {
+        return new String(bytes, 0, size, charset);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            // Only reached if the expected size was wrong or unknown.
+            final var grown = Math.max(capacity, Math.max(bytes.length * 2, DEFAULT_CAPACITY));
+            bytes = Arrays.copyOf(bytes, Math.min(grown, limit));
+        }
+    }
+}
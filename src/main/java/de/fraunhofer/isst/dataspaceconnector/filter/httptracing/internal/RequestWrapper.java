@@ -1,54 +1,43 @@
 package de.fraunhofer.isst.dataspaceconnector.filter.httptracing.internal;
 
-import com.google.common.primitives.Bytes;
-
 import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
-import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
- * Use this class to wrap incoming HTTP requests too read the message payload multiple times.
+ * Use this class to wrap incoming HTTP requests to trace the message payload. The payload is not
+ * read in advance: the bytes are kept while the application reads them, up to a limit, so large
+ * uploads still pass through as a stream.
  */
 public class RequestWrapper extends HttpServletRequestWrapper {
 
-    private byte[] requestBody = new byte[0];
-    private boolean isBufferFilled = false;
+    private final BoundedBuffer requestBody;
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
 
     /**
      * The Constructor
      *
      * @param request The request to be wrapped
+     * @param maxBodySize The maximum number of bytes of the body to keep
      */
-    public RequestWrapper(HttpServletRequest request) {
+    public RequestWrapper(HttpServletRequest request, int maxBodySize) {
         super(request);
+        this.requestBody = new BoundedBuffer(request.getContentLengthLong(), maxBodySize);
     }
 
     /**
-     * Get the request body of the message
+     * Get the part of the request body that has been read so far, up to the limit.
      *
      * @return The request body
-     * @throws IOException if the request body could not be read
      */
-    public byte[] getRequestBody() throws IOException {
-        if (isBufferFilled) {
-            return Arrays.copyOf(requestBody, requestBody.length);
-        }
-
-        var inputStream = super.getInputStream();
-        if(inputStream != null){
-            var buffer = new byte[128];
-            var bytesRead = 0;
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                requestBody = Bytes.concat(requestBody, Arrays.copyOfRange(buffer, 0, bytesRead));
-            }
-
-            isBufferFilled = true;
-        }
-
+    public BoundedBuffer getRequestBody() {
         return requestBody;
     }
 
@@ -60,34 +49,78 @@ public class RequestWrapper extends HttpServletRequestWrapper {
      */
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        return new CustomServletInputStream(getRequestBody());
+        if (inputStream == null) {
+            inputStream = new TracingServletInputStream(super.getInputStream(), requestBody);
+        }
+
+        return inputStream;
+    }
+
+    /**
+     * Get the request body of the message as reader
+     *
+     * @return The request body as reader
+     * @throws IOException if the request body could not be read
+     */
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), getCharset()));
+        }
+
+        return reader;
+    }
+
+    /**
+     * @return The charset of the request, UTF-8 if none is given.
+     */
+    public Charset getCharset() {
+        final var encoding = getCharacterEncoding();
+        return encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
     }
 
-    private static class CustomServletInputStream extends ServletInputStream {
-        private final ByteArrayInputStream buffer;
+    private static class TracingServletInputStream extends ServletInputStream {
+        private final ServletInputStream delegate;
+        private final BoundedBuffer buffer;
 
-        public CustomServletInputStream(byte[] contents) {
-            this.buffer = new ByteArrayInputStream(contents);
+        TracingServletInputStream(ServletInputStream delegate, BoundedBuffer buffer) {
+            this.delegate = delegate;
+            this.buffer = buffer;
         }
 
         @Override
-        public int read() {
-            return buffer.read();
+        public int read() throws IOException {
+            final var b = delegate.read();
+            if (b != -1) {
+                buffer.write(b);
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final var bytesRead = delegate.read(b, off, len);
+            if (bytesRead > 0) {
+                buffer.write(b, off, bytesRead);
+            }
+
+            return bytesRead;
         }
 
         @Override
         public boolean isFinished() {
-            return buffer.available() == 0;
+            return delegate.isFinished();
         }
 
         @Override
         public boolean isReady() {
-            return true;
+            return delegate.isReady();
         }
 
         @Override
         public void setReadListener(ReadListener listener) {
-            throw new RuntimeException("Not implemented");
+            delegate.setReadListener(listener);
         }
     }
 }
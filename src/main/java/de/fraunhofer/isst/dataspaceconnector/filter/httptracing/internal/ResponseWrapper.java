@@ -0,0 +1,151 @@
+package de.fraunhofer.isst.dataspaceconnector.filter.httptracing.internal;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Use this class to wrap outgoing HTTP responses to trace the message payload. The payload is
+ * written to the client directly, only its first bytes are kept, so streamed responses are not
+ * held in memory.
+ */
+public class ResponseWrapper extends HttpServletResponseWrapper {
+
+    private final BoundedBuffer responseBody;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * The Constructor
+     *
+     * @param response The response to be wrapped
+     * @param maxBodySize The maximum number of bytes of the body to keep
+     */
+    public ResponseWrapper(HttpServletResponse response, int maxBodySize) {
+        super(response);
+        this.responseBody = new BoundedBuffer(-1, maxBodySize);
+    }
+
+    /**
+     * Get the part of the response body that has been written so far, up to the limit.
+     *
+     * @return The response body
+     */
+    public BoundedBuffer getResponseBody() {
+        return responseBody;
+    }
+
+    /**
+     * @return The charset of the response.
+     */
+    public Charset getCharset() {
+        return Charset.forName(getCharacterEncoding());
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TracingServletOutputStream(super.getOutputStream(), responseBody);
+        }
+
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new TracingWriter(super.getWriter(), responseBody,
+                getCharset()));
+        }
+
+        return writer;
+    }
+
+    private static class TracingServletOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+        private final BoundedBuffer buffer;
+
+        TracingServletOutputStream(ServletOutputStream delegate, BoundedBuffer buffer) {
+            this.delegate = delegate;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            buffer.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+
+    /**
+     * Passes characters to the writer of the response. Only the characters that still fit into
+     * the buffer are encoded for the trace.
+     */
+    private static class TracingWriter extends Writer {
+        private final PrintWriter delegate;
+        private final BoundedBuffer buffer;
+        private final Charset charset;
+
+        TracingWriter(PrintWriter delegate, BoundedBuffer buffer, Charset charset) {
+            this.delegate = delegate;
+            this.buffer = buffer;
+            this.charset = charset;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            delegate.write(cbuf, off, len);
+
+            // A character takes at least one byte, so the remaining space of the buffer limits
+            // the characters to encode. The others are counted as one byte each.
+            final var encoded = Math.min(len, buffer.getRemaining());
+            if (encoded > 0) {
+                final var bytes = new String(cbuf, off, encoded).getBytes(charset);
+                buffer.write(bytes, 0, bytes.length);
+            }
+
+            buffer.skip(len - encoded);
+        }
+
+        @Override
+        public void flush() {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package de.fraunhofer.isst.dataspaceconnector.filter.httptracing.sink;
+
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTrace;
+import de.fraunhofer.isst.dataspaceconnector.model.HttpTraceRecord;
+import de.fraunhofer.isst.dataspaceconnector.repositories.HttpTraceRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes http traces to the table of {@link HttpTraceRecord}, one transaction per batch.
+ */
+@Component
+public class DatabaseTraceSink implements HttpTraceSink {
+
+    /**
+     * The name of this sink.
+     */
+    public static final String NAME = "database";
+
+    private final HttpTraceRecordRepository httpTraceRecordRepository;
+
+    /**
+     * Constructor for DatabaseTraceSink.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public DatabaseTraceSink(HttpTraceRecordRepository httpTraceRecordRepository)
+        throws IllegalArgumentException {
+        if (httpTraceRecordRepository == null)
+            throw new IllegalArgumentException("The HttpTraceRecordRepository cannot be null.");
+
+        this.httpTraceRecordRepository = httpTraceRecordRepository;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void write(List<HttpTrace> traces) {
+        final var records = new ArrayList<HttpTraceRecord>(traces.size());
+        for (final var trace : traces) {
+            final var record = new HttpTraceRecord();
+            record.setTraceId(trace.id);
+            record.setTimestamp(trace.timestamp);
+            record.setMethod(trace.method);
+            record.setUrl(trace.url);
+            record.setClient(trace.client);
+            record.setStatus(trace.status);
+            record.setDuration(trace.duration);
+            record.setHeaders(trace.headers);
+            record.setParameterMap(trace.parameterMap);
+            record.setBody(trace.body);
+            record.setBodySize(trace.bodySize);
+            record.setResponseHeaders(trace.responseHeaders);
+            record.setResponseBody(trace.responseBody);
+            record.setResponseBodySize(trace.responseBodySize);
+            records.add(record);
+        }
+
+        httpTraceRecordRepository.saveAll(records);
+    }
+}
@@ -0,0 +1,28 @@
+package de.fraunhofer.isst.dataspaceconnector.filter.httptracing.sink;
+
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTrace;
+
+import java.util.List;
+
+/**
+ * A destination of http traces. Every sink bean whose name is listed in http.trace.sinks gets
+ * the traces from the {@link de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTracePipeline}
+ * in batches. Sinks are only called by the single writer thread of the pipeline.
+ */
+public interface HttpTraceSink {
+
+    /**
+     * Returns the name of the sink as used in http.trace.sinks.
+     *
+     * @return the name.
+     */
+    String getName();
+
+    /**
+     * Writes a batch of traces.
+     *
+     * @param traces the traces, oldest first.
+     * @throws RuntimeException if the traces could not be written.
+     */
+    void write(List<HttpTrace> traces);
+}
@@ -0,0 +1,61 @@
+package de.fraunhofer.isst.dataspaceconnector.filter.httptracing.sink;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes http traces as JSON lines to the logger httptrace. The log configuration writes them to
+ * a rolling file of their own.
+ */
+@Component
+public class LogTraceSink implements HttpTraceSink {
+
+    /**
+     * The name of this sink.
+     */
+    public static final String NAME = "log";
+
+    private static final Logger TRACE_LOGGER = LoggerFactory.getLogger("httptrace");
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for LogTraceSink.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public LogTraceSink(ObjectMapper objectMapper) throws IllegalArgumentException {
+        if (objectMapper == null)
+            throw new IllegalArgumentException("The ObjectMapper cannot be null.");
+
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void write(List<HttpTrace> traces) {
+        if (!TRACE_LOGGER.isInfoEnabled()) {
+            return;
+        }
+
+        for (final var trace : traces) {
+            try {
+                TRACE_LOGGER.info(objectMapper.writeValueAsString(trace));
+            } catch (JsonProcessingException exception) {
+                TRACE_LOGGER.info("{}", trace);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package de.fraunhofer.isst.dataspaceconnector.filter.httptracing.sink;
+
+import de.fraunhofer.isst.dataspaceconnector.config.HttpTraceConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTrace;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps the most recent http traces in memory, so they can be queried via /admin/api/traces.
+ * The oldest traces are dropped once http.trace.memory-size traces are kept.
+ */
+@Component
+public class MemoryTraceSink implements HttpTraceSink {
+
+    /**
+     * The name of this sink.
+     */
+    public static final String NAME = "memory";
+
+    private final int size;
+    private final Deque<HttpTrace> traces = new ArrayDeque<>();
+
+    /**
+     * Constructor for MemoryTraceSink.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public MemoryTraceSink(HttpTraceConfiguration traceConfiguration)
+        throws IllegalArgumentException {
+        if (traceConfiguration == null)
+            throw new IllegalArgumentException("The HttpTraceConfiguration cannot be null.");
+
+        this.size = Math.max(1, traceConfiguration.getMemorySize());
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void write(List<HttpTrace> batch) {
+        for (final var trace : batch) {
+            if (traces.size() >= size) {
+                traces.removeFirst();
+            }
+
+            traces.addLast(trace);
+        }
+    }
+
+    /**
+     * Finds recent traces, newest first.
+     *
+     * @param traceId the trace id, null for all traces.
+     * @param status the response status, null for all traces.
+     * @param limit the maximum number of traces.
+     * @return the matching traces.
+     */
+    public synchronized List<HttpTrace> find(UUID traceId, Integer status, int limit) {
+        final var result = new ArrayList<HttpTrace>(Math.min(Math.max(limit, 0), traces.size()));
+        final var iterator = traces.descendingIterator();
+        while (result.size() < limit && iterator.hasNext()) {
+            final var trace = iterator.next();
+            if ((traceId == null || traceId.equals(trace.id))
+                && (status == null || status == trace.status)) {
+                result.add(trace);
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,32 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * One artifact of a batch artifact request. The data is stored at the local resource with the
+ * given key. Without a key, the metadata of the requested resource is requested first.
+ */
+@Schema(
+        name = "ArtifactRequestItem",
+        description = "An artifact to request from another IDS connector",
+        example = "{\n" +
+                "  \"recipient\": \"https://localhost:8080/api/ids/data\",\n" +
+                "  \"requestedArtifact\": \"https://w3id.org/idsa/autogen/artifact/a4212311-86e4-40b3-ace3-ef29cd687cf9\",\n" +
+                "  \"transferContract\": \"https://w3id.org/idsa/autogen/contractAgreement/a4212311-86e4-40b3-ace3-ef29cd687cf9\",\n" +
+                "  \"key\": \"a4212311-86e4-40b3-ace3-ef29cd687cf9\"\n" +
+                "}"
+)
+@Data
+public class ArtifactRequestItem {
+
+    URI recipient;
+    URI requestedArtifact;
+    URI transferContract;
+    UUID key;
+    URI requestedResource;
+    QueryInput queryInput;
+}
@@ -6,6 +6,11 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+
 import java.io.Serializable;
 import java.net.URL;
 
@@ -18,19 +23,31 @@ import java.net.URL;
     oneOf = BackendSource.class
 )
 @Data
+@Embeddable
 @JsonInclude(Include.NON_NULL)
 public class BackendSource implements Serializable {
     //Default serial version uid
     private static final long serialVersionUID = 1L;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source_type")
     @JsonProperty("type")
     private Type type;
+    @Column(name = "source_url", length = 2048)
     @JsonProperty("url")
     private URL url;
+    @Column(name = "source_username")
     @JsonProperty("username")
     private String username;
+    @Column(name = "source_password")
     @JsonProperty("password")
     private String password;
+    @Column(name = "source_max_concurrency")
+    @JsonProperty("maxConcurrency")
+    private Integer maxConcurrency;
+    @Column(name = "source_cache_ttl")
+    @JsonProperty("cacheTtl")
+    private Long cacheTtl;
 
     /**
      * Constructor for BackendSource.
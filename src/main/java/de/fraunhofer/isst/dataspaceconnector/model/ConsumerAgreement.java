@@ -0,0 +1,97 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import lombok.Data;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.net.URI;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * This class describes a contract agreement this connector concluded as consumer for an artifact
+ * of a provider. The agreement may be reused for further requests of the artifact as long as the
+ * time lies within its validity.
+ */
+@Data
+@Entity
+@Table(indexes = @Index(columnList = "provider, artifact"))
+public class ConsumerAgreement {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Convert(converter = UriConverter.class)
+    @Column(nullable = false)
+    private URI provider;
+
+    @Convert(converter = UriConverter.class)
+    @Column(nullable = false)
+    private URI artifact;
+
+    @Convert(converter = UriConverter.class)
+    @Column(nullable = false)
+    private URI agreement;
+
+    private String policyFingerprint;
+
+    private Date validFrom;
+
+    private Date validUntil;
+
+    private Date created;
+
+    /**
+     * Constructor for ConsumerAgreement.
+     */
+    public ConsumerAgreement() {
+    }
+
+    /**
+     * Constructor with parameters for ConsumerAgreement.
+     *
+     * @param provider The connector that provides the artifact
+     * @param artifact The artifact the agreement applies to
+     * @param agreement The id of the contract agreement
+     * @param policyFingerprint The fingerprint of the rules of the agreement
+     * @param validFrom The start of the validity, null if the agreement is valid from now on
+     * @param validUntil The end of the validity, null if the agreement does not expire
+     */
+    public ConsumerAgreement(URI provider, URI artifact, URI agreement, String policyFingerprint,
+        Date validFrom, Date validUntil) {
+        this.provider = provider;
+        this.artifact = artifact;
+        this.agreement = agreement;
+        this.policyFingerprint = policyFingerprint;
+        this.validFrom = validFrom;
+        this.validUntil = validUntil;
+        this.created = new Date();
+    }
+
+    /**
+     * Checks if the agreement is valid at a given time.
+     *
+     * @param date the time.
+     * @return true, if the time lies within the validity.
+     */
+    public boolean isValidAt(Date date) {
+        return (validFrom == null || !date.before(validFrom))
+            && (validUntil == null || date.before(validUntil));
+    }
+
+    /**
+     * Checks if the validity of the agreement ended before a given time.
+     *
+     * @param date the time.
+     * @return true, if the agreement has expired.
+     */
+    public boolean isExpiredAt(Date date) {
+        return validUntil != null && !date.before(validUntil);
+    }
+}
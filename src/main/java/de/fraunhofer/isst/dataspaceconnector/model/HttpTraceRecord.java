@@ -0,0 +1,59 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import lombok.Data;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * This class describes an http trace written by the database trace sink.
+ */
+@Data
+@Entity
+@Table(indexes = @Index(columnList = "traceId"))
+public class HttpTraceRecord {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    private UUID traceId;
+
+    private LocalDateTime timestamp;
+
+    private String method;
+
+    @Column(columnDefinition = "TEXT")
+    private String url;
+
+    private String client;
+
+    private int status;
+
+    private Long duration;
+
+    @Column(columnDefinition = "TEXT")
+    private String headers;
+
+    @Column(columnDefinition = "TEXT")
+    private String parameterMap;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    private Long bodySize;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseHeaders;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    private Long responseBodySize;
+}
@@ -0,0 +1,44 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import lombok.Data;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.util.UUID;
+
+/**
+ * This class maps the id of an offered representation to its resource. The primary key makes
+ * representation ids unique across all offered resources.
+ */
+@Data
+@Entity
+@Table(indexes = @Index(columnList = "resource_id"))
+public class OfferedRepresentation {
+
+    @Id
+    @Column(name = "representation_id")
+    private UUID representationId;
+
+    @Column(name = "resource_id", nullable = false)
+    private UUID resourceId;
+
+    /**
+     * Constructor for OfferedRepresentation.
+     */
+    public OfferedRepresentation() {
+    }
+
+    /**
+     * Constructor with parameters for OfferedRepresentation.
+     *
+     * @param representationId The id of the representation
+     * @param resourceId The id of the resource offering the representation
+     */
+    public OfferedRepresentation(UUID representationId, UUID resourceId) {
+        this.representationId = representationId;
+        this.resourceId = resourceId;
+    }
+}
@@ -1,12 +1,15 @@
 package de.fraunhofer.isst.dataspaceconnector.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
 import javax.persistence.Column;
+import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.NotNull;
 import java.util.Date;
 import java.util.UUID;
@@ -30,10 +33,22 @@ public class OfferedResource implements ConnectorResource {
     private Date modified;
 
     @NotNull
-    @Column(columnDefinition = "BYTEA")
+    @Embedded
     @JsonProperty("metadata")
     private ResourceMetadata resourceMetadata;
 
+    @Version
+    @JsonIgnore
+    @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private long entityVersion;
+
+    // Fingerprint of the rules of the policy, see ContractUtils#fingerprint. It is set whenever
+    // the policy is stored, so contract requests are not compared against a parsed offer.
+    @JsonIgnore
+    private String policyFingerprint;
+
+    // Payloads are kept in the ResourceDataStore. The column only holds data of older versions
+    // until it is moved on first access.
     @Column(columnDefinition = "TEXT")
     @JsonProperty("data")
     private String data;
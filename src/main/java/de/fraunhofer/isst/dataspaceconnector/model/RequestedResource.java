@@ -1,5 +1,6 @@
 package de.fraunhofer.isst.dataspaceconnector.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
@@ -14,7 +15,7 @@ import java.util.UUID;
  */
 @Data
 @Entity
-@Table
+@Table(indexes = @Index(columnList = "deletionDue"))
 public class RequestedResource implements ConnectorResource {
 
     @Id
@@ -41,17 +42,31 @@ public class RequestedResource implements ConnectorResource {
     private Date modified;
 
     @NotNull
-    @Column(columnDefinition = "BYTEA")
+    @Embedded
     @JsonProperty("metadata")
     private ResourceMetadata resourceMetadata;
 
+    // Payloads are kept in the ResourceDataStore. The column only holds data of older versions
+    // until it is moved on first access.
     @Column(columnDefinition = "TEXT")
     @JsonProperty("data")
     private String data;
 
+    // Counted by the AccessCounter, which writes the column itself.
+    @Column(updatable = false)
     @JsonProperty("accessed")
     private Integer accessed;
 
+    // Read from the DELETE post duty of the policy when the metadata is stored, so the policy
+    // enforcement finds due resources without reading every policy.
+    @JsonIgnore
+    private Date deletionDue;
+
+    // Set once the deletion date has been read from the policy. Rows of older versions have no
+    // value and get their deletion date on the next startup.
+    @JsonIgnore
+    private Boolean deletionEvaluated;
+
     /**
      * Constructor for RequestedResource.
      */
@@ -203,7 +218,6 @@ public class RequestedResource implements ConnectorResource {
      */
     @Override
     public String getData() {
-        incrementDataAccess();
         return data;
     }
 
@@ -224,7 +238,31 @@ public class RequestedResource implements ConnectorResource {
         return accessed;
     }
 
-    private void incrementDataAccess() {
-        this.accessed++;
+    /**
+     * Get the date the resource has to be deleted at
+     */
+    public Date getDeletionDue() {
+        return deletionDue;
+    }
+
+    /**
+     * Set the date the resource has to be deleted at
+     */
+    public void setDeletionDue(Date deletionDue) {
+        this.deletionDue = deletionDue;
+    }
+
+    /**
+     * Get whether the deletion date has been read from the policy
+     */
+    public Boolean getDeletionEvaluated() {
+        return deletionEvaluated;
+    }
+
+    /**
+     * Set whether the deletion date has been read from the policy
+     */
+    public void setDeletionEvaluated(Boolean deletionEvaluated) {
+        this.deletionEvaluated = deletionEvaluated;
     }
 }
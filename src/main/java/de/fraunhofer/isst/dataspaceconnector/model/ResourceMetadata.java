@@ -12,8 +12,17 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.ElementCollection;
+import javax.persistence.Embeddable;
+import javax.persistence.FetchType;
+import javax.persistence.Index;
+import javax.persistence.MapKeyColumn;
 import javax.validation.constraints.NotNull;
 import java.io.IOException;
 import java.io.Serializable;
@@ -26,7 +35,8 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
- * This class provides a model to handle data resource metadata.
+ * This class provides a model to handle data resource metadata. It is embedded into the table of
+ * its resource, keywords and representations are kept in tables of their own.
  */
 @Schema(
     name = "ResourceMetadata",
@@ -35,6 +45,7 @@ import java.util.stream.IntStream;
     example = "{\"title\":\"ExampleResource\",\"description\":\"ExampleResourceDescription\",\"policy\":\"Example policy\",\"representations\":[{\"type\":\"XML\",\"byteSize\":101,\"name\":\"Example Representation\",\"source\":{\"type\":\"local\"}}]}"
 )
 @Data
+@Embeddable
 @JsonInclude(Include.NON_NULL)
 public class ResourceMetadata implements Serializable {
     //Default serial version uid
@@ -43,32 +54,40 @@ public class ResourceMetadata implements Serializable {
     @JsonProperty("title")
     private String title;
 
+    @Column(columnDefinition = "TEXT")
     @JsonProperty("description")
     private String description;
 
-    @ElementCollection
+    @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @CollectionTable(indexes = @Index(columnList = "keywords"))
     @JsonProperty("keywords")
     private List<String> keywords;
 
-    @Column(columnDefinition = "BYTEA")
+    @Column(columnDefinition = "TEXT")
     @JsonProperty("policy")
     private String policy;
 
+    @Convert(converter = UriConverter.class)
     @JsonProperty("owner")
     private URI owner;
 
+    @Convert(converter = UriConverter.class)
     @JsonProperty("license")
     private URI license;
 
     @JsonProperty("version")
     private String version;
 
+    @Convert(converter = UriConverter.class)
     @JsonProperty("endpointDocumentation")
     private URI endpointDocumentation;
 
     @NotNull
-    @ElementCollection
-    @Column(columnDefinition = "BYTEA")
+    @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @MapKeyColumn(name = "representation_id")
+    @CollectionTable(indexes = @Index(columnList = "representation_id"))
     @JsonProperty("representations")
     @JsonSerialize(using = RepresentationsToJson.class)
     @JsonDeserialize(using = JsonToRepresentation.class)
@@ -8,8 +8,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
-import javax.persistence.Column;
-import javax.persistence.Id;
+import javax.persistence.Embeddable;
+import javax.persistence.Embedded;
 import java.io.Serializable;
 import java.net.URI;
 import java.util.UUID;
@@ -24,12 +24,12 @@ import java.util.UUID;
     example =
         "{\"uuid\":\"55795317-0aaa-4fe1-b336-b2e26a00597f\",\"type\":\"JSON\",\"byteSize\":101,\"name\":\"Example Representation\",\"source\":{\"type\":\"http-get\",\"url\":\"https://samples.openweathermap.org/data/2.5/weather?lat=35&lon=139&appid=439d4b804bc8187953eb36d2a8c26a02\"}}")
 @Data
+@Embeddable
 @JsonInclude(Include.NON_NULL)
 public class ResourceRepresentation implements Serializable {
     //Default serial version uid
     private static final long serialVersionUID = 1L;
 
-    @Id
     @JsonProperty("uuid")
     private UUID uuid;
 
@@ -42,8 +42,8 @@ public class ResourceRepresentation implements Serializable {
     @JsonProperty("name")
     private String name;
 
+    @Embedded
     @JsonProperty("source")
-    @Column(columnDefinition = "BLOB")
     private BackendSource source;
 
     /**
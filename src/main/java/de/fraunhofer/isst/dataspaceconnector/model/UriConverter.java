@@ -0,0 +1,28 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.net.URI;
+
+/**
+ * This class stores URIs as plain strings, so they can be read and filtered in SQL.
+ */
+@Converter
+public class UriConverter implements AttributeConverter<URI, String> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String convertToDatabaseColumn(URI uri) {
+        return uri == null ? null : uri.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public URI convertToEntityAttribute(String value) {
+        return value == null ? null : URI.create(value);
+    }
+}
@@ -0,0 +1,25 @@
+package de.fraunhofer.isst.dataspaceconnector.repositories;
+
+import de.fraunhofer.isst.dataspaceconnector.model.ConsumerAgreement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Interface to the repository containing the contract agreements concluded as consumer.
+ */
+@Repository
+public interface ConsumerAgreementRepository extends JpaRepository<ConsumerAgreement, UUID> {
+
+    /**
+     * Finds the agreements for an artifact of a provider.
+     *
+     * @param provider the connector that provides the artifact.
+     * @param artifact ID of the artifact.
+     * @return the agreements.
+     */
+    List<ConsumerAgreement> findByProviderAndArtifact(URI provider, URI artifact);
+}
@@ -0,0 +1,23 @@
+package de.fraunhofer.isst.dataspaceconnector.repositories;
+
+import de.fraunhofer.isst.dataspaceconnector.model.HttpTraceRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Interface to the repository containing the http traces written by the database trace sink.
+ */
+@Repository
+public interface HttpTraceRecordRepository extends JpaRepository<HttpTraceRecord, UUID> {
+
+    /**
+     * Finds the traces of a request.
+     *
+     * @param traceId the trace id of the request.
+     * @return the traces.
+     */
+    List<HttpTraceRecord> findByTraceId(UUID traceId);
+}
@@ -0,0 +1,31 @@
+package de.fraunhofer.isst.dataspaceconnector.repositories;
+
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedRepresentation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Interface to the repository containing the ids of the offered representations.
+ */
+@Repository
+public interface OfferedRepresentationRepository
+    extends JpaRepository<OfferedRepresentation, UUID> {
+
+    /**
+     * Finds the representation ids of a resource.
+     *
+     * @param resourceId ID of the resource
+     * @return the representation ids
+     */
+    List<OfferedRepresentation> findByResourceId(UUID resourceId);
+
+    /**
+     * Deletes the representation ids of a resource.
+     *
+     * @param resourceId ID of the resource
+     */
+    void deleteByResourceId(UUID resourceId);
+}
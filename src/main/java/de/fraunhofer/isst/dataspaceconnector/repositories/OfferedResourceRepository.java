@@ -2,8 +2,10 @@ package de.fraunhofer.isst.dataspaceconnector.repositories;
 
 import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -12,4 +14,12 @@ import java.util.UUID;
 @Repository
 public interface OfferedResourceRepository extends JpaRepository<OfferedResource, UUID> {
 
+    /**
+     * Finds the resources whose data is still kept in the database column, i.e. the resources
+     * stored by older versions.
+     *
+     * @return the IDs of the resources.
+     */
+    @Query("SELECT r.uuid FROM OfferedResource r WHERE r.data IS NOT NULL")
+    List<UUID> findWithLegacyData();
 }
@@ -2,8 +2,13 @@ package de.fraunhofer.isst.dataspaceconnector.repositories;
 
 import de.fraunhofer.isst.dataspaceconnector.model.RequestedResource;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -12,4 +17,77 @@ import java.util.UUID;
 @Repository
 public interface RequestedResourceRepository extends JpaRepository<RequestedResource, UUID> {
 
+    /**
+     * Finds the local copies of a resource of another connector.
+     *
+     * @param originalUUID the id of the resource at the provider.
+     * @return the requested resources.
+     */
+    List<RequestedResource> findByOriginalUUID(UUID originalUUID);
+
+    /**
+     * Finds the resources that have to be deleted by a given date.
+     *
+     * @param date the date.
+     * @return the IDs of the resources.
+     */
+    @Query("SELECT r.uuid FROM RequestedResource r WHERE r.deletionDue <= ?1")
+    List<UUID> findDueForDeletion(Date date);
+
+    /**
+     * Finds the deletion deadlines of all resources that have one.
+     *
+     * @return the resource IDs with their deadline.
+     */
+    List<DeletionDeadline> findByDeletionDueNotNull();
+
+    /**
+     * Finds the resources whose deletion date has never been read from their policy, i.e. the
+     * resources stored by older versions.
+     *
+     * @return the resources.
+     */
+    List<RequestedResource> findByDeletionEvaluatedIsNull();
+
+    /**
+     * Finds the resources whose data is still kept in the database column, i.e. the resources
+     * stored by older versions.
+     *
+     * @return the IDs of the resources.
+     */
+    @Query("SELECT r.uuid FROM RequestedResource r WHERE r.data IS NOT NULL")
+    List<UUID> findWithLegacyData();
+
+    /**
+     * Reads the number of data accesses of a resource.
+     *
+     * @param uuid the id of the resource.
+     * @return the number of accesses, null if the resource does not exist.
+     */
+    @Query("SELECT r.accessed FROM RequestedResource r WHERE r.uuid = ?1")
+    Integer findAccessedByUuid(UUID uuid);
+
+    /**
+     * Adds to the number of data accesses of a resource in a single statement, without reading
+     * or writing the rest of the row.
+     *
+     * @param uuid the id of the resource.
+     * @param count the number of new accesses.
+     * @return the number of updated rows.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RequestedResource r SET r.accessed = COALESCE(r.accessed, 0) + ?2 "
+        + "WHERE r.uuid = ?1")
+    int incrementAccessed(UUID uuid, int count);
+
+    /**
+     * The ID and deletion deadline of a requested resource.
+     */
+    interface DeletionDeadline {
+
+        UUID getUuid();
+
+        Date getDeletionDue();
+    }
 }
@@ -0,0 +1,270 @@
+package de.fraunhofer.isst.dataspaceconnector.services.messages;
+
+import de.fraunhofer.isst.dataspaceconnector.config.MessagingConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageRejectedException;
+import de.fraunhofer.isst.dataspaceconnector.model.ArtifactRequestItem;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.ValidationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * This class requests the data of many artifacts at once. Items of different recipients run
+ * concurrently, while the number of requests in flight per recipient is limited by
+ * {@link MessagingConfiguration#getBatchParallelism()}. The limit is shared by all batches, so
+ * concurrent batches for the same recipient queue behind each other. Every item is stored as
+ * soon as its response arrives, a failed item does not affect the others.
+ */
+@Service
+public class BatchDataRequestService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchDataRequestService.class);
+
+    private final DataRequestPipeline dataRequestPipeline;
+    private final int parallelism;
+    private final Map<URI, RecipientQueue> recipients = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for BatchDataRequestService.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public BatchDataRequestService(DataRequestPipeline dataRequestPipeline,
+        MessagingConfiguration messagingConfiguration) throws IllegalArgumentException {
+        if (dataRequestPipeline == null)
+            throw new IllegalArgumentException("The DataRequestPipeline cannot be null.");
+
+        if (messagingConfiguration == null)
+            throw new IllegalArgumentException("The MessagingConfiguration cannot be null.");
+
+        this.dataRequestPipeline = dataRequestPipeline;
+        this.parallelism = Math.max(1, messagingConfiguration.getBatchParallelism());
+    }
+
+    /**
+     * Requests the data of all items.
+     *
+     * @param items the artifacts to request.
+     * @return the future status of every item, in the order of the items.
+     */
+    public CompletableFuture<List<ItemResult>> fetchAll(List<ArtifactRequestItem> items) {
+        final var results = new ArrayList<CompletableFuture<ItemResult>>(items.size());
+        for (final var item : items) {
+            final var error = validate(item);
+            if (error != null) {
+                results.add(CompletableFuture.completedFuture(ItemResult.invalid(item, error)));
+            } else {
+                results.add(recipients.computeIfAbsent(item.getRecipient(),
+                    recipient -> new RecipientQueue(parallelism)).submit(item));
+            }
+        }
+
+        LOGGER.debug("Started batch artifact request. [items=({}), parallelism=({})]",
+            items.size(), parallelism);
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> results.stream().map(CompletableFuture::join)
+                .collect(Collectors.toList()));
+    }
+
+    private CompletableFuture<DataRequestPipeline.Result> fetch(ArtifactRequestItem item) {
+        try {
+            if (item.getKey() != null) {
+                return dataRequestPipeline.fetchArtifact(item.getRecipient(),
+                    item.getRequestedArtifact(), item.getTransferContract(), item.getKey(),
+                    item.getQueryInput());
+            } else {
+                return dataRequestPipeline.fetch(item.getRecipient(), item.getRequestedResource(),
+                    item.getRequestedArtifact(), item.getTransferContract(), item.getQueryInput());
+            }
+        } catch (RuntimeException exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    private static String validate(ArtifactRequestItem item) {
+        if (item == null) {
+            return "The item cannot be null.";
+        } else if (item.getRecipient() == null) {
+            return "The recipient cannot be null.";
+        } else if (item.getRequestedArtifact() == null) {
+            return "The requested artifact cannot be null.";
+        } else if (item.getKey() == null && item.getRequestedResource() == null) {
+            return "Either the key or the requested resource has to be set.";
+        }
+
+        try {
+            ValidationUtils.validateQueryInput(item.getQueryInput());
+        } catch (IllegalArgumentException exception) {
+            return "Invalid input for headers or params.";
+        }
+
+        return null;
+    }
+
+    /**
+     * The items of one recipient, of all batches, waiting for one of its permits. Items are
+     * started in the order they were submitted. Only one thread starts items at a time, so items
+     * that complete at once do not nest.
+     */
+    private final class RecipientQueue {
+
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+        private int available;
+        private boolean starting;
+
+        RecipientQueue(int permits) {
+            this.available = permits;
+        }
+
+        CompletableFuture<ItemResult> submit(ArtifactRequestItem item) {
+            final var result = new CompletableFuture<ItemResult>();
+            synchronized (this) {
+                waiting.add(() -> fetch(item).whenComplete((data, exception) -> {
+                    try {
+                        result.complete(exception == null
+                            ? ItemResult.ok(item, data) : ItemResult.failed(item, exception));
+                    } finally {
+                        release();
+                    }
+                }));
+            }
+
+            start();
+            return result;
+        }
+
+        private void release() {
+            synchronized (this) {
+                available++;
+            }
+
+            start();
+        }
+
+        private void start() {
+            synchronized (this) {
+                if (starting) {
+                    return;
+                }
+                starting = true;
+            }
+
+            Runnable next;
+            while ((next = next()) != null) {
+                next.run();
+            }
+        }
+
+        private synchronized Runnable next() {
+            if (available == 0 || waiting.isEmpty()) {
+                starting = false;
+                return null;
+            }
+
+            available--;
+            return waiting.poll();
+        }
+    }
+
+    /**
+     * The status of an item of a batch request.
+     */
+    public enum Status {
+        /**
+         * The data was requested and stored.
+         */
+        OK,
+        /**
+         * The recipient rejected a request.
+         */
+        REJECTED,
+        /**
+         * A request could not be sent or the data could not be stored.
+         */
+        FAILED,
+        /**
+         * The item is incomplete and was not requested.
+         */
+        INVALID
+    }
+
+    /**
+     * The result of an item of a batch request. The data itself is not returned, it can be read
+     * from the local resource.
+     */
+    public static class ItemResult {
+
+        private final URI recipient;
+        private final URI requestedArtifact;
+        private final Status status;
+        private final UUID key;
+        private final URI contractAgreement;
+        private final String message;
+
+        private ItemResult(ArtifactRequestItem item, Status status, UUID key,
+            URI contractAgreement, String message) {
+            this.recipient = item == null ? null : item.getRecipient();
+            this.requestedArtifact = item == null ? null : item.getRequestedArtifact();
+            this.status = status;
+            this.key = key;
+            this.contractAgreement = contractAgreement;
+            this.message = message;
+        }
+
+        static ItemResult ok(ArtifactRequestItem item, DataRequestPipeline.Result result) {
+            return new ItemResult(item, Status.OK, result.getKey(),
+                result.getContractAgreement(), null);
+        }
+
+        static ItemResult invalid(ArtifactRequestItem item, String message) {
+            return new ItemResult(item, Status.INVALID, null, null, message);
+        }
+
+        static ItemResult failed(ArtifactRequestItem item, Throwable throwable) {
+            final var exception = throwable instanceof CompletionException
+                && throwable.getCause() != null ? throwable.getCause() : throwable;
+            final var status = exception instanceof MessageRejectedException
+                ? Status.REJECTED : Status.FAILED;
+            return new ItemResult(item, status, item.getKey(), item.getTransferContract(),
+                exception.getMessage());
+        }
+
+        public URI getRecipient() {
+            return recipient;
+        }
+
+        public URI getRequestedArtifact() {
+            return requestedArtifact;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public UUID getKey() {
+            return key;
+        }
+
+        public URI getContractAgreement() {
+            return contractAgreement;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package de.fraunhofer.isst.dataspaceconnector.services.messages;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.RequestFormatException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.UUIDFormatException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.contract.ContractException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageRejectedException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageResponseException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceNotFoundException;
+import de.fraunhofer.isst.dataspaceconnector.model.QueryInput;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestedResource;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageService.ResponseType;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ArtifactMessageService;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ContractMessageService;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.DescriptionMessageService;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.ConsumerAgreementService;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.RequestedResourceServiceImpl;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.UUIDUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class requests the data of an artifact from another connector in one call. It runs the
+ * description request, the contract negotiation and the artifact request as one pipeline of
+ * asynchronous steps. Metadata of earlier requests and still valid contract agreements from the
+ * {@link ConsumerAgreementService} are reused, and the steps that do not depend on each other run
+ * at the same time.
+ */
+@Service
+public class DataRequestPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataRequestPipeline.class);
+
+    private final DescriptionMessageService descriptionMessageService;
+    private final ContractMessageService contractMessageService;
+    private final ArtifactMessageService artifactMessageService;
+    private final NegotiationService negotiationService;
+    private final RequestedResourceServiceImpl resourceService;
+    private final ConsumerAgreementService consumerAgreementService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for DataRequestPipeline.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public DataRequestPipeline(DescriptionMessageService descriptionMessageService,
+        ContractMessageService contractMessageService,
+        ArtifactMessageService artifactMessageService, NegotiationService negotiationService,
+        RequestedResourceServiceImpl requestedResourceService,
+        ConsumerAgreementService consumerAgreementService) throws IllegalArgumentException {
+        if (descriptionMessageService == null)
+            throw new IllegalArgumentException("The DescriptionMessageService cannot be null.");
+
+        if (contractMessageService == null)
+            throw new IllegalArgumentException("The ContractMessageService cannot be null.");
+
+        if (artifactMessageService == null)
+            throw new IllegalArgumentException("The ArtifactMessageService cannot be null.");
+
+        if (negotiationService == null)
+            throw new IllegalArgumentException("The NegotiationService cannot be null.");
+
+        if (requestedResourceService == null)
+            throw new IllegalArgumentException("The RequestedResourceServiceImpl cannot be null.");
+
+        if (consumerAgreementService == null)
+            throw new IllegalArgumentException("The ConsumerAgreementService cannot be null.");
+
+        this.descriptionMessageService = descriptionMessageService;
+        this.contractMessageService = contractMessageService;
+        this.artifactMessageService = artifactMessageService;
+        this.negotiationService = negotiationService;
+        this.resourceService = requestedResourceService;
+        this.consumerAgreementService = consumerAgreementService;
+        this.objectMapper = new ObjectMapper();
+    }
+
+    /**
+     * Requests the data of an artifact and stores it with the metadata of its resource.
+     *
+     * <p>Without a known contract agreement, the contract offer of the resource metadata is
+     * negotiated before the artifact is requested. With a known agreement, the artifact is
+     * requested right away and the metadata is requested at the same time if it is missing.</p>
+     *
+     * @param recipient the URI of the requested IDS connector.
+     * @param resourceId the URI of the requested resource.
+     * @param artifactId the URI of the requested artifact.
+     * @param contractId the URI of a known contract agreement, may be null.
+     * @param queryInput the query for the backend of the provider, may be null.
+     * @return the future result. It fails with a message, contract or resource exception if a
+     * step of the pipeline failed.
+     * @throws RequestFormatException if the query input could not be serialized.
+     */
+    public CompletableFuture<Result> fetch(URI recipient, URI resourceId, URI artifactId,
+        URI contractId, QueryInput queryInput) throws RequestFormatException {
+        final var query = serialize(queryInput);
+        final var knownKey = findKnownMetadata(recipient, resourceId);
+        final var knownAgreement = contractId != null ? Optional.of(contractId)
+            : consumerAgreementService.getValidAgreement(recipient, artifactId);
+
+        final var metadata = knownKey.map(CompletableFuture::completedFuture)
+            .orElseGet(() -> requestMetadata(recipient, resourceId));
+
+        final CompletableFuture<URI> agreement = knownAgreement
+            .map(CompletableFuture::completedFuture)
+            .orElseGet(() -> metadata.thenCompose(key -> negotiate(recipient, artifactId, key)));
+
+        // The artifact is requested as soon as the agreement is known, a missing description
+        // is requested at the same time.
+        final var data = agreement.thenCompose(agreementId ->
+            requestArtifact(recipient, artifactId, agreementId, query));
+
+        return metadata.thenCombine(agreement, Pair::new).thenCombine(data,
+            (pair, payload) -> store(pair.key, artifactId, pair.agreement, payload,
+                knownKey.isPresent(), knownAgreement.isPresent()));
+    }
+
+    /**
+     * Requests the data of an artifact for a resource whose metadata is already stored. Nothing
+     * is negotiated. Without a given agreement, a still valid agreement for the contract offer
+     * of the stored metadata is looked up and sent as transfer contract.
+     *
+     * @param recipient the URI of the requested IDS connector.
+     * @param artifactId the URI of the requested artifact.
+     * @param contractId the URI of the contract agreement, may be null.
+     * @param key the id of the local resource to store the data at.
+     * @param queryInput the query for the backend of the provider, may be null.
+     * @return the future result. It fails with a message or resource exception if the artifact
+     * could not be requested or stored.
+     * @throws RequestFormatException if the query input could not be serialized.
+     */
+    public CompletableFuture<Result> fetchArtifact(URI recipient, URI artifactId, URI contractId,
+        UUID key, QueryInput queryInput) throws RequestFormatException {
+        final var query = serialize(queryInput);
+        final var resource = resourceService.getResource(key);
+        if (resource == null) {
+            return CompletableFuture.failedFuture(
+                new ResourceNotFoundException("The resource does not exist."));
+        }
+
+        final var agreementId = contractId != null ? contractId : consumerAgreementService
+            .getValidAgreement(recipient, artifactId, resource.getResourceMetadata().getPolicy())
+            .orElse(null);
+
+        return requestArtifact(recipient, artifactId, agreementId, query)
+            .thenApply(payload -> store(key, artifactId, agreementId, payload, true,
+                agreementId != null));
+    }
+
+    /**
+     * Sends an artifact request.
+     *
+     * @return the future payload of the artifact response.
+     */
+    private CompletableFuture<String> requestArtifact(URI recipient, URI artifactId,
+        URI agreementId, String query) {
+        return artifactMessageService.sendRequestMessageAsync(MessageParameters.to(recipient)
+            .withArtifact(artifactId).withContract(agreementId), query)
+            .thenApply(response -> readPayload(artifactMessageService, response,
+                ResponseType.ARTIFACT_RESPONSE));
+    }
+
+    private String serialize(QueryInput queryInput) throws RequestFormatException {
+        try {
+            return objectMapper.writeValueAsString(queryInput);
+        } catch (JsonProcessingException exception) {
+            throw new RequestFormatException("Could not parse query input.", exception);
+        }
+    }
+
+    /**
+     * Requests the metadata of a resource and stores it.
+     *
+     * @return the future id of the stored resource.
+     */
+    private CompletableFuture<UUID> requestMetadata(URI recipient, URI resourceId) {
+        return descriptionMessageService.sendRequestMessageAsync(
+            MessageParameters.to(recipient).withResource(resourceId), "")
+            .thenApply(response -> {
+                final var payload = readPayload(descriptionMessageService, response,
+                    ResponseType.DESCRIPTION_RESPONSE);
+                return descriptionMessageService.saveMetadata(payload, resourceId, recipient);
+            });
+    }
+
+    /**
+     * Negotiates the contract offer of the stored resource metadata for an artifact.
+     *
+     * @return the future id of the contract agreement.
+     */
+    private CompletableFuture<URI> negotiate(URI recipient, URI artifactId, UUID key) {
+        final var offer = resourceService.getMetadata(key).getPolicy();
+        if (offer == null || offer.isBlank()) {
+            return CompletableFuture.failedFuture(
+                new ContractException("The resource has no contract offer."));
+        }
+
+        final var request = negotiationService.buildContractRequest(offer, artifactId);
+        return contractMessageService.sendRequestMessageAsync(
+            MessageParameters.to(recipient).withContract(request.getId()), request.toRdf())
+            .thenApply(response -> {
+                final var payload = readPayload(contractMessageService, response,
+                    ResponseType.CONTRACT_AGREEMENT);
+                final var agreementId = negotiationService
+                    .contractAccepted(recipient, response.get("header"), payload);
+                if (agreementId == null) {
+                    throw new ContractException("Received invalid contract agreement.");
+                }
+
+                return agreementId;
+            });
+    }
+
+    /**
+     * Stores the requested data and the contract it was requested with.
+     *
+     * @return the result of the pipeline.
+     */
+    private Result store(UUID key, URI artifactId, URI agreementId, String payload,
+        boolean reusedMetadata, boolean reusedAgreement) throws ResourceException {
+        resourceService.updateContract(key, artifactId, agreementId);
+        artifactMessageService.saveData(payload, key);
+
+        LOGGER.debug("Requested artifact data. [key=({}), artifactId=({}), agreementId=({}), "
+                + "reusedMetadata=({}), reusedAgreement=({})]", key, artifactId, agreementId,
+            reusedMetadata, reusedAgreement);
+        return new Result(key, agreementId, payload, reusedMetadata, reusedAgreement);
+    }
+
+    /**
+     * Reads the payload of a response and checks its type.
+     *
+     * @throws MessageResponseException if the response could not be read.
+     * @throws MessageRejectedException if the response has another type.
+     */
+    private static String readPayload(MessageService messageService, Map<String, String> response,
+        ResponseType expected) throws MessageResponseException {
+        if (response == null) {
+            throw new MessageResponseException("Failed to read the ids response message.");
+        }
+
+        final var type = messageService.getResponseType(response.get("header"));
+        if (type != expected) {
+            throw new MessageRejectedException((type == null ? "Unexpected response" : type)
+                + ": " + response.get("payload"));
+        }
+
+        return response.get("payload");
+    }
+
+    /**
+     * Looks up the most recently modified local copy of a resource of the recipient.
+     *
+     * @return the id of the local copy, empty if the metadata has not been requested yet.
+     */
+    private Optional<UUID> findKnownMetadata(URI recipient, URI resourceId) {
+        final UUID originalUUID;
+        try {
+            originalUUID = UUIDUtils.uuidFromUri(resourceId);
+        } catch (UUIDFormatException exception) {
+            return Optional.empty();
+        }
+
+        final var resources = resourceService.getResourcesByOriginalUUID(originalUUID);
+        if (resources == null) {
+            return Optional.empty();
+        }
+
+        return resources.stream()
+            .filter(resource -> recipient.equals(resource.getOwnerURI()))
+            .max(Comparator.comparing(RequestedResource::getModified,
+                Comparator.nullsFirst(Comparator.naturalOrder())))
+            .map(RequestedResource::getUuid);
+    }
+
+    /**
+     * The result of a pipeline run.
+     */
+    public static class Result {
+
+        private final UUID key;
+        private final URI contractAgreement;
+        private final String data;
+        private final boolean reusedMetadata;
+        private final boolean reusedAgreement;
+
+        Result(UUID key, URI contractAgreement, String data, boolean reusedMetadata,
+            boolean reusedAgreement) {
+            this.key = key;
+            this.contractAgreement = contractAgreement;
+            this.data = data;
+            this.reusedMetadata = reusedMetadata;
+            this.reusedAgreement = reusedAgreement;
+        }
+
+        /**
+         * @return the id of the local resource the data is stored at.
+         */
+        public UUID getKey() {
+            return key;
+        }
+
+        public URI getContractAgreement() {
+            return contractAgreement;
+        }
+
+        public String getData() {
+            return data;
+        }
+
+        public boolean isReusedMetadata() {
+            return reusedMetadata;
+        }
+
+        public boolean isReusedAgreement() {
+            return reusedAgreement;
+        }
+    }
+
+    private static class Pair {
+        private final UUID key;
+        private final URI agreement;
+
+        Pair(UUID key, URI agreement) {
+            this.key = key;
+            this.agreement = agreement;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package de.fraunhofer.isst.dataspaceconnector.services.messages;
+
+import de.fraunhofer.isst.dataspaceconnector.config.MessagingConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageNotSentException;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.TraceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * This class runs outgoing IDS messages in a bounded thread pool. The IDS Framework sends
+ * messages blocking, so the asynchronous send path moves the round trip from the servlet threads
+ * to this pool. If the pool and its queue are full, the message is not sent and the returned
+ * future fails with a {@link MessageNotSentException}.
+ */
+@Component
+public class MessageExecutor implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Constructor for MessageExecutor.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public MessageExecutor(MessagingConfiguration messagingConfiguration)
+        throws IllegalArgumentException {
+        if (messagingConfiguration == null)
+            throw new IllegalArgumentException("The MessagingConfiguration cannot be null.");
+
+        final var poolSize = Math.max(1, messagingConfiguration.getPoolSize());
+        final var queueCapacity = Math.max(1, messagingConfiguration.getQueueCapacity());
+        final var threadCount = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                final var thread = new Thread(runnable,
+                    "ids-message-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs a blocking message call in the message pool. The call and the stages depending on the
+     * returned future keep the trace id of the calling thread.
+     *
+     * @param call the message call.
+     * @param <T> the result type of the call.
+     * @return the future result of the call.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> call) {
+        try {
+            return TraceContext.supplyAsync(call, executor);
+        } catch (RejectedExecutionException exception) {
+            LOGGER.warn("Too many outgoing messages. [active=({}), queued=({})]",
+                executor.getActiveCount(), executor.getQueue().size());
+            return CompletableFuture.failedFuture(
+                new MessageNotSentException("Too many outgoing messages.", exception));
+        }
+    }
+
+    /**
+     * Returns the number of messages waiting for a free thread.
+     *
+     * @return the number of queued messages.
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
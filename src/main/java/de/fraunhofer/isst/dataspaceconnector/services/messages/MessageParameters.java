@@ -0,0 +1,98 @@
+package de.fraunhofer.isst.dataspaceconnector.services.messages;
+
+import java.net.URI;
+
+/**
+ * This class holds the parameters of a single outgoing IDS message. Instances are immutable, the
+ * {@code with} methods return a copy. The message services are singletons, so every call passes
+ * its own parameters instead of setting them on the service.
+ */
+public final class MessageParameters {
+
+    private final URI recipient;
+    private final URI correlationMessage;
+    private final URI artifact;
+    private final URI contract;
+    private final URI resource;
+
+    private MessageParameters(URI recipient, URI correlationMessage, URI artifact, URI contract,
+        URI resource) {
+        this.recipient = recipient;
+        this.correlationMessage = correlationMessage;
+        this.artifact = artifact;
+        this.contract = contract;
+        this.resource = resource;
+    }
+
+    /**
+     * Creates the parameters for a message to a recipient.
+     *
+     * @param recipient the recipient of the message.
+     * @return the parameters.
+     */
+    public static MessageParameters to(URI recipient) {
+        return new MessageParameters(recipient, null, null, null, null);
+    }
+
+    /**
+     * Creates the parameters for a response to a received message.
+     *
+     * @param recipient the issuer of the received message.
+     * @param correlationMessage the id of the received message.
+     * @return the parameters.
+     */
+    public static MessageParameters responseTo(URI recipient, URI correlationMessage) {
+        return new MessageParameters(recipient, correlationMessage, null, null, null);
+    }
+
+    /**
+     * @param artifact the requested artifact.
+     * @return a copy with the requested artifact.
+     */
+    public MessageParameters withArtifact(URI artifact) {
+        return new MessageParameters(recipient, correlationMessage, artifact, contract, resource);
+    }
+
+    /**
+     * @param contract the transfer contract.
+     * @return a copy with the transfer contract.
+     */
+    public MessageParameters withContract(URI contract) {
+        return new MessageParameters(recipient, correlationMessage, artifact, contract, resource);
+    }
+
+    /**
+     * @param resource the requested or affected resource.
+     * @return a copy with the resource.
+     */
+    public MessageParameters withResource(URI resource) {
+        return new MessageParameters(recipient, correlationMessage, artifact, contract, resource);
+    }
+
+    public URI getRecipient() {
+        return recipient;
+    }
+
+    public URI getCorrelationMessage() {
+        return correlationMessage;
+    }
+
+    public URI getArtifact() {
+        return artifact;
+    }
+
+    public URI getContract() {
+        return contract;
+    }
+
+    public URI getResource() {
+        return resource;
+    }
+
+    @Override
+    public String toString() {
+        return "MessageParameters{recipient=" + recipient + ", correlationMessage="
+            + correlationMessage + ", artifact=" + artifact + ", contract=" + contract
+            + ", resource=" + resource + "}";
+    }
+}
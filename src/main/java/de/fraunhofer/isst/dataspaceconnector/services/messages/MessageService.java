@@ -1,16 +1,19 @@
 package de.fraunhofer.isst.dataspaceconnector.services.messages;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonToken;
 import de.fraunhofer.iais.eis.*;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.ConnectorConfigurationException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageBuilderException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageNotSentException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageResponseException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.InvalidResourceException;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.TraceContext;
 import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
-import de.fraunhofer.isst.dataspaceconnector.services.resources.ResourceService;
 import de.fraunhofer.isst.dataspaceconnector.services.utils.UUIDUtils;
 import de.fraunhofer.isst.ids.framework.communication.http.IDSHttpService;
 import de.fraunhofer.isst.ids.framework.communication.http.InfomodelMessageBuilder;
@@ -27,6 +30,7 @@ import org.springframework.stereotype.Service;
 import java.io.IOException;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Abstract class for building and sending IDS messages.
@@ -36,10 +40,13 @@ public abstract class MessageService {
 
     private final Logger LOGGER = LoggerFactory.getLogger(MessageService.class);
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     private final IDSHttpService idsHttpService;
-    private final ResourceService resourceService;
+    private final OfferedResourceServiceImpl resourceService;
     private final SerializerProvider serializerProvider;
     private final ConfigurationContainer configurationContainer;
+    private final MessageExecutor messageExecutor;
 
     /**
      * Constructor for MessageService.
@@ -49,7 +56,8 @@ public abstract class MessageService {
     @Autowired
     public MessageService(IDSHttpService idsHttpService,
         SerializerProvider serializerProvider, OfferedResourceServiceImpl resourceService,
-        ConfigurationContainer configurationContainer) throws IllegalArgumentException {
+        ConfigurationContainer configurationContainer, MessageExecutor messageExecutor)
+        throws IllegalArgumentException {
         if (idsHttpService == null)
             throw new IllegalArgumentException("The IDSHttpService cannot be null.");
 
@@ -62,33 +70,35 @@ public abstract class MessageService {
         if (configurationContainer == null)
             throw new IllegalArgumentException("The ConfigurationContainer cannot be null.");
 
+        if (messageExecutor == null)
+            throw new IllegalArgumentException("The MessageExecutor cannot be null.");
+
         this.idsHttpService = idsHttpService;
         this.resourceService = resourceService;
         this.serializerProvider = serializerProvider;
         this.configurationContainer = configurationContainer;
+        this.messageExecutor = messageExecutor;
     }
 
     /**
      * Build an IDS message as request header.
      *
+     * @param parameters the parameters of this message.
      * @return the message.
      * @throws MessageBuilderException if the message could not be created.
      */
-    public abstract Message buildRequestHeader() throws MessageBuilderException;
+    public abstract Message buildRequestHeader(MessageParameters parameters)
+        throws MessageBuilderException;
 
     /**
      * Build an IDS message as response header.
      *
+     * @param parameters the parameters of this message.
      * @return the message.
      * @throws MessageBuilderException if the message could not be created.
      */
-    public abstract Message buildResponseHeader() throws MessageBuilderException;
-
-    /**
-     * Returns the recipient.
-     * @return the recipient.
-     */
-    public abstract URI getRecipient();
+    public abstract Message buildResponseHeader(MessageParameters parameters)
+        throws MessageBuilderException;
 
     /**
      * Returns the serializer provider.
@@ -101,14 +111,16 @@ public abstract class MessageService {
     /**
      * Sends an IDS request message with header and payload using the IDS Framework.
      *
+     * @param parameters the parameters of this message.
      * @param payload the message payload.
      * @return the HTTP response.
      * @throws MessageException if a header could not be built or the message could not be sent.
      */
-    public Map<String, String> sendRequestMessage(String payload) throws MessageException {
+    public Map<String, String> sendRequestMessage(MessageParameters parameters, String payload)
+        throws MessageException {
         Message message;
         try {
-            message = buildRequestHeader();
+            message = buildRequestHeader(parameters);
         } catch (MessageBuilderException exception) {
             LOGGER.warn("Message could not be built. [exception=({})]", exception.getMessage());
             throw new MessageBuilderException("Message could not be built.", exception);
@@ -116,7 +128,7 @@ public abstract class MessageService {
 
         try {
             MultipartBody body = InfomodelMessageBuilder.messageWithString(message, payload);
-            return idsHttpService.sendAndCheckDat(body, getRecipient());
+            return send(body, parameters.getRecipient());
         } catch (ClaimsException exception) {
             LOGGER.warn("Invalid DAT in incoming message. [exception=({})]", exception.getMessage());
             throw new MessageResponseException("Invalid DAT in incoming message.", exception);
@@ -129,14 +141,16 @@ public abstract class MessageService {
     /**
      * Sends an IDS response message with header and payload using the IDS Framework.
      *
+     * @param parameters the parameters of this message.
      * @param payload the message payload.
      * @return the HTTP response.
      * @throws MessageException if a header could not be built or the message could not be sent.
      */
-    public Map<String, String> sendResponseMessage(String payload) throws MessageException {
+    public Map<String, String> sendResponseMessage(MessageParameters parameters, String payload)
+        throws MessageException {
         Message message;
         try {
-            message = buildResponseHeader();
+            message = buildResponseHeader(parameters);
         } catch (MessageBuilderException exception) {
             LOGGER.warn("Message could not be built. [exception=({})]", exception.getMessage());
             throw new MessageBuilderException("Message could not be built.", exception);
@@ -144,7 +158,7 @@ public abstract class MessageService {
 
         try {
             MultipartBody body = InfomodelMessageBuilder.messageWithString(message, payload);
-            return idsHttpService.sendAndCheckDat(body, getRecipient());
+            return send(body, parameters.getRecipient());
         } catch (ClaimsException exception) {
             LOGGER.warn("Invalid DAT in incoming message. [exception=({})]", exception.getMessage());
             throw new MessageResponseException("Unexpected message answer.", exception);
@@ -154,6 +168,52 @@ public abstract class MessageService {
         }
     }
 
+    /**
+     * Sends a multipart message and checks the DAT of the response. The trace id of the current
+     * request is sent along, so the recipient can log it with its own processing.
+     *
+     * @param body the multipart message.
+     * @param recipient the recipient of the message.
+     * @return the HTTP response.
+     */
+    private Map<String, String> send(MultipartBody body, URI recipient)
+        throws ClaimsException, FileUploadException, IOException {
+        final var headers = TraceContext.withTraceHeader(null);
+        if (headers.isEmpty()) {
+            return idsHttpService.sendAndCheckDat(body, recipient);
+        }
+
+        return idsHttpService.sendWithHeadersAndCheckDat(body, recipient, headers);
+    }
+
+    /**
+     * Sends an IDS request message like {@link #sendRequestMessage(MessageParameters, String)},
+     * but without blocking the calling thread. The round trip runs in the message pool.
+     *
+     * @param parameters the parameters of this message.
+     * @param payload the message payload.
+     * @return the future HTTP response. It fails with a {@link MessageException} if a header
+     * could not be built or the message could not be sent.
+     */
+    public CompletableFuture<Map<String, String>> sendRequestMessageAsync(
+        MessageParameters parameters, String payload) {
+        return messageExecutor.supply(() -> sendRequestMessage(parameters, payload));
+    }
+
+    /**
+     * Sends an IDS response message like {@link #sendResponseMessage(MessageParameters, String)},
+     * but without blocking the calling thread. The round trip runs in the message pool.
+     *
+     * @param parameters the parameters of this message.
+     * @param payload the message payload.
+     * @return the future HTTP response. It fails with a {@link MessageException} if a header
+     * could not be built or the message could not be sent.
+     */
+    public CompletableFuture<Map<String, String>> sendResponseMessageAsync(
+        MessageParameters parameters, String payload) {
+        return messageExecutor.supply(() -> sendResponseMessage(parameters, payload));
+    }
+
     /**
      * Checks if the outbound model version of the requesting connector is listed in the inbound model versions.
      *
@@ -181,16 +241,29 @@ public abstract class MessageService {
      * @return the resource
      */
     public Resource findResourceFromArtifactId(UUID artifactId) {
-        for (var resource : resourceService.getResources()) {
-            for (var representation : resource.getRepresentation()) {
-                final var representationId = UUIDUtils.uuidFromUri(representation.getId());
+        try {
+            return resourceService.getResourceByArtifactId(artifactId);
+        } catch (InvalidResourceException exception) {
+            LOGGER.debug("The resource of the artifact is not valid. [artifactId=({}), "
+                + "exception=({})]", artifactId, exception.getMessage());
+            return null;
+        }
+    }
 
-                if (representationId.equals(artifactId)) {
-                    return resource;
-                }
-            }
+    /**
+     * Finds the fingerprint of the contract offer of the resource with a given artifact ID.
+     *
+     * @param artifactId ID of the artifact
+     * @return the fingerprint or null, if the offer could not be found
+     */
+    public String findOfferFingerprint(UUID artifactId) {
+        try {
+            return resourceService.getPolicyFingerprintByArtifactId(artifactId);
+        } catch (InvalidResourceException exception) {
+            LOGGER.debug("The resource of the artifact is not valid. [artifactId=({}), "
+                + "exception=({})]", artifactId, exception.getMessage());
+            return null;
         }
-        return null;
     }
 
     /**
@@ -286,90 +359,157 @@ public abstract class MessageService {
      * @return the response type or null, if no matching type was found
      */
     public ResponseType getResponseType(String header) {
-        try {
-            serializerProvider.getSerializer().deserialize(header, AccessTokenResponseMessage.class);
-            return ResponseType.ACCESS_TOKEN_RESPONSE;
-        } catch (IOException ignored) { }
-
-        try {
-            serializerProvider.getSerializer().deserialize(header, AppRegistrationResponseMessage.class);
-            return ResponseType.APP_REGISTRATION_RESPONSE;
-        } catch (IOException ignored) { }
-
-        try {
-            serializerProvider.getSerializer().deserialize(header, ArtifactResponseMessage.class);
-            return ResponseType.ARTIFACT_RESPONSE;
-        } catch (IOException ignored) { }
-
-        try {
-            serializerProvider.getSerializer().deserialize(header, ContractAgreementMessage.class);
-            return ResponseType.CONTRACT_AGREEMENT;
-        } catch (IOException ignored) { }
+        final var response = readResponse(header);
+        return response == null ? null : response.getType();
+    }
 
-        try {
-            serializerProvider.getSerializer().deserialize(header, ContractResponseMessage.class);
-            return ResponseType.CONTRACT_RESPONSE;
-        } catch (IOException ignored) { }
+    /**
+     * Reads the type of an IDS message header from its JSON-LD {@code @type} and deserializes the
+     * header once as the matching message class.
+     *
+     * @param header the header
+     * @return the response type and message or null, if no matching type was found
+     */
+    public ClassifiedResponse readResponse(String header) {
+        final var type = ResponseType.fromJsonLdType(readJsonLdType(header));
+        if (type == null) {
+            return null;
+        }
 
         try {
-            serializerProvider.getSerializer().deserialize(header, DescriptionResponseMessage.class);
-            return ResponseType.DESCRIPTION_RESPONSE;
-        } catch (IOException ignored) { }
+            final var message = serializerProvider.getSerializer()
+                .deserialize(header, type.getMessageClass());
+            return new ClassifiedResponse(type, message);
+        } catch (IOException exception) {
+            LOGGER.debug("Failed to deserialize response header. [type=({}), exception=({})]",
+                type, exception.getMessage());
+            return null;
+        }
+    }
 
-        try {
-            serializerProvider.getSerializer().deserialize(header, OperationResultMessage.class);
-            return ResponseType.OPERATION_RESULT;
-        } catch (IOException ignored) { }
+    /**
+     * Reads the {@code @type} of the top-level JSON-LD object without building a tree. The parser
+     * stops as soon as the type has been read.
+     *
+     * @param header the header
+     * @return the type or null, if the header is not a JSON object or has no type
+     */
+    private String readJsonLdType(String header) {
+        if (header == null) {
+            return null;
+        }
 
-        try {
-            serializerProvider.getSerializer().deserialize(header, ParticipantResponseMessage.class);
-            return ResponseType.PARTICIPANT_RESPONSE;
-        } catch (IOException ignored) { }
+        try (var parser = JSON_FACTORY.createParser(header)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
 
-        try {
-            serializerProvider.getSerializer().deserialize(header, RejectionMessage.class);
-            return ResponseType.REJECTION;
-        } catch (IOException ignored) { }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final var name = parser.getCurrentName();
+                final var token = parser.nextToken();
+                if (!"@type".equals(name)) {
+                    parser.skipChildren();
+                } else if (token == JsonToken.VALUE_STRING) {
+                    return parser.getText();
+                } else if (token == JsonToken.START_ARRAY) {
+                    // Use the first type known to this connector.
+                    while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                        if (ResponseType.fromJsonLdType(parser.getText()) != null) {
+                            return parser.getText();
+                        }
+                    }
+                    return null;
+                } else {
+                    return null;
+                }
+            }
+        } catch (IOException exception) {
+            LOGGER.debug("Failed to read response header type. [exception=({})]",
+                exception.getMessage());
+        }
 
-        try {
-            serializerProvider.getSerializer().deserialize(header, ContractRejectionMessage.class);
-            return ResponseType.CONTRACT_REJECTION;
-        } catch (IOException ignored) { }
+        return null;
+    }
 
-        try {
-            serializerProvider.getSerializer().deserialize(header, ResultMessage.class);
-            return ResponseType.RESULT;
-        } catch (IOException ignored) { }
+    /**
+     * Inner class for a response header together with its recognized type.
+     */
+    public static class ClassifiedResponse {
+        private final ResponseType type;
+        private final Message message;
+
+        /**
+         * Constructor for ClassifiedResponse.
+         *
+         * @param type the response type.
+         * @param message the deserialized header.
+         */
+        public ClassifiedResponse(ResponseType type, Message message) {
+            this.type = type;
+            this.message = message;
+        }
 
-        try {
-            serializerProvider.getSerializer().deserialize(header, UploadResponseMessage.class);
-            return ResponseType.UPLOAD_RESPONSE;
-        } catch (IOException ignored) { }
+        public ResponseType getType() {
+            return type;
+        }
 
-        return null;
+        public Message getMessage() {
+            return message;
+        }
     }
 
     /**
      * Enum of possible response types of IDS message headers.
      */
     public enum ResponseType {
-        ACCESS_TOKEN_RESPONSE("ACCESS_TOKEN_RESPONSE"),
-        APP_REGISTRATION_RESPONSE("APP_REGISTRATION_RESPONSE"),
-        ARTIFACT_RESPONSE("ARTIFACT_RESPONSE"),
-        CONTRACT_AGREEMENT("CONTRACT_AGREEMENT"),
-        CONTRACT_RESPONSE("CONTRACT_RESPONSE"),
-        DESCRIPTION_RESPONSE("DESCRIPTION_RESPONSE"),
-        OPERATION_RESULT("OPERATION_RESULT"),
-        PARTICIPANT_RESPONSE("PARTICIPANT_RESPONSE"),
-        REJECTION("REJECTION"),
-        CONTRACT_REJECTION("CONTRACT_REJECTION"),
-        RESULT("RESULT"),
-        UPLOAD_RESPONSE("UPLOAD_RESPONSE");
+        ACCESS_TOKEN_RESPONSE("ACCESS_TOKEN_RESPONSE", AccessTokenResponseMessage.class),
+        APP_REGISTRATION_RESPONSE("APP_REGISTRATION_RESPONSE", AppRegistrationResponseMessage.class),
+        ARTIFACT_RESPONSE("ARTIFACT_RESPONSE", ArtifactResponseMessage.class),
+        CONTRACT_AGREEMENT("CONTRACT_AGREEMENT", ContractAgreementMessage.class),
+        CONTRACT_RESPONSE("CONTRACT_RESPONSE", ContractResponseMessage.class),
+        DESCRIPTION_RESPONSE("DESCRIPTION_RESPONSE", DescriptionResponseMessage.class),
+        OPERATION_RESULT("OPERATION_RESULT", OperationResultMessage.class),
+        PARTICIPANT_RESPONSE("PARTICIPANT_RESPONSE", ParticipantResponseMessage.class),
+        REJECTION("REJECTION", RejectionMessage.class),
+        CONTRACT_REJECTION("CONTRACT_REJECTION", ContractRejectionMessage.class),
+        RESULT("RESULT", ResultMessage.class),
+        UPLOAD_RESPONSE("UPLOAD_RESPONSE", UploadResponseMessage.class);
+
+        private static final Map<String, ResponseType> BY_CLASS_NAME = new HashMap<>();
+
+        static {
+            for (final var value : values()) {
+                BY_CLASS_NAME.put(value.messageClass.getSimpleName(), value);
+            }
+        }
 
         private final String type;
+        private final Class<? extends Message> messageClass;
 
-        ResponseType(String string) {
+        ResponseType(String string, Class<? extends Message> messageClass) {
             type = string;
+            this.messageClass = messageClass;
+        }
+
+        public Class<? extends Message> getMessageClass() {
+            return messageClass;
+        }
+
+        /**
+         * Finds the response type for a JSON-LD type, e.g. {@code ids:ArtifactResponseMessage}
+         * or {@code https://w3id.org/idsa/core/ArtifactResponseMessage}.
+         *
+         * @param jsonLdType the JSON-LD type.
+         * @return the response type or null, if the type is not a known response.
+         */
+        public static ResponseType fromJsonLdType(String jsonLdType) {
+            if (jsonLdType == null) {
+                return null;
+            }
+
+            final var separator = Math.max(jsonLdType.lastIndexOf(':'),
+                Math.max(jsonLdType.lastIndexOf('/'), jsonLdType.lastIndexOf('#')));
+            return BY_CLASS_NAME.get(jsonLdType.substring(separator + 1));
         }
 
         @Override
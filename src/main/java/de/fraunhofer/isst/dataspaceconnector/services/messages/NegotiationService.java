@@ -9,7 +9,9 @@ import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageException
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageNotSentException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageResponseException;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ContractMessageService;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.ConsumerAgreementService;
 import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.PolicyHandler;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.ContractUtils;
 import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
 import de.fraunhofer.isst.ids.framework.configuration.SerializerProvider;
 import org.slf4j.Logger;
@@ -19,7 +21,6 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Map;
 
 /**
@@ -34,6 +35,7 @@ public class NegotiationService {
     private final ContractMessageService messageService;
     private final SerializerProvider serializerProvider;
     private final ConfigurationContainer configurationContainer;
+    private final ConsumerAgreementService consumerAgreementService;
 
     /**
      * Constructor for NegotiationService.
@@ -43,8 +45,8 @@ public class NegotiationService {
     @Autowired
     public NegotiationService(ContractMessageService contractMessageService,
         PolicyHandler policyHandler, SerializerProvider serializerProvider,
-        ConfigurationContainer configurationContainer)
-        throws IllegalArgumentException {
+        ConfigurationContainer configurationContainer,
+        ConsumerAgreementService consumerAgreementService) throws IllegalArgumentException {
         if (contractMessageService == null)
             throw new IllegalArgumentException("The ContractMessageService cannot be null.");
 
@@ -57,10 +59,14 @@ public class NegotiationService {
         if (configurationContainer == null)
             throw new IllegalArgumentException("The ConfigurationContainer cannot be null.");
 
+        if (consumerAgreementService == null)
+            throw new IllegalArgumentException("The ConsumerAgreementService cannot be null.");
+
         this.messageService = contractMessageService;
         this.policyHandler = policyHandler;
         this.serializerProvider = serializerProvider;
         this.configurationContainer = configurationContainer;
+        this.consumerAgreementService = consumerAgreementService;
     }
 
     /**
@@ -95,6 +101,7 @@ public class NegotiationService {
 
     /**
      * Checks if the contract request has been successful and, if so, sends a contract agreement message.
+     * The confirmed agreement is kept, so it can be reused for further requests of its artifacts.
      *
      * @param recipient recipient of the contract agreement message.
      * @param header message header.
@@ -129,9 +136,10 @@ public class NegotiationService {
                 }
 
                 // Send ContractAgreementMessage to recipient.
-                messageService.setResponseParameters(recipient, correlationMessage, contract.getId());
-                ContractAgreement agreement = messageService.buildContractAgreement(contract);
-                response = messageService.sendResponseMessage(agreement.toRdf());
+                ContractAgreement agreement = messageService.buildContractAgreement(contract,
+                    contract.getId());
+                response = messageService.sendResponseMessage(
+                    MessageParameters.responseTo(recipient, correlationMessage), agreement.toRdf());
             } catch (MessageBuilderException exception) {
                 // Failed to build the contract agreement message.
                 LOGGER.warn("Failed to build a request. [exception=({})]", exception.getMessage());
@@ -150,6 +158,7 @@ public class NegotiationService {
             }
 
             if (response != null) {
+                consumerAgreementService.addAgreement(recipient, contract);
                 return contract.getId();
             } else {
                 // Failed to read the contract response message.
@@ -199,121 +208,31 @@ public class NegotiationService {
     }
 
     /**
-     * Compares two contracts to each other.
+     * Compares two contracts to each other. Only the rules are compared, see
+     * {@link ContractUtils#fingerprint(Contract)}.
      *
      * @param request the requested contract
      * @param offer the offered contract
      * @return true, if the contracts are equal; false otherwise
      */
     public boolean compareContracts(Contract request, Contract offer) {
-        if (request == null || offer == null)
-            return false;
-
-        boolean permissions;
-        if (request.getPermission() != null && offer.getPermission() != null) {
-            permissions = comparePermissions(request.getPermission(), offer.getPermission());
-        } else {
-            permissions = true;
-        }
-
-        boolean prohibitions;
-        if (request.getProhibition() != null && offer.getProhibition() != null) {
-            prohibitions = compareRules(request.getProhibition(), offer.getProhibition());
-        } else {
-            prohibitions = true;
-        }
-
-        boolean obligations;
-        if (request.getObligation() != null && offer.getObligation() != null) {
-            obligations = compareRules(request.getObligation(), offer.getObligation());
-        } else {
-            obligations = true;
-        }
-
-        return permissions && prohibitions && obligations;
-    }
-
-    /**
-     * Compares the content of two permissions lists.
-     *
-     * @param request list of requested permissions
-     * @param offer list of offered permissions
-     * @return true, if the contents are equal; false otherwise
-     */
-    private boolean comparePermissions(
-        ArrayList<? extends Permission> request, ArrayList<? extends Permission> offer) {
-        if (request.size() != offer.size())
+        if (offer == null)
             return false;
 
-        for (int i = 0; i < request.size(); i++) {
-            final var requestPermission = request.get(i);
-            final var offerPermission = offer.get(i);
-
-            if (requestPermission.getPostDuty() != null && offerPermission.getPostDuty() != null
-                && requestPermission.getPostDuty().size() > 0 && offerPermission.getPostDuty().size() > 0) {
-                for (int j = 0; j < requestPermission.getPostDuty().size(); j++) {
-                    if (!requestPermission.getPostDuty().get(j).toRdf()
-                        .equals(offerPermission.getPostDuty().get(j).toRdf()))
-                        return false;
-                }
-            }
-
-            if (requestPermission.getPreDuty() != null && offerPermission.getPreDuty() != null
-                && requestPermission.getPreDuty().size() > 0 && offerPermission.getPreDuty().size() > 0) {
-                for (int j = 0; j < requestPermission.getPreDuty().size(); j++) {
-                    if (!requestPermission.getPreDuty().get(j).toRdf()
-                        .equals(offerPermission.getPreDuty().get(j).toRdf()))
-                        return false;
-                }
-            }
-
-            if (requestPermission.getConstraint() != null && offerPermission.getConstraint() != null
-                && requestPermission.getConstraint().size() > 0 && offerPermission.getConstraint().size() > 0) {
-                for (int j = 0; j < requestPermission.getConstraint().size(); j++) {
-                    if (!requestPermission.getConstraint().get(j).toRdf()
-                        .equals(offerPermission.getConstraint().get(j).toRdf()))
-                        return false;
-                }
-            }
-
-            if (!requestPermission.getAction().get(0).toRdf()
-                .equals(offerPermission.getAction().get(0).toRdf()))
-                return false;
-        }
-
-        return true;
+        return compareContracts(request, ContractUtils.fingerprint(offer));
     }
 
     /**
-     * Compares the content of two lists of prohibitions or obligations.
+     * Compares a contract to the fingerprint of an offered contract.
      *
-     * @param request list of requested prohibitions or obligations
-     * @param offer list of offered prohibitions or obligations
-     * @return true, if the contents are equal; false otherwise
+     * @param request the requested contract
+     * @param offerFingerprint the fingerprint of the offered contract
+     * @return true, if the rules of the request equal the offered ones; false otherwise
      */
-    private boolean compareRules(
-        ArrayList<? extends Rule> request, ArrayList<? extends Rule> offer) {
-        if (request.size() != offer.size())
+    public boolean compareContracts(Contract request, String offerFingerprint) {
+        if (request == null || offerFingerprint == null)
             return false;
 
-        for (int i = 0; i < request.size(); i++) {
-            final var requestPermission = request.get(i);
-            final var offerPermission = offer.get(i);
-
-            if (requestPermission.getConstraint() != null && offerPermission.getConstraint() != null
-                && requestPermission.getConstraint().size() > 0 && offerPermission.getConstraint().size() > 0) {
-                for (int j = 0; j < requestPermission.getConstraint().size(); j++) {
-                    if (!requestPermission.getConstraint().get(j).toRdf()
-                        .equals(offerPermission.getConstraint().get(j).toRdf()))
-                        return false;
-                }
-            }
-
-            if (!requestPermission.getAction().get(0).toRdf()
-                .equals(offerPermission.getAction().get(0).toRdf()))
-                return false;
-        }
-
-        return true;
+        return offerFingerprint.equals(ContractUtils.fingerprint(request));
     }
 }
@@ -16,10 +16,10 @@ import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.InvalidResource
 import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceNotFoundException;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceContract;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ArtifactMessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.ContractAgreementService;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
-import de.fraunhofer.isst.dataspaceconnector.services.resources.ResourceService;
 import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.PolicyHandler;
 import de.fraunhofer.isst.dataspaceconnector.model.QueryInput;
 import de.fraunhofer.isst.dataspaceconnector.services.utils.UUIDUtils;
@@ -34,8 +34,10 @@ import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.stereotype.Component;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
@@ -52,7 +54,7 @@ public class ArtifactRequestHandler implements MessageHandler<ArtifactRequestMes
 
     public static final Logger LOGGER = LoggerFactory.getLogger(ArtifactRequestHandler.class);
 
-    private final ResourceService resourceService;
+    private final OfferedResourceServiceImpl resourceService;
     private final PolicyHandler policyHandler;
     private final ArtifactMessageService messageService;
     private final ContractAgreementService contractAgreementService;
@@ -172,13 +174,13 @@ public class ArtifactRequestHandler implements MessageHandler<ArtifactRequestMes
                 try {
                     // Check if the policy allows data access. TODO: Change to contract agreement. (later)
                     if (policyHandler.onDataProvision(resourceMetadata.getPolicy(), requestMessage.getIssuerConnector())) {
-                        String data;
+                        InputStream data;
 
                         try {
                             final var query = getQueryInput(messagePayload);
                             // Get the data from source.
                             data = resourceService
-                                    .getDataByRepresentation(resourceId, artifactId, query);
+                                    .getDataStreamByRepresentation(resourceId, artifactId, query);
                         } catch (ResourceNotFoundException exception) {
                             LOGGER.debug("Resource could not be found. "
                                     + "[id=({}), resourceId=({}), artifactId=({}), exception=({})]",
@@ -217,12 +219,19 @@ public class ArtifactRequestHandler implements MessageHandler<ArtifactRequestMes
                         }
 
                         // Build artifact response.
-                        messageService.setResponseParameters(
-                            requestMessage.getIssuerConnector(),
-                            requestMessage.getTransferContract(),
-                            requestMessage.getId());
+                        final var parameters = MessageParameters
+                            .responseTo(requestMessage.getIssuerConnector(), requestMessage.getId())
+                            .withContract(requestMessage.getTransferContract());
 
-                        return BodyResponse.create(messageService.buildResponseHeader(), data);
+                        try {
+                            // The payload is written as multipart part straight from the stream.
+                            return BodyResponse.create(messageService.buildResponseHeader(parameters),
+                                new InputStreamResource(data));
+                        } catch (ConstraintViolationException | MessageException exception) {
+                            // Release the backend connection before giving up.
+                            IOUtils.closeQuietly(data);
+                            throw exception;
+                        }
                     } else {
                         // The conditions for reading this resource have not been met.
                         LOGGER.debug("Request policy restriction detected for request."
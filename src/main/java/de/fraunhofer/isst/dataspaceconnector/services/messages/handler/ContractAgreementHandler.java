@@ -9,6 +9,7 @@ import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageException
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageNotSentException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageResponseException;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceContract;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.LogMessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.NotificationMessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.ContractAgreementService;
@@ -145,8 +146,8 @@ public class ContractAgreementHandler implements MessageHandler<ContractAgreemen
             saveContract(payload);
 
             // Build response header.
-            messageService.setResponseParameters(message.getIssuerConnector(), message.getId());
-            return BodyResponse.create(messageService.buildResponseHeader(),
+            return BodyResponse.create(messageService.buildResponseHeader(
+                    MessageParameters.responseTo(message.getIssuerConnector(), message.getId())),
                     "Message processed. The contract is legal.");
         } catch (ContractException exception) {
             LOGGER.warn("Failed to store the contract agreement. [exception=({})]",
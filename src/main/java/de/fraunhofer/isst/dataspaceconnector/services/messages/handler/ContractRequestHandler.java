@@ -8,6 +8,7 @@ import de.fraunhofer.isst.dataspaceconnector.exceptions.UUIDFormatException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageBuilderException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceNotFoundException;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.NegotiationService;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ContractMessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.LogMessageService;
@@ -53,7 +54,6 @@ public class ContractRequestHandler implements MessageHandler<ContractRequestMes
     private final DapsTokenProvider tokenProvider;
     @SuppressWarnings({"unused", "FieldCanBeLocal"})
     private final LogMessageService logMessageService;
-    private RequestMessage requestMessage;
 
     /**
      * Constructor for NotificationMessageHandler.
@@ -113,8 +113,6 @@ public class ContractRequestHandler implements MessageHandler<ContractRequestMes
         if (requestMessage == null) {
             LOGGER.warn("Cannot respond when there is no request.");
             throw new IllegalArgumentException("The requestMessage cannot be null.");
-        } else {
-            this.requestMessage = requestMessage;
         }
 
         // Get a local copy of the current connector.
@@ -154,7 +152,7 @@ public class ContractRequestHandler implements MessageHandler<ContractRequestMes
 
         try {
             // Check the contract content.
-            return checkContractRequest(payload);
+            return checkContractRequest(requestMessage, payload);
         } catch (RuntimeException exception) {
             LOGGER.warn("Failed to check the contract request. [exception=({})]",
                     exception.getMessage());
@@ -167,10 +165,12 @@ public class ContractRequestHandler implements MessageHandler<ContractRequestMes
      * Checks if the contract request content by the consumer complies with the contract offer by
      * the provider.
      *
+     * @param requestMessage The received contract request message.
      * @param payload The message payload containing a contract request.
      * @return A message response to the requesting connector.
      */
-    public MessageResponse checkContractRequest(String payload) throws RuntimeException {
+    public MessageResponse checkContractRequest(ContractRequestMessage requestMessage,
+                                                String payload) throws RuntimeException {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
@@ -180,15 +180,15 @@ public class ContractRequestHandler implements MessageHandler<ContractRequestMes
 
             // Get artifact id from contract request.
             URI artifactId = messageService.getArtifactIdFromContract(contractRequest);
-            // Load contract offer from metadata.
-            ContractOffer contractOffer = getContractOfferByArtifact(artifactId);
+            // Load the fingerprint of the contract offer.
+            final var offerFingerprint = getOfferFingerprintByArtifact(artifactId);
 
-            // Check if the contract request has the same content as the stored contract offer.
-            if (negotiationService.compareContracts(contractRequest, contractOffer)) {
-                return acceptContract(contractRequest);
+            // Check if the contract request has the same rules as the stored contract offer.
+            if (negotiationService.compareContracts(contractRequest, offerFingerprint)) {
+                return acceptContract(requestMessage, contractRequest);
             } else {
                 // If differences have been detected.
-                return rejectContract();
+                return rejectContract(requestMessage);
             }
         } catch (UUIDFormatException | RequestFormatException exception) {
             LOGGER.debug(
@@ -224,44 +224,46 @@ public class ContractRequestHandler implements MessageHandler<ContractRequestMes
     }
 
     /**
-     * Gets the contract offer by artifact id.
+     * Gets the fingerprint of the contract offer by artifact id.
      *
      * @param artifactId The artifact's id
-     * @return The resource's contract offer.
+     * @return The fingerprint of the resource's contract offer.
      */
-    private ContractOffer getContractOfferByArtifact(URI artifactId) throws ResourceNotFoundException {
+    private String getOfferFingerprintByArtifact(URI artifactId) throws ResourceNotFoundException {
         UUID uuid = UUIDUtils.uuidFromUri(artifactId);
-        final var resource = messageService.findResourceFromArtifactId(uuid);
-        if (resource == null)
+        final var fingerprint = messageService.findOfferFingerprint(uuid);
+        if (fingerprint == null)
             throw new ResourceNotFoundException("Artifact not known.");
-        return resource.getContractOffer().get(0);
+        return fingerprint;
     }
 
     /**
      * Accept contract by building a {@link ContractAgreement} and sending it as payload with a
      * {@link ContractAgreementMessage}.
      *
+     * @param requestMessage The received contract request message.
      * @param contractRequest The contract request object from the data consumer.
      * @return The message response to the requesting connector.
      */
-    private MessageResponse acceptContract(ContractRequest contractRequest)
+    private MessageResponse acceptContract(ContractRequestMessage requestMessage,
+                                           ContractRequest contractRequest)
             throws UUIDFormatException, MessageException {
-
-        messageService.setResponseParameters(
-                requestMessage.getIssuerConnector(), requestMessage.getId(), null);
         // Turn the accepted contract request into a contract agreement.
-        final var contractAgreement = messageService.buildContractAgreement(contractRequest);
+        final var contractAgreement = messageService.buildContractAgreement(contractRequest, null);
 
         // Send response to the data consumer.
-        return BodyResponse.create(messageService.buildResponseHeader(), contractAgreement.toRdf());
+        return BodyResponse.create(messageService.buildResponseHeader(MessageParameters
+                .responseTo(requestMessage.getIssuerConnector(), requestMessage.getId())),
+                contractAgreement.toRdf());
     }
 
     /**
      * Builds a contract rejection message with a rejection reason.
      *
+     * @param requestMessage The received contract request message.
      * @return A contract rejection message.
      */
-    private MessageResponse rejectContract() {
+    private MessageResponse rejectContract(ContractRequestMessage requestMessage) {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
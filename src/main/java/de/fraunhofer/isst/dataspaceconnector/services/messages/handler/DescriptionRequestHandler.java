@@ -2,13 +2,14 @@ package de.fraunhofer.isst.dataspaceconnector.services.messages.handler;
 
 import de.fraunhofer.iais.eis.*;
 import de.fraunhofer.iais.eis.util.ConstraintViolationException;
-import de.fraunhofer.iais.eis.util.Util;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.UUIDFormatException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageBuilderException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageException;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.DescriptionMessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.ResourceService;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.SelfDescriptionCache;
 import de.fraunhofer.isst.dataspaceconnector.services.utils.UUIDUtils;
 import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
 import de.fraunhofer.isst.ids.framework.messaging.model.messages.MessageHandler;
@@ -22,8 +23,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-
 /**
  * This @{@link DescriptionRequestHandler} handles all
  * incoming messages that have a {@link de.fraunhofer.iais.eis.DescriptionRequestMessageImpl} as
@@ -39,6 +38,7 @@ public class DescriptionRequestHandler implements MessageHandler<DescriptionRequ
     private final DescriptionMessageService messageService;
     private final ResourceService resourceService;
     private final ConfigurationContainer configurationContainer;
+    private final SelfDescriptionCache selfDescriptionCache;
 
     /**
      * Constructor for DescriptionMessageHandler.
@@ -46,11 +46,13 @@ public class DescriptionRequestHandler implements MessageHandler<DescriptionRequ
      * @param configurationContainer  The container with the configuration
      * @param messageService The service for sending messages
      * @param offeredResourceService The service for offered resources
+     * @param selfDescriptionCache The cache for the self-description
      * @throws IllegalArgumentException if one of the parameters is null.
      */
     @Autowired
     public DescriptionRequestHandler(ConfigurationContainer configurationContainer,
-                                     DescriptionMessageService messageService, OfferedResourceServiceImpl offeredResourceService)
+                                     DescriptionMessageService messageService, OfferedResourceServiceImpl offeredResourceService,
+                                     SelfDescriptionCache selfDescriptionCache)
         throws IllegalArgumentException {
         if (configurationContainer == null)
             throw new IllegalArgumentException("The ConfigurationContainer cannot be null.");
@@ -61,9 +63,13 @@ public class DescriptionRequestHandler implements MessageHandler<DescriptionRequ
         if (offeredResourceService == null)
             throw new IllegalArgumentException("The OfferedResourceServiceImpl cannot be null.");
 
+        if (selfDescriptionCache == null)
+            throw new IllegalArgumentException("The SelfDescriptionCache cannot be null.");
+
         this.messageService = messageService;
         this.resourceService = offeredResourceService;
         this.configurationContainer = configurationContainer;
+        this.selfDescriptionCache = selfDescriptionCache;
     }
 
     /**
@@ -129,15 +135,13 @@ public class DescriptionRequestHandler implements MessageHandler<DescriptionRequ
         try {
             // Find the requested resource.
             final var resourceId = UUIDUtils.uuidFromUri(requestMessage.getRequestedElement());
-            final var resource = ((OfferedResourceServiceImpl) resourceService)
-                .getOfferedResources().get(resourceId);
+            final var resource = selfDescriptionCache.getResourceRdf(resourceId);
 
             if (resource != null) {
                 // If the resource has been found, send the description.
-                messageService.setResponseParameters(requestMessage.getIssuerConnector(),
-                    requestMessage.getId());
-                return BodyResponse.create(messageService.buildResponseHeader(),
-                    resource.toRdf());
+                return BodyResponse.create(messageService.buildResponseHeader(MessageParameters
+                    .responseTo(requestMessage.getIssuerConnector(), requestMessage.getId())),
+                    resource);
             } else {
                 // If the resource has not been found, inform and reject.
                 LOGGER.debug("Resource could not be found. [id=({}), resourceId=({})]",
@@ -179,17 +183,13 @@ public class DescriptionRequestHandler implements MessageHandler<DescriptionRequ
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
         try {
-            // Create a connector with a list of offered resources.
-            var connectorImpl = (BaseConnectorImpl) connector;
-            connectorImpl.setResourceCatalog(Util.asList(new ResourceCatalogBuilder()
-                ._offeredResource_(new ArrayList<>(resourceService.getResources()))
-                .build()));
+            // Get the connector with the list of offered resources.
+            final var selfDescription = selfDescriptionCache.getSelfDescription();
 
             // Answer with the resource description.
-            messageService.setResponseParameters(requestMessage.getIssuerConnector(),
-                requestMessage.getId());
-            return BodyResponse.create(messageService.buildResponseHeader(),
-                connectorImpl.toRdf());
+            return BodyResponse.create(messageService.buildResponseHeader(MessageParameters
+                .responseTo(requestMessage.getIssuerConnector(), requestMessage.getId())),
+                selfDescription);
         } catch (ConstraintViolationException | MessageBuilderException exception) {
             // The response could not be constructed.
             return ErrorResponse.withDefaultHeader(
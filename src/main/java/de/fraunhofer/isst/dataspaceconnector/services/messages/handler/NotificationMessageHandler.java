@@ -4,6 +4,7 @@ import de.fraunhofer.iais.eis.NotificationMessageImpl;
 import de.fraunhofer.iais.eis.RejectionReason;
 import de.fraunhofer.iais.eis.util.ConstraintViolationException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageException;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.NotificationMessageService;
 import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
 import de.fraunhofer.isst.ids.framework.daps.DapsTokenProvider;
@@ -85,8 +86,9 @@ public class NotificationMessageHandler implements MessageHandler<NotificationMe
 
         try {
             // Build response header.
-            messageService.setResponseParameters(message.getIssuerConnector(), message.getId());
-            return BodyResponse.create(messageService.buildResponseHeader(), "Message received.");
+            return BodyResponse.create(messageService.buildResponseHeader(
+                MessageParameters.responseTo(message.getIssuerConnector(), message.getId())),
+                "Message received.");
         } catch (ConstraintViolationException | MessageException exception) {
             // The response could not be constructed.
             return ErrorResponse.withDefaultHeader(
@@ -6,6 +6,7 @@ import de.fraunhofer.iais.eis.ResourceUpdateMessageImpl;
 import de.fraunhofer.iais.eis.util.ConstraintViolationException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceException;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ResourceUpdateMessageService;
 import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
 import de.fraunhofer.isst.ids.framework.configuration.SerializerProvider;
@@ -129,12 +130,13 @@ public class ResourceUpdateMessageHandler implements MessageHandler<ResourceUpda
 
         try {
             // Build response header.
-            messageService.setResponseParameters(message.getIssuerConnector(), message.getId());
+            final var parameters = MessageParameters.responseTo(message.getIssuerConnector(),
+                message.getId());
             if (successfulUpdate)
-                return BodyResponse.create(messageService.buildResponseHeader(),
+                return BodyResponse.create(messageService.buildResponseHeader(parameters),
                         "Message received and resource updated.");
             else
-                return BodyResponse.create(messageService.buildResponseHeader(),
+                return BodyResponse.create(messageService.buildResponseHeader(parameters),
                         "Message received but resource not updated.");
         } catch (ConstraintViolationException | MessageException exception) {
             // The response could not be constructed.
@@ -6,6 +6,8 @@ import de.fraunhofer.iais.eis.Message;
 import de.fraunhofer.iais.eis.util.Util;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageBuilderException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceException;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageExecutor;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.RequestedResourceServiceImpl;
@@ -17,7 +19,6 @@ import de.fraunhofer.isst.ids.framework.daps.DapsTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.net.URI;
 import java.util.UUID;
 
 import static de.fraunhofer.isst.ids.framework.util.IDSUtils.getGregorianNow;
@@ -31,7 +32,6 @@ public class ArtifactMessageService extends MessageService {
     private final ConfigurationContainer configurationContainer;
     private final DapsTokenProvider tokenProvider;
     private final ResourceService resourceService;
-    private URI recipient, artifactId, contractId, correlationMessageId;
 
     /**
      * Constructor
@@ -48,8 +48,10 @@ public class ArtifactMessageService extends MessageService {
     public ArtifactMessageService(ConfigurationContainer configurationContainer,
         DapsTokenProvider tokenProvider, IDSHttpService idsHttpService,
         OfferedResourceServiceImpl resourceService, SerializerProvider serializerProvider,
-        RequestedResourceServiceImpl requestedResourceService) throws IllegalArgumentException {
-        super(idsHttpService, serializerProvider, resourceService, configurationContainer);
+        RequestedResourceServiceImpl requestedResourceService,
+        MessageExecutor messageExecutor) throws IllegalArgumentException {
+        super(idsHttpService, serializerProvider, resourceService, configurationContainer,
+            messageExecutor);
 
         if (tokenProvider == null)
             throw new IllegalArgumentException("The TokenProvider cannot be null.");
@@ -66,7 +68,7 @@ public class ArtifactMessageService extends MessageService {
      * {@inheritDoc}
      */
     @Override
-    public Message buildRequestHeader() throws MessageBuilderException {
+    public Message buildRequestHeader(MessageParameters parameters) throws MessageBuilderException {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
@@ -75,10 +77,10 @@ public class ArtifactMessageService extends MessageService {
             ._modelVersion_(connector.getOutboundModelVersion())
             ._issuerConnector_(connector.getId())
             ._senderAgent_(connector.getId())
-            ._requestedArtifact_(artifactId)
+            ._requestedArtifact_(parameters.getArtifact())
             ._securityToken_(tokenProvider.getDAT())
-            ._recipientConnector_(Util.asList(recipient))
-            ._transferContract_(contractId)
+            ._recipientConnector_(Util.asList(parameters.getRecipient()))
+            ._transferContract_(parameters.getContract())
             .build();
     }
 
@@ -86,56 +88,22 @@ public class ArtifactMessageService extends MessageService {
      * {@inheritDoc}
      */
     @Override
-    public Message buildResponseHeader() throws MessageBuilderException {
+    public Message buildResponseHeader(MessageParameters parameters) throws MessageBuilderException {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
         return new ArtifactResponseMessageBuilder()
             ._securityToken_(tokenProvider.getDAT())
-            ._correlationMessage_(correlationMessageId)
+            ._correlationMessage_(parameters.getCorrelationMessage())
             ._issued_(getGregorianNow())
             ._issuerConnector_(connector.getId())
             ._modelVersion_(connector.getOutboundModelVersion())
             ._senderAgent_(connector.getId())
-            ._recipientConnector_(Util.asList(recipient))
-            ._transferContract_(contractId)
+            ._recipientConnector_(Util.asList(parameters.getRecipient()))
+            ._transferContract_(parameters.getContract())
             .build();
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public URI getRecipient() {
-        return recipient;
-    }
-
-    /**
-     * Set the request parameters for the artifact message
-     *
-     * @param recipient The recipient of the request
-     * @param artifactId The id of the artifact
-     * @param contractId The id of the contract
-     */
-    public void setRequestParameters(URI recipient, URI artifactId, URI contractId) {
-        this.recipient = recipient;
-        this.artifactId = artifactId;
-        this.contractId = contractId;
-    }
-
-    /**
-     * Set the response parameters for the artifact message
-     *
-     * @param recipient The recipient of the response
-     * @param contractId The id of the contract
-     * @param correlationMessageId The id of the request
-     */
-    public void setResponseParameters(URI recipient, URI contractId, URI correlationMessageId) {
-        this.recipient = recipient;
-        this.contractId = contractId;
-        this.correlationMessageId = correlationMessageId;
-    }
-
     /**
      * Saves the data string to the internal database.
      *
@@ -3,6 +3,8 @@ package de.fraunhofer.isst.dataspaceconnector.services.messages.implementation;
 import de.fraunhofer.iais.eis.*;
 import de.fraunhofer.iais.eis.util.Util;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageBuilderException;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageExecutor;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
 import de.fraunhofer.isst.ids.framework.communication.http.IDSHttpService;
@@ -24,7 +26,6 @@ public class ContractMessageService extends MessageService {
 
     private final ConfigurationContainer configurationContainer;
     private final DapsTokenProvider tokenProvider;
-    private URI recipient, contractId, correlationMessage;
 
     /**
      * Constructor
@@ -39,8 +40,10 @@ public class ContractMessageService extends MessageService {
     @Autowired
     public ContractMessageService(DapsTokenProvider tokenProvider, IDSHttpService idsHttpService,
         OfferedResourceServiceImpl resourceService, ConfigurationContainer configurationContainer,
-        SerializerProvider serializerProvider) throws IllegalArgumentException {
-        super(idsHttpService, serializerProvider, resourceService, configurationContainer);
+        SerializerProvider serializerProvider,
+        MessageExecutor messageExecutor) throws IllegalArgumentException {
+        super(idsHttpService, serializerProvider, resourceService, configurationContainer,
+            messageExecutor);
 
         if (tokenProvider == null)
             throw new IllegalArgumentException("The TokenProvider cannot be null.");
@@ -53,7 +56,7 @@ public class ContractMessageService extends MessageService {
      * {@inheritDoc}
      */
     @Override
-    public Message buildRequestHeader() throws MessageBuilderException {
+    public Message buildRequestHeader(MessageParameters parameters) throws MessageBuilderException {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
@@ -63,8 +66,8 @@ public class ContractMessageService extends MessageService {
             ._issuerConnector_(connector.getId())
             ._senderAgent_(connector.getId())
             ._securityToken_(tokenProvider.getDAT())
-            ._recipientConnector_(Util.asList(recipient))
-            ._transferContract_(contractId)
+            ._recipientConnector_(Util.asList(parameters.getRecipient()))
+            ._transferContract_(parameters.getContract())
             .build();
     }
 
@@ -72,7 +75,7 @@ public class ContractMessageService extends MessageService {
      * {@inheritDoc}
      */
     @Override
-    public Message buildResponseHeader() throws MessageBuilderException {
+    public Message buildResponseHeader(MessageParameters parameters) throws MessageBuilderException {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
@@ -82,43 +85,11 @@ public class ContractMessageService extends MessageService {
             ._issuerConnector_(connector.getId())
             ._senderAgent_(connector.getId())
             ._securityToken_(tokenProvider.getDAT())
-            ._recipientConnector_(Util.asList(recipient))
-            ._correlationMessage_(correlationMessage)
+            ._recipientConnector_(Util.asList(parameters.getRecipient()))
+            ._correlationMessage_(parameters.getCorrelationMessage())
             .build();
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public URI getRecipient() {
-        return recipient;
-    }
-
-    /**
-     * Set the request parameters for the message
-     *
-     * @param recipient The recipient of the request
-     * @param contractId The id of the contract
-     */
-    public void setRequestParameters(URI recipient, URI contractId) {
-        this.recipient = recipient;
-        this.contractId = contractId;
-    }
-
-    /**
-     * Set the response parameters for the message
-     *
-     * @param recipient The recipient of the response
-     * @param correlationMessage The correlation message
-     * @param contractId The id of the contract
-     */
-    public void setResponseParameters(URI recipient, URI correlationMessage, URI contractId) {
-        this.recipient = recipient;
-        this.correlationMessage = correlationMessage;
-        this.contractId = contractId;
-    }
-
     /**
      * Build the contract request
      *
@@ -145,9 +116,10 @@ public class ContractMessageService extends MessageService {
      * Build contract agreement. Keeps parameters and id.
      *
      * @param contract The contract
+     * @param contractId The id of the agreement or null, to generate one
      * @return The contract agreement
      */
-    public ContractAgreement buildContractAgreement(Contract contract)
+    public ContractAgreement buildContractAgreement(Contract contract, URI contractId)
             throws MessageBuilderException {
         if (contractId == null) {
             return new ContractAgreementBuilder()
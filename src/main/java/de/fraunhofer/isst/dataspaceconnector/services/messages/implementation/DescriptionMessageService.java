@@ -6,6 +6,8 @@ import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageBuilderEx
 import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.InvalidResourceException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceException;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageExecutor;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.RequestedResourceServiceImpl;
@@ -36,7 +38,6 @@ public class DescriptionMessageService extends MessageService {
     private final ConfigurationContainer configurationContainer;
     private final DapsTokenProvider tokenProvider;
     private final ResourceService resourceService;
-    private URI recipient, resourceId, correlationMessageId;
 
     /**
      * Constructor
@@ -55,8 +56,10 @@ public class DescriptionMessageService extends MessageService {
                                      ConfigurationContainer configurationContainer,
                                      OfferedResourceServiceImpl resourceService,
                                      SerializerProvider serializerProvider,
-        RequestedResourceServiceImpl requestedResourceService) throws IllegalArgumentException {
-        super(idsHttpService, serializerProvider, resourceService, configurationContainer);
+        RequestedResourceServiceImpl requestedResourceService,
+        MessageExecutor messageExecutor) throws IllegalArgumentException {
+        super(idsHttpService, serializerProvider, resourceService, configurationContainer,
+            messageExecutor);
 
         if (tokenProvider == null)
             throw new IllegalArgumentException("The TokenProvider cannot be null.");
@@ -73,18 +76,18 @@ public class DescriptionMessageService extends MessageService {
      * {@inheritDoc}
      */
     @Override
-    public RequestMessage buildRequestHeader() throws MessageBuilderException {
+    public RequestMessage buildRequestHeader(MessageParameters parameters) throws MessageBuilderException {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
-        if (resourceId == null) {
+        if (parameters.getResource() == null) {
             return new DescriptionRequestMessageBuilder()
                 ._issued_(getGregorianNow())
                 ._modelVersion_(connector.getOutboundModelVersion())
                 ._issuerConnector_(connector.getId())
                 ._senderAgent_(connector.getId())
                 ._securityToken_(tokenProvider.getDAT())
-                ._recipientConnector_(Util.asList(recipient))
+                ._recipientConnector_(Util.asList(parameters.getRecipient()))
                 .build();
         } else {
             return new DescriptionRequestMessageBuilder()
@@ -92,9 +95,9 @@ public class DescriptionMessageService extends MessageService {
                 ._modelVersion_(connector.getOutboundModelVersion())
                 ._issuerConnector_(connector.getId())
                 ._senderAgent_(connector.getId())
-                ._requestedElement_(resourceId)
+                ._requestedElement_(parameters.getResource())
                 ._securityToken_(tokenProvider.getDAT())
-                ._recipientConnector_(Util.asList(recipient))
+                ._recipientConnector_(Util.asList(parameters.getRecipient()))
                 .build();
         }
     }
@@ -103,51 +106,21 @@ public class DescriptionMessageService extends MessageService {
      * {@inheritDoc}
      */
     @Override
-    public Message buildResponseHeader() throws MessageBuilderException {
+    public Message buildResponseHeader(MessageParameters parameters) throws MessageBuilderException {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
         return new DescriptionResponseMessageBuilder()
             ._securityToken_(tokenProvider.getDAT())
-            ._correlationMessage_(correlationMessageId)
+            ._correlationMessage_(parameters.getCorrelationMessage())
             ._issued_(getGregorianNow())
             ._issuerConnector_(connector.getId())
             ._modelVersion_(connector.getOutboundModelVersion())
             ._senderAgent_(connector.getId())
-            ._recipientConnector_(Util.asList(recipient))
+            ._recipientConnector_(Util.asList(parameters.getRecipient()))
             .build();
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public URI getRecipient() {
-        return recipient;
-    }
-
-    /**
-     * Set the request parameters for the message
-     *
-     * @param recipient The recipient of the request
-     * @param resourceId The id of the resource
-     */
-    public void setRequestParameters(URI recipient, URI resourceId) {
-        this.recipient = recipient;
-        this.resourceId = resourceId;
-    }
-
-    /**
-     * Set the response parameters for the artifact message
-     *
-     * @param recipient The recipient of the response
-     * @param correlationMessageId The id of the correlation message
-     */
-    public void setResponseParameters(URI recipient, URI correlationMessageId) {
-        this.recipient = recipient;
-        this.correlationMessageId = correlationMessageId;
-    }
-
     /**
      * Saves the metadata to the internal database.
      *
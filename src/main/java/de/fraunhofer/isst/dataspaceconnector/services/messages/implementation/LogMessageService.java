@@ -4,6 +4,9 @@ import de.fraunhofer.iais.eis.LogMessageBuilder;
 import de.fraunhofer.iais.eis.Message;
 import de.fraunhofer.iais.eis.util.Util;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageBuilderException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageException;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageExecutor;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
 import de.fraunhofer.isst.ids.framework.communication.http.IDSHttpService;
@@ -14,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
+import java.util.Map;
 
 import static de.fraunhofer.isst.ids.framework.util.IDSUtils.getGregorianNow;
 
@@ -40,8 +44,10 @@ public class LogMessageService extends MessageService {
     @Autowired
     public LogMessageService(DapsTokenProvider tokenProvider, IDSHttpService idsHttpService,
         ConfigurationContainer configurationContainer, OfferedResourceServiceImpl resourceService,
-        SerializerProvider serializerProvider) throws IllegalArgumentException {
-        super(idsHttpService, serializerProvider, resourceService, configurationContainer);
+        SerializerProvider serializerProvider,
+        MessageExecutor messageExecutor) throws IllegalArgumentException {
+        super(idsHttpService, serializerProvider, resourceService, configurationContainer,
+            messageExecutor);
 
         if (tokenProvider == null)
             throw new IllegalArgumentException("The TokenProvider cannot be null.");
@@ -56,7 +62,7 @@ public class LogMessageService extends MessageService {
      * {@inheritDoc}
      */
     @Override
-    public Message buildRequestHeader() throws MessageBuilderException {
+    public Message buildRequestHeader(MessageParameters parameters) throws MessageBuilderException {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
@@ -66,7 +72,7 @@ public class LogMessageService extends MessageService {
             ._issuerConnector_(connector.getId())
             ._senderAgent_(connector.getId())
             ._securityToken_(tokenProvider.getDAT())
-            ._recipientConnector_(Util.asList(recipient))
+            ._recipientConnector_(Util.asList(parameters.getRecipient()))
             .build();
     }
 
@@ -74,15 +80,18 @@ public class LogMessageService extends MessageService {
      * {@inheritDoc}
      */
     @Override
-    public Message buildResponseHeader() throws MessageBuilderException {
+    public Message buildResponseHeader(MessageParameters parameters) throws MessageBuilderException {
         return null;
     }
 
     /**
-     * {@inheritDoc}
+     * Sends a log message to the clearing house.
+     *
+     * @param payload the message payload.
+     * @return the HTTP response.
+     * @throws MessageException if a header could not be built or the message could not be sent.
      */
-    @Override
-    public URI getRecipient() {
-        return recipient;
+    public Map<String, String> sendRequestMessage(String payload) throws MessageException {
+        return sendRequestMessage(MessageParameters.to(recipient), payload);
     }
 }
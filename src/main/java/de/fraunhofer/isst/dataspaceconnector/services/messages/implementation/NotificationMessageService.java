@@ -5,6 +5,8 @@ import de.fraunhofer.iais.eis.MessageProcessedNotificationMessageBuilder;
 import de.fraunhofer.iais.eis.NotificationMessageBuilder;
 import de.fraunhofer.iais.eis.util.Util;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageBuilderException;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageExecutor;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
 import de.fraunhofer.isst.ids.framework.communication.http.IDSHttpService;
@@ -14,8 +16,6 @@ import de.fraunhofer.isst.ids.framework.daps.DapsTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.net.URI;
-
 import static de.fraunhofer.isst.ids.framework.util.IDSUtils.getGregorianNow;
 
 /**
@@ -26,7 +26,6 @@ public class NotificationMessageService extends MessageService {
 
     private final ConfigurationContainer configurationContainer;
     private final DapsTokenProvider tokenProvider;
-    private URI recipient, correlationMessageId;
 
     /**
      * Constructor
@@ -41,8 +40,10 @@ public class NotificationMessageService extends MessageService {
     @Autowired
     public NotificationMessageService(DapsTokenProvider tokenProvider, IDSHttpService idsHttpService,
         ConfigurationContainer configurationContainer, OfferedResourceServiceImpl resourceService,
-        SerializerProvider serializerProvider) throws IllegalArgumentException {
-        super(idsHttpService, serializerProvider, resourceService, configurationContainer);
+        SerializerProvider serializerProvider,
+        MessageExecutor messageExecutor) throws IllegalArgumentException {
+        super(idsHttpService, serializerProvider, resourceService, configurationContainer,
+            messageExecutor);
 
         if (tokenProvider == null)
             throw new IllegalArgumentException("The TokenProvider cannot be null.");
@@ -55,7 +56,7 @@ public class NotificationMessageService extends MessageService {
      * {@inheritDoc}
      */
     @Override
-    public Message buildRequestHeader() throws MessageBuilderException {
+    public Message buildRequestHeader(MessageParameters parameters) throws MessageBuilderException {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
@@ -65,7 +66,7 @@ public class NotificationMessageService extends MessageService {
             ._issuerConnector_(connector.getId())
             ._senderAgent_(connector.getId())
             ._securityToken_(tokenProvider.getDAT())
-            ._recipientConnector_(Util.asList(recipient))
+            ._recipientConnector_(Util.asList(parameters.getRecipient()))
             .build();
     }
 
@@ -73,46 +74,19 @@ public class NotificationMessageService extends MessageService {
      * {@inheritDoc}
      */
     @Override
-    public Message buildResponseHeader() throws MessageBuilderException {
+    public Message buildResponseHeader(MessageParameters parameters) throws MessageBuilderException {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
         return new MessageProcessedNotificationMessageBuilder()
             ._securityToken_(tokenProvider.getDAT())
-            ._correlationMessage_(correlationMessageId)
+            ._correlationMessage_(parameters.getCorrelationMessage())
             ._issued_(getGregorianNow())
             ._issuerConnector_(connector.getId())
             ._modelVersion_(connector.getOutboundModelVersion())
             ._senderAgent_(connector.getId())
-            ._recipientConnector_(Util.asList(recipient))
+            ._recipientConnector_(Util.asList(parameters.getRecipient()))
             .build();
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public URI getRecipient() {
-        return recipient;
-    }
-
-    /**
-     * Set the request parameters for the message
-     *
-     * @param recipient The recipient of the request
-     */
-    public void setRequestParameters(URI recipient) {
-        this.recipient = recipient;
-    }
-
-    /**
-     * Set the response parameters for the message
-     *
-     * @param recipient The recipient of the response
-     * @param correlationMessageId The id of the correlation message
-     */
-    public void setResponseParameters(URI recipient, URI correlationMessageId) {
-        this.recipient = recipient;
-        this.correlationMessageId = correlationMessageId;
-    }
 }
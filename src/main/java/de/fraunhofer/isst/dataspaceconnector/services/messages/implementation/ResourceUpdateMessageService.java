@@ -11,6 +11,8 @@ import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceExcepti
 import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceNotFoundException;
 import de.fraunhofer.isst.dataspaceconnector.model.RequestedResource;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageExecutor;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.handler.ResourceUpdateMessageHandler;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
@@ -42,7 +44,6 @@ public class ResourceUpdateMessageService extends MessageService {
     private final DapsTokenProvider tokenProvider;
     private final ResourceService requestedResourceService;
     private final ArtifactMessageService artifactMessageService;
-    private URI recipient, resourceID, correlationMessageId;
 
     /**
      * Constructor
@@ -62,8 +63,10 @@ public class ResourceUpdateMessageService extends MessageService {
                                         OfferedResourceServiceImpl resourceService,
                                         SerializerProvider serializerProvider,
                                         RequestedResourceServiceImpl requestedResourceService,
-                                        ArtifactMessageService artifactMessageService) throws IllegalArgumentException {
-        super(idsHttpService, serializerProvider, resourceService, configurationContainer);
+                                        ArtifactMessageService artifactMessageService,
+                                        MessageExecutor messageExecutor) throws IllegalArgumentException {
+        super(idsHttpService, serializerProvider, resourceService, configurationContainer,
+            messageExecutor);
 
         if (tokenProvider == null)
             throw new IllegalArgumentException("The TokenProvider cannot be null.");
@@ -78,7 +81,7 @@ public class ResourceUpdateMessageService extends MessageService {
      * {@inheritDoc}
      */
     @Override
-    public Message buildRequestHeader() throws MessageBuilderException {
+    public Message buildRequestHeader(MessageParameters parameters) throws MessageBuilderException {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
@@ -86,10 +89,10 @@ public class ResourceUpdateMessageService extends MessageService {
                 ._issued_(getGregorianNow())
                 ._modelVersion_(connector.getOutboundModelVersion())
                 ._issuerConnector_(connector.getId())
-                ._affectedResource_(resourceID)
+                ._affectedResource_(parameters.getResource())
                 ._senderAgent_(connector.getId())
                 ._securityToken_(tokenProvider.getDAT())
-                ._recipientConnector_(Util.asList(recipient))
+                ._recipientConnector_(Util.asList(parameters.getRecipient()))
                 .build();
     }
 
@@ -97,51 +100,21 @@ public class ResourceUpdateMessageService extends MessageService {
      * {@inheritDoc}
      */
     @Override
-    public Message buildResponseHeader() throws MessageBuilderException {
+    public Message buildResponseHeader(MessageParameters parameters) throws MessageBuilderException {
         // Get a local copy of the current connector.
         var connector = configurationContainer.getConnector();
 
         return new MessageProcessedNotificationMessageBuilder()
                 ._securityToken_(tokenProvider.getDAT())
-                ._correlationMessage_(correlationMessageId)
+                ._correlationMessage_(parameters.getCorrelationMessage())
                 ._issued_(getGregorianNow())
                 ._issuerConnector_(connector.getId())
                 ._modelVersion_(connector.getOutboundModelVersion())
                 ._senderAgent_(connector.getId())
-                ._recipientConnector_(Util.asList(recipient))
+                ._recipientConnector_(Util.asList(parameters.getRecipient()))
                 .build();
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public URI getRecipient() {
-        return recipient;
-    }
-
-    /**
-     * Set the request parameters for the message
-     *
-     * @param recipient The recipient of the request
-     * @param resourceID The resource ID in the request
-     */
-    public void setRequestParameters(URI recipient, URI resourceID) {
-        this.recipient = recipient;
-        this.resourceID = resourceID;
-    }
-
-    /**
-     * Set the response parameters for the message
-     *
-     * @param recipient The recipient of the response
-     * @param correlationMessageId The id of the correlation message
-     */
-    public void setResponseParameters(URI recipient, URI correlationMessageId) {
-        this.recipient = recipient;
-        this.correlationMessageId = correlationMessageId;
-    }
-
     /**
      * Update a resource in the internal database.
      *
@@ -201,8 +174,8 @@ public class ResourceUpdateMessageService extends MessageService {
         Map<String, String> response;
         try {
             // Send ArtifactRequestMessage.
-            artifactMessageService.setRequestParameters(recipient, artifactId, contractAgreementId);
-            response = artifactMessageService.sendRequestMessage("");
+            response = artifactMessageService.sendRequestMessage(MessageParameters.to(recipient)
+                .withArtifact(artifactId).withContract(contractAgreementId), "");
         } catch (MessageBuilderException exception) {
             // Failed to build the artifact request message.
             LOGGER.warn("Failed to build a request. [exception=({})]", exception.getMessage());
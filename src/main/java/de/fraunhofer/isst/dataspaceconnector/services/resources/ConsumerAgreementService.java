@@ -0,0 +1,216 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resources;
+
+import de.fraunhofer.iais.eis.Contract;
+import de.fraunhofer.iais.eis.Rule;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.RequestFormatException;
+import de.fraunhofer.isst.dataspaceconnector.config.PolicyConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.contract.UnsupportedPatternException;
+import de.fraunhofer.isst.dataspaceconnector.model.ConsumerAgreement;
+import de.fraunhofer.isst.dataspaceconnector.repositories.ConsumerAgreementRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.PolicyHandler;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.ContractUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.net.URI;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * This class keeps the contract agreements this connector concluded as consumer, indexed by
+ * provider and artifact. Before a new negotiation is started, a still valid agreement for the
+ * same artifact and with the same rules can be looked up and reused. Agreements without an end
+ * are reused for policy.agreement.reuse-ttl ms at most.
+ */
+@Service
+public class ConsumerAgreementService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConsumerAgreementService.class);
+
+    private final ConsumerAgreementRepository consumerAgreementRepository;
+    private final PolicyHandler policyHandler;
+    private final PolicyConfiguration policyConfiguration;
+
+    /**
+     * Constructor for ConsumerAgreementService.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public ConsumerAgreementService(ConsumerAgreementRepository consumerAgreementRepository,
+        PolicyHandler policyHandler, PolicyConfiguration policyConfiguration)
+        throws IllegalArgumentException {
+        if (consumerAgreementRepository == null)
+            throw new IllegalArgumentException("The ConsumerAgreementRepository cannot be null.");
+
+        if (policyHandler == null)
+            throw new IllegalArgumentException("The PolicyHandler cannot be null.");
+
+        if (policyConfiguration == null)
+            throw new IllegalArgumentException("The PolicyConfiguration cannot be null.");
+
+        this.consumerAgreementRepository = consumerAgreementRepository;
+        this.policyHandler = policyHandler;
+        this.policyConfiguration = policyConfiguration;
+    }
+
+    /**
+     * Stores a concluded agreement for every artifact its rules target. The validity is the
+     * contract period, narrowed to the interval of a time restricted usage policy and to
+     * policy.agreement.reuse-ttl ms if it has no end. Agreements that prohibit access are not
+     * stored.
+     *
+     * @param provider the connector the agreement was concluded with.
+     * @param agreement the contract agreement.
+     */
+    public void addAgreement(URI provider, Contract agreement) {
+        if (provider == null || agreement == null || agreement.getId() == null) {
+            return;
+        }
+
+        var validFrom = toDate(agreement.getContractStart());
+        var validUntil = toDate(agreement.getContractEnd());
+        try {
+            final var policy = policyHandler.evaluate(agreement.toRdf());
+            if (policy.getPattern() == PolicyHandler.Pattern.PROHIBIT_ACCESS) {
+                LOGGER.debug("Agreement prohibits access and is not kept. [agreement=({})]",
+                    agreement.getId());
+                return;
+            }
+
+            validFrom = latest(validFrom, policy.getStart());
+            validUntil = earliest(validUntil, policy.getEnd());
+        } catch (UnsupportedPatternException | RequestFormatException exception) {
+            // The provider enforces the policy, the contract period is still known.
+            LOGGER.debug("Could not read agreement policy. [agreement=({}), exception=({})]",
+                agreement.getId(), exception.getMessage());
+        }
+
+        if (validUntil == null) {
+            validUntil = new Date(System.currentTimeMillis()
+                + policyConfiguration.getAgreementReuseTtl());
+        }
+
+        final var fingerprint = ContractUtils.fingerprint(agreement);
+        for (final var artifact : getTargets(agreement)) {
+            consumerAgreementRepository.save(new ConsumerAgreement(provider, artifact,
+                agreement.getId(), fingerprint, validFrom, validUntil));
+        }
+
+        LOGGER.debug("Stored consumer agreement. [provider=({}), agreement=({}), validFrom=({}), "
+            + "validUntil=({})]", provider, agreement.getId(), validFrom, validUntil);
+    }
+
+    /**
+     * Finds the most recent agreement for an artifact of a provider that is valid now. Expired
+     * agreements found on the way are removed.
+     *
+     * @param provider the connector that provides the artifact.
+     * @param artifact ID of the artifact.
+     * @return the id of the agreement, empty if no valid agreement is known.
+     */
+    public Optional<URI> getValidAgreement(URI provider, URI artifact) {
+        return findValidAgreement(provider, artifact, null);
+    }
+
+    /**
+     * Finds the most recent agreement for an artifact of a provider that is valid now and has
+     * the same rules as a contract offer, see {@link ContractUtils#fingerprint(Contract)}.
+     * Expired agreements found on the way are removed.
+     *
+     * @param provider the connector that provides the artifact.
+     * @param artifact ID of the artifact.
+     * @param contractOffer the contract offer as JSON-LD.
+     * @return the id of the agreement, empty if no matching valid agreement is known or the offer
+     * cannot be read.
+     */
+    public Optional<URI> getValidAgreement(URI provider, URI artifact, String contractOffer) {
+        if (contractOffer == null) {
+            return Optional.empty();
+        }
+
+        final String fingerprint;
+        try {
+            fingerprint = ContractUtils.fingerprint(policyHandler.validateContract(contractOffer));
+        } catch (RequestFormatException exception) {
+            // The negotiation reports the malformed offer.
+            return Optional.empty();
+        }
+
+        return findValidAgreement(provider, artifact, fingerprint);
+    }
+
+    /**
+     * Finds the most recent valid agreement and removes expired ones.
+     *
+     * @param fingerprint the fingerprint the agreement has to match, null for any agreement.
+     */
+    private Optional<URI> findValidAgreement(URI provider, URI artifact, String fingerprint) {
+        if (provider == null || artifact == null) {
+            return Optional.empty();
+        }
+
+        final var now = new Date();
+        final var agreements =
+            consumerAgreementRepository.findByProviderAndArtifact(provider, artifact);
+
+        final var expired = agreements.stream()
+            .filter(agreement -> agreement.isExpiredAt(now))
+            .collect(Collectors.toList());
+        if (!expired.isEmpty()) {
+            consumerAgreementRepository.deleteAll(expired);
+        }
+
+        return agreements.stream()
+            .filter(agreement -> agreement.isValidAt(now))
+            .filter(agreement -> fingerprint == null
+                || fingerprint.equals(agreement.getPolicyFingerprint()))
+            .max(Comparator.comparing(ConsumerAgreement::getCreated))
+            .map(ConsumerAgreement::getAgreement);
+    }
+
+    /**
+     * Collects the targets of all rules of a contract.
+     */
+    private static Set<URI> getTargets(Contract contract) {
+        final var targets = new LinkedHashSet<URI>();
+        addTargets(targets, contract.getPermission());
+        addTargets(targets, contract.getProhibition());
+        addTargets(targets, contract.getObligation());
+        return targets;
+    }
+
+    private static void addTargets(Set<URI> targets, List<? extends Rule> rules) {
+        if (rules != null) {
+            for (final var rule : rules) {
+                if (rule.getTarget() != null) {
+                    targets.add(rule.getTarget());
+                }
+            }
+        }
+    }
+
+    private static Date toDate(XMLGregorianCalendar calendar) {
+        return calendar == null ? null : calendar.toGregorianCalendar().getTime();
+    }
+
+    private static Date latest(Date a, Date b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.after(b) ? a : b;
+    }
+
+    private static Date earliest(Date a, Date b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.before(b) ? a : b;
+    }
+}
@@ -1,6 +1,7 @@
 package de.fraunhofer.isst.dataspaceconnector.services.resources;
 
 import de.fraunhofer.iais.eis.Action;
+import de.fraunhofer.iais.eis.Contract;
 import de.fraunhofer.iais.eis.ContractOffer;
 import de.fraunhofer.iais.eis.ContractOfferBuilder;
 import de.fraunhofer.iais.eis.PermissionBuilder;
@@ -13,27 +14,43 @@ import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceAlready
 import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceNotFoundException;
 import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedRepresentation;
 import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
 import de.fraunhofer.isst.dataspaceconnector.model.QueryInput;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.repositories.OfferedRepresentationRepository;
 import de.fraunhofer.isst.dataspaceconnector.repositories.OfferedResourceRepository;
-import de.fraunhofer.isst.dataspaceconnector.services.utils.HttpUtils;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.ContractUtils;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.BackendClient;
 import de.fraunhofer.isst.dataspaceconnector.services.utils.IdsUtils;
 import de.fraunhofer.isst.dataspaceconnector.services.utils.UUIDUtils;
+import de.fraunhofer.isst.ids.framework.configuration.SerializerProvider;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.lang3.NotImplementedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -46,10 +63,24 @@ public class OfferedResourceServiceImpl implements ResourceService {
     private static final Logger LOGGER = LoggerFactory.getLogger(OfferedResourceServiceImpl.class);
 
     private final OfferedResourceRepository offeredResourceRepository;
-    private final HttpUtils httpUtils;
+    private final OfferedRepresentationRepository offeredRepresentationRepository;
+    private final BackendClient backendClient;
     private final IdsUtils idsUtils;
+    private final SelfDescriptionCache selfDescriptionCache;
+    private final ResourceDataStore resourceDataStore;
+    private final SerializerProvider serializerProvider;
     private final ContractOffer contractOffer;
 
+    /**
+     * Maps the artifact IDs (the IDs of the representations) to the IDs of their resources. The
+     * index is loaded on first use and kept in sync by every write of this service once the write
+     * has been committed. Changes of the index are guarded by the index itself,
+     * {@link #indexedArtifacts} holds the artifact IDs of every indexed resource.
+     */
+    private final Map<UUID, UUID> artifactIndex = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<UUID>> indexedArtifacts = new HashMap<>();
+    private volatile boolean artifactIndexLoaded = false;
+
     /**
      * Constructor for OfferedResourceServiceImpl.
      *
@@ -57,19 +88,39 @@ public class OfferedResourceServiceImpl implements ResourceService {
      */
     @Autowired
     public OfferedResourceServiceImpl(OfferedResourceRepository offeredResourceRepository,
-        HttpUtils httpUtils, IdsUtils idsUtils) throws IllegalArgumentException {
+        OfferedRepresentationRepository offeredRepresentationRepository,
+        BackendClient backendClient, IdsUtils idsUtils, SelfDescriptionCache selfDescriptionCache,
+        ResourceDataStore resourceDataStore, SerializerProvider serializerProvider)
+        throws IllegalArgumentException {
         if (offeredResourceRepository == null)
             throw new IllegalArgumentException("The OfferedResourceRepository cannot be null.");
 
-        if (httpUtils == null)
-            throw new IllegalArgumentException("The HttpUtils cannot be null.");
+        if (offeredRepresentationRepository == null)
+            throw new IllegalArgumentException(
+                "The OfferedRepresentationRepository cannot be null.");
+
+        if (backendClient == null)
+            throw new IllegalArgumentException("The BackendClient cannot be null.");
 
         if (idsUtils == null)
             throw new IllegalArgumentException("The IdsUtils cannot be null.");
 
+        if (selfDescriptionCache == null)
+            throw new IllegalArgumentException("The SelfDescriptionCache cannot be null.");
+
+        if (resourceDataStore == null)
+            throw new IllegalArgumentException("The ResourceDataStore cannot be null.");
+
+        if (serializerProvider == null)
+            throw new IllegalArgumentException("The SerializerProvider cannot be null.");
+
         this.offeredResourceRepository = offeredResourceRepository;
-        this.httpUtils = httpUtils;
+        this.offeredRepresentationRepository = offeredRepresentationRepository;
+        this.backendClient = backendClient;
         this.idsUtils = idsUtils;
+        this.selfDescriptionCache = selfDescriptionCache;
+        this.resourceDataStore = resourceDataStore;
+        this.serializerProvider = serializerProvider;
 
         contractOffer = new ContractOfferBuilder()
             ._permission_(Util.asList(new PermissionBuilder()
@@ -87,8 +138,7 @@ public class OfferedResourceServiceImpl implements ResourceService {
      */
     @Override
     public List<Resource> getResources() {
-        return getAllResources().parallelStream().map(idsUtils::getAsResource)
-            .collect(Collectors.toList());
+        return selfDescriptionCache.getOfferedResources();
     }
 
     /**
@@ -97,12 +147,98 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * @return the map
      */
     public Map<UUID, Resource> getOfferedResources() {
-        return getAllResources().parallelStream().collect(Collectors
-            .toMap(OfferedResource::getUuid, idsUtils::getAsResource));
+        return selfDescriptionCache.getOfferedResources().stream().collect(Collectors
+            .toMap(resource -> UUIDUtils.uuidFromUri(resource.getId()), resource -> resource));
+    }
+
+    /**
+     * Returns a single offered resource as IDS information model resource.
+     *
+     * @param resourceId ID of the resource
+     * @return the resource or null, if it does not exist
+     */
+    public Resource getOfferedResource(UUID resourceId) {
+        return selfDescriptionCache.getResource(resourceId);
     }
 
     /**
-     * Saves the resource with its metadata.
+     * Finds the offered resource that contains a representation with the given artifact ID and
+     * returns it as IDS information model resource. Only the matching resource is loaded.
+     *
+     * @param artifactId ID of the artifact
+     * @return the resource or null, if no resource offers the artifact
+     * @throws InvalidResourceException if the resource is invalid.
+     */
+    public Resource getResourceByArtifactId(UUID artifactId) throws InvalidResourceException {
+        final var resourceId = getResourceIdByArtifactId(artifactId);
+        if (resourceId == null) {
+            return null;
+        }
+
+        final var resource = getResource(resourceId);
+        if (resource == null
+            || !resource.getResourceMetadata().getRepresentations().containsKey(artifactId)) {
+            // The index entry is outdated, drop it.
+            dropFromArtifactIndex(artifactId, resourceId);
+            return null;
+        }
+
+        return idsUtils.getAsResource(resource);
+    }
+
+    /**
+     * Returns the fingerprint of the policy of the offered resource that contains a
+     * representation with the given artifact ID, see {@link ContractUtils#fingerprint(Contract)}.
+     * Resources stored before fingerprints were kept get theirs on first use.
+     *
+     * @param artifactId ID of the artifact
+     * @return the fingerprint or null, if no resource offers the artifact or its policy cannot be
+     * read
+     * @throws InvalidResourceException if the resource is invalid.
+     */
+    public String getPolicyFingerprintByArtifactId(UUID artifactId)
+        throws InvalidResourceException {
+        final var resourceId = getResourceIdByArtifactId(artifactId);
+        if (resourceId == null) {
+            return null;
+        }
+
+        final var resource = getResource(resourceId);
+        if (resource == null
+            || !resource.getResourceMetadata().getRepresentations().containsKey(artifactId)) {
+            // The index entry is outdated, drop it.
+            dropFromArtifactIndex(artifactId, resourceId);
+            return null;
+        }
+
+        if (resource.getPolicyFingerprint() == null) {
+            updatePolicyFingerprint(resource);
+            if (resource.getPolicyFingerprint() != null) {
+                offeredResourceRepository.save(resource);
+            }
+        }
+
+        return resource.getPolicyFingerprint();
+    }
+
+    /**
+     * Finds the ID of the offered resource that contains a representation with the given artifact
+     * ID.
+     *
+     * @param artifactId ID of the artifact
+     * @return the resource ID or null, if no resource offers the artifact
+     */
+    public UUID getResourceIdByArtifactId(UUID artifactId) {
+        if (!artifactIndexLoaded) {
+            loadArtifactIndex();
+        }
+
+        return artifactIndex.get(artifactId);
+    }
+
+    /**
+     * Saves the resource with its metadata. The resource and its representation ids are stored in
+     * one transaction, {@link #addResourceWithId} is called directly and does not start its own.
      *
      * @param resourceMetadata the resource's metadata.
      * @return the UUID of the newly created resource.
@@ -111,6 +247,7 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * @throws ResourceException        - if the resource could not be created.
      */
     @Override
+    @Transactional
     public UUID addResource(ResourceMetadata resourceMetadata) throws ResourceException {
         try {
             final var uuid = UUIDUtils.createUUID((UUID x) -> {
@@ -136,9 +273,10 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * @throws InvalidResourceException if the resource is not valid.
      * @throws ResourceAlreadyExistsException    - if the resource does already exists.
      */
+    @Transactional
     public void addResourceWithId(ResourceMetadata resourceMetadata, UUID uuid) throws
         InvalidResourceException, ResourceAlreadyExistsException {
-        if (getResource(uuid) != null) {
+        if (offeredResourceRepository.existsById(uuid)) {
             throw new ResourceAlreadyExistsException("The resource does already exist.");
         }
 
@@ -150,6 +288,7 @@ public class OfferedResourceServiceImpl implements ResourceService {
         final var resource = new OfferedResource(uuid, new Date(), new Date(), resourceMetadata,
             "");
 
+        updatePolicyFingerprint(resource);
         storeResource(resource);
         LOGGER.debug("Added a new resource. [uuid=({}), metadata=({})]", uuid, resourceMetadata);
     }
@@ -171,18 +310,7 @@ public class OfferedResourceServiceImpl implements ResourceService {
     }
 
     private UUID generateRepresentationId() {
-        return UUIDUtils.createUUID((UUID x) -> {
-            try {
-                for(final var resource : getAllResources()) {
-                    if(getAllRepresentations(resource.getUuid()).keySet().stream().anyMatch(y -> y.equals(x)))
-                        return true;
-                }
-
-                return false;
-            } catch (InvalidResourceException e) {
-                return false;
-            }
-        });
+        return UUIDUtils.createUUID(offeredRepresentationRepository::existsById);
     }
 
     /**
@@ -194,16 +322,16 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * @throws InvalidResourceException if the resource is invalid
      */
     @Override
+    @Transactional
     public void addData(UUID resourceId, String data) throws InvalidResourceException,
         ResourceNotFoundException {
-        final var resource = getResource(resourceId);
-        if (resource == null) {
-            throw new ResourceNotFoundException("The resource does not exist.");
-        }
+        final var resource = getExistingResource(resourceId);
+        resourceDataStore.write(resourceId, data);
 
-        resource.setData(data);
+        // Drop a payload left over in the database column.
+        resource.setData(null);
         storeResource(resource);
-        LOGGER.debug("Added data to resource. [resourceId=({}), data=({})]", resourceId, data);
+        LOGGER.debug("Added data to resource. [resourceId=({})]", resourceId);
     }
 
     /**
@@ -214,18 +342,16 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * @throws InvalidResourceException if the resource is invalid.
      * @throws ResourceNotFoundException if the resource could not be found
      */
+    @Transactional
     public void updateResource(UUID resourceId, ResourceMetadata resourceMetadata) throws
         InvalidResourceException, ResourceNotFoundException {
-        final var resource = getResource(resourceId);
-        if (resource == null) {
-            throw new ResourceNotFoundException("The resource does not exist.");
-        }
-
+        final var resource = getExistingResource(resourceId);
         if(resourceMetadata.getRepresentations() != null) {
             computeMissingRepresentationIds(resourceMetadata);
         }
 
         resource.setResourceMetadata(resourceMetadata);
+        updatePolicyFingerprint(resource);
         storeResource(resource);
         LOGGER.debug("Updated resource. [resourceId=({}), metadata=({})]", resourceId,
             resourceMetadata);
@@ -239,13 +365,16 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * @throws InvalidResourceException if the resource is invalid.
      * @throws ResourceNotFoundException if the resource could not be found
      */
+    @Transactional
     public void updateContract(UUID resourceId, String policy) throws ResourceNotFoundException,
         InvalidResourceException {
-        final var resourceMetadata = getMetadata(resourceId);
+        final var resource = getExistingResource(resourceId);
 
         // NOTE SAFETY CHECK
-        resourceMetadata.setPolicy(policy);
-        updateResource(resourceId, resourceMetadata);
+        resource.getResourceMetadata().setPolicy(policy);
+        resource.setModified(new Date());
+        updatePolicyFingerprint(resource);
+        storeResource(resource);
         LOGGER.debug("Updated contract of resource. [resourceId=({}), policy=({})]", resourceId,
             policy);
     }
@@ -257,16 +386,25 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * @return true, if the the resource was deleted; false otherwise
      */
     @Override
+    @Transactional
     public boolean deleteResource(UUID resourceId) {
         try {
             if (getResource(resourceId) != null) {
                 offeredResourceRepository.deleteById(resourceId);
+                offeredRepresentationRepository.deleteByResourceId(resourceId);
+                resourceDataStore.delete(resourceId);
+                afterCommit(() -> removeFromArtifactIndex(resourceId));
+                invalidateDescription(resourceId);
                 LOGGER.debug("Deleted resource. [resourceId=({})]", resourceId);
                 return true;
             }
         }catch(InvalidResourceException exception){
             // The resource exists, delete it
             offeredResourceRepository.deleteById(resourceId);
+            offeredRepresentationRepository.deleteByResourceId(resourceId);
+            resourceDataStore.delete(resourceId);
+            afterCommit(() -> removeFromArtifactIndex(resourceId));
+            invalidateDescription(resourceId);
             LOGGER.debug("Deleted resource. [resourceId=({})]", resourceId);
             return true;
         }
@@ -310,12 +448,7 @@ public class OfferedResourceServiceImpl implements ResourceService {
     @Override
     public ResourceMetadata getMetadata(UUID resourceId) throws ResourceNotFoundException,
         InvalidResourceException {
-        final var resource = getResource(resourceId);
-        if (resource == null) {
-            throw new ResourceNotFoundException("The resource does not exist.");
-        }
-
-        return resource.getResourceMetadata();
+        return getExistingResource(resourceId).getResourceMetadata();
     }
 
     /**
@@ -357,10 +490,11 @@ public class OfferedResourceServiceImpl implements ResourceService {
     @Override
     public String getData(UUID resourceId) throws ResourceNotFoundException,
             ResourceException {
-        final var representations = getAllRepresentations(resourceId);
-        for (var representationId : representations.keySet()) {
+        final var resource = getExistingResource(resourceId);
+        for (var representation : resource.getResourceMetadata().getRepresentations().values()) {
+            final var representationId = representation.getUuid();
             try {
-                return getDataByRepresentation(resourceId, representationId, null);
+                return getDataString(resource, representation, null);
             } catch (ResourceException exception) {
                 // The resource is incomplete or wrong.
                 LOGGER.debug("Resource exception. [resourceId=({}), representationId=({}), " +
@@ -376,7 +510,7 @@ public class OfferedResourceServiceImpl implements ResourceService {
 
         // This code should never be reached since the representation should have at least one
         // representation.
-        invalidResourceGuard(getResource(resourceId));
+        invalidResourceGuard(resource);
         // Add a runtime exception in case the resource valid logic changed.
         throw new RuntimeException("This code should not have been reached.");
     }
@@ -392,10 +526,11 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * @throws ResourceNotFoundException if the resource could not be found
      */
     public String getData(UUID resourceId, QueryInput queryInput) {
-        final var representations = getAllRepresentations(resourceId);
-        for (var representationId : representations.keySet()) {
+        final var resource = getExistingResource(resourceId);
+        for (var representation : resource.getResourceMetadata().getRepresentations().values()) {
+            final var representationId = representation.getUuid();
             try {
-                return getDataByRepresentation(resourceId, representationId, queryInput);
+                return getDataString(resource, representation, queryInput);
             } catch (ResourceException exception) {
                 // The resource is incomplete or wrong.
                 LOGGER.debug("Resource exception. [resourceId=({}), representationId=({}), " +
@@ -416,7 +551,7 @@ public class OfferedResourceServiceImpl implements ResourceService {
 
         // This code should never be reached since the representation should have at least one
         // representation.
-        invalidResourceGuard(getResource(resourceId));
+        invalidResourceGuard(resource);
         // Add a runtime exception in case the resource valid logic changed.
         throw new RuntimeException("This code should not have been reached.");
     }
@@ -434,17 +569,62 @@ public class OfferedResourceServiceImpl implements ResourceService {
     @Override
     public String getDataByRepresentation(UUID resourceId, UUID representationId, QueryInput queryInput)
             throws ResourceNotFoundException, ResourceException {
-        final var resource = getResource(resourceId);
-        if (resource == null) {
-            throw new ResourceNotFoundException("The resource does not exist.");
+        final var resource = getExistingResource(resourceId);
+        final var representation = resource.getResourceMetadata().getRepresentations()
+            .get(representationId);
+        if (representation == null) {
+            throw new ResourceNotFoundException("The resource representation does not exist.");
         }
 
-        final var representation = getRepresentation(resourceId, representationId);
+        return getDataString(resource, representation, queryInput);
+    }
+
+    /**
+     * Retrieves resource data from the local database or an external data source by ID as stream.
+     * Data from external sources is passed through without being read into memory. The caller has
+     * to close the returned stream.
+     *
+     * @param resourceId ID of the resource
+     * @param representationId ID of the representation
+     * @param queryInput Headers, path variables and params for data request from backend.
+     * @return resource data as stream
+     * @throws ResourceNotFoundException if the resource could not be found
+     * @throws ResourceException if the resource data could not be retrieved
+     */
+    public InputStream getDataStreamByRepresentation(UUID resourceId, UUID representationId,
+        QueryInput queryInput) throws ResourceNotFoundException, ResourceException {
+        return getDataStreamByRepresentation(resourceId, representationId, queryInput, 0, -1);
+    }
+
+    /**
+     * Retrieves a byte range of resource data from the local data store or an external data
+     * source as stream. Local data is read from the requested position on, external data is
+     * skipped up to it. The caller has to close the returned stream.
+     *
+     * @param resourceId ID of the resource
+     * @param representationId ID of the representation
+     * @param queryInput Headers, path variables and params for data request from backend.
+     * @param offset the first byte to read
+     * @param length the number of bytes to read or -1 to read until the end
+     * @return resource data as stream
+     * @throws ResourceNotFoundException if the resource could not be found
+     * @throws ResourceException if the resource data could not be retrieved
+     */
+    public InputStream getDataStreamByRepresentation(UUID resourceId, UUID representationId,
+        QueryInput queryInput, long offset, long length) throws ResourceNotFoundException,
+        ResourceException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("The offset cannot be negative.");
+        }
+
+        final var resource = getExistingResource(resourceId);
+        final var representation = resource.getResourceMetadata().getRepresentations()
+            .get(representationId);
         if (representation == null) {
             throw new ResourceNotFoundException("The resource representation does not exist.");
         }
 
-        return getDataString(resource, representation, queryInput);
+        return getDataStream(resource, representation, queryInput, offset, length);
     }
 
     /**
@@ -457,18 +637,11 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * @throws ResourceNotFoundException if the resource could not be found
      * @throws ResourceAlreadyExistsException if the representation already exists
      */
+    @Transactional
     public UUID addRepresentation(UUID resourceId, ResourceRepresentation representation) throws
         ResourceNotFoundException, InvalidResourceException, ResourceAlreadyExistsException {
-        final var uuid = UUIDUtils.createUUID(
-            (UUID x) -> {
-                try {
-                    return getRepresentation(resourceId, x) != null;
-                } catch (InvalidResourceException e) {
-                    return false;
-                }
-            });
-
-        return addRepresentationWithId(resourceId, representation, uuid);
+        final var resource = getExistingResource(resourceId);
+        return addRepresentationWithId(resource, representation, generateRepresentationId());
     }
 
     /**
@@ -482,20 +655,39 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * @throws ResourceNotFoundException if the resource could not be found
      * @throws ResourceAlreadyExistsException if the representation already exists
      */
+    @Transactional
     public UUID addRepresentationWithId(UUID resourceId, ResourceRepresentation representation,
         UUID representationId) throws
         ResourceNotFoundException, InvalidResourceException, ResourceAlreadyExistsException {
-        final var metaData = getMetadata(resourceId);
-        if (getRepresentation(resourceId, representationId) != null) {
+        return addRepresentationWithId(getExistingResource(resourceId), representation,
+            representationId);
+    }
+
+    /**
+     * Adds a representation with a given ID to an already loaded resource.
+     *
+     * @param resource the resource
+     * @param representation the representation
+     * @param representationId ID of the representation
+     * @return ID of the newly created representation
+     * @throws InvalidResourceException if the resource is invalid.
+     * @throws ResourceAlreadyExistsException if the representation already exists
+     */
+    private UUID addRepresentationWithId(OfferedResource resource,
+        ResourceRepresentation representation, UUID representationId) throws
+        InvalidResourceException, ResourceAlreadyExistsException {
+        final var representations = resource.getResourceMetadata().getRepresentations();
+        if (representations.containsKey(representationId)) {
             throw new ResourceAlreadyExistsException("The representation does already exist.");
         }
 
         representation.setUuid(representationId);
-        metaData.getRepresentations().put(representation.getUuid(), representation);
+        representations.put(representationId, representation);
+        resource.setModified(new Date());
 
-        updateResource(resourceId, metaData);
+        storeResource(resource);
         LOGGER.debug("Added representation to resource. [resourceId=({}), representationId=({}), " +
-                        "representation=({})]", resourceId, representationId, representation);
+                        "representation=({})]", resource.getUuid(), representationId, representation);
         return representationId;
     }
 
@@ -508,18 +700,18 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * @throws InvalidResourceException if the resource is invalid.
      * @throws ResourceNotFoundException if the resource could not be found
      */
+    @Transactional
     public void updateRepresentation(UUID resourceId, UUID representationId,
         ResourceRepresentation representation) throws
         ResourceNotFoundException, InvalidResourceException {
-        if (getRepresentation(resourceId, representationId) != null) {
+        final var resource = getExistingResource(resourceId);
+        final var representations = resource.getResourceMetadata().getRepresentations();
+        if (representations.containsKey(representationId)) {
             representation.setUuid(representationId);
-            var representations = getAllRepresentations(resourceId);
             representations.put(representationId, representation);
+            resource.setModified(new Date());
 
-            var metadata = getMetadata(resourceId);
-            metadata.setRepresentations(representations);
-
-            updateResource(resourceId, metadata);
+            storeResource(resource);
             LOGGER.debug(
                 "Updated representation of resource. [resourceId=({}), representationId=({}), representation=({})]",
                 resourceId, representationId, representation);
@@ -541,14 +733,13 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * @throws ResourceNotFoundException if the resource could not be found.
      * @throws InvalidResourceException if the resource is not valid.
      */
+    @Transactional
     public boolean deleteRepresentation(UUID resourceId, UUID representationId) throws
         ResourceNotFoundException, InvalidResourceException {
-        var representations = getAllRepresentations(resourceId);
-        if (representations.remove(representationId) != null) {
-            var metadata = getMetadata(resourceId);
-            metadata.setRepresentations(representations);
-
-            updateResource(resourceId, metadata);
+        final var resource = getExistingResource(resourceId);
+        if (resource.getResourceMetadata().getRepresentations().remove(representationId) != null) {
+            resource.setModified(new Date());
+            storeResource(resource);
             LOGGER.debug("Deleted resource representation. [resourceId=({}), representationId=({})]",
                 resourceId, representationId);
             return true;
@@ -617,13 +808,330 @@ public class OfferedResourceServiceImpl implements ResourceService {
      * Saves a resource after validating it.
      *
      * @throws InvalidResourceException if the resource is not valid.
+     * @throws ResourceAlreadyExistsException if a representation id is used by another resource.
      */
-    private void storeResource(OfferedResource resource) throws InvalidResourceException {
+    private void storeResource(OfferedResource resource) throws InvalidResourceException,
+        ResourceAlreadyExistsException {
         invalidResourceGuard(resource);
+        storeRepresentationIds(resource);
         offeredResourceRepository.save(resource);
+
+        final var resourceId = resource.getUuid();
+        final var representationIds =
+            Set.copyOf(resource.getResourceMetadata().getRepresentations().keySet());
+        afterCommit(() -> updateArtifactIndex(resourceId, representationIds));
+        invalidateDescription(resourceId);
         LOGGER.debug("Made resource persistent. [resource=({})]", resource);
     }
 
+    /**
+     * Registers new representation ids of a resource and removes the ones it no longer has. The
+     * number of queries depends on the changed representations only, not on the catalog size.
+     *
+     * @param resource the resource
+     * @throws ResourceAlreadyExistsException if a representation id is used by another resource.
+     */
+    private void storeRepresentationIds(OfferedResource resource) throws
+        ResourceAlreadyExistsException {
+        final var resourceId = resource.getUuid();
+        final var representationIds = resource.getResourceMetadata().getRepresentations().keySet();
+
+        final var stored = new HashSet<UUID>();
+        for (final var entry : offeredRepresentationRepository.findByResourceId(resourceId)) {
+            if (representationIds.contains(entry.getRepresentationId())) {
+                stored.add(entry.getRepresentationId());
+            } else {
+                offeredRepresentationRepository.delete(entry);
+            }
+        }
+
+        for (final var representationId : representationIds) {
+            if (stored.contains(representationId)) {
+                continue;
+            }
+
+            if (offeredRepresentationRepository.existsById(representationId)) {
+                LOGGER.debug("The representation id is already in use. [resourceId=({}), " +
+                    "representationId=({})]", resourceId, representationId);
+                throw new ResourceAlreadyExistsException("The representation does already exist.");
+            }
+
+            offeredRepresentationRepository.save(
+                new OfferedRepresentation(representationId, resourceId));
+        }
+    }
+
+    /**
+     * Sets the fingerprint of the current policy of a resource. A policy that cannot be read has
+     * no fingerprint.
+     *
+     * @param resource the resource
+     */
+    private void updatePolicyFingerprint(OfferedResource resource) {
+        final var policy = resource.getResourceMetadata().getPolicy();
+        String fingerprint = null;
+        if (policy != null) {
+            try {
+                fingerprint = ContractUtils.fingerprint(
+                    serializerProvider.getSerializer().deserialize(policy, Contract.class));
+            } catch (IOException | RuntimeException exception) {
+                LOGGER.debug("Could not deserialize contract. [resourceId=({}), exception=({})]",
+                    resource.getUuid(), exception.getMessage());
+            }
+        }
+
+        resource.setPolicyFingerprint(fingerprint);
+    }
+
+    /**
+     * Loads and validates a resource.
+     *
+     * @param resourceId ID of the resource
+     * @return the resource
+     * @throws ResourceNotFoundException if the resource could not be found
+     * @throws InvalidResourceException if the resource is not valid.
+     */
+    private OfferedResource getExistingResource(UUID resourceId) throws
+        ResourceNotFoundException, InvalidResourceException {
+        final var resource = getResource(resourceId);
+        if (resource == null) {
+            throw new ResourceNotFoundException("The resource does not exist.");
+        }
+
+        return resource;
+    }
+
+    /**
+     * Drops the cached description of a resource. Within a transaction, it is dropped again after
+     * the commit, so a description rebuilt from the old state in the meantime is not kept.
+     *
+     * @param resourceId ID of the resource
+     */
+    private void invalidateDescription(UUID resourceId) {
+        selfDescriptionCache.invalidate(resourceId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        selfDescriptionCache.invalidate(resourceId);
+                    }
+                });
+        }
+    }
+
+    /**
+     * Runs an action after the current transaction has been committed, or right away if there is
+     * no transaction. Changes of a rolled back transaction are not applied.
+     *
+     * @param action the action
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+    }
+
+    /**
+     * Builds the artifact index from the stored representation ids. Runs only once, later
+     * changes are applied by {@link #updateArtifactIndex(UUID, Set)} and
+     * {@link #removeFromArtifactIndex(UUID)}. Changes committed while the index is loaded wait
+     * for the load to finish.
+     */
+    private void loadArtifactIndex() {
+        synchronized (artifactIndex) {
+            if (artifactIndexLoaded) {
+                return;
+            }
+
+            for (final var entry : offeredRepresentationRepository.findAll()) {
+                addToArtifactIndex(entry.getRepresentationId(), entry.getResourceId());
+            }
+
+            artifactIndexLoaded = true;
+            LOGGER.debug("Loaded artifact index. [size=({})]", artifactIndex.size());
+        }
+    }
+
+    /**
+     * Replaces the index entries of a resource with its current representations.
+     *
+     * @param resourceId ID of the stored resource
+     * @param representationIds IDs of its representations
+     */
+    private void updateArtifactIndex(UUID resourceId, Set<UUID> representationIds) {
+        synchronized (artifactIndex) {
+            if (!artifactIndexLoaded) {
+                // The index will pick up the committed resource when it is loaded.
+                return;
+            }
+
+            final var previous = indexedArtifacts.remove(resourceId);
+            if (previous != null) {
+                for (final var artifactId : previous) {
+                    if (!representationIds.contains(artifactId)) {
+                        artifactIndex.remove(artifactId, resourceId);
+                    }
+                }
+            }
+
+            for (final var artifactId : representationIds) {
+                addToArtifactIndex(artifactId, resourceId);
+            }
+        }
+    }
+
+    /**
+     * Removes all index entries of a resource.
+     *
+     * @param resourceId ID of the resource
+     */
+    private void removeFromArtifactIndex(UUID resourceId) {
+        synchronized (artifactIndex) {
+            final var artifactIds = indexedArtifacts.remove(resourceId);
+            if (artifactIds != null) {
+                for (final var artifactId : artifactIds) {
+                    artifactIndex.remove(artifactId, resourceId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes an outdated index entry.
+     *
+     * @param artifactId ID of the artifact
+     * @param resourceId ID of the resource the artifact was indexed for
+     */
+    private void dropFromArtifactIndex(UUID artifactId, UUID resourceId) {
+        synchronized (artifactIndex) {
+            if (!artifactIndex.remove(artifactId, resourceId)) {
+                return;
+            }
+
+            final var artifactIds = indexedArtifacts.get(resourceId);
+            if (artifactIds != null) {
+                artifactIds.remove(artifactId);
+                if (artifactIds.isEmpty()) {
+                    indexedArtifacts.remove(resourceId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an index entry. Has to be called while holding the lock of the index.
+     *
+     * @param artifactId ID of the artifact
+     * @param resourceId ID of the resource
+     */
+    private void addToArtifactIndex(UUID artifactId, UUID resourceId) {
+        final var previous = artifactIndex.put(artifactId, resourceId);
+        if (previous != null && !previous.equals(resourceId)) {
+            final var artifactIds = indexedArtifacts.get(previous);
+            if (artifactIds != null) {
+                artifactIds.remove(artifactId);
+            }
+        }
+
+        indexedArtifacts.computeIfAbsent(resourceId, id -> new HashSet<>()).add(artifactId);
+    }
+
+    /**
+     * Restricts a stream to a byte range by skipping to the offset.
+     *
+     * @param stream the stream.
+     * @param offset the first byte to read.
+     * @param length the number of bytes to read or -1 to read until the end.
+     * @return the restricted stream.
+     * @throws ResourceException if the stream could not be skipped to the offset.
+     */
+    private InputStream limit(InputStream stream, long offset, long length)
+        throws ResourceException {
+        try {
+            IOUtils.skipFully(stream, offset);
+        } catch (IOException exception) {
+            IOUtils.closeQuietly(stream);
+            throw new ResourceException("Failed to retrieve the data.", exception);
+        }
+
+        return length < 0 ? stream : new BoundedInputStream(stream, length);
+    }
+
+    /**
+     * Opens a stream on the data of a local or external data source.
+     *
+     * @param resource       the connector resource object.
+     * @param representation the representation.
+     * @param queryInput Header and params for data request from backend.
+     * @return resource data as stream
+     * @throws ResourceException if the resource source is not defined or source url is
+     *                           ill-formatted.
+     */
+    private InputStream getDataStream(OfferedResource resource,
+                                      ResourceRepresentation representation,
+                                      QueryInput queryInput, long offset, long length)
+        throws ResourceException {
+        if (representation.getSource() != null) {
+            try {
+                switch (representation.getSource().getType()) {
+                    case LOCAL:
+                        if (resource.getData() != null) {
+                            // Data of older versions that has not been moved on startup.
+                            return limit(new ByteArrayInputStream(
+                                resource.getData().getBytes(StandardCharsets.UTF_8)), offset,
+                                length);
+                        }
+
+                        if (!resourceDataStore.exists(resource.getUuid())) {
+                            return new ByteArrayInputStream(new byte[0]);
+                        }
+
+                        return resourceDataStore.read(resource.getUuid(), offset, length);
+                    case HTTP_GET:
+                    case HTTPS_GET:
+                    case HTTPS_GET_BASICAUTH:
+                        return limit(backendClient.getStream(representation.getSource(),
+                            queryInput), offset, length);
+                    default:
+                        // This exception is only thrown when BackendSource.Type is expanded but this
+                        // switch is not
+                        throw new NotImplementedException("This type is not supported");
+                }
+            } catch (URISyntaxException exception) {
+                // One of the http requests received a non url as address
+                LOGGER.debug("Failed to resolve the target address. The resource representation " +
+                        "is not a URI. [resource=({}), representation=({}), exception=({}))]",
+                        resource, representation, exception);
+                throw new ResourceException("The deposited address is not a valid URI.",
+                    exception);
+            } catch (IllegalArgumentException exception) {
+                // Query input was invalid.
+                LOGGER.debug("Invalid query input. [resource=({}), representation=({}), " +
+                        "exception=({})]", resource, representation, exception);
+                throw exception;
+            } catch (RuntimeException exception) {
+                // One of the http calls encountered problems.
+                LOGGER.debug("Failed to establish source connection. [resource=({}), " +
+                        "representation=({}), exception=({}))]", resource, representation, exception);
+                throw new ResourceException("Failed to retrieve the data.", exception);
+            }
+        } else {
+            LOGGER.debug("Failed to receive the resource. The resource has no defined backend. " +
+                    "[resource=({}), representation=({}))]", resource, representation);
+            throw new ResourceException("The resource has no defined backend.");
+        }
+    }
+
     /**
      * Gets resource data as string.
      *
@@ -639,21 +1147,15 @@ public class OfferedResourceServiceImpl implements ResourceService {
                                  QueryInput queryInput) throws ResourceException {
         if (representation.getSource() != null) {
             try {
-                final var address = representation.getSource().getUrl();
-                final var username = representation.getSource().getUsername();
-                final var password = representation.getSource().getPassword();
-
                 switch (representation.getSource().getType()) {
                     case LOCAL:
-                        return resource.getData();
+                        // Data of older versions that has not been moved on startup.
+                        return resource.getData() != null ? resource.getData()
+                            : resourceDataStore.readString(resource.getUuid());
                     case HTTP_GET:
-                        return httpUtils.sendHttpGetRequest(address.toString(), queryInput);
                     case HTTPS_GET:
-                        return httpUtils.sendHttpsGetRequest(address.toString(), queryInput);
                     case HTTPS_GET_BASICAUTH:
-                        return httpUtils
-                            .sendHttpsGetRequestWithBasicAuth(address.toString(), username,
-                                password, queryInput);
+                        return backendClient.getString(representation.getSource(), queryInput);
                     default:
                         // This exception is only thrown when BackendSource.Type is expanded but this
                         // switch is not
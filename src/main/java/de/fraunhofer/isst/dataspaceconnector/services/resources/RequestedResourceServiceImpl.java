@@ -7,6 +7,8 @@ import de.fraunhofer.isst.dataspaceconnector.model.RequestedResource;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
 import de.fraunhofer.isst.dataspaceconnector.repositories.RequestedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.AccessCounter;
+import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.DeletionQueue;
 import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.PolicyHandler;
 import de.fraunhofer.isst.dataspaceconnector.services.utils.IdsUtils;
 import de.fraunhofer.isst.dataspaceconnector.model.QueryInput;
@@ -31,6 +33,9 @@ public class RequestedResourceServiceImpl implements ResourceService {
     private final RequestedResourceRepository requestedResourceRepository;
     private final IdsUtils idsUtils;
     private final PolicyHandler policyHandler;
+    private final ResourceDataStore resourceDataStore;
+    private final DeletionQueue deletionQueue;
+    private final AccessCounter accessCounter;
 
     /**
      * Constructor for RequestedResourceServiceImpl.
@@ -39,7 +44,9 @@ public class RequestedResourceServiceImpl implements ResourceService {
      */
     @Autowired
     public RequestedResourceServiceImpl(RequestedResourceRepository requestedResourceRepository,
-        IdsUtils idsUtils, PolicyHandler policyHandler) throws IllegalArgumentException {
+        IdsUtils idsUtils, PolicyHandler policyHandler, ResourceDataStore resourceDataStore,
+        DeletionQueue deletionQueue, AccessCounter accessCounter)
+        throws IllegalArgumentException {
         if (requestedResourceRepository == null)
             throw new IllegalArgumentException("The RequestedResourceRepository cannot be null.");
 
@@ -49,9 +56,21 @@ public class RequestedResourceServiceImpl implements ResourceService {
         if (policyHandler == null)
             throw new IllegalArgumentException("The PolicyHandler cannot be null.");
 
+        if (resourceDataStore == null)
+            throw new IllegalArgumentException("The ResourceDataStore cannot be null.");
+
+        if (deletionQueue == null)
+            throw new IllegalArgumentException("The DeletionQueue cannot be null.");
+
+        if (accessCounter == null)
+            throw new IllegalArgumentException("The AccessCounter cannot be null.");
+
         this.requestedResourceRepository = requestedResourceRepository;
         this.idsUtils = idsUtils;
         this.policyHandler = policyHandler;
+        this.resourceDataStore = resourceDataStore;
+        this.deletionQueue = deletionQueue;
+        this.accessCounter = accessCounter;
     }
 
     /**
@@ -64,7 +83,7 @@ public class RequestedResourceServiceImpl implements ResourceService {
     @Override
     public UUID addResource(ResourceMetadata resourceMetadata) throws InvalidResourceException {
         final var resource = new RequestedResource(new Date(), new Date(), resourceMetadata, "", 0);
-        storeResource(resource);
+        storeResourceWithDeadline(resource);
 
         LOGGER.debug("Added a new resource. [resource=({})]", resource);
         return resource.getUuid();
@@ -86,7 +105,7 @@ public class RequestedResourceServiceImpl implements ResourceService {
         final var resource = new RequestedResource(new Date(), new Date(), resourceMetadata, "", 0);
         resource.setOriginalUUID(uuid);
         resource.setOwnerURI(ownerURI);
-        storeResource(resource);
+        storeResourceWithDeadline(resource);
 
         LOGGER.debug("Added a new resource. [resource=({})]", resource);
         return resource.getUuid();
@@ -108,11 +127,34 @@ public class RequestedResourceServiceImpl implements ResourceService {
         }
 
         resource.setResourceMetadata(resourceMetadata);
-        storeResource(resource);
+        storeResourceWithDeadline(resource);
         LOGGER.debug("Updated resource. [resourceId=({}), metadata=({})]", resourceId,
                 resourceMetadata);
     }
 
+    /**
+     * Records the artifact and contract agreement the data of a resource was requested with.
+     *
+     * @param resourceId ID of the resource
+     * @param artifactId ID of the requested artifact
+     * @param contractAgreement ID of the contract agreement, may be null
+     * @throws InvalidResourceException if the resource is invalid.
+     * @throws ResourceNotFoundException if the resource could not be found
+     */
+    public void updateContract(UUID resourceId, URI artifactId, URI contractAgreement) throws
+            InvalidResourceException, ResourceNotFoundException {
+        final var resource = getResource(resourceId);
+        if (resource == null) {
+            throw new ResourceNotFoundException("The resource does not exist.");
+        }
+
+        resource.setRequestedArtifact(artifactId);
+        resource.setContractAgreement(contractAgreement);
+        storeResource(resource);
+        LOGGER.debug("Updated resource contract. [resourceId=({}), artifactId=({}), "
+            + "contractAgreement=({})]", resourceId, artifactId, contractAgreement);
+    }
+
     /**
      * Publishes resource data by ID.
      *
@@ -120,6 +162,7 @@ public class RequestedResourceServiceImpl implements ResourceService {
      * @param data data as string
      * @throws ResourceNotFoundException if the resource could not be found
      * @throws InvalidResourceException if the resource is invalid
+     * @throws ResourceException if the data could not be stored
      */
     @Override
     public void addData(UUID resourceId, String data) throws ResourceNotFoundException,
@@ -129,10 +172,12 @@ public class RequestedResourceServiceImpl implements ResourceService {
             throw new ResourceNotFoundException("The resource does not exist.");
         }
 
-        resource.setData(data);
+        resourceDataStore.write(resourceId, data);
 
+        // Drop a payload left over in the database column.
+        resource.setData(null);
         storeResource(resource);
-        LOGGER.debug("Added data to resource. [resourceId=({}), data=({})]", resourceId, data);
+        LOGGER.debug("Added data to resource. [resourceId=({})]", resourceId);
     }
 
     /**
@@ -146,12 +191,16 @@ public class RequestedResourceServiceImpl implements ResourceService {
         try {
             if (getResource(resourceId) != null) {
                 requestedResourceRepository.deleteById(resourceId);
+                resourceDataStore.delete(resourceId);
+                accessCounter.remove(resourceId);
                 LOGGER.debug("Deleted resource. [resourceId=({})]", resourceId);
                 return true;
             }
         } catch(InvalidResourceException exception){
             // The resource exists, delete it
             requestedResourceRepository.deleteById(resourceId);
+            resourceDataStore.delete(resourceId);
+            accessCounter.remove(resourceId);
             LOGGER.debug("Deleted resource. [resourceId=({})]", resourceId);
             return true;
         }
@@ -184,12 +233,8 @@ public class RequestedResourceServiceImpl implements ResourceService {
      * @return the linked list of resources, or null if not found
      */
     public LinkedList<RequestedResource> getResourcesByOriginalUUID(UUID originalUUID) {
-        LinkedList<RequestedResource> resources = new LinkedList<>();
-        for (RequestedResource resource : getAllResources()) {
-            if (resource.getOriginalUUID().equals(originalUUID)) {
-                resources.add(resource);
-            }
-        }
+        final var resources =
+            new LinkedList<>(requestedResourceRepository.findByOriginalUUID(originalUUID));
         // If no resource found, return null
         if (resources.isEmpty()) {
             return null;
@@ -250,16 +295,28 @@ public class RequestedResourceServiceImpl implements ResourceService {
             throw new ResourceNotFoundException("The resource does not exist.");
         }
 
+        // The policy handler counts allowed accesses.
         if (policyHandler.onDataAccess(resource)) {
-            final var data = resource.getData();
-            storeResource(resource);
-            return data;
+            // Data of older versions that has not been moved on startup.
+            final var legacyData = resource.getData();
+            return legacyData != null ? legacyData : resourceDataStore.readString(resourceId);
         } else {
             LOGGER.debug("Failed to access the resource. The resource is policy restricted. [resourceId=({})]", resourceId);
             return "Policy Restriction!";
         }
     }
 
+    /**
+     * Returns how often the data of a resource has been accessed, including accesses that are
+     * not yet written to the database.
+     *
+     * @param resourceId ID of the resource
+     * @return the number of accesses
+     */
+    public int getAccessed(UUID resourceId) {
+        return accessCounter.get(resourceId);
+    }
+
     /**
      * Returns all requested resources as a list.
      */
@@ -334,6 +391,23 @@ public class RequestedResourceServiceImpl implements ResourceService {
         }
     }
 
+    /**
+     * Stores a resource whose metadata changed. The deletion deadline is read from the policy
+     * only here, since the policy cannot change on any other update.
+     *
+     * @param resource the resource
+     * @throws InvalidResourceException if the resource is not valid.
+     */
+    private void storeResourceWithDeadline(RequestedResource resource)
+        throws InvalidResourceException {
+        invalidResourceGuard(resource);
+        resource.setDeletionDue(
+            policyHandler.getDeletionDate(resource.getResourceMetadata().getPolicy()));
+        resource.setDeletionEvaluated(true);
+        storeResource(resource);
+        deletionQueue.add(resource.getUuid(), resource.getDeletionDue());
+    }
+
     private void storeResource(RequestedResource resource) throws InvalidResourceException {
         invalidResourceGuard(resource);
         requestedResourceRepository.save(resource);
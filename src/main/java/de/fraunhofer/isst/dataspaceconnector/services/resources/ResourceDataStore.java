@@ -0,0 +1,236 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resources;
+
+import de.fraunhofer.isst.dataspaceconnector.config.StorageConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceException;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * This class stores the data of local resources as files outside of the database. Every resource
+ * has one file named after its id. Files are replaced atomically, so readers always see either
+ * the old or the new data. Within a transaction, written and deleted files only take effect once
+ * the transaction has been committed, so they stay in line with the resource rows.
+ */
+@Service
+public class ResourceDataStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceDataStore.class);
+
+    private final Path directory;
+
+    /**
+     * Constructor for ResourceDataStore.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public ResourceDataStore(StorageConfiguration storageConfiguration)
+        throws IllegalArgumentException {
+        if (storageConfiguration == null)
+            throw new IllegalArgumentException("The StorageConfiguration cannot be null.");
+
+        this.directory = Paths.get(storageConfiguration.getDataPath()).toAbsolutePath();
+    }
+
+    /**
+     * Checks if data is stored for a resource.
+     *
+     * @param resourceId ID of the resource.
+     * @return true, if data is stored; false otherwise.
+     */
+    public boolean exists(UUID resourceId) {
+        return Files.exists(getPath(resourceId));
+    }
+
+    /**
+     * Stores the data of a resource and replaces existing data.
+     *
+     * @param resourceId ID of the resource.
+     * @param data the data as string.
+     * @throws ResourceException if the data could not be written.
+     */
+    public void write(UUID resourceId, String data) throws ResourceException {
+        write(resourceId, new ByteArrayInputStream(data == null ? new byte[0]
+            : data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Stores the data of a resource and replaces existing data. The stream is copied and closed.
+     * Within a transaction, the data is written to a temporary file that replaces the stored data
+     * after the commit and is dropped on a rollback.
+     *
+     * @param resourceId ID of the resource.
+     * @param data the data as stream.
+     * @throws ResourceException if the data could not be written.
+     */
+    public void write(UUID resourceId, InputStream data) throws ResourceException {
+        Path temp = null;
+        try (data) {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, resourceId.toString(), ".tmp");
+            Files.copy(data, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException exception) {
+            LOGGER.warn("Failed to store resource data. [resourceId=({}), exception=({})]",
+                resourceId, exception.getMessage());
+            deleteQuietly(temp);
+            throw new ResourceException("Failed to store the resource data.", exception);
+        }
+
+        final var written = temp;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        try {
+                            moveNow(resourceId, written);
+                        } catch (IOException exception) {
+                            // The transaction cannot be rolled back anymore. The file is kept, so
+                            // the data can still be restored.
+                            LOGGER.error("Failed to store resource data after commit. "
+                                    + "[resourceId=({}), path=({}), exception=({})]", resourceId,
+                                written, exception.getMessage());
+                        }
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) {
+                            deleteQuietly(written);
+                        }
+                    }
+                });
+        } else {
+            try {
+                moveNow(resourceId, written);
+            } catch (IOException exception) {
+                LOGGER.warn("Failed to store resource data. [resourceId=({}), exception=({})]",
+                    resourceId, exception.getMessage());
+                deleteQuietly(written);
+                throw new ResourceException("Failed to store the resource data.", exception);
+            }
+        }
+    }
+
+    /**
+     * Opens the stored data of a resource. The caller has to close the stream.
+     *
+     * @param resourceId ID of the resource.
+     * @return the data as stream.
+     * @throws ResourceException if the data could not be read.
+     */
+    public InputStream read(UUID resourceId) throws ResourceException {
+        return read(resourceId, 0, -1);
+    }
+
+    /**
+     * Opens a range of the stored data of a resource. The caller has to close the stream.
+     *
+     * @param resourceId ID of the resource.
+     * @param offset the first byte to read.
+     * @param length the number of bytes to read or -1 to read until the end.
+     * @return the data as stream.
+     * @throws ResourceException if the data could not be read.
+     */
+    public InputStream read(UUID resourceId, long offset, long length) throws ResourceException {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(getPath(resourceId), StandardOpenOption.READ);
+            channel.position(offset);
+
+            final var stream = Channels.newInputStream(channel);
+            return length < 0 ? stream : new BoundedInputStream(stream, length);
+        } catch (IOException exception) {
+            IOUtils.closeQuietly(channel);
+            LOGGER.debug("Failed to read resource data. [resourceId=({}), exception=({})]",
+                resourceId, exception.getMessage());
+            throw new ResourceException("Failed to read the resource data.", exception);
+        }
+    }
+
+    /**
+     * Reads the stored data of a resource as string.
+     *
+     * @param resourceId ID of the resource.
+     * @return the data or null, if no data is stored.
+     * @throws ResourceException if the data could not be read.
+     */
+    public String readString(UUID resourceId) throws ResourceException {
+        if (!exists(resourceId)) {
+            return null;
+        }
+
+        try (var stream = read(resourceId)) {
+            return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        } catch (IOException exception) {
+            throw new ResourceException("Failed to read the resource data.", exception);
+        }
+    }
+
+    /**
+     * Deletes the stored data of a resource. Within a transaction, the file is deleted after the
+     * commit, so the data of a resource whose deletion is rolled back is kept.
+     *
+     * @param resourceId ID of the resource.
+     */
+    public void delete(UUID resourceId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        deleteNow(resourceId);
+                    }
+                });
+        } else {
+            deleteNow(resourceId);
+        }
+    }
+
+    private void moveNow(UUID resourceId, Path temp) throws IOException {
+        Files.move(temp, getPath(resourceId), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.debug("Stored resource data. [resourceId=({})]", resourceId);
+    }
+
+    private void deleteNow(UUID resourceId) {
+        deleteQuietly(getPath(resourceId));
+        LOGGER.debug("Deleted resource data. [resourceId=({})]", resourceId);
+    }
+
+    private Path getPath(UUID resourceId) {
+        return directory.resolve(resourceId.toString());
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            LOGGER.warn("Failed to delete resource data file. [path=({}), exception=({})]",
+                path, exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resources;
+
+import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceException;
+import de.fraunhofer.isst.dataspaceconnector.model.ConnectorResource;
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.repositories.OfferedRepresentationRepository;
+import de.fraunhofer.isst.dataspaceconnector.repositories.OfferedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.repositories.RequestedResourceRepository;
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This class moves resource metadata of older databases, which was stored as one serialized
+ * column, to the relational schema. The old column is dropped once all rows have been moved; if
+ * a row cannot be read, the column is kept, so no metadata is lost. Afterwards, the table of
+ * offered representation ids is filled if it is still empty, and data that older versions kept in
+ * the database is moved to the {@link ResourceDataStore}.
+ */
+@Component
+public class ResourceMetadataMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceMetadataMigration.class);
+
+    private static final String LEGACY_COLUMN = "resource_metadata";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OfferedResourceRepository offeredResourceRepository;
+    private final OfferedRepresentationRepository offeredRepresentationRepository;
+    private final RequestedResourceRepository requestedResourceRepository;
+    private final ResourceDataStore resourceDataStore;
+
+    /**
+     * Constructor for ResourceMetadataMigration.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public ResourceMetadataMigration(JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        OfferedResourceRepository offeredResourceRepository,
+        OfferedRepresentationRepository offeredRepresentationRepository,
+        RequestedResourceRepository requestedResourceRepository,
+        ResourceDataStore resourceDataStore) throws IllegalArgumentException {
+        if (jdbcTemplate == null)
+            throw new IllegalArgumentException("The JdbcTemplate cannot be null.");
+
+        if (transactionManager == null)
+            throw new IllegalArgumentException("The PlatformTransactionManager cannot be null.");
+
+        if (offeredResourceRepository == null)
+            throw new IllegalArgumentException("The OfferedResourceRepository cannot be null.");
+
+        if (offeredRepresentationRepository == null)
+            throw new IllegalArgumentException(
+                "The OfferedRepresentationRepository cannot be null.");
+
+        if (requestedResourceRepository == null)
+            throw new IllegalArgumentException("The RequestedResourceRepository cannot be null.");
+
+        if (resourceDataStore == null)
+            throw new IllegalArgumentException("The ResourceDataStore cannot be null.");
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.offeredResourceRepository = offeredResourceRepository;
+        this.offeredRepresentationRepository = offeredRepresentationRepository;
+        this.requestedResourceRepository = requestedResourceRepository;
+        this.resourceDataStore = resourceDataStore;
+    }
+
+    /**
+     * Migrates the offered and requested resources on startup.
+     */
+    @PostConstruct
+    public void migrate() {
+        migrate("offered_resource", offeredResourceRepository);
+        migrate("requested_resource", requestedResourceRepository);
+        registerRepresentationIds();
+        moveData(offeredResourceRepository.findWithLegacyData(), offeredResourceRepository);
+        moveData(requestedResourceRepository.findWithLegacyData(), requestedResourceRepository);
+    }
+
+    /**
+     * Moves the data of resources from their database column to the data store. Every resource
+     * is moved in a transaction of its own, its file is only written once the column has been
+     * cleared. Resources that cannot be moved keep their data in the column.
+     *
+     * @param resourceIds the IDs of the resources with data in the column.
+     * @param repository the repository of the resources.
+     * @param <T> the type of the resources.
+     */
+    private <T extends ConnectorResource> void moveData(List<UUID> resourceIds,
+        JpaRepository<T, UUID> repository) {
+        var moved = 0;
+        for (final var resourceId : resourceIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    repository.findById(resourceId).ifPresent(resource -> {
+                        resourceDataStore.write(resourceId, resource.getData());
+
+                        // Keep the modification date, the content has not changed.
+                        final var modified = resource.getModified();
+                        resource.setData(null);
+                        resource.setModified(modified);
+                        repository.save(resource);
+                    }));
+                moved++;
+            } catch (ResourceException exception) {
+                LOGGER.warn("Failed to move resource data to the data store. Keeping it in the "
+                    + "database. [resourceId=({}), exception=({})]", resourceId,
+                    exception.getMessage());
+            }
+        }
+
+        if (moved > 0) {
+            LOGGER.info("Moved resource data to the data store. [resources=({})]", moved);
+        }
+    }
+
+    /**
+     * Fills the table of offered representation ids from the stored resources. Runs only if the
+     * table is empty, i.e. on the first start after it was introduced.
+     */
+    private void registerRepresentationIds() {
+        if (offeredRepresentationRepository.count() > 0) {
+            return;
+        }
+
+        final var registered = transactionTemplate.execute(status -> {
+            final var representationIds = new HashSet<UUID>();
+            for (final var resource : offeredResourceRepository.findAll()) {
+                for (final var representationId
+                    : resource.getResourceMetadata().getRepresentations().keySet()) {
+                    if (!representationIds.add(representationId)) {
+                        LOGGER.warn("The representation id is used by multiple resources. "
+                                + "[resourceId=({}), representationId=({})]", resource.getUuid(),
+                            representationId);
+                        continue;
+                    }
+
+                    offeredRepresentationRepository.save(
+                        new OfferedRepresentation(representationId, resource.getUuid()));
+                }
+            }
+
+            return representationIds.size();
+        });
+
+        if (registered != null && registered > 0) {
+            LOGGER.info("Registered offered representation ids. [representations=({})]",
+                registered);
+        }
+    }
+
+    /**
+     * Moves the serialized metadata of all resources in a table to the relational schema and
+     * drops the old column afterwards. The column is kept if the metadata of any resource could
+     * not be read.
+     *
+     * @param table the table of the resources.
+     * @param repository the repository of the resources.
+     * @param <T> the type of the resources.
+     */
+    private <T extends ConnectorResource> void migrate(String table,
+        JpaRepository<T, UUID> repository) {
+        if (!hasLegacyColumn(table)) {
+            return;
+        }
+
+        LOGGER.info("Migrating resource metadata. [table=({})]", table);
+
+        // Older versions created the column as NOT NULL. Migrated rows are cleared below and new
+        // rows do not write it, which also applies if the column has to be kept.
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + LEGACY_COLUMN
+            + " DROP NOT NULL");
+
+        final var migrated = transactionTemplate.execute(status -> {
+            // Migrated and failed rows.
+            final var count = new int[]{0, 0};
+            jdbcTemplate.query("SELECT uuid, " + LEGACY_COLUMN + " FROM " + table
+                + " WHERE " + LEGACY_COLUMN + " IS NOT NULL", (RowCallbackHandler) row -> {
+                final var resourceId = toUuid(row.getObject(1));
+                final ResourceMetadata metadata;
+                try {
+                    metadata = SerializationUtils.deserialize(row.getBytes(2));
+                } catch (SerializationException exception) {
+                    LOGGER.warn("Failed to read resource metadata. Skipping resource. "
+                        + "[resourceId=({}), exception=({})]", resourceId, exception.getMessage());
+                    count[1]++;
+                    return;
+                }
+
+                repository.findById(resourceId).ifPresent(resource -> {
+                    // Keep the modification date, the content has not changed.
+                    final var modified = resource.getModified();
+                    resource.setResourceMetadata(metadata);
+                    resource.setModified(modified);
+                    repository.save(resource);
+                    count[0]++;
+                });
+
+                // Migrated rows are not read again if the column has to be kept.
+                jdbcTemplate.update("UPDATE " + table + " SET " + LEGACY_COLUMN
+                    + " = NULL WHERE uuid = ?", row.getObject(1));
+            });
+
+            return count;
+        });
+
+        if (migrated == null || migrated[1] > 0) {
+            LOGGER.error("Failed to migrate the metadata of some resources. The column "
+                    + LEGACY_COLUMN + " is kept. [table=({}), migrated=({}), failed=({})]", table,
+                migrated == null ? 0 : migrated[0], migrated == null ? 0 : migrated[1]);
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN " + LEGACY_COLUMN);
+        LOGGER.info("Migrated resource metadata. [table=({}), resources=({})]", table,
+            migrated[0]);
+    }
+
+    /**
+     * Checks if a table still contains the serialized metadata column.
+     *
+     * @param table the table name.
+     * @return true, if the column exists; false otherwise.
+     */
+    private boolean hasLegacyColumn(String table) {
+        final var exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            final var metaData = connection.getMetaData();
+            // H2 reports upper case names, PostgreSQL lower case names.
+            for (final var name : List.of(table, table.toUpperCase())) {
+                try (var columns = metaData.getColumns(null, null, name, null)) {
+                    while (columns.next()) {
+                        if (LEGACY_COLUMN.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+
+            return false;
+        });
+
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * Reads a resource id as returned by the database driver. PostgreSQL returns a native UUID,
+     * H2 the 16 bytes written by Hibernate.
+     *
+     * @param value the column value.
+     * @return the UUID.
+     */
+    private static UUID toUuid(Object value) {
+        if (value instanceof UUID) {
+            return (UUID) value;
+        }
+
+        final var buffer = ByteBuffer.wrap((byte[]) value);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
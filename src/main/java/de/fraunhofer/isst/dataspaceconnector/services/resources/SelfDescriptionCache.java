@@ -0,0 +1,469 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resources;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.fraunhofer.iais.eis.Connector;
+import de.fraunhofer.iais.eis.Resource;
+import de.fraunhofer.isst.dataspaceconnector.repositories.OfferedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.IdsUtils;
+import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class caches the offered resources as IDS information model objects, their serialized
+ * JSON-LD and the assembled connector self-description. Changes of single resources are reported
+ * by the {@link OfferedResourceServiceImpl} and only invalidate the touched resource.
+ *
+ * <p>The self-descriptions are assembled from the serialized connector and the cached JSON-LD of
+ * the single resources. The shared connector of the {@link ConfigurationContainer} is never
+ * modified, and a changed resource does not require serializing all other resources again.</p>
+ */
+@Service
+public class SelfDescriptionCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SelfDescriptionCache.class);
+
+    private static final String CATALOG_PROPERTY = "ids:resourceCatalog";
+    private static final String CATALOG_ID_PREFIX =
+        "https://w3id.org/idsa/autogen/resourceCatalog/";
+
+    private final OfferedResourceRepository offeredResourceRepository;
+    private final IdsUtils idsUtils;
+    private final ConfigurationContainer configurationContainer;
+
+    private final Map<UUID, CachedResource> resources = new ConcurrentHashMap<>();
+    private final Set<UUID> staleResources = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile long lastRebuildTime = 0;
+
+    private volatile boolean catalogLoaded = false;
+    private Connector cachedConnector;
+    private ObjectNode connectorDescription;
+    private String selfDescription;
+    private String publicSelfDescription;
+
+    /**
+     * Constructor for SelfDescriptionCache.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public SelfDescriptionCache(OfferedResourceRepository offeredResourceRepository,
+        IdsUtils idsUtils, ConfigurationContainer configurationContainer)
+        throws IllegalArgumentException {
+        if (offeredResourceRepository == null)
+            throw new IllegalArgumentException("The OfferedResourceRepository cannot be null.");
+
+        if (idsUtils == null)
+            throw new IllegalArgumentException("The IdsUtils cannot be null.");
+
+        if (configurationContainer == null)
+            throw new IllegalArgumentException("The ConfigurationContainer cannot be null.");
+
+        this.offeredResourceRepository = offeredResourceRepository;
+        this.idsUtils = idsUtils;
+        this.configurationContainer = configurationContainer;
+    }
+
+    /**
+     * Returns the connector self-description including the catalog of offered resources. The
+     * description is only rebuilt if a resource or the connector configuration has changed.
+     *
+     * @return the self-description as JSON-LD.
+     */
+    public synchronized String getSelfDescription() {
+        final var connector = checkConnector();
+        if (selfDescription != null) {
+            hits.incrementAndGet();
+            return selfDescription;
+        }
+
+        misses.incrementAndGet();
+        final var start = System.nanoTime();
+        final var currentVersion = version.get();
+
+        // Add a catalog of the cached resource descriptions to a copy of the connector.
+        final var offeredResources = objectMapper.createArrayNode();
+        for (final var entry : getOfferedEntries()) {
+            offeredResources.add(getResourceJson(entry));
+        }
+
+        final var catalog = objectMapper.createObjectNode();
+        catalog.put("@type", "ids:ResourceCatalog");
+        catalog.put("@id", CATALOG_ID_PREFIX + UUID.randomUUID());
+        catalog.set("ids:offeredResource", offeredResources);
+
+        final var connectorNode = getConnectorDescription(connector).deepCopy();
+        connectorNode.set(CATALOG_PROPERTY, objectMapper.createArrayNode().add(catalog));
+        final var description = serialize(connectorNode);
+
+        // Do not keep the description if a resource changed in the meantime.
+        if (currentVersion == version.get()) {
+            selfDescription = description;
+        }
+
+        recordRebuild(start);
+        return description;
+    }
+
+    /**
+     * Returns the connector self-description without the resource catalog.
+     *
+     * @return the reduced self-description as JSON-LD.
+     */
+    public synchronized String getPublicSelfDescription() {
+        final var connector = checkConnector();
+        if (publicSelfDescription != null) {
+            hits.incrementAndGet();
+            return publicSelfDescription;
+        }
+
+        misses.incrementAndGet();
+        final var start = System.nanoTime();
+
+        publicSelfDescription = serialize(getConnectorDescription(connector));
+
+        recordRebuild(start);
+        return publicSelfDescription;
+    }
+
+    /**
+     * Returns all offered resources as IDS information model resources. Only resources that
+     * changed since the last call are loaded from the database.
+     *
+     * @return the list of resources.
+     */
+    public List<Resource> getOfferedResources() {
+        final var entries = getOfferedEntries();
+        final var list = new ArrayList<Resource>(entries.size());
+        for (final var entry : entries) {
+            list.add(entry.resource);
+        }
+
+        return list;
+    }
+
+    /**
+     * Returns the cache entries of all offered resources and reloads changed resources.
+     *
+     * @return the list of entries.
+     */
+    private List<CachedResource> getOfferedEntries() {
+        checkConnector();
+        if (!catalogLoaded) {
+            loadCatalog();
+        }
+
+        // Entries dropped again by a concurrent change are still part of this result.
+        final var current = new HashMap<>(resources);
+        for (final var resourceId : staleResources) {
+            staleResources.remove(resourceId);
+            final var entry = loadResource(resourceId);
+            if (entry == null) {
+                current.remove(resourceId);
+            } else {
+                current.put(resourceId, entry);
+            }
+        }
+
+        return new ArrayList<>(current.values());
+    }
+
+    /**
+     * Returns an offered resource as IDS information model resource.
+     *
+     * @param resourceId ID of the resource.
+     * @return the resource or null, if it does not exist.
+     */
+    public Resource getResource(UUID resourceId) {
+        final var entry = getEntry(resourceId);
+        return entry == null ? null : entry.resource;
+    }
+
+    /**
+     * Returns the serialized JSON-LD of an offered resource.
+     *
+     * @param resourceId ID of the resource.
+     * @return the serialized resource or null, if it does not exist.
+     */
+    public String getResourceRdf(UUID resourceId) {
+        final var entry = getEntry(resourceId);
+        if (entry == null) {
+            return null;
+        }
+
+        return getRdf(entry);
+    }
+
+    /**
+     * Drops the cached description of a single resource. Has to be called whenever an offered
+     * resource is stored or deleted.
+     *
+     * @param resourceId ID of the changed resource.
+     */
+    public void invalidate(UUID resourceId) {
+        version.incrementAndGet();
+        resources.remove(resourceId);
+        staleResources.add(resourceId);
+        clearSelfDescription();
+        LOGGER.debug("Invalidated cached resource description. [resourceId=({})]", resourceId);
+    }
+
+    /**
+     * Drops all cached descriptions.
+     */
+    public synchronized void invalidateAll() {
+        version.incrementAndGet();
+        catalogLoaded = false;
+        resources.clear();
+        staleResources.clear();
+        connectorDescription = null;
+        clearSelfDescription();
+        LOGGER.debug("Invalidated all cached resource descriptions.");
+    }
+
+    /**
+     * Returns the current cache statistics.
+     *
+     * @return the statistics.
+     */
+    public Statistics getStatistics() {
+        return new Statistics(hits.get(), misses.get(), rebuilds.get(), lastRebuildTime,
+            resources.size());
+    }
+
+    /**
+     * Returns a cached entry and loads it on a cache miss.
+     *
+     * @param resourceId ID of the resource.
+     * @return the entry or null, if the resource does not exist.
+     */
+    private CachedResource getEntry(UUID resourceId) {
+        checkConnector();
+        var entry = resources.get(resourceId);
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry;
+        }
+
+        misses.incrementAndGet();
+        final var start = System.nanoTime();
+        staleResources.remove(resourceId);
+        entry = loadResource(resourceId);
+        recordRebuild(start);
+        return entry;
+    }
+
+    /**
+     * Loads all offered resources into the cache.
+     */
+    private synchronized void loadCatalog() {
+        if (catalogLoaded) {
+            return;
+        }
+
+        staleResources.clear();
+        for (final var resource : offeredResourceRepository.findAll()) {
+            resources.put(resource.getUuid(),
+                new CachedResource(idsUtils.getAsResource(resource)));
+        }
+
+        catalogLoaded = true;
+        LOGGER.debug("Loaded resource catalog. [size=({})]", resources.size());
+    }
+
+    /**
+     * Loads a single offered resource into the cache.
+     *
+     * @param resourceId ID of the resource.
+     * @return the entry or null, if the resource does not exist.
+     */
+    private CachedResource loadResource(UUID resourceId) {
+        final var currentVersion = version.get();
+        final var resource = offeredResourceRepository.findById(resourceId);
+        if (resource.isEmpty()) {
+            resources.remove(resourceId);
+            return null;
+        }
+
+        final var entry = new CachedResource(idsUtils.getAsResource(resource.get()));
+        resources.put(resourceId, entry);
+        if (currentVersion != version.get() && resources.remove(resourceId, entry)) {
+            // A resource changed while loading, the entry might be outdated. Load it again on
+            // the next call, otherwise the resource would be missing from the catalog.
+            staleResources.add(resourceId);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Drops the whole cache if the connector configuration has been replaced, since the
+     * resources contain the connector's endpoint and id.
+     *
+     * @return the current connector.
+     */
+    private synchronized Connector checkConnector() {
+        final var connector = configurationContainer.getConnector();
+        if (connector != cachedConnector) {
+            if (cachedConnector != null) {
+                LOGGER.debug("The connector configuration changed. Dropping the description cache.");
+            }
+
+            invalidateAll();
+            cachedConnector = connector;
+        }
+
+        return connector;
+    }
+
+    /**
+     * Returns the serialized connector without its resource catalog. The connector is only
+     * serialized once per configuration and not modified.
+     *
+     * @param connector the current connector.
+     * @return the JSON-LD of the connector. Must not be modified.
+     */
+    private synchronized ObjectNode getConnectorDescription(Connector connector) {
+        if (connectorDescription == null) {
+            final var node = (ObjectNode) parse(connector.toRdf());
+            node.remove(CATALOG_PROPERTY);
+            connectorDescription = node;
+        }
+
+        return connectorDescription;
+    }
+
+    /**
+     * Returns the JSON-LD of a resource as part of a catalog. The resource is only serialized
+     * once as long as it does not change.
+     *
+     * @param entry the cache entry.
+     * @return the JSON-LD without context. Must not be modified.
+     */
+    private JsonNode getResourceJson(CachedResource entry) {
+        if (entry.json == null) {
+            final var node = (ObjectNode) parse(getRdf(entry));
+            // The context is already defined by the connector.
+            node.remove("@context");
+            entry.json = node;
+        }
+
+        return entry.json;
+    }
+
+    private String getRdf(CachedResource entry) {
+        if (entry.rdf == null) {
+            entry.rdf = entry.resource.toRdf();
+        }
+
+        return entry.rdf;
+    }
+
+    private JsonNode parse(String rdf) {
+        try {
+            return objectMapper.readTree(rdf);
+        } catch (JsonProcessingException exception) {
+            throw new RuntimeException("Failed to parse the JSON-LD.", exception);
+        }
+    }
+
+    private String serialize(JsonNode node) {
+        try {
+            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(node);
+        } catch (JsonProcessingException exception) {
+            throw new RuntimeException("Failed to serialize the self-description.", exception);
+        }
+    }
+
+    private synchronized void clearSelfDescription() {
+        selfDescription = null;
+        publicSelfDescription = null;
+    }
+
+    private void recordRebuild(long start) {
+        rebuilds.incrementAndGet();
+        lastRebuildTime = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Inner class for a cached resource and its lazily serialized JSON-LD.
+     */
+    private static class CachedResource {
+        private final Resource resource;
+        private volatile String rdf;
+        private volatile JsonNode json;
+
+        CachedResource(Resource resource) {
+            this.resource = resource;
+        }
+    }
+
+    /**
+     * Inner class for the cache statistics.
+     */
+    public static class Statistics {
+        private final long hits;
+        private final long misses;
+        private final long rebuilds;
+        private final long lastRebuildTime;
+        private final int cachedResources;
+
+        /**
+         * Constructor for Statistics.
+         *
+         * @param hits number of requests served from the cache.
+         * @param misses number of requests that required a rebuild.
+         * @param rebuilds number of rebuilds.
+         * @param lastRebuildTime duration of the last rebuild in milliseconds.
+         * @param cachedResources number of cached resources.
+         */
+        public Statistics(long hits, long misses, long rebuilds, long lastRebuildTime,
+            int cachedResources) {
+            this.hits = hits;
+            this.misses = misses;
+            this.rebuilds = rebuilds;
+            this.lastRebuildTime = lastRebuildTime;
+            this.cachedResources = cachedResources;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getRebuilds() {
+            return rebuilds;
+        }
+
+        public long getLastRebuildTime() {
+            return lastRebuildTime;
+        }
+
+        public int getCachedResources() {
+            return cachedResources;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package de.fraunhofer.isst.dataspaceconnector.services.usagecontrol;
+
+import de.fraunhofer.isst.dataspaceconnector.repositories.RequestedResourceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class counts the data accesses of requested resources in memory. It is the policy
+ * information point for N_TIMES_USAGE policies whose PIP is this connector, so the count does not
+ * have to be requested via http. Every resource has its own atomic counter, which is read from
+ * the database on first use. New accesses are added to the database periodically and on
+ * shutdown.
+ */
+@Component
+public class AccessCounter implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccessCounter.class);
+
+    private final RequestedResourceRepository requestedResourceRepository;
+    private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for AccessCounter.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public AccessCounter(RequestedResourceRepository requestedResourceRepository)
+        throws IllegalArgumentException {
+        if (requestedResourceRepository == null)
+            throw new IllegalArgumentException("The RequestedResourceRepository cannot be null.");
+
+        this.requestedResourceRepository = requestedResourceRepository;
+    }
+
+    /**
+     * Returns how often the data of a resource has been accessed.
+     *
+     * @param resourceId ID of the resource.
+     * @return the number of accesses, 0 for unknown resources.
+     */
+    public int get(UUID resourceId) {
+        return getCounter(resourceId).count.get();
+    }
+
+    /**
+     * Counts an access to the data of a resource.
+     *
+     * @param resourceId ID of the resource.
+     * @return the number of accesses including this one.
+     */
+    public int increment(UUID resourceId) {
+        final var counter = getCounter(resourceId);
+        counter.unflushed.incrementAndGet();
+        return counter.count.incrementAndGet();
+    }
+
+    /**
+     * Counts an access to the data of a resource, unless it has already been accessed max times.
+     * The check and the increment are a single atomic step, so concurrent accesses cannot exceed
+     * the maximum.
+     *
+     * @param resourceId ID of the resource.
+     * @param max the maximum number of accesses.
+     * @return true, if the access was counted; false, if the maximum has been reached.
+     */
+    public boolean incrementIfBelow(UUID resourceId, int max) {
+        final var counter = getCounter(resourceId);
+        int count;
+        do {
+            count = counter.count.get();
+            if (count >= max) {
+                return false;
+            }
+        } while (!counter.count.compareAndSet(count, count + 1));
+
+        counter.unflushed.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Drops the counter of a deleted resource.
+     *
+     * @param resourceId ID of the resource.
+     */
+    public void remove(UUID resourceId) {
+        counters.remove(resourceId);
+    }
+
+    /**
+     * Adds the accesses counted since the last flush to the database. Each resource is updated by
+     * a single atomic statement, so concurrent flushes of other instances are not lost.
+     */
+    @Scheduled(fixedDelayString = "${policy.pip.flush-interval}")
+    public void flush() {
+        for (final var entry : counters.entrySet()) {
+            final var counter = entry.getValue();
+            final var unflushed = counter.unflushed.getAndSet(0);
+            if (unflushed > 0) {
+                try {
+                    requestedResourceRepository.incrementAccessed(entry.getKey(), unflushed);
+                } catch (RuntimeException exception) {
+                    // Keep the accesses for the next flush.
+                    counter.unflushed.addAndGet(unflushed);
+                    LOGGER.warn("Failed to write access counter. [resourceId=({}), "
+                        + "exception=({})]", entry.getKey(), exception.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the changed counters to the database on shutdown.
+     */
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private Counter getCounter(UUID resourceId) {
+        final var counter = counters.get(resourceId);
+        if (counter != null) {
+            return counter;
+        }
+
+        // Read outside of the map, a concurrent first access loads the same value.
+        final var accessed = requestedResourceRepository.findAccessedByUuid(resourceId);
+        if (accessed == null) {
+            // Unknown resources are not kept.
+            return new Counter(0);
+        }
+
+        final var loaded = new Counter(accessed);
+        final var existing = counters.putIfAbsent(resourceId, loaded);
+        return existing == null ? loaded : existing;
+    }
+
+    private static class Counter {
+
+        private final AtomicInteger count;
+        private final AtomicInteger unflushed = new AtomicInteger();
+
+        Counter(int count) {
+            this.count = new AtomicInteger(count);
+        }
+    }
+}
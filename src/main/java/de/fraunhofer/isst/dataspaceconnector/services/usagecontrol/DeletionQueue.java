@@ -0,0 +1,84 @@
+package de.fraunhofer.isst.dataspaceconnector.services.usagecontrol;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * This class keeps the deletion deadlines of requested resources ordered by date, so the
+ * {@link PolicyEnforcement} only has to look at the resources that are due. An entry is a hint:
+ * the persisted deadline of the resource decides whether it is actually deleted, so entries of
+ * resources that were changed or removed in the meantime do not need to be withdrawn.
+ */
+@Component
+public class DeletionQueue {
+
+    private final PriorityQueue<Deadline> deadlines =
+        new PriorityQueue<>(Comparator.comparing(Deadline::getDate));
+
+    /**
+     * Adds the deletion deadline of a resource.
+     *
+     * @param resourceId ID of the resource.
+     * @param date the date the resource has to be deleted at, ignored if null.
+     */
+    public void add(UUID resourceId, Date date) {
+        if (resourceId == null || date == null) {
+            return;
+        }
+
+        synchronized (deadlines) {
+            deadlines.add(new Deadline(resourceId, date));
+        }
+    }
+
+    /**
+     * Removes and returns all resources that are due.
+     *
+     * @param now the current date.
+     * @return the IDs of the resources whose deadline is not after the given date.
+     */
+    public List<UUID> pollDue(Date now) {
+        final var due = new ArrayList<UUID>();
+        synchronized (deadlines) {
+            while (!deadlines.isEmpty() && !deadlines.peek().getDate().after(now)) {
+                due.add(deadlines.poll().getResourceId());
+            }
+        }
+
+        return due;
+    }
+
+    /**
+     * @return the number of deadlines that are waiting.
+     */
+    public int size() {
+        synchronized (deadlines) {
+            return deadlines.size();
+        }
+    }
+
+    private static class Deadline {
+
+        private final UUID resourceId;
+        private final Date date;
+
+        Deadline(UUID resourceId, Date date) {
+            this.resourceId = resourceId;
+            this.date = date;
+        }
+
+        UUID getResourceId() {
+            return resourceId;
+        }
+
+        Date getDate() {
+            return date;
+        }
+    }
+}
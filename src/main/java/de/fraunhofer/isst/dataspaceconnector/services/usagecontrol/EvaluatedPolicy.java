@@ -0,0 +1,102 @@
+package de.fraunhofer.isst.dataspaceconnector.services.usagecontrol;
+
+import javax.xml.datatype.Duration;
+import java.net.URI;
+import java.util.Date;
+
+/**
+ * This class holds the result of reading a usage policy: the recognized pattern and the
+ * constraint values the {@link PolicyVerifier} needs for it. Instances are immutable and can be
+ * shared between threads. Values that are not part of the pattern or could not be read are null.
+ */
+public final class EvaluatedPolicy {
+
+    private final PolicyHandler.Pattern pattern;
+    private final Date start;
+    private final Date end;
+    private final Duration duration;
+    private final Integer maxAccess;
+    private final URI pipEndpoint;
+    private final URI notificationEndpoint;
+    private final URI allowedConnector;
+
+    /**
+     * Constructor for EvaluatedPolicy without constraint values.
+     *
+     * @param pattern the policy pattern.
+     */
+    EvaluatedPolicy(PolicyHandler.Pattern pattern) {
+        this(pattern, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Constructor for EvaluatedPolicy.
+     *
+     * @param pattern the policy pattern.
+     * @param start the start of the allowed time interval.
+     * @param end the end of the allowed time interval.
+     * @param duration the allowed usage duration.
+     * @param maxAccess the allowed number of accesses.
+     * @param pipEndpoint the endpoint providing the number of accesses.
+     * @param notificationEndpoint the endpoint to notify on access.
+     * @param allowedConnector the connector allowed to access the data.
+     */
+    EvaluatedPolicy(PolicyHandler.Pattern pattern, Date start, Date end, Duration duration,
+        Integer maxAccess, URI pipEndpoint, URI notificationEndpoint, URI allowedConnector) {
+        if (pattern == null)
+            throw new IllegalArgumentException("The Pattern cannot be null.");
+
+        this.pattern = pattern;
+        this.start = copy(start);
+        this.end = copy(end);
+        this.duration = duration;
+        this.maxAccess = maxAccess;
+        this.pipEndpoint = pipEndpoint;
+        this.notificationEndpoint = notificationEndpoint;
+        this.allowedConnector = allowedConnector;
+    }
+
+    public PolicyHandler.Pattern getPattern() {
+        return pattern;
+    }
+
+    public Date getStart() {
+        return copy(start);
+    }
+
+    public Date getEnd() {
+        return copy(end);
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Integer getMaxAccess() {
+        return maxAccess;
+    }
+
+    public URI getPipEndpoint() {
+        return pipEndpoint;
+    }
+
+    public URI getNotificationEndpoint() {
+        return notificationEndpoint;
+    }
+
+    public URI getAllowedConnector() {
+        return allowedConnector;
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluatedPolicy{pattern=" + pattern + ", start=" + start + ", end=" + end
+            + ", duration=" + duration + ", maxAccess=" + maxAccess + ", pipEndpoint="
+            + pipEndpoint + ", notificationEndpoint=" + notificationEndpoint
+            + ", allowedConnector=" + allowedConnector + "}";
+    }
+
+    private static Date copy(Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+}
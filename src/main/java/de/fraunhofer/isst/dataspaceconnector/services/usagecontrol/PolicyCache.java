@@ -0,0 +1,179 @@
+package de.fraunhofer.isst.dataspaceconnector.services.usagecontrol;
+
+import de.fraunhofer.isst.dataspaceconnector.config.PolicyConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * This class caches evaluated policies, so a policy string is deserialized and read only once
+ * and not on every artifact request or data access. Entries are keyed by the SHA-256 hash of the
+ * policy. A hit only reads the concurrent map and stamps the entry, it takes no lock. Once the
+ * configured size is exceeded, the least recently used of a sample of entries is dropped, which
+ * approximates LRU eviction. Since an {@link EvaluatedPolicy} is immutable, cached entries can
+ * be shared between requests.
+ */
+@Component
+public class PolicyCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PolicyCache.class);
+
+    /**
+     * The number of entries compared to find the one to drop. Caches up to this size evict the
+     * least recently used entry exactly.
+     */
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructor for PolicyCache.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public PolicyCache(PolicyConfiguration policyConfiguration) throws IllegalArgumentException {
+        if (policyConfiguration == null)
+            throw new IllegalArgumentException("The PolicyConfiguration cannot be null.");
+
+        this.maxSize = Math.max(0, policyConfiguration.getCacheSize());
+    }
+
+    /**
+     * Returns the evaluated policy from the cache or evaluates and caches it on a miss. The
+     * evaluation runs without any lock, exceptions are passed to the caller and nothing is
+     * cached.
+     *
+     * @param policy the policy as a string.
+     * @param evaluation the function that evaluates the policy on a cache miss.
+     * @return the evaluated policy.
+     */
+    public EvaluatedPolicy get(String policy, Function<String, EvaluatedPolicy> evaluation) {
+        if (maxSize == 0 || policy == null) {
+            return evaluation.apply(policy);
+        }
+
+        final var key = hash(policy);
+        final var entry = entries.get(key);
+        if (entry != null) {
+            entry.lastUsed = System.nanoTime();
+            hits.incrementAndGet();
+            return entry.policy;
+        }
+
+        misses.incrementAndGet();
+        final var evaluatedPolicy = evaluation.apply(policy);
+        entries.put(key, new Entry(evaluatedPolicy));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+
+        LOGGER.debug("Cached evaluated policy. [pattern=({})]", evaluatedPolicy.getPattern());
+        return evaluatedPolicy;
+    }
+
+    /**
+     * Drops all cached policies.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of cached policies.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Drops entries until the cache is within its size. Each time, the least recently used entry
+     * of a sample is dropped. Only misses get here, concurrent misses evict one after another.
+     */
+    private void evict() {
+        synchronized (evictionLock) {
+            while (entries.size() > maxSize) {
+                Map.Entry<String, Entry> eldest = null;
+                var sampled = 0;
+                for (final var candidate : entries.entrySet()) {
+                    if (eldest == null
+                        || candidate.getValue().lastUsed - eldest.getValue().lastUsed < 0) {
+                        eldest = candidate;
+                    }
+
+                    if (++sampled == EVICTION_SAMPLE_SIZE) {
+                        break;
+                    }
+                }
+
+                if (eldest == null) {
+                    return;
+                }
+
+                entries.remove(eldest.getKey(), eldest.getValue());
+            }
+        }
+    }
+
+    /**
+     * Hashes a policy, so the cache does not have to keep the policy strings.
+     *
+     * @param policy the policy as a string.
+     * @return the hex encoded SHA-256 hash.
+     */
+    private static String hash(String policy) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            // Every Java platform has to support SHA-256.
+            throw new IllegalStateException(exception);
+        }
+
+        final var bytes = digest.digest(policy.getBytes(StandardCharsets.UTF_8));
+        final var builder = new StringBuilder(bytes.length * 2);
+        for (final var b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16))
+                .append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * A cached policy with the time it was last used.
+     */
+    private static final class Entry {
+
+        private final EvaluatedPolicy policy;
+        private volatile long lastUsed = System.nanoTime();
+
+        Entry(EvaluatedPolicy policy) {
+            this.policy = policy;
+        }
+    }
+}
@@ -1,28 +1,26 @@
 package de.fraunhofer.isst.dataspaceconnector.services.usagecontrol;
 
-import de.fraunhofer.iais.eis.Action;
-import de.fraunhofer.iais.eis.Contract;
-import de.fraunhofer.iais.eis.Duty;
-import de.fraunhofer.iais.eis.Permission;
 import de.fraunhofer.isst.dataspaceconnector.config.PolicyConfiguration;
-import de.fraunhofer.isst.dataspaceconnector.model.RequestedResource;
 import de.fraunhofer.isst.dataspaceconnector.repositories.RequestedResourceRepository;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.RequestedResourceServiceImpl;
 import de.fraunhofer.isst.dataspaceconnector.services.resources.ResourceService;
-import de.fraunhofer.isst.ids.framework.configuration.SerializerProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
-import java.text.ParseException;
-import java.util.ArrayList;
+import java.util.Date;
+import java.util.UUID;
 
 /**
- * This class implements automated policy check and usage control enforcement.
+ * This class implements automated policy check and usage control enforcement. Resources with a
+ * DELETE post duty get their deletion date when they are stored. The dates are kept in the
+ * {@link DeletionQueue}, which is checked every second, so a resource is deleted shortly after
+ * its deadline without reading any policy.
  */
 @Component
 @EnableScheduling
@@ -30,11 +28,11 @@ public class PolicyEnforcement {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PolicyEnforcement.class);
 
-    private final PolicyVerifier policyVerifier;
     private final ResourceService resourceService;
     private final RequestedResourceRepository requestedResourceRepository;
-    private final SerializerProvider serializerProvider;
+    private final PolicyHandler policyHandler;
     private final PolicyConfiguration policyConfiguration;
+    private final DeletionQueue deletionQueue;
 
     /**
      * Constructor for PolicyEnforcement.
@@ -42,80 +40,109 @@ public class PolicyEnforcement {
      * @throws IllegalArgumentException if any of the parameters is null.
      */
     @Autowired
-    public PolicyEnforcement(PolicyVerifier policyVerifier,
-                             RequestedResourceServiceImpl requestedResourceService,
+    public PolicyEnforcement(RequestedResourceServiceImpl requestedResourceService,
                              RequestedResourceRepository requestedResourceRepository,
+                             PolicyHandler policyHandler,
                              PolicyConfiguration policyConfiguration,
-                             SerializerProvider serializerProvider) throws IllegalArgumentException {
-        if (policyVerifier == null)
-            throw new IllegalArgumentException("The PolicyVerifier cannot be null.");
-
+                             DeletionQueue deletionQueue) throws IllegalArgumentException {
         if (requestedResourceService == null)
             throw new IllegalArgumentException("The RequestedResourceServiceImpl cannot be null.");
 
         if (requestedResourceRepository == null)
             throw new IllegalArgumentException("The RequestedResourceRepository cannot be null.");
 
+        if (policyHandler == null)
+            throw new IllegalArgumentException("The PolicyHandler cannot be null.");
+
         if (policyConfiguration == null)
             throw new IllegalArgumentException("The PolicyConfiguration cannot be null.");
 
-        if (serializerProvider == null)
-            throw new IllegalArgumentException("The SerializerProvider cannot be null.");
+        if (deletionQueue == null)
+            throw new IllegalArgumentException("The DeletionQueue cannot be null.");
 
-        this.policyVerifier = policyVerifier;
         this.resourceService = requestedResourceService;
         this.requestedResourceRepository = requestedResourceRepository;
+        this.policyHandler = policyHandler;
         this.policyConfiguration = policyConfiguration;
-        this.serializerProvider = serializerProvider;
+        this.deletionQueue = deletionQueue;
     }
 
     /**
-     * Periodically (every minute) calls {@link PolicyEnforcement#checkResources()}.
-     * 1000 = 1 sec * 60 * 60 = every hour (3600000)
+     * Fills the {@link DeletionQueue} with the persisted deadlines on startup. Resources stored
+     * before the deadlines were persisted get their deadline from their policy once, and are
+     * marked so their policy is not read again on later startups.
      */
-    @Scheduled(fixedDelay = 60000)
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDeadlines() {
+        for (final var resource : requestedResourceRepository.findByDeletionEvaluatedIsNull()) {
+            if (resource.getDeletionDue() == null) {
+                resource.setDeletionDue(policyHandler
+                    .getDeletionDate(resource.getResourceMetadata().getPolicy()));
+            }
+
+            resource.setDeletionEvaluated(true);
+            requestedResourceRepository.save(resource);
+        }
+
+        for (final var deadline : requestedResourceRepository.findByDeletionDueNotNull()) {
+            deletionQueue.add(deadline.getUuid(), deadline.getDeletionDue());
+        }
+
+        LOGGER.debug("Loaded deletion deadlines. [deadlines=({})]", deletionQueue.size());
+    }
+
+    /**
+     * Every second, deletes the resources from the {@link DeletionQueue} that are due.
+     */
+    @Scheduled(fixedDelay = 1000)
     public void schedule() {
         if (policyConfiguration.getUsageControlFramework() ==
                 PolicyConfiguration.UsageControlFramework.INTERNAL) {
-            try {
-                checkResources();
-            } catch (ParseException | IOException exception) {
-                LOGGER.warn("Failed to check policy. [exception=({})]", exception.getMessage());
+            final var now = new Date();
+            for (final var resourceId : deletionQueue.pollDue(now)) {
+                deleteIfDue(resourceId, now);
             }
         }
     }
 
     /**
-     * Checks all known resources and their policies to delete them if necessary.
-     *
-     * @throws java.text.ParseException if a date from a policy cannot be parsed.
-     * @throws java.io.IOException if an error occurs while deserializing a contract.
+     * Periodically (every minute) calls {@link PolicyEnforcement#checkResources()}.
      */
-    public void checkResources() throws ParseException, IOException {
-        LOGGER.info("Check data...");
-
-        for (RequestedResource resource : requestedResourceRepository.findAll()) {
-            String policy = resource.getResourceMetadata().getPolicy();
-            try {
-                Contract contract = serializerProvider.getSerializer()
-                    .deserialize(policy, Contract.class);
-                if (contract.getPermission() != null && contract.getPermission().get(0) != null) {
-                    Permission permission = contract.getPermission().get(0);
-                    ArrayList<? extends Duty> postDuties = permission.getPostDuty();
-
-                    if (postDuties != null && postDuties.get(0) != null) {
-                        Action action = postDuties.get(0).getAction().get(0);
-                        if (action == Action.DELETE) {
-                            if (policyVerifier.checkForDelete(postDuties.get(0))) {
-                                resourceService.deleteResource(resource.getUuid());
-                            }
-                        }
-                    }
-                }
-            } catch (IOException e) {
-                throw new IOException(
-                    "The policy could not be read. Please check the policy syntax.");
-            }
+    @Scheduled(fixedDelay = 60000)
+    public void scheduleCheck() {
+        if (policyConfiguration.getUsageControlFramework() ==
+                PolicyConfiguration.UsageControlFramework.INTERNAL) {
+            checkResources();
+        }
+    }
+
+    /**
+     * Deletes all resources whose persisted deadline has passed. Only the index of deadlines is
+     * read, this covers resources that were stored without passing the {@link DeletionQueue},
+     * e.g. by another connector instance on the same database.
+     */
+    public void checkResources() {
+        for (final var resourceId : requestedResourceRepository.findDueForDeletion(new Date())) {
+            delete(resourceId);
+        }
+    }
+
+    /**
+     * Deletes a resource if its persisted deadline has passed. Queue entries of resources that
+     * got a later deadline or were deleted in the meantime are skipped.
+     */
+    private void deleteIfDue(UUID resourceId, Date now) {
+        final var resource = requestedResourceRepository.findById(resourceId);
+        if (resource.isPresent() && resource.get().getDeletionDue() != null
+            && !resource.get().getDeletionDue().after(now)) {
+            delete(resourceId);
+        }
+    }
+
+    private void delete(UUID resourceId) {
+        if (resourceService.deleteResource(resourceId)) {
+            LOGGER.info("Deleted resource after its deletion date. [resourceId=({})]",
+                resourceId);
         }
     }
 }
@@ -11,8 +11,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.xml.datatype.DatatypeConfigurationException;
 import java.net.URI;
+import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Date;
 
 /**
  * This class provides policy pattern recognition and calls the {@link
@@ -24,8 +27,9 @@ public class PolicyHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PolicyHandler.class);
 
-    private static Contract contract;
     private final PolicyVerifier policyVerifier;
+    private final PolicyReader policyReader;
+    private final PolicyCache policyCache;
     private final SerializerProvider serializerProvider;
     private final PolicyConfiguration policyConfiguration;
 
@@ -36,12 +40,20 @@ public class PolicyHandler {
      */
     @Autowired
     public PolicyHandler(PolicyVerifier policyVerifier,
+                         PolicyReader policyReader,
+                         PolicyCache policyCache,
                          SerializerProvider serializerProvider,
                          PolicyConfiguration policyConfiguration)
         throws IllegalArgumentException {
         if (policyVerifier == null)
             throw new IllegalArgumentException("The PolicyVerifier cannot be null.");
 
+        if (policyReader == null)
+            throw new IllegalArgumentException("The PolicyReader cannot be null.");
+
+        if (policyCache == null)
+            throw new IllegalArgumentException("The PolicyCache cannot be null.");
+
         if (serializerProvider == null)
             throw new IllegalArgumentException("The SerializerProvider cannot be null.");
 
@@ -49,6 +61,8 @@ public class PolicyHandler {
             throw new IllegalArgumentException("The PolicyConfiguration cannot be null.");
 
         this.policyVerifier = policyVerifier;
+        this.policyReader = policyReader;
+        this.policyCache = policyCache;
         this.serializerProvider = serializerProvider;
         this.policyConfiguration = policyConfiguration;
     }
@@ -79,8 +93,107 @@ public class PolicyHandler {
      */
     public Pattern getPattern(String policy) throws UnsupportedPatternException,
         RequestFormatException {
-        contract = validateContract(policy);
+        return evaluate(policy).getPattern();
+    }
+
+    /**
+     * Reads an ODRL policy once and returns its pattern together with the constraint values
+     * needed to enforce it. The result does not depend on any state of this class, so concurrent
+     * requests cannot see each other's policies. Known policies are taken from the
+     * {@link PolicyCache}.
+     *
+     * @param policy the policy as a string.
+     * @return the evaluated policy.
+     * @throws UnsupportedPatternException if no pattern could be recognized.
+     * @throws RequestFormatException if the string could not be deserialized.
+     */
+    public EvaluatedPolicy evaluate(String policy) throws UnsupportedPatternException,
+        RequestFormatException {
+        return policyCache.get(policy, this::read);
+    }
+
+    /**
+     * Reads the date a resource has to be deleted at from the DELETE post duty of a policy.
+     *
+     * @param policy the policy as a string.
+     * @return the date, or null if the policy has no readable DELETE post duty.
+     */
+    public Date getDeletionDate(String policy) {
+        if (policy == null) {
+            return null;
+        }
+
+        try {
+            final var contract = validateContract(policy);
+            if (contract.getPermission() != null && contract.getPermission().get(0) != null) {
+                final var postDuties = contract.getPermission().get(0).getPostDuty();
+                if (postDuties != null && postDuties.get(0) != null
+                    && postDuties.get(0).getAction().get(0) == Action.DELETE) {
+                    return policyReader.getDate(postDuties.get(0));
+                }
+            }
+        } catch (ParseException | RuntimeException exception) {
+            LOGGER.debug("Failed to read deletion date. [exception=({})]",
+                exception.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Deserializes a policy and reads its pattern and constraint values.
+     *
+     * @param policy the policy as a string.
+     * @return the evaluated policy.
+     * @throws UnsupportedPatternException if no pattern could be recognized.
+     * @throws RequestFormatException if the string could not be deserialized.
+     */
+    private EvaluatedPolicy read(String policy) throws UnsupportedPatternException,
+        RequestFormatException {
+        final var contract = validateContract(policy);
+        final var pattern = getPattern(contract);
 
+        try {
+            switch (pattern) {
+                case USAGE_DURING_INTERVAL:
+                case USAGE_UNTIL_DELETION:
+                    final var interval = policyReader.getTimeInterval(getRule(contract));
+                    return new EvaluatedPolicy(pattern, interval.getStart(), interval.getEnd(),
+                        null, null, null, null, null);
+                case DURATION_USAGE:
+                    return new EvaluatedPolicy(pattern, null, null,
+                        policyReader.getDuration(getRule(contract)), null, null, null, null);
+                case N_TIMES_USAGE:
+                    final var rule = getRule(contract);
+                    return new EvaluatedPolicy(pattern, null, null, null,
+                        policyReader.getMaxAccess(rule), policyReader.getPipEndpoint(rule), null,
+                        null);
+                case USAGE_NOTIFICATION:
+                    final var duty = contract.getPermission().get(0).getPostDuty().get(0);
+                    return new EvaluatedPolicy(pattern, null, null, null, null, null,
+                        URI.create(policyReader.getEndpoint(duty)), null);
+                case CONNECTOR_RESTRICTED_USAGE:
+                    return new EvaluatedPolicy(pattern, null, null, null, null, null, null,
+                        policyReader.getAllowedConnector(getRule(contract)));
+                default:
+                    return new EvaluatedPolicy(pattern);
+            }
+        } catch (DatatypeConfigurationException | RuntimeException exception) {
+            // Without the constraint values, the verifier denies the access.
+            LOGGER.debug("Failed to read policy constraints. [pattern=({}), exception=({})]",
+                pattern, exception.getMessage());
+            return new EvaluatedPolicy(pattern);
+        }
+    }
+
+    /**
+     * Recognizes the policy pattern of a contract.
+     *
+     * @param contract the contract.
+     * @return the recognized policy pattern.
+     * @throws UnsupportedPatternException if no pattern could be recognized.
+     */
+    private static Pattern getPattern(Contract contract) throws UnsupportedPatternException {
         if (contract.getProhibition() != null && contract.getProhibition().get(0) != null) {
             return Pattern.PROHIBIT_ACCESS;
         }
@@ -132,6 +245,10 @@ public class PolicyHandler {
         }
     }
 
+    private static Rule getRule(Contract contract) {
+        return contract.getPermission().get(0);
+    }
+
     /**
      * Implements the policy restrictions depending on the policy pattern type on data provision (as provider).
      *
@@ -144,16 +261,18 @@ public class PolicyHandler {
         RequestFormatException {
         switch (policyConfiguration.getUsageControlFramework()) {
             case INTERNAL:
-                switch (getPattern(policy)) {
+                final var evaluatedPolicy = evaluate(policy);
+                switch (evaluatedPolicy.getPattern()) {
                     case PROVIDE_ACCESS:
                         return policyVerifier.allowAccess();
                     case PROHIBIT_ACCESS:
                         return policyVerifier.inhibitAccess();
                     case USAGE_DURING_INTERVAL:
                     case USAGE_UNTIL_DELETION:
-                        return policyVerifier.checkInterval(contract);
+                        return policyVerifier.checkInterval(evaluatedPolicy);
                     case CONNECTOR_RESTRICTED_USAGE:
-                        return policyVerifier.checkIssuerConnector(contract, issuerConnector);
+                        return policyVerifier.checkIssuerConnector(evaluatedPolicy,
+                            issuerConnector);
                     default:
                         return true;
                 }
@@ -166,6 +285,7 @@ public class PolicyHandler {
 
     /**
      * Implements the policy restrictions depending on the policy pattern type on data access (as consumer).
+     * An allowed access is counted for the resource.
      *
      * @param dataResource the accessed resource.
      * @return whether the data can be accessed.
@@ -180,37 +300,45 @@ public class PolicyHandler {
             case MYDATA: // TODO
             case MYDATA_INTERCEPTOR: // TODO
             default:
-                return true;
+                return policyVerifier.countAccess(dataResource.getUuid());
         }
 
         final var policy = dataResource.getResourceMetadata().getPolicy();
         final var ignoreUnsupportedPatterns = policyConfiguration.isUnsupportedPatterns();
 
-        Pattern pattern;
+        EvaluatedPolicy evaluatedPolicy;
         try {
-            pattern = getPattern(policy);
+            evaluatedPolicy = evaluate(policy);
         } catch (UnsupportedPatternException exception) {
             if (!ignoreUnsupportedPatterns)
                 throw new UnsupportedPatternException(exception.getMessage());
             else
-                pattern = Pattern.PROVIDE_ACCESS;
+                evaluatedPolicy = new EvaluatedPolicy(Pattern.PROVIDE_ACCESS);
         }
 
-        switch (pattern) {
+        final boolean allowed;
+        switch (evaluatedPolicy.getPattern()) {
             case USAGE_DURING_INTERVAL:
             case USAGE_UNTIL_DELETION:
-                return policyVerifier.checkInterval(contract);
+                allowed = policyVerifier.checkInterval(evaluatedPolicy);
+                break;
             case DURATION_USAGE:
-                return policyVerifier.checkDuration(dataResource.getCreated(), contract);
+                allowed = policyVerifier.checkDuration(dataResource.getCreated(), evaluatedPolicy);
+                break;
             case USAGE_LOGGING:
-                return policyVerifier.logAccess();
+                allowed = policyVerifier.logAccess();
+                break;
             case N_TIMES_USAGE:
-                return policyVerifier.checkFrequency(contract, dataResource.getUuid());
+                // Checks and counts the access in one step.
+                return policyVerifier.checkFrequency(evaluatedPolicy, dataResource.getUuid());
             case USAGE_NOTIFICATION:
-                return policyVerifier.sendNotification(contract);
+                allowed = policyVerifier.sendNotification(evaluatedPolicy);
+                break;
             default:
-                return true;
+                allowed = true;
         }
+
+        return allowed && policyVerifier.countAccess(dataResource.getUuid());
     }
 
     public enum Pattern {
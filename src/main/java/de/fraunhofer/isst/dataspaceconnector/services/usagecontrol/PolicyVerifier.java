@@ -1,8 +1,8 @@
 package de.fraunhofer.isst.dataspaceconnector.services.usagecontrol;
 
-import de.fraunhofer.iais.eis.Constraint;
-import de.fraunhofer.iais.eis.Contract;
 import de.fraunhofer.iais.eis.Rule;
+import de.fraunhofer.isst.dataspaceconnector.config.PolicyConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.LogMessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.NotificationMessageService;
 import de.fraunhofer.isst.dataspaceconnector.services.utils.HttpUtils;
@@ -11,14 +11,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.Duration;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -34,6 +36,8 @@ public class PolicyVerifier {
     private final NotificationMessageService notificationMessageService;
     private final LogMessageService logMessageService;
     private final HttpUtils httpUtils;
+    private final AccessCounter accessCounter;
+    private final Set<String> localPipEndpoints;
 
     /**
      * Constructor for PolicyVerifier.
@@ -42,7 +46,8 @@ public class PolicyVerifier {
      */
     @Autowired
     public PolicyVerifier(PolicyReader policyReader, LogMessageService logMessageService,
-        NotificationMessageService notificationMessageService, HttpUtils httpUtils)
+        NotificationMessageService notificationMessageService, HttpUtils httpUtils,
+        AccessCounter accessCounter, PolicyConfiguration policyConfiguration)
         throws IllegalArgumentException {
         if (policyReader == null)
             throw new IllegalArgumentException("The PolicyReader cannot be null.");
@@ -56,10 +61,25 @@ public class PolicyVerifier {
         if (httpUtils == null)
             throw new IllegalArgumentException("The HttpUtils cannot be null.");
 
+        if (accessCounter == null)
+            throw new IllegalArgumentException("The AccessCounter cannot be null.");
+
+        if (policyConfiguration == null)
+            throw new IllegalArgumentException("The PolicyConfiguration cannot be null.");
+
         this.policyReader = policyReader;
         this.logMessageService = logMessageService;
         this.notificationMessageService = notificationMessageService;
         this.httpUtils = httpUtils;
+        this.accessCounter = accessCounter;
+        this.localPipEndpoints = new HashSet<>();
+        if (policyConfiguration.getLocalPipEndpoints() != null) {
+            for (final var endpoint : policyConfiguration.getLocalPipEndpoints()) {
+                if (!endpoint.isBlank()) {
+                    localPipEndpoints.add(normalizeEndpoint(endpoint));
+                }
+            }
+        }
     }
 
     /**
@@ -109,17 +129,16 @@ public class PolicyVerifier {
      * Notifies a participant about data access and allows the access only if that operation was successful.
      * TODO: Validate response in more detail.
      *
-     * @param contract a {@link de.fraunhofer.iais.eis.Contract} object.
+     * @param policy the evaluated policy.
      * @return true, if the participant was notified; false otherwise.
      */
-    public boolean sendNotification(Contract contract) {
-        Rule rule = contract.getPermission().get(0).getPostDuty().get(0);
-        String recipient = policyReader.getEndpoint(rule);
+    public boolean sendNotification(EvaluatedPolicy policy) {
+        URI recipient = policy.getNotificationEndpoint();
 
         Map<String, String> response;
         try {
-            notificationMessageService.setRequestParameters(URI.create(recipient));
-            response = notificationMessageService.sendRequestMessage("");
+            response = notificationMessageService.sendRequestMessage(
+                MessageParameters.to(recipient), "");
         } catch (Exception exception) {
             LOGGER.warn("Notification message could not be sent. [exception=({})]", exception.getMessage());
             return allowAccess();
@@ -133,18 +152,32 @@ public class PolicyVerifier {
         }
     }
 
+    /**
+     * Counts an allowed data access of a resource.
+     *
+     * @param uuid the id of the accessed resource.
+     * @return true.
+     */
+    public boolean countAccess(UUID uuid) {
+        accessCounter.increment(uuid);
+        return allowAccess();
+    }
+
     /**
      * Checks if the requested access is in the allowed time interval.
      *
-     * @param contract a {@link de.fraunhofer.iais.eis.Contract} object.
+     * @param policy the evaluated policy.
      * @return true, if the current date is within the time interval; false otherwise.
      */
-    public boolean checkInterval(Contract contract) {
-        PolicyReader.TimeInterval timeInterval = policyReader
-            .getTimeInterval(contract.getPermission().get(0));
-        Date date = new Date();
+    public boolean checkInterval(EvaluatedPolicy policy) {
+        Date start = policy.getStart();
+        Date end = policy.getEnd();
+        if (start == null || end == null) {
+            return inhibitAccess();
+        }
 
-        if (date.after(timeInterval.getStart()) && date.before(timeInterval.getEnd())) {
+        Date date = new Date();
+        if (date.after(start) && date.before(end)) {
             return allowAccess();
         } else {
             return inhibitAccess();
@@ -166,38 +199,50 @@ public class PolicyVerifier {
      * Adds a duration to a given date and checks if the duration has already been exceeded.
      *
      * @param created  the date when the resource was created.
-     * @param contract a {@link de.fraunhofer.iais.eis.Contract} object.
+     * @param policy   the evaluated policy.
      * @return true, the duration has not been exceeded; false otherwise.
      */
-    public boolean checkDuration(Date created, Contract contract) {
+    public boolean checkDuration(Date created, EvaluatedPolicy policy) {
+        Duration duration = policy.getDuration();
+        if (duration == null) {
+            return inhibitAccess();
+        }
+
         Calendar cal = Calendar.getInstance();
         cal.setTime(created);
-        try {
-            Duration duration = policyReader.getDuration(contract.getPermission().get(0));
-
-            cal.add(Calendar.SECOND, duration.getSeconds());
-            cal.add(Calendar.MINUTE, duration.getMinutes());
-            cal.add(Calendar.HOUR_OF_DAY, duration.getHours());
-            cal.add(Calendar.DAY_OF_MONTH, duration.getDays());
-            cal.add(Calendar.MONTH, duration.getMonths());
-            cal.add(Calendar.YEAR, duration.getYears());
+        cal.add(Calendar.SECOND, duration.getSeconds());
+        cal.add(Calendar.MINUTE, duration.getMinutes());
+        cal.add(Calendar.HOUR_OF_DAY, duration.getHours());
+        cal.add(Calendar.DAY_OF_MONTH, duration.getDays());
+        cal.add(Calendar.MONTH, duration.getMonths());
+        cal.add(Calendar.YEAR, duration.getYears());
 
-            return !checkDate(new Date(), cal.getTime());
-        } catch (DatatypeConfigurationException e) {
-            return inhibitAccess();
-        }
+        return !checkDate(new Date(), cal.getTime());
     }
 
     /**
-     * Checks whether the maximum number of accesses has already been reached.
+     * Checks whether the maximum number of accesses has already been reached and counts the
+     * access if it is allowed. If the PIP is this connector, the count is checked and increased
+     * by the {@link AccessCounter} in one atomic step, otherwise it is requested from the PIP.
      *
-     * @param contract a {@link de.fraunhofer.iais.eis.Contract} object.
-     * @param uuid     a {@link java.util.UUID} object.
+     * @param policy the evaluated policy.
+     * @param uuid   a {@link java.util.UUID} object.
      * @return true, if the maximum number of accesses has not been reached yet; false otherwise.
      */
-    public boolean checkFrequency(Contract contract, UUID uuid) {
-        int max = policyReader.getMaxAccess(contract.getPermission().get(0));
-        URI pip = policyReader.getPipEndpoint(contract.getPermission().get(0));
+    public boolean checkFrequency(EvaluatedPolicy policy, UUID uuid) {
+        Integer max = policy.getMaxAccess();
+        URI pip = policy.getPipEndpoint();
+        if (max == null || pip == null) {
+            return inhibitAccess();
+        }
+
+        if (localPipEndpoints.contains(normalizeEndpoint(pip.toString()))) {
+            if (accessCounter.incrementIfBelow(uuid, max)) {
+                return allowAccess();
+            } else {
+                return inhibitAccess();
+            }
+        }
 
         try {
             String accessed = httpUtils.sendHttpsGetRequestWithBasicAuth(
@@ -206,7 +251,7 @@ public class PolicyVerifier {
             if (Integer.parseInt(accessed) >= max) {
                 return inhibitAccess();
             } else {
-                return allowAccess();
+                return countAccess(uuid);
             }
         } catch (URISyntaxException | RuntimeException e) {
             return inhibitAccess();
@@ -230,9 +275,23 @@ public class PolicyVerifier {
         }
     }
 
-    public boolean checkIssuerConnector(Contract contract, URI issuerConnector) {
-        Rule rule = contract.getPermission().get(0);
-        URI allowedURI = policyReader.getAllowedConnector(rule);
-        return allowedURI.equals(issuerConnector);
+    /**
+     * Checks if the requesting connector is the one the policy allows.
+     *
+     * @param policy          the evaluated policy.
+     * @param issuerConnector the id of the requesting connector.
+     * @return true, if the connector is allowed; false otherwise.
+     */
+    public boolean checkIssuerConnector(EvaluatedPolicy policy, URI issuerConnector) {
+        URI allowedURI = policy.getAllowedConnector();
+        return allowedURI != null && allowedURI.equals(issuerConnector);
+    }
+
+    /**
+     * Compares endpoints regardless of case and a trailing slash.
+     */
+    private static String normalizeEndpoint(String endpoint) {
+        final var trimmed = endpoint.trim().toLowerCase(Locale.ROOT);
+        return trimmed.endsWith("/") ? trimmed : trimmed + "/";
     }
 }
@@ -0,0 +1,749 @@
+package de.fraunhofer.isst.dataspaceconnector.services.utils;
+
+import de.fraunhofer.isst.dataspaceconnector.config.BackendConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.TraceContext;
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.QueryInput;
+import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
+import okhttp3.ConnectionPool;
+import okhttp3.Credentials;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+import org.apache.http.HttpHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.util.UriUtils;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyManagementException;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class sends GET requests to the backends of offered resources. Every backend host has a
+ * connection pool of its own that keeps connections open between requests, https backends are
+ * talked to via HTTP/2 if they support it, and the number of concurrent requests is limited by
+ * the maxConcurrency of the backend source or backend.http.max-concurrency. Backend sources on the
+ * same host with the same limit share their request slots, a different limit has slots of its own.
+ * Response bodies are always closed; a returned stream releases its connection when it is closed.
+ * Every request carries the trace id of the current request, see {@link TraceContext}. Responses
+ * of http-get and https-get backends with a cacheTtl are cached, see {@link BackendResponseCache}.
+ * Backends are reached via the proxy of the connector configuration (ids:connectorProxy), like
+ * the IDS messages sent by the framework, and https backends are verified against the truststore
+ * of the connector configuration (ids:trustStore).
+ */
+@Service
+public class BackendClient implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackendClient.class);
+
+    private final BackendConfiguration backendConfiguration;
+    private final BackendResponseCache responseCache;
+    private final ConfigurationContainer configurationContainer;
+    private final OkHttpClient client;
+    private final Map<String, OkHttpClient> hostClients = new ConcurrentHashMap<>();
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for BackendClient.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public BackendClient(BackendConfiguration backendConfiguration,
+        BackendResponseCache responseCache, ConfigurationContainer configurationContainer)
+        throws IllegalArgumentException {
+        if (backendConfiguration == null)
+            throw new IllegalArgumentException("The BackendConfiguration cannot be null.");
+
+        if (responseCache == null)
+            throw new IllegalArgumentException("The BackendResponseCache cannot be null.");
+
+        if (configurationContainer == null)
+            throw new IllegalArgumentException("The ConfigurationContainer cannot be null.");
+
+        this.backendConfiguration = backendConfiguration;
+        this.responseCache = responseCache;
+        this.configurationContainer = configurationContainer;
+        final var builder = new OkHttpClient.Builder()
+            .protocols(backendConfiguration.isHttp2()
+                ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+            .proxySelector(new ConnectorProxySelector())
+            .proxyAuthenticator(this::authenticateProxy);
+        final var trustManager = new ConnectorTrustManager();
+        builder.sslSocketFactory(createSocketFactory(trustManager), trustManager);
+        // Same timeouts as for the IDS messages, see ConnectionConfiguration.
+        if (backendConfiguration.getConnectTimeout() != 0
+            && backendConfiguration.getReadTimeout() != 0
+            && backendConfiguration.getWriteTimeout() != 0) {
+            builder.connectTimeout(Duration.ofMillis(backendConfiguration.getConnectTimeout()))
+                .readTimeout(Duration.ofMillis(backendConfiguration.getReadTimeout()))
+                .writeTimeout(Duration.ofMillis(backendConfiguration.getWriteTimeout()));
+        } else {
+            builder.callTimeout(Duration.ofMillis(backendConfiguration.getCallTimeout()));
+        }
+
+        this.client = builder.build();
+    }
+
+    /**
+     * Sends a GET request to a backend and returns the response body. If the backend source has
+     * a cacheTtl, a cached response is returned as long as it is fresh; an expired response is
+     * revalidated with its ETag or Last-Modified header.
+     *
+     * @param source the backend.
+     * @param queryInput Header and params for data request from backend.
+     * @return the HTTP body of a successful response.
+     * @throws URISyntaxException if the backend url is not a valid http or https url.
+     * @throws RuntimeException if an error occurred when connecting or processing the HTTP
+     *                               request.
+     */
+    public String getString(BackendSource source, QueryInput queryInput)
+        throws URISyntaxException, RuntimeException {
+        final var url = resolve(source.getUrl().toString(), queryInput);
+        final var ttl = getCacheTtl(source);
+        final var key = ttl > 0 ? cacheKey(url, queryInput) : null;
+
+        var cached = key != null ? responseCache.get(key) : null;
+        if (cached != null && cached.isFresh()) {
+            responseCache.countHit();
+            return cached.getText();
+        } else if (cached != null && !cached.hasValidators()) {
+            cached = null;
+        }
+
+        final var host = getHost(url, source);
+        acquire(host, url);
+        try (var response = execute(host, url, source, queryInput, cached)) {
+            if (response.code() == 304) {
+                return revalidate(key, cached, response, ttl).getText();
+            }
+
+            final var body = response.body();
+            if (key == null) {
+                return body == null ? "" : body.string();
+            }
+
+            responseCache.countMiss();
+            final var data = body == null ? new byte[0] : body.bytes();
+            return store(key, response, data, ttl).getText();
+        } catch (IOException exception) {
+            // Catch all the HTTP, IOExceptions.
+            LOGGER.warn("Failed to send the http get request. [url=({})]", url);
+            throw new RuntimeException("Failed to send the http get request.", exception);
+        } finally {
+            host.permits.release();
+        }
+    }
+
+    /**
+     * Sends a GET request to a backend and returns the response body as stream. The body is not
+     * read into memory. The caller has to close the stream, which releases the connection and
+     * the request slot of the backend host. If the backend source has a cacheTtl, a fresh cached
+     * response is returned from memory; otherwise the body is copied into the cache while it is
+     * read, up to backend.cache.max-entry-size bytes.
+     *
+     * @param source the backend.
+     * @param queryInput Header and params for data request from backend.
+     * @return the HTTP body of a successful response.
+     * @throws URISyntaxException if the backend url is not a valid http or https url.
+     * @throws RuntimeException if an error occurred when connecting or processing the HTTP
+     *                               request.
+     */
+    public InputStream getStream(BackendSource source, QueryInput queryInput)
+        throws URISyntaxException, RuntimeException {
+        final var url = resolve(source.getUrl().toString(), queryInput);
+        final var ttl = getCacheTtl(source);
+        final var key = ttl > 0 ? cacheKey(url, queryInput) : null;
+
+        var cached = key != null ? responseCache.get(key) : null;
+        if (cached != null && cached.isFresh()) {
+            responseCache.countHit();
+            return new ByteArrayInputStream(cached.getBody());
+        } else if (cached != null && !cached.hasValidators()) {
+            cached = null;
+        }
+
+        final var host = getHost(url, source);
+        acquire(host, url);
+        try {
+            final var response = execute(host, url, source, queryInput, cached);
+            final var body = response.body();
+            if (response.code() == 304 || body == null) {
+                try {
+                    return response.code() == 304
+                        ? new ByteArrayInputStream(revalidate(key, cached, response, ttl).getBody())
+                        : InputStream.nullInputStream();
+                } finally {
+                    response.close();
+                    host.permits.release();
+                }
+            }
+
+            if (key == null) {
+                return new ResponseStream(body.byteStream(), response, host.permits);
+            }
+
+            responseCache.countMiss();
+            return new ResponseStream(new CachingStream(body.byteStream(), key, response, ttl),
+                response, host.permits);
+        } catch (IOException exception) {
+            host.permits.release();
+            // Catch all the HTTP, IOExceptions.
+            LOGGER.warn("Failed to send the http get request. [url=({})]", url);
+            throw new RuntimeException("Failed to send the http get request.", exception);
+        } catch (RuntimeException exception) {
+            host.permits.release();
+            throw exception;
+        }
+    }
+
+    /**
+     * Closes the idle connections to all backends.
+     */
+    @Override
+    public void destroy() {
+        for (final var hostClient : hostClients.values()) {
+            hostClient.connectionPool().evictAll();
+        }
+
+        client.dispatcher().executorService().shutdown();
+    }
+
+    /**
+     * Builds the url of a backend request. Path variables are replaced and encoded, query
+     * parameters are appended to the query of the address.
+     *
+     * @param address the backend address, may contain path variables like {id}.
+     * @param queryInput Params and path variables for data request from backend.
+     * @return the url.
+     * @throws URISyntaxException if the address is not a valid http or https url.
+     * @throws IllegalArgumentException if the path variables do not match the address.
+     */
+    private static HttpUrl resolve(String address, QueryInput queryInput)
+        throws URISyntaxException, IllegalArgumentException {
+        final var pathVariables = queryInput != null ? queryInput.getPathVariables() : null;
+        final var url = HttpUrl.parse(replacePathVariables(address, pathVariables));
+        if (url == null) {
+            throw new URISyntaxException(address, "Not an http or https url");
+        }
+
+        final var params = queryInput != null ? queryInput.getParams() : null;
+        if (params == null || params.isEmpty()) {
+            return url;
+        }
+
+        final var builder = url.newBuilder();
+        for (final var param : params.entrySet()) {
+            builder.addQueryParameter(param.getKey(), param.getValue());
+        }
+
+        return builder.build();
+    }
+
+    private static String replacePathVariables(String address,
+        Map<String, String> pathVariables) throws IllegalArgumentException {
+        final var count = address.chars().filter(ch -> ch == '{').count();
+        if (count == 0) {
+            return address;
+        }
+
+        if (pathVariables == null) {
+            throw new IllegalArgumentException("Missing path variables.");
+        }
+
+        if (count != pathVariables.size()) {
+            throw new IllegalArgumentException("The number of supplied path variables does not "
+                + "match the number of path variables in the URL.");
+        }
+
+        // http://localhost:8080/{path}/{id}
+        final var builder = new StringBuilder(address.length());
+        var position = 0;
+        var start = address.indexOf('{');
+        while (start >= 0) {
+            final var end = address.indexOf('}', start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed path variable in the URL.");
+            }
+
+            final var name = address.substring(start + 1, end);
+            final var value = pathVariables.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("No value found for path variable with"
+                    + " name '" + name + "'.");
+            }
+
+            builder.append(address, position, start)
+                .append(UriUtils.encodePath(value, StandardCharsets.UTF_8));
+            position = end + 1;
+            start = address.indexOf('{', position);
+        }
+
+        return builder.append(address, position, address.length()).toString();
+    }
+
+    /**
+     * Returns how long responses of a backend are cached, 0 if they are not cached. Only
+     * http-get and https-get backends are cached.
+     */
+    private long getCacheTtl(BackendSource source) {
+        if (!responseCache.isEnabled() || source.getCacheTtl() == null
+            || (source.getType() != BackendSource.Type.HTTP_GET
+            && source.getType() != BackendSource.Type.HTTPS_GET)) {
+            return 0;
+        }
+
+        return Math.max(0, source.getCacheTtl());
+    }
+
+    /**
+     * The cache key of a request: the resolved url and the headers of the query input, sorted by
+     * name.
+     */
+    private static String cacheKey(HttpUrl url, QueryInput queryInput) {
+        final var builder = new StringBuilder(url.toString());
+        if (queryInput != null && queryInput.getHeaders() != null) {
+            new TreeMap<>(queryInput.getHeaders()).forEach((name, value) ->
+                builder.append('\n').append(name).append(": ").append(value));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Responses the backend marked as no-store or private are not cached.
+     */
+    private static boolean isStorable(Response response) {
+        final var cacheControl = response.cacheControl();
+        return !cacheControl.noStore() && !cacheControl.isPrivate();
+    }
+
+    /**
+     * Returns how long a response is fresh: the cacheTtl of the backend source, shortened by the
+     * s-maxage or max-age of the response. Responses marked no-cache are revalidated on every
+     * request.
+     */
+    private static long getFreshness(Response response, long ttl) {
+        final var cacheControl = response.cacheControl();
+        if (cacheControl.noCache()) {
+            return 0;
+        }
+
+        final var maxAge = cacheControl.sMaxAgeSeconds() >= 0
+            ? cacheControl.sMaxAgeSeconds() : cacheControl.maxAgeSeconds();
+        return maxAge >= 0 ? Math.min(ttl, TimeUnit.SECONDS.toMillis(maxAge)) : ttl;
+    }
+
+    /**
+     * Caches a response body. Responses that are neither fresh nor have a validator are not
+     * cached, they could not be used again.
+     *
+     * @return the entry of the response, also if it is not cached.
+     */
+    private BackendResponseCache.Entry store(String key, Response response, byte[] data,
+        long ttl) {
+        final var body = response.body();
+        final var mediaType = body != null ? body.contentType() : null;
+        final var entry = new BackendResponseCache.Entry(data,
+            mediaType != null ? mediaType.charset(StandardCharsets.UTF_8) : StandardCharsets.UTF_8,
+            response.header(HttpHeaders.ETAG), response.header(HttpHeaders.LAST_MODIFIED),
+            getFreshness(response, ttl));
+        if (isStorable(response) && (entry.isFresh() || entry.hasValidators())) {
+            responseCache.put(key, entry);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Extends a cached response the backend confirmed with 304 (Not Modified).
+     */
+    private BackendResponseCache.Entry revalidate(String key, BackendResponseCache.Entry cached,
+        Response response, long ttl) {
+        responseCache.countRevalidation();
+        final var entry = cached.revalidated(getFreshness(response, ttl));
+        if (isStorable(response)) {
+            responseCache.put(key, entry);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Returns the connection pool and request limit of a backend source. The maxConcurrency of
+     * the backend source overrides backend.http.max-concurrency. There is one connection pool
+     * per host and one semaphore per host and limit, which is never replaced.
+     */
+    private Host getHost(HttpUrl url, BackendSource source) {
+        final var limit = source.getMaxConcurrency() != null && source.getMaxConcurrency() > 0
+            ? source.getMaxConcurrency()
+            : Math.max(1, backendConfiguration.getMaxConcurrency());
+
+        final var hostKey = url.scheme() + "://" + url.host() + ":" + url.port();
+        return hosts.computeIfAbsent(hostKey + "#" + limit, key -> {
+            final var hostClient = hostClients.computeIfAbsent(hostKey, k -> client.newBuilder()
+                .connectionPool(new ConnectionPool(
+                    Math.max(1, backendConfiguration.getMaxConcurrency()),
+                    backendConfiguration.getKeepAlive(), TimeUnit.MILLISECONDS))
+                .build());
+            return new Host(hostClient, limit);
+        });
+    }
+
+    private void acquire(Host host, HttpUrl url) throws RuntimeException {
+        try {
+            if (!host.permits.tryAcquire(backendConfiguration.getAcquireTimeout(),
+                TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Could not retrieve data. Too many concurrent requests to the backend. "
+                    + "[url=({}), limit=({})]", url, host.limit);
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the backend.", exception);
+        }
+    }
+
+    /**
+     * Sends the request and checks the response code. The response is closed if it is not
+     * successful. With a cached response, the request is conditional and may be answered with
+     * 304 (Not Modified).
+     */
+    private Response execute(Host host, HttpUrl url, BackendSource source,
+        QueryInput queryInput, BackendResponseCache.Entry cached) throws IOException {
+        final var request = new Request.Builder().url(url).get();
+        final var headers = TraceContext.withTraceHeader(
+            queryInput != null ? queryInput.getHeaders() : null);
+        headers.forEach(request::header);
+        if (source.getType() == BackendSource.Type.HTTPS_GET_BASICAUTH) {
+            request.header(HttpHeaders.AUTHORIZATION, Credentials.basic(
+                Objects.toString(source.getUsername(), ""),
+                Objects.toString(source.getPassword(), ""), StandardCharsets.ISO_8859_1));
+        }
+
+        if (cached != null && cached.getEtag() != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+        }
+
+        if (cached != null && cached.getLastModified() != null) {
+            request.header(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+        }
+
+        final var response = host.client.newCall(request.build()).execute();
+        if (response.isSuccessful() || (cached != null && response.code() == 304)) {
+            return response;
+        }
+
+        response.close();
+        if (response.code() == 401) {
+            // The request is not authorized.
+            LOGGER.debug("Could not retrieve data. Unauthorized access. [url=({})]", url);
+            throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED);
+        } else {
+            // Not the expected response code.
+            LOGGER.debug("Could not retrieve data. Expectation failed. [url=({}), code=({})]",
+                url, response.code());
+            throw new HttpClientErrorException(HttpStatus.EXPECTATION_FAILED);
+        }
+    }
+
+    /**
+     * Returns the proxy of the current connector configuration. The configuration is read for
+     * every new connection, so an updated configuration applies without a restart.
+     *
+     * @return the proxy or null, if no proxy is configured.
+     */
+    private de.fraunhofer.iais.eis.Proxy getConnectorProxy() {
+        final var configModel = configurationContainer.getConfigModel();
+        final var proxies = configModel != null ? configModel.getConnectorProxy() : null;
+        if (proxies == null || proxies.isEmpty() || proxies.get(0).getProxyURI() == null) {
+            return null;
+        }
+
+        return proxies.get(0);
+    }
+
+    private static SSLSocketFactory createSocketFactory(X509TrustManager trustManager)
+        throws IllegalStateException {
+        try {
+            final var sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[]{trustManager}, null);
+            return sslContext.getSocketFactory();
+        } catch (NoSuchAlgorithmException | KeyManagementException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Answers the authentication challenge of the connector proxy with its basic
+     * authentication. Gives up if the credentials have already been rejected.
+     */
+    private Request authenticateProxy(Route route, Response response) {
+        final var proxy = getConnectorProxy();
+        final var authentication = proxy != null ? proxy.getProxyAuthentication() : null;
+        if (authentication == null || authentication.getAuthUsername() == null
+            || response.request().header(HttpHeaders.PROXY_AUTHORIZATION) != null) {
+            return null;
+        }
+
+        return response.request().newBuilder()
+            .header(HttpHeaders.PROXY_AUTHORIZATION, Credentials.basic(
+                authentication.getAuthUsername(),
+                Objects.toString(authentication.getAuthPassword(), ""),
+                StandardCharsets.ISO_8859_1))
+            .build();
+    }
+
+    /**
+     * Routes backend requests via the connector proxy, except for the hosts listed as
+     * ids:noProxy.
+     */
+    private final class ConnectorProxySelector extends ProxySelector {
+
+        @Override
+        public List<Proxy> select(URI uri) {
+            final var proxy = getConnectorProxy();
+            if (proxy == null || isExcluded(proxy, uri)) {
+                return List.of(Proxy.NO_PROXY);
+            }
+
+            final var proxyUri = proxy.getProxyURI();
+            return List.of(new Proxy(Proxy.Type.HTTP,
+                InetSocketAddress.createUnresolved(proxyUri.getHost(), getPort(proxyUri))));
+        }
+
+        @Override
+        public void connectFailed(URI uri, SocketAddress address, IOException exception) {
+            LOGGER.debug("Failed to connect to the proxy. [url=({}), proxy=({}), "
+                + "exception=({})]", uri, address, exception.getMessage());
+        }
+
+        private boolean isExcluded(de.fraunhofer.iais.eis.Proxy proxy, URI uri) {
+            if (proxy.getNoProxy() == null) {
+                return false;
+            }
+
+            for (final var excluded : proxy.getNoProxy()) {
+                if (excluded != null && uri.getHost() != null
+                    && uri.getHost().equalsIgnoreCase(excluded.getHost())
+                    && getPort(uri) == getPort(excluded)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private int getPort(URI uri) {
+            if (uri.getPort() != -1) {
+                return uri.getPort();
+            }
+
+            return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+    }
+
+    /**
+     * Verifies https backends with the trust manager of the connector configuration, like the
+     * http service of the framework. The trust manager is looked up for every handshake, so an
+     * updated truststore applies without a restart. Without a configured truststore, the default
+     * truststore of the JVM is used.
+     */
+    private final class ConnectorTrustManager implements X509TrustManager {
+
+        private final X509TrustManager defaultTrustManager = getDefaultTrustManager();
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType)
+            throws CertificateException {
+            getTrustManager().checkClientTrusted(chain, authType);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType)
+            throws CertificateException {
+            getTrustManager().checkServerTrusted(chain, authType);
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return getTrustManager().getAcceptedIssuers();
+        }
+
+        private X509TrustManager getTrustManager() {
+            final var keyManager = configurationContainer.getKeyManager();
+            final var trustManager = keyManager != null ? keyManager.getTrustManager() : null;
+            return trustManager != null ? trustManager : defaultTrustManager;
+        }
+
+        private X509TrustManager getDefaultTrustManager() throws IllegalStateException {
+            try {
+                final var factory = TrustManagerFactory.getInstance(
+                    TrustManagerFactory.getDefaultAlgorithm());
+                factory.init((KeyStore) null);
+                for (final var trustManager : factory.getTrustManagers()) {
+                    if (trustManager instanceof X509TrustManager) {
+                        return (X509TrustManager) trustManager;
+                    }
+                }
+            } catch (NoSuchAlgorithmException | KeyStoreException exception) {
+                throw new IllegalStateException(exception);
+            }
+
+            throw new IllegalStateException("No default X509TrustManager found.");
+        }
+    }
+
+    /**
+     * The connection pool of a backend host and a request limit on it.
+     */
+    private static final class Host {
+        private final OkHttpClient client;
+        private final Semaphore permits;
+        private final int limit;
+
+        Host(OkHttpClient client, int limit) {
+            this.client = client;
+            this.permits = new Semaphore(limit);
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * The body of a backend response that is copied into the cache while it is read. The copy is
+     * cached once the body has been read to the end; it is dropped if the body is larger than
+     * backend.cache.max-entry-size or parts of it are skipped.
+     */
+    private final class CachingStream extends FilterInputStream {
+        private final String key;
+        private final Response response;
+        private final long ttl;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        CachingStream(InputStream body, String key, Response response, long ttl) {
+            super(body);
+            this.key = key;
+            this.response = response;
+            this.ttl = ttl;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final var b = super.read();
+            if (b < 0) {
+                complete();
+            } else if (reserve(1)) {
+                copy.write(b);
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            final var count = super.read(buffer, offset, length);
+            if (count < 0) {
+                complete();
+            } else if (reserve(count)) {
+                copy.write(buffer, offset, count);
+            }
+
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            copy = null;
+            return super.skip(n);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private boolean reserve(int count) {
+            if (copy != null && copy.size() + count > responseCache.getMaxEntrySize()) {
+                copy = null;
+            }
+
+            return copy != null;
+        }
+
+        private void complete() {
+            if (copy != null) {
+                store(key, response, copy.toByteArray(), ttl);
+                copy = null;
+            }
+        }
+    }
+
+    /**
+     * The body of a backend response. Closing it closes the response and frees the request slot
+     * of the backend host, also if it is closed more than once.
+     */
+    private static final class ResponseStream extends FilterInputStream {
+        private final Response response;
+        private final Semaphore permits;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        ResponseStream(InputStream body, Response response, Semaphore permits) {
+            super(body);
+            this.response = response;
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                super.close();
+            } finally {
+                response.close();
+                permits.release();
+            }
+        }
+    }
+}
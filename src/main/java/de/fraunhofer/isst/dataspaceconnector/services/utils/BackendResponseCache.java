@@ -0,0 +1,226 @@
+package de.fraunhofer.isst.dataspaceconnector.services.utils;
+
+import de.fraunhofer.isst.dataspaceconnector.config.BackendConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class caches backend responses of representations with a cacheTtl, so popular artifacts
+ * are served without a request to the backend. Entries are keyed by the resolved url and the
+ * request headers. An entry is fresh for the cacheTtl of the backend source, or shorter if the
+ * backend sends max-age or no-cache. An expired entry with an ETag or Last-Modified header is
+ * revalidated by the {@link BackendClient} instead of being fetched again. The least recently
+ * used entries are dropped once the cached bodies exceed backend.cache.max-size bytes; bodies
+ * larger than backend.cache.max-entry-size bytes are not cached at all.
+ */
+@Component
+public class BackendResponseCache {
+
+    private final long maxSize;
+    private final long maxEntrySize;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructor for BackendResponseCache.
+     *
+     * @throws IllegalArgumentException if any of the parameters is null.
+     */
+    @Autowired
+    public BackendResponseCache(BackendConfiguration backendConfiguration)
+        throws IllegalArgumentException {
+        if (backendConfiguration == null)
+            throw new IllegalArgumentException("The BackendConfiguration cannot be null.");
+
+        this.maxSize = Math.max(0, backendConfiguration.getCacheMaxSize());
+        this.maxEntrySize = Math.min(maxSize,
+            Math.max(0, backendConfiguration.getCacheMaxEntrySize()));
+    }
+
+    /**
+     * Checks if responses are cached at all.
+     *
+     * @return false, if backend.cache.max-size is 0.
+     */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Returns the size of the largest response body that is cached.
+     *
+     * @return the size in bytes.
+     */
+    public long getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    /**
+     * Returns a cached response.
+     *
+     * @param key the url and headers of the request.
+     * @return the entry, it may be expired; null, if nothing is cached.
+     */
+    public Entry get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /**
+     * Caches a response, replacing an older response of the same request. The response is not
+     * cached if its body is too large.
+     *
+     * @param key the url and headers of the request.
+     * @param entry the response.
+     */
+    public void put(String key, Entry entry) {
+        final var entrySize = sizeOf(key, entry);
+        synchronized (entries) {
+            final var previous = entries.remove(key);
+            if (previous != null) {
+                size -= sizeOf(key, previous);
+            }
+
+            if (entrySize > maxEntrySize) {
+                return;
+            }
+
+            entries.put(key, entry);
+            size += entrySize;
+
+            // Drop the least recently used entries.
+            final var iterator = entries.entrySet().iterator();
+            while (size > maxSize && iterator.hasNext()) {
+                final var eldest = iterator.next();
+                size -= sizeOf(eldest.getKey(), eldest.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops all cached responses.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns the number of cached responses.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    void countHit() {
+        hits.incrementAndGet();
+    }
+
+    void countRevalidation() {
+        revalidations.incrementAndGet();
+    }
+
+    void countMiss() {
+        misses.incrementAndGet();
+    }
+
+    private static long sizeOf(String key, Entry entry) {
+        return (long) Character.BYTES * key.length() + entry.body.length;
+    }
+
+    /**
+     * A cached response. Entries are immutable, a revalidated response gets a new entry.
+     */
+    public static final class Entry {
+        private final byte[] body;
+        private final Charset charset;
+        private final String etag;
+        private final String lastModified;
+        private final long expiresAt;
+
+        /**
+         * Constructor for Entry.
+         *
+         * @param body the response body.
+         * @param charset the charset of the body.
+         * @param etag the ETag header of the response, may be null.
+         * @param lastModified the Last-Modified header of the response, may be null.
+         * @param ttl how long the response is served without asking the backend, in
+         *            milliseconds.
+         */
+        public Entry(byte[] body, Charset charset, String etag, String lastModified, long ttl) {
+            this.body = body;
+            this.charset = charset;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAt = System.currentTimeMillis() + ttl;
+        }
+
+        /**
+         * Returns the entry for a response the backend confirmed as unchanged.
+         *
+         * @param ttl how long the response is served without asking the backend again.
+         * @return the new entry.
+         */
+        public Entry revalidated(long ttl) {
+            return new Entry(body, charset, etag, lastModified, ttl);
+        }
+
+        public boolean isFresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        /**
+         * Returns the body. The array is shared, it must not be changed.
+         *
+         * @return the body.
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getText() {
+            return new String(body, charset);
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+    }
+}
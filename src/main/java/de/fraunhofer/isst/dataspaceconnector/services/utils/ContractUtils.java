@@ -0,0 +1,108 @@
+package de.fraunhofer.isst.dataspaceconnector.services.utils;
+
+import de.fraunhofer.iais.eis.Action;
+import de.fraunhofer.iais.eis.Constraint;
+import de.fraunhofer.iais.eis.ConstraintImpl;
+import de.fraunhofer.iais.eis.Contract;
+import de.fraunhofer.iais.eis.Permission;
+import de.fraunhofer.iais.eis.Rule;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * This class offers support functions for comparing contracts.
+ */
+public class ContractUtils {
+
+    /**
+     * Computes a fingerprint of the rules of a contract. Two contracts have the same fingerprint if
+     * their permissions, prohibitions and obligations have the same actions, constraints and
+     * duties. IDs, targets, titles and descriptions are not part of the fingerprint. Since rules,
+     * the actions of a rule and its constraints apply together, their order does not matter.
+     *
+     * @param contract the contract.
+     * @return the hex encoded SHA-256 hash of the canonical rules, null if the contract is null.
+     */
+    public static String fingerprint(Contract contract) {
+        if (contract == null) {
+            return null;
+        }
+
+        final var canonical = "permissions=" + canonical(contract.getPermission(),
+            ContractUtils::canonicalPermission)
+            + ";prohibitions=" + canonical(contract.getProhibition(), ContractUtils::canonicalRule)
+            + ";obligations=" + canonical(contract.getObligation(), ContractUtils::canonicalRule);
+        return hash(canonical);
+    }
+
+    private static String canonicalPermission(Permission permission) {
+        return canonicalRule(permission)
+            + ",pre=" + canonical(permission.getPreDuty(), ContractUtils::canonicalRule)
+            + ",post=" + canonical(permission.getPostDuty(), ContractUtils::canonicalRule);
+    }
+
+    private static String canonicalRule(Rule rule) {
+        return "actions=" + canonical(rule.getAction(), Action::toString)
+            + ",constraints=" + canonical(rule.getConstraint(),
+            ContractUtils::canonicalConstraint);
+    }
+
+    private static String canonicalConstraint(Constraint constraint) {
+        if (!(constraint instanceof ConstraintImpl)) {
+            // Logical constraints are compared as serialized.
+            return constraint.toRdf();
+        }
+
+        final var rightOperand = constraint.getRightOperand();
+        final var value = rightOperand == null ? null : rightOperand.getValue();
+        // Prefix the value with its length, so separators in values cannot collide.
+        return "(" + constraint.getLeftOperand() + " " + constraint.getOperator() + " "
+            + (value == null ? "null" : value.length() + ":" + value)
+            + "^^" + (rightOperand == null ? null : rightOperand.getType())
+            + " pip=" + constraint.getPipEndpoint() + ")";
+    }
+
+    /**
+     * Maps the elements of a list to their canonical form and joins them in sorted order. A
+     * missing list equals an empty one.
+     */
+    private static <T> String canonical(List<? extends T> elements,
+        Function<T, String> mapping) {
+        if (elements == null || elements.isEmpty()) {
+            return "[]";
+        }
+
+        final var values = new ArrayList<String>(elements.size());
+        for (final T element : elements) {
+            values.add(element == null ? "null" : mapping.apply(element));
+        }
+
+        Collections.sort(values);
+        return "[" + String.join("|", values) + "]";
+    }
+
+    private static String hash(String value) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            // Every Java platform has to support SHA-256.
+            throw new IllegalStateException(exception);
+        }
+
+        final var bytes = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+        final var builder = new StringBuilder(bytes.length * 2);
+        for (final var b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16))
+                .append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return builder.toString();
+    }
+}
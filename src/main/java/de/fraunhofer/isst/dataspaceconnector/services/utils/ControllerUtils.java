@@ -66,6 +66,18 @@ public class ControllerUtils {
         return new ResponseEntity<>("Resource not found.", HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Creates a ResponseEntity with status code 409 and a message indicating that a resource has been changed by
+     * another request in the meantime.
+     * @param resourceId ID of the resource.
+     * @return ResponseEntity with status code 409.
+     */
+    public static ResponseEntity<String> respondResourceModifiedConcurrently(UUID resourceId) {
+        LOGGER.debug("The resource was modified concurrently. [resourceId=({})]", resourceId);
+        return new ResponseEntity<>("The resource has been changed in the meantime. Please retry.",
+            HttpStatus.CONFLICT);
+    }
+
     /**
      * Creates a ResponseEntity with status code 500 and a message indicating that a resource could not be loaded.
      * @param resourceId ID of the resource.
@@ -1,10 +1,9 @@
 package de.fraunhofer.isst.dataspaceconnector.services.utils;
 
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.TraceContext;
 import de.fraunhofer.isst.dataspaceconnector.model.QueryInput;
 import de.fraunhofer.isst.ids.framework.communication.http.HttpService;
-import okhttp3.Response;
 import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpHeaders;
 import org.slf4j.Logger;
@@ -23,7 +22,9 @@ import java.util.Map;
 import java.util.Objects;
 
 /**
- * This class builds up HTTP or HTTPS endpoint connections and sends GET requests.
+ * This class builds up HTTPS endpoint connections and sends GET requests with basic
+ * authentication. Every request carries the trace id of the current request, see
+ * {@link TraceContext}. Backend data is fetched by the {@link BackendClient}.
  */
 @Service
 public class HttpUtils {
@@ -46,82 +47,6 @@ public class HttpUtils {
         this.httpService = httpService;
     }
 
-    /**
-     * Sends a GET request to an external HTTP endpoint
-     *
-     * @param address the URL.
-     * @param queryInput Header and params for data request from backend.
-     * @return the HTTP response if HTTP code is OK (200).
-     * @throws URISyntaxException if the input address is not a valid URI.
-     * @throws RuntimeException if an error occurred when connecting or processing the HTTP
-     *                               request.
-     */
-    public String sendHttpGetRequest(String address, QueryInput queryInput) throws
-        RuntimeException, URISyntaxException {
-        if(queryInput != null) {
-            address = replacePathVariablesInUrl(address, queryInput.getPathVariables());
-            address = addQueryParamsToURL(address, queryInput.getParams());
-        } else {
-            if (address.contains("{")) {
-                throw new IllegalArgumentException("Missing path variables.");
-            }
-        }
-
-        try {
-            final var uri = new URI(address);
-
-            Response response;
-            if (queryInput != null) {
-                response = httpService.getWithHeaders(uri,queryInput.getHeaders());
-            } else {
-                response = httpService.get(uri);
-            }
-
-            final var responseCodeOk = 200;
-            final var responseCodeUnauthorized = 401;
-            final var responseMalformed = -1;
-
-            final var responseCode = response.code();
-
-            if(responseCode == responseCodeOk){
-                return Objects.requireNonNull(response.body()).string();
-            } else if (responseCode == responseCodeUnauthorized) {
-                // The request is not authorized.
-                LOGGER.debug("Could not retrieve data. Unauthorized access. [url=({})]", address);
-                throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED);
-            } else if (responseCode == responseMalformed) {
-                // The response code could not be read.
-                LOGGER.debug("Could not retrieve data. Expectation failed. [url=({})]", address);
-                throw new HttpClientErrorException(HttpStatus.EXPECTATION_FAILED);
-            } else {
-                // This function should never be thrown.
-                LOGGER.warn("Could not retrieve data. Something else went wrong. [url=({})]", address);
-                throw new NotImplementedException("Unsupported return value " +
-                        "from getResponseCode.");
-            }
-        } catch (IOException exception) {
-            // Catch all the HTTP, IOExceptions.
-            LOGGER.warn("Failed to send the http get request. [url=({})]", address);
-            throw new RuntimeException("Failed to send the http get request.", exception);
-        }
-    }
-
-    /**
-     * Sends a GET request to an external HTTPS endpoint
-     *
-     * @param address the URL.
-     * @param queryInput Header and params for data request from backend.
-     * @return the HTTP body of the response when HTTP code is OK (200).
-     * @throws URISyntaxException if the input address is not a valid URI.
-     * @throws RuntimeException if an error occurred when connecting or processing the HTTP
-     *                               request.
-     */
-    public String sendHttpsGetRequest(String address, QueryInput queryInput)
-            throws URISyntaxException, RuntimeException {
-        return sendHttpGetRequest(address, queryInput);
-
-    }
-
     /**
      * Sends a GET request with basic authentication to an external HTTPS endpoint.
      *
@@ -151,22 +76,20 @@ public class HttpUtils {
 
         try {
             final var uri = new URI(address);
-            Response response;
-            if (queryInput != null && queryInput.getHeaders() != null) {
-                queryInput.getHeaders().put(HttpHeaders.AUTHORIZATION, authHeader);
-                response = httpService.getWithHeaders(uri,queryInput.getHeaders());
-            } else {
-                QueryInput queryInput_temp = new QueryInput();
-                queryInput_temp.getHeaders().put(HttpHeaders.AUTHORIZATION, authHeader);
-                response = httpService.getWithHeaders(uri,queryInput_temp.getHeaders());
-            }
+            // The headers are copied, the query input of the caller is not changed.
+            final var headers = TraceContext.withTraceHeader(
+                queryInput != null ? queryInput.getHeaders() : null);
+            headers.put(HttpHeaders.AUTHORIZATION, authHeader);
+            final var response = httpService.getWithHeaders(uri, headers);
 
-            if (response.code() < 200 || response.code() >= 300) {
+            if (!response.isSuccessful()) {
                 response.close();
                 // Not the expected response code.
                 LOGGER.debug("Could not retrieve data. Expectation failed. [url=({})]", address);
                 throw new HttpClientErrorException(HttpStatus.EXPECTATION_FAILED);
-            } else {
+            }
+
+            try (response) {
                 return Objects.requireNonNull(response.body()).string();
             }
         } catch (IOException exception) {
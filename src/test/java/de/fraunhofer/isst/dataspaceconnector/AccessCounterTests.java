@@ -0,0 +1,208 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.Action;
+import de.fraunhofer.iais.eis.BinaryOperator;
+import de.fraunhofer.iais.eis.ConstraintBuilder;
+import de.fraunhofer.iais.eis.LeftOperand;
+import de.fraunhofer.iais.eis.NotMoreThanNOfferBuilder;
+import de.fraunhofer.iais.eis.PermissionBuilder;
+import de.fraunhofer.iais.eis.util.RdfResource;
+import de.fraunhofer.iais.eis.util.Util;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.repositories.RequestedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.RequestedResourceServiceImpl;
+import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.AccessCounter;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.HttpUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Checks that data accesses are counted exactly under concurrent access, that only new accesses
+ * are added to the database, and that N_TIMES_USAGE policies with this connector as PIP are
+ * enforced without an http request, also when accessed concurrently.
+ */
+@SpringBootTest
+class AccessCounterTests {
+
+    private static final URI PROVIDER = URI.create("https://provider.example/api/ids/data");
+    private static final URI LOCAL_PIP = URI.create("https://localhost:8080/admin/api/resources/");
+
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 100;
+
+    @Autowired
+    private AccessCounter accessCounter;
+
+    @Autowired
+    private RequestedResourceServiceImpl resourceService;
+
+    @Autowired
+    private RequestedResourceRepository requestedResourceRepository;
+
+    @MockBean
+    private HttpUtils httpUtils;
+
+    private final List<UUID> resources = new ArrayList<>();
+
+    @AfterEach
+    void deleteResources() {
+        resources.forEach(resourceService::deleteResource);
+    }
+
+    @Test
+    void increment_concurrently_countsEveryAccess() throws Exception {
+        final var key = createResource(null);
+
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final var tasks = new ArrayList<Callable<Void>>();
+            for (int i = 0; i < THREADS; i++) {
+                tasks.add(() -> {
+                    for (int j = 0; j < ITERATIONS; j++) {
+                        accessCounter.increment(key);
+                    }
+                    return null;
+                });
+            }
+
+            for (Future<Void> future : executor.invokeAll(tasks, 1, TimeUnit.MINUTES)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS * ITERATIONS, accessCounter.get(key));
+
+        accessCounter.flush();
+        assertEquals(THREADS * ITERATIONS, requestedResourceRepository.findAccessedByUuid(key));
+    }
+
+    @Test
+    void getData_concurrently_countsEveryAccess() throws Exception {
+        final var key = createResource(nTimes(THREADS * ITERATIONS));
+        resourceService.addData(key, "data");
+
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final var tasks = new ArrayList<Callable<Void>>();
+            for (int i = 0; i < THREADS; i++) {
+                tasks.add(() -> {
+                    for (int j = 0; j < ITERATIONS; j++) {
+                        assertEquals("data", resourceService.getData(key));
+                    }
+                    return null;
+                });
+            }
+
+            for (Future<Void> future : executor.invokeAll(tasks, 1, TimeUnit.MINUTES)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS * ITERATIONS, resourceService.getAccessed(key));
+        assertEquals("Policy Restriction!", resourceService.getData(key));
+
+        accessCounter.flush();
+        assertEquals(THREADS * ITERATIONS, requestedResourceRepository.findAccessedByUuid(key));
+    }
+
+    @Test
+    void flush_repeatedly_addsOnlyNewAccesses() {
+        final var key = createResource(null);
+
+        accessCounter.increment(key);
+        accessCounter.increment(key);
+        accessCounter.flush();
+        accessCounter.increment(key);
+        accessCounter.flush();
+        accessCounter.flush();
+
+        assertEquals(3, requestedResourceRepository.findAccessedByUuid(key));
+    }
+
+    @Test
+    void getData_localPip_deniesAccessAfterMaxAccesses() {
+        final var key = createResource(nTimes(2));
+        resourceService.addData(key, "data");
+
+        assertEquals("data", resourceService.getData(key));
+        assertEquals("data", resourceService.getData(key));
+        assertEquals("Policy Restriction!", resourceService.getData(key));
+        assertEquals(2, resourceService.getAccessed(key));
+        verifyNoInteractions(httpUtils);
+    }
+
+    @Test
+    void getData_concurrentlyWithLocalPip_allowsAtMostMaxAccesses() throws Exception {
+        final var key = createResource(nTimes(ITERATIONS));
+        resourceService.addData(key, "data");
+
+        final var allowed = new AtomicInteger();
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final var tasks = new ArrayList<Callable<Void>>();
+            for (int i = 0; i < THREADS; i++) {
+                tasks.add(() -> {
+                    for (int j = 0; j < ITERATIONS; j++) {
+                        if ("data".equals(resourceService.getData(key))) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            for (Future<Void> future : executor.invokeAll(tasks, 1, TimeUnit.MINUTES)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(ITERATIONS, allowed.get());
+        assertEquals(ITERATIONS, resourceService.getAccessed(key));
+    }
+
+    private UUID createResource(String policy) {
+        final var metadata = new ResourceMetadata("Title", "Description", new ArrayList<>(),
+            policy, null, null, "1.0", new HashMap<>(), null);
+        final var key = resourceService.addResourceWithInfo(PROVIDER, UUID.randomUUID(), metadata);
+        resources.add(key);
+        return key;
+    }
+
+    private static String nTimes(int max) {
+        return new NotMoreThanNOfferBuilder()
+            ._permission_(Util.asList(new PermissionBuilder()
+                ._action_(Util.asList(Action.USE))
+                ._constraint_(Util.asList(new ConstraintBuilder()
+                    ._leftOperand_(LeftOperand.COUNT)
+                    ._operator_(BinaryOperator.LTEQ)
+                    ._rightOperand_(new RdfResource(String.valueOf(max),
+                        URI.create("xsd:double")))
+                    ._pipEndpoint_(LOCAL_PIP)
+                    .build()))
+                .build()))
+            .build().toRdf();
+    }
+}
@@ -0,0 +1,128 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.exceptions.resource.ResourceAlreadyExistsException;
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.repositories.OfferedRepresentationRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that the artifact index follows committed representation changes and ignores rolled
+ * back ones, and that a resource with a used representation id stores none of its ids.
+ */
+@SpringBootTest
+class ArtifactIndexTests {
+
+    @Autowired
+    private OfferedResourceServiceImpl offeredResourceService;
+
+    @Autowired
+    private OfferedRepresentationRepository offeredRepresentationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID resourceId;
+
+    @BeforeEach
+    void createResource() throws Exception {
+        resourceId = offeredResourceService.addResource(new ResourceMetadata("Title",
+            "Description", new ArrayList<>(), null, null, null, "1.0", new HashMap<>(), null));
+
+        // Make sure the index is loaded, so the changes below are applied to it.
+        assertNull(offeredResourceService.getResourceIdByArtifactId(UUID.randomUUID()));
+    }
+
+    @AfterEach
+    void deleteResource() {
+        offeredResourceService.deleteResource(resourceId);
+    }
+
+    @Test
+    void getResourceIdByArtifactId_committedChanges_areIndexed() throws Exception {
+        final var artifactId = offeredResourceService.addRepresentation(resourceId,
+            createRepresentation());
+        assertEquals(resourceId, offeredResourceService.getResourceIdByArtifactId(artifactId));
+
+        offeredResourceService.deleteRepresentation(resourceId, artifactId);
+        assertNull(offeredResourceService.getResourceIdByArtifactId(artifactId));
+    }
+
+    @Test
+    void getResourceIdByArtifactId_deletedResource_isRemoved() throws Exception {
+        final var artifactId = offeredResourceService.addRepresentation(resourceId,
+            createRepresentation());
+
+        offeredResourceService.deleteResource(resourceId);
+        assertNull(offeredResourceService.getResourceIdByArtifactId(artifactId));
+    }
+
+    @Test
+    void getResourceIdByArtifactId_rolledBackChange_isNotIndexed() {
+        final var artifactId = UUID.randomUUID();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                offeredResourceService.addRepresentationWithId(resourceId, createRepresentation(),
+                    artifactId);
+            } catch (Exception exception) {
+                throw new IllegalStateException(exception);
+            }
+
+            status.setRollbackOnly();
+        });
+
+        assertNull(offeredResourceService.getResourceIdByArtifactId(artifactId));
+    }
+
+    @Test
+    void addResource_usedRepresentationId_storesNoRepresentationIds() throws Exception {
+        final var usedId = offeredResourceService.addRepresentation(resourceId,
+            createRepresentation());
+
+        final var representations = new HashMap<UUID, ResourceRepresentation>();
+        final var newIds = new ArrayList<UUID>();
+        for (int i = 0; i < 4; i++) {
+            newIds.add(UUID.randomUUID());
+        }
+        for (final var id : newIds) {
+            final var representation = createRepresentation();
+            representation.setUuid(id);
+            representations.put(id, representation);
+        }
+        final var used = createRepresentation();
+        used.setUuid(usedId);
+        representations.put(usedId, used);
+
+        assertThrows(ResourceAlreadyExistsException.class, () -> offeredResourceService
+            .addResource(new ResourceMetadata("Title", "Description", new ArrayList<>(), null,
+                null, null, "1.0", representations, null)));
+
+        // The ids stored before the clash are rolled back with the resource.
+        newIds.forEach(id -> assertFalse(offeredRepresentationRepository.existsById(id)));
+        assertEquals(resourceId, offeredResourceService.getResourceIdByArtifactId(usedId));
+    }
+
+    private static ResourceRepresentation createRepresentation() throws Exception {
+        final var source = new BackendSource(BackendSource.Type.HTTP_GET,
+            new URL("http://localhost/artifact"), null, null);
+        return new ResourceRepresentation(null, "JSON", 8, "Indexed", source);
+    }
+}
@@ -0,0 +1,493 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import de.fraunhofer.iais.eis.ConfigurationModel;
+import de.fraunhofer.iais.eis.Proxy;
+import de.fraunhofer.isst.dataspaceconnector.config.BackendConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.QueryInput;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.BackendClient;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.BackendResponseCache;
+import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that backend requests are built from the query input, limited per backend, sent via the
+ * connector proxy, verified with the connector truststore and always give back their connection,
+ * and that cached responses are served and revalidated.
+ */
+class BackendClientTests {
+
+    private static final int THREADS = 8;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private BackendConfiguration configuration;
+    private BackendClient backendClient;
+    private BackendResponseCache responseCache;
+    private ConfigurationContainer configurationContainer;
+
+    private final AtomicReference<String> requestUri = new AtomicReference<>();
+    private final AtomicReference<String> authorization = new AtomicReference<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final AtomicInteger fetched = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    @BeforeEach
+    void startBackend() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/data", this::handleData);
+        server.createContext("/slow", this::handleSlow);
+        server.createContext("/secured", exchange -> respond(exchange, 401, ""));
+        server.createContext("/versioned", this::handleVersioned);
+        server.createContext("/counted", this::handleCounted);
+        server.createContext("/directive", this::handleDirective);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        configuration = new BackendConfiguration();
+        configuration.setConnectTimeout(10_000);
+        configuration.setReadTimeout(10_000);
+        configuration.setWriteTimeout(10_000);
+        configuration.setMaxConcurrency(16);
+        configuration.setAcquireTimeout(200);
+        configuration.setKeepAlive(60_000);
+        configuration.setHttp2(true);
+        configuration.setCacheMaxSize(1024);
+        configuration.setCacheMaxEntrySize(512);
+        responseCache = new BackendResponseCache(configuration);
+        configurationContainer = mock(ConfigurationContainer.class);
+        backendClient = new BackendClient(configuration, responseCache, configurationContainer);
+    }
+
+    @AfterEach
+    void stopBackend() {
+        backendClient.destroy();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void getString_queryInput_encodesPathVariablesAndParams() throws Exception {
+        final var queryInput = new QueryInput();
+        queryInput.getPathVariables().put("id", "a b");
+        queryInput.getParams().put("q", "x&y");
+
+        final var data = backendClient.getString(
+            createSource("/data/{id}?fixed=1", null), queryInput);
+
+        assertEquals("data", data);
+        assertEquals("/data/a%20b?fixed=1&q=x%26y", requestUri.get());
+    }
+
+    @Test
+    void getString_missingPathVariable_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class,
+            () -> backendClient.getString(createSource("/data/{id}", null), null));
+    }
+
+    @Test
+    void getString_basicAuth_sendsCredentials() throws Exception {
+        final var source = createSource("/data", null);
+        source.setType(BackendSource.Type.HTTPS_GET_BASICAUTH);
+        source.setUsername("user");
+        source.setPassword("secret");
+
+        backendClient.getString(source, null);
+
+        assertEquals("Basic dXNlcjpzZWNyZXQ=", authorization.get());
+    }
+
+    @Test
+    void getString_concurrentRequests_keepsBackendLimit() throws Exception {
+        final var source = createSource("/slow", 2);
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final var tasks = new ArrayList<Callable<String>>();
+            for (int i = 0; i < THREADS; i++) {
+                tasks.add(() -> {
+                    // Wait longer than the acquire timeout for a free slot.
+                    for (int attempt = 0; ; attempt++) {
+                        try {
+                            return backendClient.getString(source, null);
+                        } catch (HttpServerErrorException exception) {
+                            if (attempt > 100) {
+                                throw exception;
+                            }
+                        }
+                    }
+                });
+            }
+
+            for (final var result : executor.invokeAll(tasks, 1, TimeUnit.MINUTES)) {
+                assertEquals("slow", result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(maxRunning.get() <= 2, "Backend limit exceeded: " + maxRunning.get());
+    }
+
+    @Test
+    void getStream_closed_releasesSlot() throws Exception {
+        final var source = createSource("/data", 1);
+
+        final var stream = backendClient.getStream(source, null);
+        final var exception = assertThrows(HttpServerErrorException.class,
+            () -> backendClient.getStream(source, null));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+
+        assertEquals("data", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        stream.close();
+        stream.close();
+
+        try (var next = backendClient.getStream(source, null)) {
+            assertEquals("data", new String(next.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void getStream_sameHostDifferentLimits_keepsEachLimit() throws Exception {
+        final var limitOne = createSource("/data", 1);
+        final var limitTwo = createSource("/data?limit=2", 2);
+
+        try (var first = backendClient.getStream(limitOne, null);
+             var second = backendClient.getStream(limitTwo, null);
+             var third = backendClient.getStream(limitTwo, null)) {
+            // Using the other source must not give the first one fresh slots.
+            assertThrows(HttpServerErrorException.class,
+                () -> backendClient.getStream(limitOne, null));
+            assertThrows(HttpServerErrorException.class,
+                () -> backendClient.getStream(limitTwo, null));
+        }
+
+        try (var next = backendClient.getStream(limitOne, null)) {
+            assertEquals("data", new String(next.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void getString_connectorProxy_sendsRequestViaProxy() throws Exception {
+        // The test backend also acts as proxy for a host that does not exist.
+        final var proxyUri = URI.create("http://localhost:" + server.getAddress().getPort());
+        final var proxy = mock(Proxy.class);
+        when(proxy.getProxyURI()).thenReturn(proxyUri);
+        final var configModel = mock(ConfigurationModel.class);
+        doReturn(new ArrayList<>(List.of(proxy))).when(configModel).getConnectorProxy();
+        when(configurationContainer.getConfigModel()).thenReturn(configModel);
+
+        final var source = new BackendSource(BackendSource.Type.HTTP_GET,
+            new URL("http://backend.invalid/data"), null, null);
+        assertEquals("data", backendClient.getString(source, null));
+
+        // Hosts listed as noProxy are requested directly.
+        doReturn(new ArrayList<>(List.of(URI.create("http://direct.invalid/"))))
+            .when(proxy).getNoProxy();
+        final var direct = new BackendSource(BackendSource.Type.HTTP_GET,
+            new URL("http://direct.invalid/data"), null, null);
+        assertThrows(RuntimeException.class, () -> backendClient.getString(direct, null));
+    }
+
+    @Test
+    void getString_unauthorized_releasesSlot() throws Exception {
+        final var source = createSource("/secured", 1);
+
+        for (int i = 0; i < 3; i++) {
+            final var exception = assertThrows(HttpClientErrorException.class,
+                () -> backendClient.getString(source, null));
+            assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+        }
+    }
+
+    @Test
+    void getString_cacheTtl_servesFreshResponseFromCache() throws Exception {
+        final var source = createSource("/counted", null);
+        source.setCacheTtl(60_000L);
+
+        final var queryInput = new QueryInput();
+        queryInput.getParams().put("page", "1");
+        assertEquals("counted 1", backendClient.getString(source, queryInput));
+        assertEquals("counted 1", backendClient.getString(source, queryInput));
+
+        // Other query input, other response.
+        queryInput.getParams().put("page", "2");
+        assertEquals("counted 2", backendClient.getString(source, queryInput));
+
+        assertEquals(2, fetched.get());
+        assertEquals(1, responseCache.getHits());
+        assertEquals(2, responseCache.getMisses());
+    }
+
+    @Test
+    void getString_noCacheTtl_fetchesEveryTime() throws Exception {
+        final var source = createSource("/counted", null);
+
+        backendClient.getString(source, null);
+        backendClient.getString(source, null);
+
+        assertEquals(2, fetched.get());
+        assertEquals(0, responseCache.size());
+    }
+
+    @Test
+    void getString_expiredWithEtag_revalidates() throws Exception {
+        final var source = createSource("/versioned", null);
+        source.setCacheTtl(1L);
+
+        assertEquals("version 1", backendClient.getString(source, null));
+        Thread.sleep(10);
+        assertEquals("version 1", backendClient.getString(source, null));
+
+        assertEquals(2, fetched.get());
+        assertEquals(1, notModified.get());
+        assertEquals(1, responseCache.getRevalidations());
+    }
+
+    @Test
+    void getString_cacheFull_dropsLeastRecentlyUsed() throws Exception {
+        final var source = createSource("/counted", null);
+        source.setCacheTtl(60_000L);
+
+        // Each entry takes about 100 bytes, the cache holds 1024 bytes.
+        final var queryInput = new QueryInput();
+        for (int i = 0; i < 20; i++) {
+            queryInput.getParams().put("page", String.valueOf(i));
+            backendClient.getString(source, queryInput);
+        }
+
+        assertTrue(responseCache.size() < 20);
+
+        queryInput.getParams().put("page", "19");
+        backendClient.getString(source, queryInput);
+        assertEquals(20, fetched.get());
+
+        queryInput.getParams().put("page", "0");
+        backendClient.getString(source, queryInput);
+        assertEquals(21, fetched.get());
+    }
+
+    @Test
+    void getStream_cacheTtl_servesFreshResponseFromCache() throws Exception {
+        final var source = createSource("/counted", null);
+        source.setCacheTtl(60_000L);
+
+        try (var first = backendClient.getStream(source, null)) {
+            assertEquals("counted 1", new String(first.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        try (var second = backendClient.getStream(source, null)) {
+            assertEquals("counted 1", new String(second.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        assertEquals(1, fetched.get());
+        assertEquals(1, responseCache.getHits());
+    }
+
+    @Test
+    void getStream_notReadToEnd_isNotCached() throws Exception {
+        final var source = createSource("/counted", null);
+        source.setCacheTtl(60_000L);
+
+        try (var stream = backendClient.getStream(source, null)) {
+            stream.read();
+        }
+
+        assertEquals(0, responseCache.size());
+    }
+
+    @Test
+    void getString_noCacheDirective_revalidatesEveryTime() throws Exception {
+        final var source = createSource("/directive?cc=no-cache&etag=1", null);
+        source.setCacheTtl(60_000L);
+
+        assertEquals("directive", backendClient.getString(source, null));
+        assertEquals("directive", backendClient.getString(source, null));
+
+        assertEquals(2, fetched.get());
+        assertEquals(1, notModified.get());
+    }
+
+    @Test
+    void getString_maxAgeDirective_shortensTtl() throws Exception {
+        final var source = createSource("/directive?cc=max-age=0", null);
+        source.setCacheTtl(60_000L);
+
+        backendClient.getString(source, null);
+        backendClient.getString(source, null);
+
+        assertEquals(2, fetched.get());
+        assertEquals(0, responseCache.getHits());
+    }
+
+    @Test
+    void getString_httpsBackend_usesConnectorTruststore() throws Exception {
+        final var password = "password".toCharArray();
+        final var keyStore = KeyStore.getInstance("PKCS12");
+        try (var in = getClass().getResourceAsStream("/conf/keystore-localhost.p12")) {
+            keyStore.load(in, password);
+        }
+
+        final var keyManagerFactory = KeyManagerFactory.getInstance(
+            KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, password);
+        final var sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+
+        final var httpsServer = HttpsServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpsServer.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+        httpsServer.createContext("/data", this::handleData);
+        httpsServer.setExecutor(serverExecutor);
+        httpsServer.start();
+
+        // The self-signed certificate is only part of the connector truststore.
+        final var trustStore = KeyStore.getInstance("PKCS12");
+        trustStore.load(null, null);
+        trustStore.setCertificateEntry("localhost", keyStore.getCertificate("1"));
+        final var trustManagerFactory = TrustManagerFactory.getInstance(
+            TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(trustStore);
+        final var trustManager = (X509TrustManager) trustManagerFactory.getTrustManagers()[0];
+
+        final var rejecting = mock(X509TrustManager.class);
+        when(rejecting.getAcceptedIssuers()).thenReturn(new X509Certificate[0]);
+        doThrow(new CertificateException("Not trusted."))
+            .when(rejecting).checkServerTrusted(any(), any());
+
+        final var trusting = mock(ConfigurationContainer.class, RETURNS_DEEP_STUBS);
+        when(trusting.getConfigModel()).thenReturn(null);
+        when(trusting.getKeyManager().getTrustManager()).thenReturn(trustManager);
+        final var rejectingContainer = mock(ConfigurationContainer.class, RETURNS_DEEP_STUBS);
+        when(rejectingContainer.getConfigModel()).thenReturn(null);
+        when(rejectingContainer.getKeyManager().getTrustManager()).thenReturn(rejecting);
+
+        final var trustingClient = new BackendClient(configuration, responseCache, trusting);
+        final var rejectingClient =
+            new BackendClient(configuration, responseCache, rejectingContainer);
+        try {
+            final var source = new BackendSource(BackendSource.Type.HTTPS_GET,
+                new URL("https://localhost:" + httpsServer.getAddress().getPort() + "/data"),
+                null, null);
+
+            assertEquals("data", trustingClient.getString(source, null));
+            assertThrows(RuntimeException.class, () -> rejectingClient.getString(source, null));
+            verify(rejecting).checkServerTrusted(any(), any());
+        } finally {
+            trustingClient.destroy();
+            rejectingClient.destroy();
+            httpsServer.stop(0);
+        }
+    }
+
+    private BackendSource createSource(String path, Integer maxConcurrency) throws Exception {
+        final var source = new BackendSource(BackendSource.Type.HTTP_GET,
+            new URL("http://localhost:" + server.getAddress().getPort() + path), null, null);
+        source.setMaxConcurrency(maxConcurrency);
+        return source;
+    }
+
+    private void handleData(HttpExchange exchange) throws IOException {
+        requestUri.set(exchange.getRequestURI().getRawPath()
+            + "?" + exchange.getRequestURI().getRawQuery());
+        authorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+        respond(exchange, 200, "data");
+    }
+
+    private void handleCounted(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, "counted " + fetched.incrementAndGet());
+    }
+
+    private void handleVersioned(HttpExchange exchange) throws IOException {
+        fetched.incrementAndGet();
+        exchange.getResponseHeaders().add("ETag", "\"1\"");
+        if ("\"1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            respond(exchange, 304, "");
+        } else {
+            respond(exchange, 200, "version 1");
+        }
+    }
+
+    private void handleDirective(HttpExchange exchange) throws IOException {
+        fetched.incrementAndGet();
+        final var query = exchange.getRequestURI().getQuery();
+        exchange.getResponseHeaders().add("Cache-Control",
+            query.replaceAll(".*cc=([^&]*).*", "$1"));
+        if (query.contains("etag=1")) {
+            exchange.getResponseHeaders().add("ETag", "\"1\"");
+            if ("\"1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                respond(exchange, 304, "");
+                return;
+            }
+        }
+
+        respond(exchange, 200, "directive");
+    }
+
+    private void handleSlow(HttpExchange exchange) throws IOException {
+        final var current = running.incrementAndGet();
+        maxRunning.accumulateAndGet(current, Math::max);
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.decrementAndGet();
+        }
+
+        respond(exchange, 200, "slow");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body)
+        throws IOException {
+        final var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
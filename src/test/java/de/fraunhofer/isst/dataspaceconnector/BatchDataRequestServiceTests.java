@@ -0,0 +1,185 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.config.MessagingConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageRejectedException;
+import de.fraunhofer.isst.dataspaceconnector.model.ArtifactRequestItem;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.BatchDataRequestService;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.BatchDataRequestService.ItemResult;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.BatchDataRequestService.Status;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.DataRequestPipeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that batch artifact requests respect the parallelism per recipient, also across batches,
+ * and report the status of every item.
+ */
+class BatchDataRequestServiceTests {
+
+    private static final URI PROVIDER_A = URI.create("https://a.example/api/ids/data");
+    private static final URI PROVIDER_B = URI.create("https://b.example/api/ids/data");
+
+    private DataRequestPipeline dataRequestPipeline;
+    private BatchDataRequestService batchDataRequestService;
+
+    @BeforeEach
+    void createService() {
+        final var configuration = new MessagingConfiguration();
+        configuration.setBatchParallelism(2);
+
+        dataRequestPipeline = mock(DataRequestPipeline.class);
+        batchDataRequestService = new BatchDataRequestService(dataRequestPipeline, configuration);
+    }
+
+    @Test
+    void fetchAll_manyItems_limitsRequestsPerRecipient() throws Exception {
+        final var result = mock(DataRequestPipeline.Result.class);
+        final var pending = new ConcurrentLinkedQueue<Runnable>();
+        final var inFlight = new ConcurrentHashMap<URI, AtomicInteger>();
+        final var maxInFlight = new ConcurrentHashMap<URI, Integer>();
+        when(dataRequestPipeline.fetchArtifact(any(), any(), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                final URI recipient = invocation.getArgument(0);
+                final var count = inFlight.computeIfAbsent(recipient, r -> new AtomicInteger())
+                    .incrementAndGet();
+                maxInFlight.merge(recipient, count, Math::max);
+
+                final var future = new CompletableFuture<DataRequestPipeline.Result>();
+                pending.add(() -> {
+                    inFlight.get(recipient).decrementAndGet();
+                    future.complete(result);
+                });
+                return future;
+            });
+
+        final var items = new ArrayList<ArtifactRequestItem>();
+        for (int i = 0; i < 10; i++) {
+            items.add(createItem(i % 2 == 0 ? PROVIDER_A : PROVIDER_B, UUID.randomUUID()));
+        }
+
+        final var batch = batchDataRequestService.fetchAll(items);
+        while (!batch.isDone()) {
+            final var response = pending.poll();
+            assertTrue(response != null, "The batch waits for no request.");
+            response.run();
+        }
+
+        final var results = batch.get(1, TimeUnit.MINUTES);
+        assertEquals(10, results.size());
+        results.forEach(item -> assertEquals(Status.OK, item.getStatus()));
+        assertEquals(Map.of(PROVIDER_A, 2, PROVIDER_B, 2), maxInFlight);
+    }
+
+    @Test
+    void fetchAll_concurrentBatches_shareLimitPerRecipient() throws Exception {
+        final var result = mock(DataRequestPipeline.Result.class);
+        final var pending = new ConcurrentLinkedQueue<Runnable>();
+        final var inFlight = new AtomicInteger();
+        final var maxInFlight = new AtomicInteger();
+        when(dataRequestPipeline.fetchArtifact(any(), any(), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+                final var future = new CompletableFuture<DataRequestPipeline.Result>();
+                pending.add(() -> {
+                    inFlight.decrementAndGet();
+                    future.complete(result);
+                });
+                return future;
+            });
+
+        final var batches = new ArrayList<CompletableFuture<List<ItemResult>>>();
+        for (int i = 0; i < 3; i++) {
+            batches.add(batchDataRequestService.fetchAll(List.of(
+                createItem(PROVIDER_A, UUID.randomUUID()),
+                createItem(PROVIDER_A, UUID.randomUUID()))));
+        }
+
+        final var all = CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]));
+        while (!all.isDone()) {
+            final var response = pending.poll();
+            assertTrue(response != null, "The batches wait for no request.");
+            response.run();
+        }
+
+        for (final var batch : batches) {
+            batch.get(1, TimeUnit.MINUTES)
+                .forEach(item -> assertEquals(Status.OK, item.getStatus()));
+        }
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void fetchAll_failingItems_reportsStatusPerItem() throws Exception {
+        final var okKey = UUID.randomUUID();
+        final var rejectedKey = UUID.randomUUID();
+        final var failedKey = UUID.randomUUID();
+
+        final var result = mock(DataRequestPipeline.Result.class);
+        when(result.getKey()).thenReturn(okKey);
+        when(dataRequestPipeline.fetchArtifact(any(), any(), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                final UUID key = invocation.getArgument(3);
+                if (key.equals(rejectedKey)) {
+                    return CompletableFuture.failedFuture(
+                        new MessageRejectedException("Not found."));
+                } else if (key.equals(failedKey)) {
+                    throw new IllegalStateException("Broken.");
+                }
+                return CompletableFuture.completedFuture(result);
+            });
+
+        final var results = batchDataRequestService.fetchAll(List.of(
+            createItem(PROVIDER_A, okKey),
+            createItem(PROVIDER_A, rejectedKey),
+            createItem(PROVIDER_A, failedKey)))
+            .get(1, TimeUnit.MINUTES);
+
+        assertEquals(Status.OK, results.get(0).getStatus());
+        assertEquals(okKey, results.get(0).getKey());
+        assertEquals(Status.REJECTED, results.get(1).getStatus());
+        assertEquals("Not found.", results.get(1).getMessage());
+        assertEquals(Status.FAILED, results.get(2).getStatus());
+        assertEquals(failedKey, results.get(2).getKey());
+    }
+
+    @Test
+    void fetchAll_incompleteItem_isNotRequested() throws Exception {
+        final var item = createItem(PROVIDER_A, null);
+
+        final var results = batchDataRequestService.fetchAll(List.of(item))
+            .get(1, TimeUnit.MINUTES);
+
+        assertEquals(Status.INVALID, results.get(0).getStatus());
+        assertFalse(results.get(0).getMessage().isEmpty());
+        verifyNoInteractions(dataRequestPipeline);
+    }
+
+    private static ArtifactRequestItem createItem(URI recipient, UUID key) {
+        final var item = new ArtifactRequestItem();
+        item.setRecipient(recipient);
+        item.setRequestedArtifact(
+            URI.create("https://w3id.org/idsa/autogen/artifact/" + UUID.randomUUID()));
+        item.setKey(key);
+        return item;
+    }
+}
@@ -0,0 +1,166 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.Action;
+import de.fraunhofer.iais.eis.ContractAgreement;
+import de.fraunhofer.iais.eis.ContractAgreementBuilder;
+import de.fraunhofer.iais.eis.ContractOfferBuilder;
+import de.fraunhofer.iais.eis.DutyBuilder;
+import de.fraunhofer.iais.eis.PermissionBuilder;
+import de.fraunhofer.iais.eis.ProhibitionBuilder;
+import de.fraunhofer.iais.eis.util.Util;
+import de.fraunhofer.isst.dataspaceconnector.config.PolicyConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.repositories.ConsumerAgreementRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.ConsumerAgreementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that concluded agreements are found by provider, artifact and offered rules within their
+ * validity.
+ */
+@SpringBootTest
+class ConsumerAgreementServiceTests {
+
+    private static final URI PROVIDER = URI.create("https://provider.example/api/ids/data");
+
+    @Autowired
+    private ConsumerAgreementService consumerAgreementService;
+
+    @Autowired
+    private ConsumerAgreementRepository consumerAgreementRepository;
+
+    @Autowired
+    private PolicyConfiguration policyConfiguration;
+
+    private URI artifactId;
+
+    @BeforeEach
+    void createArtifactId() {
+        artifactId = URI.create("https://w3id.org/idsa/autogen/artifact/" + UUID.randomUUID());
+    }
+
+    @Test
+    void getValidAgreement_validAgreement_returnsAgreement() throws Exception {
+        final var agreement = createAgreement(Duration.ofHours(-1), Duration.ofHours(1), false);
+        consumerAgreementService.addAgreement(PROVIDER, agreement);
+
+        assertEquals(Optional.of(agreement.getId()),
+            consumerAgreementService.getValidAgreement(PROVIDER, artifactId));
+        assertTrue(consumerAgreementService.getValidAgreement(
+            URI.create("https://other.example/api/ids/data"), artifactId).isEmpty());
+    }
+
+    @Test
+    void getValidAgreement_expiredAgreement_returnsEmptyAndRemovesIt() throws Exception {
+        consumerAgreementService.addAgreement(PROVIDER,
+            createAgreement(Duration.ofHours(-2), Duration.ofHours(-1), false));
+
+        assertTrue(consumerAgreementService.getValidAgreement(PROVIDER, artifactId).isEmpty());
+        assertTrue(consumerAgreementRepository.findByProviderAndArtifact(PROVIDER, artifactId)
+            .isEmpty());
+    }
+
+    @Test
+    void getValidAgreement_notYetValidAgreement_returnsEmpty() throws Exception {
+        consumerAgreementService.addAgreement(PROVIDER,
+            createAgreement(Duration.ofHours(1), Duration.ofHours(2), false));
+
+        assertTrue(consumerAgreementService.getValidAgreement(PROVIDER, artifactId).isEmpty());
+    }
+
+    @Test
+    void addAgreement_prohibition_isNotKept() throws Exception {
+        consumerAgreementService.addAgreement(PROVIDER,
+            createAgreement(Duration.ofHours(-1), Duration.ofHours(1), true));
+
+        assertTrue(consumerAgreementRepository.findByProviderAndArtifact(PROVIDER, artifactId)
+            .isEmpty());
+    }
+
+    @Test
+    void getValidAgreement_sameOffer_returnsAgreement() throws Exception {
+        final var agreement = createAgreement(Duration.ofHours(-1), Duration.ofHours(1), false);
+        consumerAgreementService.addAgreement(PROVIDER, agreement);
+
+        final var offer = new ContractOfferBuilder()
+            ._permission_(Util.asList(new PermissionBuilder()
+                ._action_(Util.asList(Action.USE))
+                .build()))
+            .build().toRdf();
+        assertEquals(Optional.of(agreement.getId()),
+            consumerAgreementService.getValidAgreement(PROVIDER, artifactId, offer));
+    }
+
+    @Test
+    void getValidAgreement_otherOffer_returnsEmpty() throws Exception {
+        consumerAgreementService.addAgreement(PROVIDER,
+            createAgreement(Duration.ofHours(-1), Duration.ofHours(1), false));
+
+        final var offer = new ContractOfferBuilder()
+            ._permission_(Util.asList(new PermissionBuilder()
+                ._action_(Util.asList(Action.USE))
+                ._postDuty_(Util.asList(new DutyBuilder()
+                    ._action_(Util.asList(Action.DELETE))
+                    .build()))
+                .build()))
+            .build().toRdf();
+        assertTrue(consumerAgreementService.getValidAgreement(PROVIDER, artifactId, offer)
+            .isEmpty());
+        assertTrue(consumerAgreementService.getValidAgreement(PROVIDER, artifactId, "invalid")
+            .isEmpty());
+    }
+
+    @Test
+    void addAgreement_noEnd_isReusedForLimitedTime() throws Exception {
+        consumerAgreementService.addAgreement(PROVIDER,
+            createAgreement(Duration.ofHours(-1), null, false));
+
+        final var stored =
+            consumerAgreementRepository.findByProviderAndArtifact(PROVIDER, artifactId);
+        assertEquals(1, stored.size());
+        assertNotNull(stored.get(0).getValidUntil());
+        assertTrue(stored.get(0).getValidUntil().getTime()
+            <= System.currentTimeMillis() + policyConfiguration.getAgreementReuseTtl());
+    }
+
+    private ContractAgreement createAgreement(Duration start, Duration end, boolean prohibit)
+        throws Exception {
+        final var builder = new ContractAgreementBuilder()
+            ._contractStart_(toCalendar(start))
+            ._contractEnd_(end == null ? null : toCalendar(end));
+        if (prohibit) {
+            builder._prohibition_(Util.asList(new ProhibitionBuilder()
+                ._action_(Util.asList(Action.USE))
+                ._target_(artifactId)
+                .build()));
+        } else {
+            builder._permission_(Util.asList(new PermissionBuilder()
+                ._action_(Util.asList(Action.USE))
+                ._target_(artifactId)
+                .build()));
+        }
+
+        return builder.build();
+    }
+
+    private static XMLGregorianCalendar toCalendar(Duration offset) throws Exception {
+        final var calendar = new GregorianCalendar();
+        calendar.setTime(new Date(System.currentTimeMillis() + offset.toMillis()));
+        return DatatypeFactory.newInstance().newXMLGregorianCalendar(calendar);
+    }
+}
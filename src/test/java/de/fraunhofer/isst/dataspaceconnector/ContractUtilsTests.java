@@ -0,0 +1,132 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.Action;
+import de.fraunhofer.iais.eis.BinaryOperator;
+import de.fraunhofer.iais.eis.Constraint;
+import de.fraunhofer.iais.eis.ConstraintBuilder;
+import de.fraunhofer.iais.eis.ContractOfferBuilder;
+import de.fraunhofer.iais.eis.ContractRequestBuilder;
+import de.fraunhofer.iais.eis.Duty;
+import de.fraunhofer.iais.eis.DutyBuilder;
+import de.fraunhofer.iais.eis.LeftOperand;
+import de.fraunhofer.iais.eis.Permission;
+import de.fraunhofer.iais.eis.PermissionBuilder;
+import de.fraunhofer.iais.eis.ProhibitionBuilder;
+import de.fraunhofer.iais.eis.util.RdfResource;
+import de.fraunhofer.iais.eis.util.TypedLiteral;
+import de.fraunhofer.iais.eis.util.Util;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.ContractUtils;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that contract fingerprints only depend on the content of the rules.
+ */
+class ContractUtilsTests {
+
+    private static final URI ARTIFACT = URI.create("https://provider.example/api/artifacts/1");
+
+    @Test
+    void fingerprint_requestWithOtherIdsAndTarget_equalsOffer() {
+        final var offer = new ContractOfferBuilder()
+            ._permission_(Util.asList(permission(null, List.of(count("5"), pip()), deleteDuty())))
+            .build();
+        final var request = new ContractRequestBuilder()
+            ._permission_(Util.asList(permission(ARTIFACT, List.of(count("5"), pip()),
+                deleteDuty())))
+            .build();
+
+        assertEquals(ContractUtils.fingerprint(offer), ContractUtils.fingerprint(request));
+    }
+
+    @Test
+    void fingerprint_reorderedRulesAndConstraints_equalsOffer() {
+        final var offer = new ContractOfferBuilder()
+            ._permission_(Util.asList(permission(null, List.of(count("5"), pip()), null)))
+            ._prohibition_(Util.asList(new ProhibitionBuilder()
+                ._action_(Util.asList(Action.DISTRIBUTE))
+                .build(), new ProhibitionBuilder()
+                ._action_(Util.asList(Action.DELETE))
+                .build()))
+            .build();
+        final var request = new ContractRequestBuilder()
+            ._prohibition_(Util.asList(new ProhibitionBuilder()
+                ._action_(Util.asList(Action.DELETE))
+                .build(), new ProhibitionBuilder()
+                ._action_(Util.asList(Action.DISTRIBUTE))
+                .build()))
+            ._permission_(Util.asList(permission(ARTIFACT, List.of(pip(), count("5")), null)))
+            .build();
+
+        assertEquals(ContractUtils.fingerprint(offer), ContractUtils.fingerprint(request));
+    }
+
+    @Test
+    void fingerprint_changedConstraint_differsFromOffer() {
+        final var offer = new ContractOfferBuilder()
+            ._permission_(Util.asList(permission(null, List.of(count("5")), null)))
+            .build();
+        final var request = new ContractRequestBuilder()
+            ._permission_(Util.asList(permission(ARTIFACT, List.of(count("50")), null)))
+            .build();
+
+        assertNotEquals(ContractUtils.fingerprint(offer), ContractUtils.fingerprint(request));
+    }
+
+    @Test
+    void fingerprint_droppedDuty_differsFromOffer() {
+        final var offer = new ContractOfferBuilder()
+            ._permission_(Util.asList(permission(null, List.of(count("5")), deleteDuty())))
+            .build();
+        final var request = new ContractRequestBuilder()
+            ._permission_(Util.asList(permission(ARTIFACT, List.of(count("5")), null)))
+            .build();
+
+        assertNotEquals(ContractUtils.fingerprint(offer), ContractUtils.fingerprint(request));
+    }
+
+    @Test
+    void fingerprint_null_returnsNull() {
+        assertNull(ContractUtils.fingerprint(null));
+    }
+
+    private static Permission permission(URI target, List<Constraint> constraints,
+        Duty postDuty) {
+        return new PermissionBuilder()
+            ._title_(Util.asList(new TypedLiteral("Example Usage Policy")))
+            ._target_(target)
+            ._action_(Util.asList(Action.USE))
+            ._constraint_(new ArrayList<>(constraints))
+            ._postDuty_(postDuty == null ? new ArrayList<>() : Util.asList(postDuty))
+            .build();
+    }
+
+    private static Constraint count(String max) {
+        return new ConstraintBuilder()
+            ._leftOperand_(LeftOperand.COUNT)
+            ._operator_(BinaryOperator.LTEQ)
+            ._rightOperand_(new RdfResource(max, URI.create("xsd:double")))
+            .build();
+    }
+
+    private static Constraint pip() {
+        return new ConstraintBuilder()
+            ._leftOperand_(LeftOperand.SYSTEM)
+            ._operator_(BinaryOperator.SAME_AS)
+            ._rightOperand_(new RdfResource("https://consumer.example/", URI.create("xsd:anyURI")))
+            .build();
+    }
+
+    private static Duty deleteDuty() {
+        return new DutyBuilder()
+            ._action_(Util.asList(Action.DELETE))
+            .build();
+    }
+}
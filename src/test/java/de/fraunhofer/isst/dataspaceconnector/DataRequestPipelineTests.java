@@ -0,0 +1,188 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.ContractRequestBuilder;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageRejectedException;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.DataRequestPipeline;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageService.ResponseType;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.NegotiationService;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ArtifactMessageService;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ContractMessageService;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.DescriptionMessageService;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.ConsumerAgreementService;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.RequestedResourceServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks which requests the data request pipeline sends, depending on the metadata and contract
+ * agreements that are already known.
+ */
+@SpringBootTest
+class DataRequestPipelineTests {
+
+    private static final URI RECIPIENT = URI.create("https://provider.example/api/ids/data");
+    private static final URI AGREEMENT = URI.create(
+        "https://w3id.org/idsa/autogen/contractAgreement/a4212311-86e4-40b3-ace3-ef29cd687cf9");
+
+    @Autowired
+    private DataRequestPipeline dataRequestPipeline;
+
+    @Autowired
+    private RequestedResourceServiceImpl resourceService;
+
+    @MockBean
+    private DescriptionMessageService descriptionMessageService;
+
+    @MockBean
+    private ContractMessageService contractMessageService;
+
+    @MockBean
+    private ArtifactMessageService artifactMessageService;
+
+    @MockBean
+    private NegotiationService negotiationService;
+
+    @MockBean
+    private ConsumerAgreementService consumerAgreementService;
+
+    private UUID originalUUID;
+    private URI resourceId;
+    private URI artifactId;
+
+    @BeforeEach
+    void createIds() {
+        originalUUID = UUID.randomUUID();
+        resourceId = URI.create("https://w3id.org/idsa/autogen/resource/" + originalUUID);
+        artifactId = URI.create("https://w3id.org/idsa/autogen/artifact/" + UUID.randomUUID());
+
+        when(artifactMessageService.sendRequestMessageAsync(any(), any()))
+            .thenReturn(respond("artifact", "data"));
+        when(artifactMessageService.getResponseType("artifact"))
+            .thenReturn(ResponseType.ARTIFACT_RESPONSE);
+    }
+
+    @AfterEach
+    void deleteResources() {
+        final var resources = resourceService.getResourcesByOriginalUUID(originalUUID);
+        if (resources != null) {
+            resources.forEach(resource -> resourceService.deleteResource(resource.getUuid()));
+        }
+    }
+
+    @Test
+    void fetch_knownAgreement_requestsOnlyArtifact() throws Exception {
+        final var key = createResource(null);
+        when(consumerAgreementService.getValidAgreement(RECIPIENT, artifactId))
+            .thenReturn(Optional.of(AGREEMENT));
+
+        final var result = dataRequestPipeline
+            .fetch(RECIPIENT, resourceId, artifactId, null, null).get(1, TimeUnit.MINUTES);
+
+        assertEquals(key, result.getKey());
+        assertEquals(AGREEMENT, result.getContractAgreement());
+        assertEquals("data", result.getData());
+        assertTrue(result.isReusedMetadata());
+        assertTrue(result.isReusedAgreement());
+        verify(descriptionMessageService, never()).sendRequestMessageAsync(any(), any());
+        verify(contractMessageService, never()).sendRequestMessageAsync(any(), any());
+        verify(artifactMessageService).saveData("data", key);
+    }
+
+    @Test
+    void fetch_nothingKnown_requestsDescriptionContractAndArtifact() throws Exception {
+        when(descriptionMessageService.sendRequestMessageAsync(any(), any()))
+            .thenReturn(respond("description", "resource"));
+        when(descriptionMessageService.getResponseType("description"))
+            .thenReturn(ResponseType.DESCRIPTION_RESPONSE);
+        when(descriptionMessageService.saveMetadata("resource", resourceId, RECIPIENT))
+            .thenAnswer(invocation -> createResource("offer"));
+
+        final var request = new ContractRequestBuilder().build();
+        when(negotiationService.buildContractRequest("offer", artifactId)).thenReturn(request);
+        when(contractMessageService.sendRequestMessageAsync(any(), any()))
+            .thenReturn(respond("contract", "agreement"));
+        when(contractMessageService.getResponseType("contract"))
+            .thenReturn(ResponseType.CONTRACT_AGREEMENT);
+        when(negotiationService.contractAccepted(RECIPIENT, "contract", "agreement"))
+            .thenReturn(AGREEMENT);
+
+        final var result = dataRequestPipeline
+            .fetch(RECIPIENT, resourceId, artifactId, null, null).get(1, TimeUnit.MINUTES);
+
+        assertEquals(AGREEMENT, result.getContractAgreement());
+        assertFalse(result.isReusedMetadata());
+        assertFalse(result.isReusedAgreement());
+        verify(artifactMessageService).saveData(eq("data"), eq(result.getKey()));
+
+        final var resource = resourceService.getResource(result.getKey());
+        assertEquals(artifactId, resource.getRequestedArtifact());
+        assertEquals(AGREEMENT, resource.getContractAgreement());
+    }
+
+    @Test
+    void fetchArtifact_withoutContract_sendsKnownAgreement() throws Exception {
+        final var key = createResource("offer");
+        when(consumerAgreementService.getValidAgreement(RECIPIENT, artifactId, "offer"))
+            .thenReturn(Optional.of(AGREEMENT));
+
+        final var result = dataRequestPipeline
+            .fetchArtifact(RECIPIENT, artifactId, null, key, null).get(1, TimeUnit.MINUTES);
+
+        assertEquals(AGREEMENT, result.getContractAgreement());
+        assertTrue(result.isReusedAgreement());
+        verify(artifactMessageService).sendRequestMessageAsync(argThat(parameters ->
+            AGREEMENT.equals(parameters.getContract())), any());
+        verify(contractMessageService, never()).sendRequestMessageAsync(any(), any());
+    }
+
+    @Test
+    void fetch_artifactRejected_failsWithRejection() {
+        createResource(null);
+        when(artifactMessageService.sendRequestMessageAsync(any(), any()))
+            .thenReturn(respond("rejection", "Not found."));
+        when(artifactMessageService.getResponseType("rejection"))
+            .thenReturn(ResponseType.REJECTION);
+
+        final var exception = assertThrows(ExecutionException.class, () -> dataRequestPipeline
+            .fetch(RECIPIENT, resourceId, artifactId, AGREEMENT, null).get(1, TimeUnit.MINUTES));
+        assertTrue(exception.getCause() instanceof MessageRejectedException);
+    }
+
+    private UUID createResource(String policy) {
+        final var representations = new HashMap<UUID, ResourceRepresentation>();
+        final var metadata = new ResourceMetadata("Title", "Description", new ArrayList<>(),
+            policy, null, null, "1.0", representations, null);
+        return resourceService.addResourceWithInfo(RECIPIENT, originalUUID, metadata);
+    }
+
+    private static CompletableFuture<Map<String, String>> respond(String header, String payload) {
+        return CompletableFuture.completedFuture(Map.of("header", header, "payload", payload));
+    }
+}
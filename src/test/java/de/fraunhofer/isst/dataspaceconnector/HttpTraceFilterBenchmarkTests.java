@@ -0,0 +1,63 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTraceEventHandler;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTraceFilter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static de.fraunhofer.isst.dataspaceconnector.HttpTraceFilterTests.LARGE_BODY_SIZE;
+import static de.fraunhofer.isst.dataspaceconnector.HttpTraceFilterTests.configuration;
+import static de.fraunhofer.isst.dataspaceconnector.HttpTraceFilterTests.createBody;
+import static de.fraunhofer.isst.dataspaceconnector.HttpTraceFilterTests.createRequest;
+import static de.fraunhofer.isst.dataspaceconnector.HttpTraceFilterTests.echo;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures the overhead of the http trace filter for large bodies, traced compared with untraced.
+ * Timings are only logged. Runs with the benchmark profile, not in the default test run.
+ */
+@Tag("benchmark")
+class HttpTraceFilterBenchmarkTests {
+
+    private static final Logger LOGGER =
+        LoggerFactory.getLogger(HttpTraceFilterBenchmarkTests.class);
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    @Test
+    void doFilter_largeBodies_measuresOverhead() throws Exception {
+        final var body = createBody(LARGE_BODY_SIZE);
+        final var eventHandler = mock(HttpTraceEventHandler.class);
+
+        final var untraced = measure(new HttpTraceFilter(eventHandler, configuration(0.0)), body);
+        final var traced = measure(new HttpTraceFilter(eventHandler, configuration(1.0)), body);
+        LOGGER.info("Filtered request with large body. [bodySize=({} bytes), untraced=({} us/op),"
+            + " traced=({} us/op)]", LARGE_BODY_SIZE, untraced / 1_000, traced / 1_000);
+    }
+
+    /**
+     * Returns the average time of a filtered request in nanoseconds.
+     */
+    private static long measure(HttpTraceFilter filter, byte[] body) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            filter.doFilter(createRequest("/api/ids/data", body), new MockHttpServletResponse(),
+                echo());
+        }
+
+        long elapsed = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            final var request = createRequest("/api/ids/data", body);
+            final var response = new MockHttpServletResponse();
+
+            final var start = System.nanoTime();
+            filter.doFilter(request, response, echo());
+            elapsed += System.nanoTime() - start;
+        }
+
+        return elapsed / MEASURED_ITERATIONS;
+    }
+}
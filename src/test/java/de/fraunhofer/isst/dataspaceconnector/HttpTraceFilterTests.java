@@ -0,0 +1,160 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.config.HttpTraceConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTrace;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTraceEventHandler;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTraceFilter;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks that the http trace filter keeps bounded bodies, traces about the configured share of
+ * requests and leaves excluded and unsampled requests alone.
+ */
+class HttpTraceFilterTests {
+
+    private static final int MAX_BODY_SIZE = 4096;
+    static final int LARGE_BODY_SIZE = 8 * 1024 * 1024;
+
+    private static final int SAMPLED_REQUESTS = 1000;
+
+    private static final String[] EXCLUDED_PATHS = {"/admin/api/resources/*/data",
+        "/admin/api/resources/*/*/data", "/admin/api/resources/*/*/data/stream"};
+
+    @Test
+    void doFilter_largeBodies_keepsBoundedBodiesAndPassesAllBytes() throws Exception {
+        final var eventHandler = mock(HttpTraceEventHandler.class);
+        final var filter = new HttpTraceFilter(eventHandler, configuration(1.0));
+        final var body = createBody(LARGE_BODY_SIZE);
+
+        final var response = new MockHttpServletResponse();
+        filter.doFilter(createRequest("/api/ids/data", body), response, echo());
+
+        assertArrayEquals(body, response.getContentAsByteArray());
+
+        final var trace = ArgumentCaptor.forClass(HttpTrace.class);
+        verify(eventHandler, times(1)).sendHttpTraceEvent(trace.capture());
+        assertEquals(MAX_BODY_SIZE, trace.getValue().body.length());
+        assertEquals(LARGE_BODY_SIZE, trace.getValue().bodySize);
+        assertEquals(MAX_BODY_SIZE, trace.getValue().responseBody.length());
+        assertEquals(LARGE_BODY_SIZE, trace.getValue().responseBodySize);
+        assertEquals(200, trace.getValue().status);
+    }
+
+    @Test
+    void doFilter_responseWriter_keepsWrittenText() throws Exception {
+        final var eventHandler = mock(HttpTraceEventHandler.class);
+        final var filter = new HttpTraceFilter(eventHandler, configuration(1.0));
+
+        final var response = new MockHttpServletResponse();
+        filter.doFilter(createRequest("/admin/api/connector", new byte[0]), response,
+            (req, res) -> res.getWriter().write("description"));
+
+        assertEquals("description", response.getContentAsString());
+
+        final var trace = ArgumentCaptor.forClass(HttpTrace.class);
+        verify(eventHandler).sendHttpTraceEvent(trace.capture());
+        assertEquals("description", trace.getValue().responseBody);
+        assertEquals("GET", trace.getValue().method);
+    }
+
+    @Test
+    void doFilter_excludedPath_doesNotTrace() throws Exception {
+        final var eventHandler = mock(HttpTraceEventHandler.class);
+        final var filter = new HttpTraceFilter(eventHandler, configuration(1.0));
+
+        final var request = createRequest(
+            "/admin/api/resources/a1b2c3d4-0000-0000-0000-000000000000/data", new byte[16]);
+        final var passed = new AtomicReference<ServletRequest>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> passed.set(req));
+
+        assertSame(request, passed.get());
+        verify(eventHandler, never()).sendHttpTraceEvent(any());
+    }
+
+    @Test
+    void doFilter_notSampled_doesNotTrace() throws Exception {
+        final var eventHandler = mock(HttpTraceEventHandler.class);
+        final var filter = new HttpTraceFilter(eventHandler, configuration(0.0));
+
+        final var request = createRequest("/api/ids/data", new byte[16]);
+        final var passed = new AtomicReference<ServletRequest>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> passed.set(req));
+
+        assertSame(request, passed.get());
+        verify(eventHandler, never()).sendHttpTraceEvent(any());
+    }
+
+    @Test
+    void doFilter_partialSampleRate_tracesShareOfRequests() throws Exception {
+        final var eventHandler = mock(HttpTraceEventHandler.class);
+        final var filter = new HttpTraceFilter(eventHandler, configuration(0.5));
+
+        for (int i = 0; i < SAMPLED_REQUESTS; i++) {
+            filter.doFilter(createRequest("/api/ids/data", new byte[16]),
+                new MockHttpServletResponse(), echo());
+        }
+
+        final var trace = ArgumentCaptor.forClass(HttpTrace.class);
+        verify(eventHandler, atLeast(0)).sendHttpTraceEvent(trace.capture());
+
+        // The bounds are far outside of what a fair sampling produces, so the test does not flake.
+        final var traced = trace.getAllValues().size();
+        assertTrue(traced > SAMPLED_REQUESTS / 4 && traced < SAMPLED_REQUESTS * 3 / 4,
+            "Traced requests: " + traced);
+    }
+
+    /**
+     * Reads the request body in chunks and writes it back, like a data endpoint.
+     */
+    static FilterChain echo() {
+        return (request, response) -> {
+            final var input = request.getInputStream();
+            final var output = response.getOutputStream();
+            final var buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = input.read(buffer)) != -1) {
+                output.write(buffer, 0, bytesRead);
+            }
+        };
+    }
+
+    static MockHttpServletRequest createRequest(String path, byte[] body) {
+        final var request = new MockHttpServletRequest(body.length == 0 ? "GET" : "POST", path);
+        request.setContent(body);
+        request.addHeader("Content-Type", "application/octet-stream");
+        return request;
+    }
+
+    static byte[] createBody(int size) {
+        final var body = new byte[size];
+        Arrays.fill(body, (byte) 'a');
+        return body;
+    }
+
+    static HttpTraceConfiguration configuration(double sampleRate) {
+        final var configuration = new HttpTraceConfiguration();
+        configuration.setSampleRate(sampleRate);
+        configuration.setMaxBodySize(MAX_BODY_SIZE);
+        configuration.setExcludedPaths(EXCLUDED_PATHS);
+        return configuration;
+    }
+}
@@ -0,0 +1,166 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.config.HttpTraceConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTrace;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTracePipeline;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.sink.HttpTraceSink;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.sink.MemoryTraceSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the trace pipeline never holds more than its capacity, writes in batches and keeps
+ * writing to the other sinks if one fails.
+ */
+class HttpTracePipelineTests {
+
+    @Test
+    void offer_fullQueue_dropsAndCounts() throws Exception {
+        final var sink = new RecordingSink("test");
+        final var pipeline = new HttpTracePipeline(createConfiguration(3, 10, "test"),
+            List.of(sink));
+
+        try {
+            for (int i = 0; i < 5; i++) {
+                pipeline.offer(createTrace(UUID.randomUUID(), 200));
+            }
+
+            final var statistics = pipeline.getStatistics();
+            assertEquals(3, statistics.getQueued());
+            assertEquals(2, statistics.getDropped());
+
+            pipeline.flush();
+            assertEquals(3, sink.traces.size());
+            assertEquals(0, pipeline.getStatistics().getQueued());
+            assertTrue(pipeline.offer(createTrace(UUID.randomUUID(), 200)));
+        } finally {
+            pipeline.destroy();
+        }
+    }
+
+    @Test
+    void flush_enabledSinks_writesInBatches() throws Exception {
+        final var enabled = new RecordingSink("test");
+        final var disabled = new RecordingSink("other");
+        final var pipeline = new HttpTracePipeline(createConfiguration(100, 4, "Test"),
+            List.of(enabled, disabled));
+
+        try {
+            for (int i = 0; i < 10; i++) {
+                pipeline.offer(createTrace(UUID.randomUUID(), 200));
+            }
+
+            pipeline.flush();
+
+            assertEquals(List.of(4, 4, 2), enabled.batchSizes);
+            assertTrue(disabled.traces.isEmpty());
+            assertTrue(pipeline.isEnabled("test"));
+            assertFalse(pipeline.isEnabled("other"));
+            assertEquals(10, pipeline.getStatistics().getWritten());
+        } finally {
+            pipeline.destroy();
+        }
+    }
+
+    @Test
+    void flush_failingSink_writesToOtherSinks() throws Exception {
+        final var failing = new RecordingSink("failing") {
+            @Override
+            public void write(List<HttpTrace> batch) {
+                throw new IllegalStateException("Sink is down.");
+            }
+        };
+        final var working = new RecordingSink("working");
+        final var pipeline = new HttpTracePipeline(
+            createConfiguration(100, 10, "failing", "working"), List.of(failing, working));
+
+        try {
+            pipeline.offer(createTrace(UUID.randomUUID(), 200));
+            pipeline.offer(createTrace(UUID.randomUUID(), 500));
+            pipeline.flush();
+
+            assertEquals(2, working.traces.size());
+            assertEquals(2, pipeline.getStatistics().getFailed());
+        } finally {
+            pipeline.destroy();
+        }
+    }
+
+    @Test
+    void destroy_queuedTraces_writesRemainingTraces() throws Exception {
+        final var sink = new RecordingSink("test");
+        final var pipeline = new HttpTracePipeline(createConfiguration(100, 10, "test"),
+            List.of(sink));
+
+        pipeline.offer(createTrace(UUID.randomUUID(), 200));
+        pipeline.destroy();
+
+        assertEquals(1, sink.traces.size());
+    }
+
+    @Test
+    void find_memorySink_keepsNewestTraces() {
+        final var configuration = createConfiguration(100, 10, MemoryTraceSink.NAME);
+        configuration.setMemorySize(3);
+        final var sink = new MemoryTraceSink(configuration);
+
+        final var traceId = UUID.randomUUID();
+        final var first = createTrace(UUID.randomUUID(), 200);
+        final var second = createTrace(traceId, 404);
+        final var third = createTrace(UUID.randomUUID(), 200);
+        final var fourth = createTrace(traceId, 200);
+        sink.write(List.of(first, second, third, fourth));
+
+        assertEquals(List.of(fourth, third, second), sink.find(null, null, 10));
+        assertEquals(List.of(fourth, second), sink.find(traceId, null, 10));
+        assertEquals(List.of(second), sink.find(traceId, 404, 10));
+        assertEquals(List.of(fourth), sink.find(null, null, 1));
+    }
+
+    private static HttpTraceConfiguration createConfiguration(int capacity, int batchSize,
+        String... sinks) {
+        final var configuration = new HttpTraceConfiguration();
+        configuration.setSinks(sinks);
+        configuration.setQueueCapacity(capacity);
+        configuration.setBatchSize(batchSize);
+        // The tests flush by hand.
+        configuration.setFlushInterval(60_000);
+        configuration.setMemorySize(100);
+        return configuration;
+    }
+
+    private static HttpTrace createTrace(UUID id, int status) {
+        final var trace = new HttpTrace();
+        trace.id = id;
+        trace.status = status;
+        return trace;
+    }
+
+    private static class RecordingSink implements HttpTraceSink {
+        private final String name;
+        private final List<HttpTrace> traces = new ArrayList<>();
+        private final List<Integer> batchSizes = new ArrayList<>();
+
+        RecordingSink(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void write(List<HttpTrace> batch) {
+            traces.addAll(batch);
+            batchSizes.add(batch.size());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.config.MessagingConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.message.MessageNotSentException;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that outgoing messages run in the bounded message pool and fail once it is full.
+ */
+class MessageExecutorTests {
+
+    private MessageExecutor messageExecutor;
+
+    @AfterEach
+    void shutdown() {
+        if (messageExecutor != null) {
+            messageExecutor.destroy();
+        }
+    }
+
+    @Test
+    void supply_moreCallsThanThreads_completesAllCalls() throws Exception {
+        messageExecutor = createExecutor(4, 1000);
+
+        final var calls = new ArrayList<CompletableFuture<Integer>>();
+        for (int i = 0; i < 500; i++) {
+            final var value = i;
+            calls.add(messageExecutor.supply(() -> value));
+        }
+
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).get(1, TimeUnit.MINUTES);
+        for (int i = 0; i < calls.size(); i++) {
+            assertEquals(i, calls.get(i).get());
+        }
+    }
+
+    @Test
+    void supply_poolAndQueueFull_failsWithMessageNotSent() throws Exception {
+        messageExecutor = createExecutor(1, 1);
+        final var release = new CountDownLatch(1);
+
+        final var running = messageExecutor.supply(() -> await(release));
+        final var queued = messageExecutor.supply(() -> await(release));
+        final var rejected = messageExecutor.supply(() -> await(release));
+
+        assertTrue(rejected.isCompletedExceptionally());
+        final var exception = assertThrows(ExecutionException.class, rejected::get);
+        assertTrue(exception.getCause() instanceof MessageNotSentException);
+
+        release.countDown();
+        assertTrue(running.get(1, TimeUnit.MINUTES));
+        assertTrue(queued.get(1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    void supply_callFails_completesExceptionally() {
+        messageExecutor = createExecutor(1, 1);
+
+        final var call = messageExecutor.supply(() -> {
+            throw new MessageNotSentException("Message could not be sent.");
+        });
+
+        final var exception = assertThrows(ExecutionException.class,
+            () -> call.get(1, TimeUnit.MINUTES));
+        assertTrue(exception.getCause() instanceof MessageNotSentException);
+        assertFalse(call.isCancelled());
+    }
+
+    private static MessageExecutor createExecutor(int poolSize, int queueCapacity) {
+        final var configuration = new MessagingConfiguration();
+        configuration.setPoolSize(poolSize);
+        configuration.setQueueCapacity(queueCapacity);
+        return new MessageExecutor(configuration);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.ArtifactRequestMessage;
+import de.fraunhofer.iais.eis.ArtifactResponseMessage;
+import de.fraunhofer.iais.eis.DynamicAttributeTokenBuilder;
+import de.fraunhofer.iais.eis.TokenFormat;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageParameters;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ArtifactMessageService;
+import de.fraunhofer.isst.ids.framework.daps.DapsTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Builds artifact request and response headers from many threads with one shared message
+ * service. Every header has to carry exactly the parameters of its own call.
+ */
+@SpringBootTest
+class MessageHeaderConcurrencyTests {
+
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 500;
+
+    @Autowired
+    private ArtifactMessageService artifactMessageService;
+
+    @MockBean
+    private DapsTokenProvider tokenProvider;
+
+    @BeforeEach
+    void mockToken() {
+        Mockito.when(tokenProvider.getDAT()).thenReturn(new DynamicAttributeTokenBuilder()
+            ._tokenFormat_(TokenFormat.JWT)
+            ._tokenValue_("token")
+            .build());
+    }
+
+    @Test
+    void buildHeaders_concurrentCalls_keepTheirOwnParameters() throws Exception {
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final var start = new CountDownLatch(1);
+            final var tasks = new ArrayList<Future<Integer>>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final var threadId = thread;
+                tasks.add(executor.submit((Callable<Integer>) () -> {
+                    start.await();
+                    int crossed = 0;
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        final var prefix = "https://connector-" + threadId + ".example/" + i;
+                        final var recipient = URI.create(prefix);
+                        final var artifact = URI.create(prefix + "/artifact");
+                        final var contract = URI.create(prefix + "/contract");
+                        final var correlation = URI.create(prefix + "/message");
+
+                        final var request = (ArtifactRequestMessage) artifactMessageService
+                            .buildRequestHeader(MessageParameters.to(recipient)
+                                .withArtifact(artifact).withContract(contract));
+                        final var response = (ArtifactResponseMessage) artifactMessageService
+                            .buildResponseHeader(MessageParameters
+                                .responseTo(recipient, correlation).withContract(contract));
+
+                        if (!recipient.equals(request.getRecipientConnector().get(0))
+                            || !artifact.equals(request.getRequestedArtifact())
+                            || !contract.equals(request.getTransferContract())
+                            || !recipient.equals(response.getRecipientConnector().get(0))
+                            || !correlation.equals(response.getCorrelationMessage())
+                            || !contract.equals(response.getTransferContract())) {
+                            crossed++;
+                        }
+                    }
+                    return crossed;
+                }));
+            }
+
+            start.countDown();
+            int crossed = 0;
+            for (final var task : tasks) {
+                crossed += task.get(2, TimeUnit.MINUTES);
+            }
+
+            assertEquals(0, crossed, "Headers carry parameters of other calls.");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import com.sun.net.httpserver.HttpServer;
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that artifact data of a representation with a cacheTtl is fetched from the backend only
+ * once, on the streaming path used for artifact requests.
+ */
+@SpringBootTest
+class OfferedResourceDataCacheTests {
+
+    @Autowired
+    private OfferedResourceServiceImpl offeredResourceService;
+
+    private HttpServer server;
+    private final AtomicInteger fetched = new AtomicInteger();
+
+    private UUID resourceId;
+    private UUID representationId;
+
+    @BeforeEach
+    void createResource() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/artifact", exchange -> {
+            fetched.incrementAndGet();
+            final var bytes = "artifact".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (var out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+
+        final var source = new BackendSource(BackendSource.Type.HTTP_GET,
+            new URL("http://localhost:" + server.getAddress().getPort() + "/artifact"), null,
+            null);
+        source.setCacheTtl(60_000L);
+
+        final var representations = new HashMap<UUID, ResourceRepresentation>();
+        representations.put(null, new ResourceRepresentation(null, "JSON", 8, "Cached", source));
+
+        resourceId = offeredResourceService.addResource(new ResourceMetadata("Title",
+            "Description", new ArrayList<>(), null, null, null, "1.0", representations, null));
+        representationId = offeredResourceService.getAllRepresentations(resourceId).keySet()
+            .iterator().next();
+    }
+
+    @AfterEach
+    void deleteResource() {
+        offeredResourceService.deleteResource(resourceId);
+        server.stop(0);
+    }
+
+    @Test
+    void getDataStreamByRepresentation_cacheTtl_fetchesBackendOnce() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            try (var data = offeredResourceService.getDataStreamByRepresentation(resourceId,
+                representationId, null)) {
+                assertEquals("artifact", new String(data.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        assertEquals(1, fetched.get());
+    }
+}
@@ -0,0 +1,56 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.Contract;
+import de.fraunhofer.iais.eis.ids.jsonld.Serializer;
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.repositories.OfferedRepresentationRepository;
+import de.fraunhofer.isst.dataspaceconnector.repositories.OfferedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.ResourceDataStore;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.SelfDescriptionCache;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.BackendClient;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.IdsUtils;
+import de.fraunhofer.isst.ids.framework.configuration.SerializerProvider;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that a policy the serializer fails on with an unchecked exception is stored without a
+ * fingerprint instead of failing the write.
+ */
+class OfferedResourceFingerprintTests {
+
+    @Test
+    void addResourceWithId_unreadablePolicy_storesNoFingerprint() throws Exception {
+        final var serializer = mock(Serializer.class);
+        when(serializer.deserialize(any(), eq(Contract.class)))
+            .thenThrow(new IllegalArgumentException("Broken policy."));
+        final var serializerProvider = mock(SerializerProvider.class);
+        when(serializerProvider.getSerializer()).thenReturn(serializer);
+
+        final var repository = mock(OfferedResourceRepository.class);
+        final var service = new OfferedResourceServiceImpl(repository,
+            mock(OfferedRepresentationRepository.class), mock(BackendClient.class),
+            mock(IdsUtils.class), mock(SelfDescriptionCache.class),
+            mock(ResourceDataStore.class), serializerProvider);
+
+        service.addResourceWithId(new ResourceMetadata("Title", "Description", new ArrayList<>(),
+            null, null, null, "1.0", new HashMap<>(), null), UUID.randomUUID());
+
+        final var stored = ArgumentCaptor.forClass(OfferedResource.class);
+        verify(repository).save(stored.capture());
+        assertNull(stored.getValue().getPolicyFingerprint());
+    }
+}
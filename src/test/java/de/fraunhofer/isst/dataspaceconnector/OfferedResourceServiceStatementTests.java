@@ -0,0 +1,137 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements issued by the representation operations of the offered resource
+ * service. Every operation is expected to load its resource exactly once, and adding a
+ * representation must not depend on the number of other offered resources.
+ */
+@SpringBootTest
+class OfferedResourceServiceStatementTests {
+
+    /**
+     * One select for the resource, one for each of its collections, one update of the resource
+     * and one statement for the changed representation row.
+     */
+    private static final long MAX_STATEMENTS = 5;
+
+    private static final int CATALOG_SIZE = 20;
+
+    @Autowired
+    private OfferedResourceServiceImpl offeredResourceService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID resourceId;
+    private UUID representationId;
+    private final List<UUID> otherResources = new ArrayList<>();
+
+    @BeforeEach
+    void createResource() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        resourceId = addResource();
+        representationId = offeredResourceService.getAllRepresentations(resourceId).keySet()
+            .iterator().next();
+    }
+
+    @AfterEach
+    void deleteResource() {
+        offeredResourceService.deleteResource(resourceId);
+        otherResources.forEach(offeredResourceService::deleteResource);
+    }
+
+    @Test
+    void addRepresentation_statementsIndependentOfCatalogSize() {
+        // Load the artifact index up front, it is not part of the operation.
+        offeredResourceService.getResourceIdByArtifactId(UUID.randomUUID());
+
+        final var statements = countAddRepresentationStatements(resourceId);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            otherResources.add(addResource());
+        }
+
+        final var otherId = addResource();
+        otherResources.add(otherId);
+        assertEquals(statements, countAddRepresentationStatements(otherId));
+    }
+
+    @Test
+    void updateRepresentation_loadsResourceOnce() {
+        statistics.clear();
+
+        offeredResourceService.updateRepresentation(resourceId, representationId,
+            createRepresentation("Updated"));
+
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+            "Too many statements: " + statistics.getPrepareStatementCount());
+        assertEquals("Updated", offeredResourceService
+            .getRepresentation(resourceId, representationId).getName());
+    }
+
+    @Test
+    void deleteRepresentation_loadsResourceOnce() {
+        statistics.clear();
+
+        offeredResourceService.deleteRepresentation(resourceId, representationId);
+
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+            "Too many statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateContract_loadsResourceOnce() {
+        statistics.clear();
+
+        offeredResourceService.updateContract(resourceId, "policy");
+
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+            "Too many statements: " + statistics.getPrepareStatementCount());
+    }
+
+    private long countAddRepresentationStatements(UUID resource) {
+        statistics.clear();
+        offeredResourceService.addRepresentation(resource, createRepresentation("Added"));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private UUID addResource() {
+        final var representations = new HashMap<UUID, ResourceRepresentation>();
+        representations.put(null, createRepresentation("Initial"));
+
+        final var metadata = new ResourceMetadata("Title", "Description", new ArrayList<>(),
+            null, null, null, "1.0", representations, null);
+        return offeredResourceService.addResource(metadata);
+    }
+
+    private static ResourceRepresentation createRepresentation(String name) {
+        return new ResourceRepresentation(null, "JSON", 4, name,
+            new BackendSource(BackendSource.Type.LOCAL, null, null, null));
+    }
+}
@@ -0,0 +1,137 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.Action;
+import de.fraunhofer.iais.eis.ContractOfferBuilder;
+import de.fraunhofer.iais.eis.PermissionBuilder;
+import de.fraunhofer.iais.eis.util.Util;
+import de.fraunhofer.isst.dataspaceconnector.config.PolicyConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.contract.UnsupportedPatternException;
+import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.EvaluatedPolicy;
+import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.PolicyCache;
+import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.PolicyHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the policy cache evaluates a policy once and stays within its size, also when it
+ * is used concurrently.
+ */
+@SpringBootTest
+class PolicyCacheTests {
+
+    private static final int THREADS = 8;
+    private static final int SAMPLE_CACHE_SIZE = 50;
+
+    @Autowired
+    private PolicyHandler policyHandler;
+
+    private EvaluatedPolicy evaluatedPolicy;
+
+    @BeforeEach
+    void evaluatePolicy() {
+        evaluatedPolicy = policyHandler.evaluate(new ContractOfferBuilder()
+            ._permission_(Util.asList(new PermissionBuilder()
+                ._action_(Util.asList(Action.USE))
+                .build()))
+            .build().toRdf());
+    }
+
+    @Test
+    void get_samePolicy_evaluatesOnce() {
+        final var cache = createCache(10);
+        final var evaluations = new AtomicInteger();
+
+        final var first = cache.get("policy", policy -> evaluate(evaluations));
+        final var second = cache.get("policy", policy -> evaluate(evaluations));
+
+        assertSame(first, second);
+        assertEquals(1, evaluations.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void get_moreThanMaxSize_dropsLeastRecentlyUsed() {
+        final var cache = createCache(2);
+        final var evaluations = new AtomicInteger();
+
+        cache.get("a", policy -> evaluate(evaluations));
+        cache.get("b", policy -> evaluate(evaluations));
+        cache.get("a", policy -> evaluate(evaluations));
+        cache.get("c", policy -> evaluate(evaluations));
+        assertEquals(2, cache.size());
+        assertEquals(3, evaluations.get());
+
+        // "b" was used least recently and has been dropped.
+        cache.get("a", policy -> evaluate(evaluations));
+        cache.get("b", policy -> evaluate(evaluations));
+        assertEquals(4, evaluations.get());
+    }
+
+    @Test
+    void get_concurrently_staysWithinMaxSize() throws Exception {
+        final var cache = createCache(SAMPLE_CACHE_SIZE);
+        final var evaluations = new AtomicInteger();
+
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final var tasks = new ArrayList<Callable<Void>>();
+            for (int i = 0; i < THREADS; i++) {
+                tasks.add(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        // Mostly hits on a few policies, with a miss now and then.
+                        final var policy = j % 10 == 0 ? "policy-" + j : "policy-" + j % 3;
+                        assertSame(evaluatedPolicy, cache.get(policy,
+                            value -> evaluate(evaluations)));
+                    }
+                    return null;
+                });
+            }
+
+            for (Future<Void> future : executor.invokeAll(tasks, 1, TimeUnit.MINUTES)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(cache.size() <= SAMPLE_CACHE_SIZE, "Cache size: " + cache.size());
+        assertEquals(THREADS * 1000, cache.getHits() + cache.getMisses());
+    }
+
+    @Test
+    void get_evaluationFails_cachesNothing() {
+        final var cache = createCache(10);
+
+        assertThrows(UnsupportedPatternException.class, () -> cache.get("policy", policy -> {
+            throw new UnsupportedPatternException("Unsupported.");
+        }));
+        assertEquals(0, cache.size());
+    }
+
+    private static PolicyCache createCache(int size) {
+        final var configuration = new PolicyConfiguration();
+        configuration.setCacheSize(size);
+        return new PolicyCache(configuration);
+    }
+
+    private EvaluatedPolicy evaluate(AtomicInteger evaluations) {
+        evaluations.incrementAndGet();
+        // The cache does not look at the policy, any evaluated policy will do.
+        return evaluatedPolicy;
+    }
+}
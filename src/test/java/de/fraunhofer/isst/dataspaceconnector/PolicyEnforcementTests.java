@@ -0,0 +1,129 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.Action;
+import de.fraunhofer.iais.eis.BinaryOperator;
+import de.fraunhofer.iais.eis.ConstraintBuilder;
+import de.fraunhofer.iais.eis.ContractOfferBuilder;
+import de.fraunhofer.iais.eis.DutyBuilder;
+import de.fraunhofer.iais.eis.LeftOperand;
+import de.fraunhofer.iais.eis.PermissionBuilder;
+import de.fraunhofer.iais.eis.util.RdfResource;
+import de.fraunhofer.iais.eis.util.Util;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.repositories.RequestedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.RequestedResourceServiceImpl;
+import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.PolicyEnforcement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.URI;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that resources with a DELETE post duty are deleted once their deletion date has passed,
+ * and only then, and that resources of older versions get their deletion date on startup.
+ */
+@SpringBootTest
+class PolicyEnforcementTests {
+
+    private static final URI PROVIDER = URI.create("https://provider.example/api/ids/data");
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Autowired
+    private PolicyEnforcement policyEnforcement;
+
+    @Autowired
+    private RequestedResourceServiceImpl resourceService;
+
+    @Autowired
+    private RequestedResourceRepository requestedResourceRepository;
+
+    private final List<UUID> resources = new ArrayList<>();
+
+    @AfterEach
+    void deleteResources() {
+        resources.forEach(resourceService::deleteResource);
+    }
+
+    @Test
+    void schedule_deletionDatePassed_deletesResource() {
+        final var key = createResource(System.currentTimeMillis() - HOUR);
+        assertNotNull(resourceService.getResource(key).getDeletionDue());
+
+        policyEnforcement.schedule();
+
+        assertNull(resourceService.getResource(key));
+    }
+
+    @Test
+    void schedule_deletionDateAhead_keepsResource() {
+        final var key = createResource(System.currentTimeMillis() + HOUR);
+
+        policyEnforcement.schedule();
+        policyEnforcement.checkResources();
+
+        assertNotNull(resourceService.getResource(key));
+    }
+
+    @Test
+    void checkResources_deletionDatePassed_deletesResource() {
+        final var key = createResource(System.currentTimeMillis() - HOUR);
+
+        policyEnforcement.checkResources();
+
+        assertNull(resourceService.getResource(key));
+    }
+
+    @Test
+    void loadDeadlines_legacyResource_readsPolicyOnce() {
+        final var key = createResource(System.currentTimeMillis() + HOUR);
+        final var legacy = requestedResourceRepository.findById(key).orElseThrow();
+        legacy.setDeletionDue(null);
+        legacy.setDeletionEvaluated(null);
+        requestedResourceRepository.save(legacy);
+
+        policyEnforcement.loadDeadlines();
+
+        final var resource = requestedResourceRepository.findById(key).orElseThrow();
+        assertNotNull(resource.getDeletionDue());
+        assertTrue(resource.getDeletionEvaluated());
+        assertTrue(requestedResourceRepository.findByDeletionEvaluatedIsNull().isEmpty());
+    }
+
+    private UUID createResource(long deletionDate) {
+        final var metadata = new ResourceMetadata("Title", "Description", new ArrayList<>(),
+            deleteAfter(deletionDate), null, null, "1.0", new HashMap<>(), null);
+        final var key = resourceService.addResourceWithInfo(PROVIDER, UUID.randomUUID(), metadata);
+        resources.add(key);
+        return key;
+    }
+
+    private static String deleteAfter(long date) {
+        final var value = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'").format(new Date(date));
+        return new ContractOfferBuilder()
+            ._permission_(Util.asList(new PermissionBuilder()
+                ._action_(Util.asList(Action.USE))
+                ._postDuty_(Util.asList(new DutyBuilder()
+                    ._action_(Util.asList(Action.DELETE))
+                    ._constraint_(Util.asList(new ConstraintBuilder()
+                        ._leftOperand_(LeftOperand.POLICY_EVALUATION_TIME)
+                        ._operator_(BinaryOperator.TEMPORAL_EQUALS)
+                        ._rightOperand_(new RdfResource(value, URI.create("xsd:dateTimeStamp")))
+                        .build()))
+                    .build()))
+                .build()))
+            .build().toRdf();
+    }
+}
@@ -0,0 +1,172 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.Action;
+import de.fraunhofer.iais.eis.BinaryOperator;
+import de.fraunhofer.iais.eis.Constraint;
+import de.fraunhofer.iais.eis.ConstraintBuilder;
+import de.fraunhofer.iais.eis.ContractOfferBuilder;
+import de.fraunhofer.iais.eis.LeftOperand;
+import de.fraunhofer.iais.eis.PermissionBuilder;
+import de.fraunhofer.iais.eis.ProhibitionBuilder;
+import de.fraunhofer.iais.eis.util.RdfResource;
+import de.fraunhofer.iais.eis.util.Util;
+import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.PolicyHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.URI;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Evaluates policies of different patterns from many threads at once. Every decision has to
+ * match the decision for the policy evaluated on its own.
+ */
+@SpringBootTest
+class PolicyHandlerConcurrencyTests {
+
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 200;
+    private static final String DATE_FORMAT_PATTERN = "yyyy-MM-dd'T'HH:mm:ss'Z'";
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private static final URI ALLOWED_CONNECTOR = URI.create("https://allowed.example/connector");
+    private static final URI OTHER_CONNECTOR = URI.create("https://other.example/connector");
+
+    @Autowired
+    private PolicyHandler policyHandler;
+
+    @Test
+    void evaluate_intervalPolicy_returnsPatternAndDates() {
+        final var now = System.currentTimeMillis();
+        final var evaluated = policyHandler.evaluate(interval(now - DAY, now + DAY));
+
+        assertEquals(PolicyHandler.Pattern.USAGE_DURING_INTERVAL, evaluated.getPattern());
+        assertNotNull(evaluated.getStart());
+        assertNotNull(evaluated.getEnd());
+        assertTrue(evaluated.getStart().before(evaluated.getEnd()));
+    }
+
+    @Test
+    void onDataProvision_concurrentRequests_decideEachPolicyOnItsOwn() throws Exception {
+        final var now = System.currentTimeMillis();
+        final var cases = List.of(
+            new Case(provideAccess(), OTHER_CONNECTOR, true),
+            new Case(prohibitAccess(), OTHER_CONNECTOR, false),
+            new Case(connectorRestricted(), ALLOWED_CONNECTOR, true),
+            new Case(connectorRestricted(), OTHER_CONNECTOR, false),
+            new Case(interval(now - DAY, now + DAY), OTHER_CONNECTOR, true),
+            new Case(interval(now - 2 * DAY, now - DAY), OTHER_CONNECTOR, false));
+
+        // Sanity check without contention.
+        for (final var testCase : cases) {
+            assertEquals(testCase.expected,
+                policyHandler.onDataProvision(testCase.policy, testCase.issuer));
+        }
+
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final var start = new CountDownLatch(1);
+            final var tasks = new ArrayList<Future<Integer>>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final var offset = thread;
+                tasks.add(executor.submit((Callable<Integer>) () -> {
+                    start.await();
+                    int wrong = 0;
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        final var testCase = cases.get((offset + i) % cases.size());
+                        if (policyHandler.onDataProvision(testCase.policy, testCase.issuer)
+                            != testCase.expected) {
+                            wrong++;
+                        }
+                    }
+                    return wrong;
+                }));
+            }
+
+            start.countDown();
+            int wrong = 0;
+            for (final var task : tasks) {
+                wrong += task.get(2, TimeUnit.MINUTES);
+            }
+
+            assertEquals(0, wrong, "Decisions differ from the single-threaded ones.");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String provideAccess() {
+        return new ContractOfferBuilder()
+            ._permission_(Util.asList(new PermissionBuilder()
+                ._action_(Util.asList(Action.USE))
+                .build()))
+            .build().toRdf();
+    }
+
+    private static String prohibitAccess() {
+        return new ContractOfferBuilder()
+            ._prohibition_(Util.asList(new ProhibitionBuilder()
+                ._action_(Util.asList(Action.USE))
+                .build()))
+            .build().toRdf();
+    }
+
+    private static String connectorRestricted() {
+        return new ContractOfferBuilder()
+            ._permission_(Util.asList(new PermissionBuilder()
+                ._action_(Util.asList(Action.USE))
+                ._constraint_(Util.asList(new ConstraintBuilder()
+                    ._leftOperand_(LeftOperand.SYSTEM)
+                    ._operator_(BinaryOperator.SAME_AS)
+                    ._rightOperand_(new RdfResource(ALLOWED_CONNECTOR.toString(),
+                        URI.create("xsd:anyURI")))
+                    .build()))
+                .build()))
+            .build().toRdf();
+    }
+
+    private static String interval(long start, long end) {
+        return new ContractOfferBuilder()
+            ._permission_(Util.asList(new PermissionBuilder()
+                ._action_(Util.asList(Action.USE))
+                ._constraint_(Util.asList(
+                    timeConstraint(BinaryOperator.AFTER, start),
+                    timeConstraint(BinaryOperator.BEFORE, end)))
+                .build()))
+            .build().toRdf();
+    }
+
+    private static Constraint timeConstraint(BinaryOperator operator, long time) {
+        final var date = new SimpleDateFormat(DATE_FORMAT_PATTERN).format(new Date(time));
+        return new ConstraintBuilder()
+            ._leftOperand_(LeftOperand.POLICY_EVALUATION_TIME)
+            ._operator_(operator)
+            ._rightOperand_(new RdfResource(date, URI.create("xsd:dateTimeStamp")))
+            .build();
+    }
+
+    private static final class Case {
+        private final String policy;
+        private final URI issuer;
+        private final boolean expected;
+
+        private Case(String policy, URI issuer, boolean expected) {
+            this.policy = policy;
+            this.issuer = issuer;
+            this.expected = expected;
+        }
+    }
+}
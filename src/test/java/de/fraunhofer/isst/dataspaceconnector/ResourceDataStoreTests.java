@@ -0,0 +1,88 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.services.resources.ResourceDataStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that stored data is only replaced or deleted once the writing or deleting transaction has
+ * been committed.
+ */
+@SpringBootTest
+class ResourceDataStoreTests {
+
+    @Autowired
+    private ResourceDataStore resourceDataStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID resourceId;
+
+    @BeforeEach
+    void writeData() {
+        resourceId = UUID.randomUUID();
+        resourceDataStore.write(resourceId, "data");
+    }
+
+    @AfterEach
+    void deleteData() {
+        resourceDataStore.delete(resourceId);
+    }
+
+    @Test
+    void write_rolledBack_keepsData() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            resourceDataStore.write(resourceId, "new data");
+            assertEquals("data", resourceDataStore.readString(resourceId));
+            status.setRollbackOnly();
+        });
+
+        assertEquals("data", resourceDataStore.readString(resourceId));
+    }
+
+    @Test
+    void write_committed_replacesData() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            resourceDataStore.write(resourceId, "new data"));
+
+        assertEquals("new data", resourceDataStore.readString(resourceId));
+    }
+
+    @Test
+    void delete_rolledBack_keepsData() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            resourceDataStore.delete(resourceId);
+            assertTrue(resourceDataStore.exists(resourceId));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(resourceDataStore.exists(resourceId));
+    }
+
+    @Test
+    void delete_committed_deletesData() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            resourceDataStore.delete(resourceId));
+
+        assertFalse(resourceDataStore.exists(resourceId));
+    }
+
+    @Test
+    void delete_withoutTransaction_deletesData() {
+        resourceDataStore.delete(resourceId);
+
+        assertFalse(resourceDataStore.exists(resourceId));
+    }
+}
@@ -0,0 +1,162 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.repositories.OfferedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.OfferedResourceServiceImpl;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.ResourceDataStore;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.ResourceMetadataMigration;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the metadata migration against the column of older versions, a NOT NULL BYTEA column
+ * holding the serialized metadata. The column is dropped once all rows are moved and kept if a
+ * row cannot be read, new resources can be stored in both cases. Data kept in the database column
+ * is moved to the data store.
+ */
+@SpringBootTest
+class ResourceMetadataMigrationTests {
+
+    @Autowired
+    private ResourceMetadataMigration migration;
+
+    @Autowired
+    private OfferedResourceServiceImpl offeredResourceService;
+
+    @Autowired
+    private OfferedResourceRepository offeredResourceRepository;
+
+    @Autowired
+    private ResourceDataStore resourceDataStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<UUID> resources = new ArrayList<>();
+
+    @BeforeEach
+    void addLegacyColumn() {
+        resources.add(offeredResourceService.addResource(createMetadata("Title")));
+        jdbcTemplate.execute("ALTER TABLE offered_resource ADD COLUMN resource_metadata BYTEA");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (hasLegacyColumn()) {
+            jdbcTemplate.execute("ALTER TABLE offered_resource DROP COLUMN resource_metadata");
+        }
+
+        resources.forEach(offeredResourceService::deleteResource);
+    }
+
+    @Test
+    void migrate_legacyRows_movesMetadataAndDropsColumn() {
+        final var resourceId = resources.get(0);
+
+        // Every row of an older database holds its serialized metadata.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (final var resource : offeredResourceRepository.findAll()) {
+                final var metadata = resource.getUuid().equals(resourceId)
+                    ? createMetadata("Legacy") : copy(resource.getResourceMetadata());
+                jdbcTemplate.update("UPDATE offered_resource SET resource_metadata = ? "
+                    + "WHERE uuid = ?", SerializationUtils.serialize(metadata),
+                    toBytes(resource.getUuid()));
+            }
+        });
+        setNotNull();
+
+        migration.migrate();
+
+        assertFalse(hasLegacyColumn());
+        assertEquals("Legacy", offeredResourceService.getMetadata(resourceId).getTitle());
+        resources.add(offeredResourceService.addResource(createMetadata("New")));
+    }
+
+    @Test
+    void migrate_corruptRow_keepsLegacyColumn() {
+        jdbcTemplate.update("UPDATE offered_resource SET resource_metadata = ?",
+            (Object) "not serialized".getBytes(StandardCharsets.UTF_8));
+        setNotNull();
+
+        migration.migrate();
+
+        assertTrue(hasLegacyColumn());
+        assertEquals("Title", offeredResourceService.getMetadata(resources.get(0)).getTitle());
+
+        // New rows do not write the kept column.
+        final var resourceId = offeredResourceService.addResource(createMetadata("New"));
+        resources.add(resourceId);
+        assertEquals("New", offeredResourceService.getMetadata(resourceId).getTitle());
+    }
+
+    @Test
+    void migrate_legacyData_movesDataToStore() {
+        final var resourceId = resources.get(0);
+        jdbcTemplate.update("UPDATE offered_resource SET data = ? WHERE uuid = ?", "legacy",
+            toBytes(resourceId));
+
+        migration.migrate();
+
+        assertNull(offeredResourceRepository.findById(resourceId).orElseThrow().getData());
+        assertEquals("legacy", resourceDataStore.readString(resourceId));
+    }
+
+    private void setNotNull() {
+        jdbcTemplate.execute("ALTER TABLE offered_resource ALTER COLUMN resource_metadata "
+            + "SET NOT NULL");
+    }
+
+    private boolean hasLegacyColumn() {
+        final var count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+            + "INFORMATION_SCHEMA.COLUMNS WHERE UPPER(TABLE_NAME) = 'OFFERED_RESOURCE' AND "
+            + "UPPER(COLUMN_NAME) = 'RESOURCE_METADATA'", Integer.class);
+        return count != null && count > 0;
+    }
+
+    private static ResourceMetadata createMetadata(String title) {
+        return new ResourceMetadata(title, "Description", new ArrayList<>(), null, null, null,
+            "1.0", new HashMap<>(), null);
+    }
+
+    /**
+     * Copies metadata loaded by Hibernate into plain collections, as older versions serialized
+     * it.
+     */
+    private static ResourceMetadata copy(ResourceMetadata metadata) {
+        return new ResourceMetadata(metadata.getTitle(), metadata.getDescription(),
+            metadata.getKeywords() == null ? null : new ArrayList<>(metadata.getKeywords()),
+            metadata.getPolicy(), metadata.getOwner(), metadata.getLicense(),
+            metadata.getVersion(), new HashMap<>(metadata.getRepresentations()),
+            metadata.getEndpointDocumentation());
+    }
+
+    /**
+     * Writes a resource id the way Hibernate stores it in H2.
+     */
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits()).array();
+    }
+}
@@ -0,0 +1,65 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageService.ResponseType;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ArtifactMessageService;
+import de.fraunhofer.isst.ids.framework.configuration.SerializerProvider;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Measures the cost of classifying response headers per message type, single pass compared with
+ * sequential deserialization. Timings are only logged. Runs with the benchmark profile, not in
+ * the default test run.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class ResponseTypeBenchmarkTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseTypeBenchmarkTests.class);
+
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    @Autowired
+    private ArtifactMessageService messageService;
+
+    @Autowired
+    private SerializerProvider serializerProvider;
+
+    @Test
+    void getResponseType_knownTypes_measuresClassification() throws IOException {
+        for (final var entry : ResponseTypeTests.createHeaders().entrySet()) {
+            final var header = serializerProvider.getSerializer().serialize(entry.getValue());
+
+            final var sequential = measure(header,
+                value -> ResponseTypeTests.classifySequentially(serializerProvider, value));
+            final var singlePass = measure(header, messageService::getResponseType);
+            LOGGER.info("Classified response header. [type=({}), sequential=({} us/op), "
+                    + "singlePass=({} us/op)]", entry.getKey(), sequential / 1_000,
+                singlePass / 1_000);
+        }
+    }
+
+    /**
+     * Returns the average time of a classification in nanoseconds.
+     */
+    private static long measure(String header, Function<String, ResponseType> classification) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            classification.apply(header);
+        }
+
+        final var start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            classification.apply(header);
+        }
+
+        return (System.nanoTime() - start) / MEASURED_ITERATIONS;
+    }
+}
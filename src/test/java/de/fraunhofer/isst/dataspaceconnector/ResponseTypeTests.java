@@ -0,0 +1,154 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.ArtifactResponseMessageBuilder;
+import de.fraunhofer.iais.eis.ContractAgreementMessageBuilder;
+import de.fraunhofer.iais.eis.DescriptionResponseMessageBuilder;
+import de.fraunhofer.iais.eis.DynamicAttributeToken;
+import de.fraunhofer.iais.eis.DynamicAttributeTokenBuilder;
+import de.fraunhofer.iais.eis.Message;
+import de.fraunhofer.iais.eis.RejectionMessageBuilder;
+import de.fraunhofer.iais.eis.RejectionReason;
+import de.fraunhofer.iais.eis.ResultMessageBuilder;
+import de.fraunhofer.iais.eis.TokenFormat;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageService.ResponseType;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.implementation.ArtifactMessageService;
+import de.fraunhofer.isst.ids.framework.configuration.SerializerProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static de.fraunhofer.isst.ids.framework.util.IDSUtils.getGregorianNow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that response headers are classified in a single pass with the same result as
+ * deserializing the header as one message class after another, as it was done before.
+ */
+@SpringBootTest
+class ResponseTypeTests {
+
+    private static final URI CONNECTOR = URI.create("https://connector.example/id");
+    private static final URI CORRELATION = URI.create("https://connector.example/message/1");
+
+    /**
+     * The order in which the message classes used to be tried.
+     */
+    private static final List<ResponseType> SEQUENTIAL_ORDER = List.of(
+        ResponseType.ACCESS_TOKEN_RESPONSE, ResponseType.APP_REGISTRATION_RESPONSE,
+        ResponseType.ARTIFACT_RESPONSE, ResponseType.CONTRACT_AGREEMENT,
+        ResponseType.CONTRACT_RESPONSE, ResponseType.DESCRIPTION_RESPONSE,
+        ResponseType.OPERATION_RESULT, ResponseType.PARTICIPANT_RESPONSE,
+        ResponseType.REJECTION, ResponseType.CONTRACT_REJECTION, ResponseType.RESULT,
+        ResponseType.UPLOAD_RESPONSE);
+
+    @Autowired
+    private ArtifactMessageService messageService;
+
+    @Autowired
+    private SerializerProvider serializerProvider;
+
+    @Test
+    void readResponse_knownTypes_classifiesLikeSequentialDeserialization() throws IOException {
+        for (final var entry : createHeaders().entrySet()) {
+            final var header = serializerProvider.getSerializer().serialize(entry.getValue());
+
+            final var response = messageService.readResponse(header);
+            assertNotNull(response);
+            assertEquals(entry.getKey(), response.getType());
+            assertEquals(entry.getValue().getId(), response.getMessage().getId());
+            assertEquals(entry.getKey(), messageService.getResponseType(header));
+            assertEquals(entry.getKey(), classifySequentially(serializerProvider, header));
+        }
+    }
+
+    @Test
+    void readResponse_invalidHeader_returnsNull() {
+        assertNull(messageService.readResponse(null));
+        assertNull(messageService.readResponse("not json"));
+        assertNull(messageService.readResponse("{\"@type\": \"ids:Unknown\"}"));
+    }
+
+    @Test
+    void fromJsonLdType_prefixedAndFullTypes_resolveToSameType() {
+        assertEquals(ResponseType.ARTIFACT_RESPONSE,
+            ResponseType.fromJsonLdType("ids:ArtifactResponseMessage"));
+        assertEquals(ResponseType.ARTIFACT_RESPONSE,
+            ResponseType.fromJsonLdType("https://w3id.org/idsa/core/ArtifactResponseMessage"));
+    }
+
+    /**
+     * Classifies a header the way it was done before, by trying one message class after another.
+     */
+    static ResponseType classifySequentially(SerializerProvider serializerProvider,
+        String header) {
+        for (final var type : SEQUENTIAL_ORDER) {
+            try {
+                serializerProvider.getSerializer().deserialize(header, type.getMessageClass());
+                return type;
+            } catch (IOException ignored) { }
+        }
+
+        return null;
+    }
+
+    static Map<ResponseType, Message> createHeaders() {
+        final var headers = new LinkedHashMap<ResponseType, Message>();
+        headers.put(ResponseType.ARTIFACT_RESPONSE, new ArtifactResponseMessageBuilder()
+            ._securityToken_(createToken())
+            ._correlationMessage_(CORRELATION)
+            ._issued_(getGregorianNow())
+            ._issuerConnector_(CONNECTOR)
+            ._modelVersion_("4.0.0")
+            ._senderAgent_(CONNECTOR)
+            .build());
+        headers.put(ResponseType.CONTRACT_AGREEMENT, new ContractAgreementMessageBuilder()
+            ._securityToken_(createToken())
+            ._correlationMessage_(CORRELATION)
+            ._issued_(getGregorianNow())
+            ._issuerConnector_(CONNECTOR)
+            ._modelVersion_("4.0.0")
+            ._senderAgent_(CONNECTOR)
+            .build());
+        headers.put(ResponseType.DESCRIPTION_RESPONSE, new DescriptionResponseMessageBuilder()
+            ._securityToken_(createToken())
+            ._correlationMessage_(CORRELATION)
+            ._issued_(getGregorianNow())
+            ._issuerConnector_(CONNECTOR)
+            ._modelVersion_("4.0.0")
+            ._senderAgent_(CONNECTOR)
+            .build());
+        headers.put(ResponseType.REJECTION, new RejectionMessageBuilder()
+            ._securityToken_(createToken())
+            ._correlationMessage_(CORRELATION)
+            ._issued_(getGregorianNow())
+            ._issuerConnector_(CONNECTOR)
+            ._modelVersion_("4.0.0")
+            ._senderAgent_(CONNECTOR)
+            ._rejectionReason_(RejectionReason.NOT_FOUND)
+            .build());
+        headers.put(ResponseType.RESULT, new ResultMessageBuilder()
+            ._securityToken_(createToken())
+            ._correlationMessage_(CORRELATION)
+            ._issued_(getGregorianNow())
+            ._issuerConnector_(CONNECTOR)
+            ._modelVersion_("4.0.0")
+            ._senderAgent_(CONNECTOR)
+            .build());
+        return headers;
+    }
+
+    private static DynamicAttributeToken createToken() {
+        return new DynamicAttributeTokenBuilder()
+            ._tokenFormat_(TokenFormat.JWT)
+            ._tokenValue_("token")
+            .build();
+    }
+}
@@ -0,0 +1,125 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.Connector;
+import de.fraunhofer.iais.eis.Resource;
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.repositories.OfferedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resources.SelfDescriptionCache;
+import de.fraunhofer.isst.dataspaceconnector.services.utils.IdsUtils;
+import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that a resource is not lost from the cached catalog if another resource is invalidated
+ * while it is reloaded, and that the self-description is assembled from the cached resources.
+ */
+class SelfDescriptionCacheTests {
+
+    @Test
+    void getOfferedResources_invalidateDuringReload_keepsResource() throws Exception {
+        final var resourceId = UUID.randomUUID();
+        final var otherId = UUID.randomUUID();
+
+        final var offeredResource = mock(OfferedResource.class);
+        when(offeredResource.getUuid()).thenReturn(resourceId);
+
+        final var repository = mock(OfferedResourceRepository.class);
+        final var idsUtils = mock(IdsUtils.class);
+        final var configurationContainer = mock(ConfigurationContainer.class);
+        when(configurationContainer.getConnector()).thenReturn(mock(Connector.class));
+        when(idsUtils.getAsResource(any())).thenAnswer(invocation -> mock(Resource.class));
+        when(repository.findAll()).thenReturn(List.of(offeredResource));
+
+        final var cache = new SelfDescriptionCache(repository, idsUtils, configurationContainer);
+        assertEquals(1, cache.getOfferedResources().size());
+        cache.invalidate(resourceId);
+
+        // Another resource changes while the first one is read from the database.
+        final var executor = Executors.newSingleThreadExecutor();
+        final var reloads = new AtomicInteger();
+        when(repository.findById(resourceId)).thenAnswer(invocation -> {
+            if (reloads.getAndIncrement() == 0) {
+                executor.submit(() -> cache.invalidate(otherId)).get();
+            }
+            return Optional.of(offeredResource);
+        });
+
+        try {
+            assertEquals(1, cache.getOfferedResources().size());
+            final var resources = cache.getOfferedResources();
+            assertEquals(1, resources.size());
+            assertEquals(2, reloads.get());
+            assertSame(resources.get(0), cache.getResource(resourceId));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void getSelfDescription_resourceChanged_serializesOnlyChangedResource() throws Exception {
+        final var resourceId = UUID.randomUUID();
+        final var otherId = UUID.randomUUID();
+
+        final var offeredResource = mock(OfferedResource.class);
+        when(offeredResource.getUuid()).thenReturn(resourceId);
+        final var otherOfferedResource = mock(OfferedResource.class);
+        when(otherOfferedResource.getUuid()).thenReturn(otherId);
+
+        final var resource = mock(Resource.class);
+        when(resource.toRdf()).thenReturn("{\"@context\":{},\"@id\":\"https://resource\"}");
+        final var otherResource = mock(Resource.class);
+        when(otherResource.toRdf()).thenReturn("{\"@context\":{},\"@id\":\"https://other\"}");
+        final var changedResource = mock(Resource.class);
+        when(changedResource.toRdf()).thenReturn("{\"@id\":\"https://changed\"}");
+
+        final var connector = mock(Connector.class);
+        when(connector.toRdf()).thenReturn("{\"@context\":{},\"@id\":\"https://connector\","
+            + "\"ids:resourceCatalog\":[]}");
+
+        final var repository = mock(OfferedResourceRepository.class);
+        final var idsUtils = mock(IdsUtils.class);
+        final var configurationContainer = mock(ConfigurationContainer.class);
+        when(configurationContainer.getConnector()).thenReturn(connector);
+        when(repository.findAll()).thenReturn(List.of(offeredResource, otherOfferedResource));
+        when(repository.findById(otherId)).thenReturn(Optional.of(otherOfferedResource));
+        when(idsUtils.getAsResource(offeredResource)).thenReturn(resource);
+        when(idsUtils.getAsResource(otherOfferedResource))
+            .thenReturn(otherResource, changedResource);
+
+        final var cache = new SelfDescriptionCache(repository, idsUtils, configurationContainer);
+        assertFalse(cache.getPublicSelfDescription().contains("ids:resourceCatalog"));
+        cache.getSelfDescription();
+        cache.invalidate(otherId);
+
+        final var description = new ObjectMapper().readTree(cache.getSelfDescription());
+        final var offered = description.get("ids:resourceCatalog").get(0)
+            .get("ids:offeredResource");
+        assertEquals(2, offered.size());
+        assertEquals("https://connector", description.get("@id").asText());
+        assertFalse(offered.toString().contains("@context"));
+        assertFalse(offered.toString().contains("https://other"));
+
+        // The shared connector is only read once and never modified.
+        verify(connector, times(1)).toRdf();
+        verifyNoMoreInteractions(connector);
+        verify(resource, times(1)).toRdf();
+        verify(changedResource, times(1)).toRdf();
+    }
+}
@@ -0,0 +1,202 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.config.HttpTraceConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.config.MessagingConfiguration;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTraceEventHandler;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.HttpTraceFilter;
+import de.fraunhofer.isst.dataspaceconnector.filter.httptracing.TraceContext;
+import de.fraunhofer.isst.dataspaceconnector.services.messages.MessageExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks that every request keeps its own trace id while it is processed, also under concurrent
+ * requests, and that the id is passed to the message pool, its continuations and outgoing
+ * headers.
+ */
+class TraceContextTests {
+
+    private static final String RECEIVED_ID = "3f0e8a52-9d2c-4f7e-8a57-0c3e2b1d4a66";
+    private static final int THREADS = 16;
+
+    @Test
+    void doFilter_noTraceHeader_bindsNewIdToRequestAndResponse() throws Exception {
+        final var filter = createFilter();
+        final var seen = new AtomicReference<String>();
+
+        final var response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/ids/data"), response,
+            (req, res) -> seen.set(TraceContext.getTraceId()));
+
+        assertNotNull(seen.get());
+        assertEquals(seen.get(), response.getHeader(TraceContext.HEADER));
+        assertNull(TraceContext.getTraceId());
+    }
+
+    @Test
+    void doFilter_receivedTraceHeader_keepsId() throws Exception {
+        final var filter = createFilter();
+        final var seen = new AtomicReference<Map<String, String>>();
+
+        final var request = new MockHttpServletRequest("GET", "/api/ids/data");
+        request.addHeader(TraceContext.HEADER, RECEIVED_ID);
+        filter.doFilter(request, new MockHttpServletResponse(),
+            (req, res) -> seen.set(TraceContext.withTraceHeader(Map.of("Accept", "*/*"))));
+
+        assertEquals(RECEIVED_ID, seen.get().get(TraceContext.HEADER));
+        assertEquals("*/*", seen.get().get("Accept"));
+    }
+
+    @Test
+    void doFilter_invalidTraceHeader_createsNewId() throws Exception {
+        final var filter = createFilter();
+
+        final var request = new MockHttpServletRequest("GET", "/api/ids/data");
+        request.addHeader(TraceContext.HEADER, "not a trace id\n[forged log line]");
+        final var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> { });
+
+        assertNotNull(TraceContext.parse(response.getHeader(TraceContext.HEADER)));
+    }
+
+    @Test
+    void doFilter_concurrentRequests_keepOwnIds() throws Exception {
+        final var filter = createFilter();
+        final var ids = ConcurrentHashMap.<String>newKeySet();
+        final var start = new CountDownLatch(1);
+
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final var tasks = new ArrayList<Future<?>>();
+            for (int i = 0; i < THREADS; i++) {
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    final var response = new MockHttpServletResponse();
+                    filter.doFilter(new MockHttpServletRequest("GET", "/api/ids/data"),
+                        response, (req, res) -> {
+                            final var before = TraceContext.getTraceId();
+                            Thread.yield();
+                            assertEquals(before, TraceContext.getTraceId());
+                            assertEquals(before, response.getHeader(TraceContext.HEADER));
+                        });
+                    ids.add(response.getHeader(TraceContext.HEADER));
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (final var task : tasks) {
+                task.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS, ids.size());
+    }
+
+    @Test
+    void supply_messagePool_keepsTraceIdOfCaller() throws Exception {
+        final var configuration = new MessagingConfiguration();
+        configuration.setPoolSize(1);
+        configuration.setQueueCapacity(10);
+        final var messageExecutor = new MessageExecutor(configuration);
+
+        try {
+            TraceContext.setTraceId(RECEIVED_ID);
+            final var traced = messageExecutor.supply(TraceContext::getTraceId);
+
+            TraceContext.setTraceId(null);
+            final var untraced = messageExecutor.supply(TraceContext::getTraceId);
+
+            assertEquals(RECEIVED_ID, traced.get(1, TimeUnit.MINUTES));
+            assertNull(untraced.get(1, TimeUnit.MINUTES));
+        } finally {
+            TraceContext.setTraceId(null);
+            messageExecutor.destroy();
+        }
+    }
+
+    @Test
+    void supply_multiLegPipeline_keepsTraceIdInContinuations() throws Exception {
+        final var configuration = new MessagingConfiguration();
+        configuration.setPoolSize(2);
+        configuration.setQueueCapacity(10);
+        final var messageExecutor = new MessageExecutor(configuration);
+        final var seen = new ConcurrentHashMap<String, String>();
+        final var release = new CountDownLatch(1);
+
+        try {
+            // Shaped like the data request pipeline: description, contract request with the
+            // agreement confirmation sent from the continuation, and the artifact request.
+            TraceContext.setTraceId(RECEIVED_ID);
+            final var description = messageExecutor.supply(() -> {
+                await(release);
+                return "description";
+            });
+            final var agreement = description
+                .thenCompose(metadata -> messageExecutor.supply(() -> "contract"))
+                .thenApply(contract -> {
+                    seen.put("agreement", String.valueOf(TraceContext.getTraceId()));
+                    seen.put("header", String.valueOf(TraceContext.withTraceHeader(null)
+                        .get(TraceContext.HEADER)));
+                    return contract;
+                });
+            final var data = agreement
+                .thenCompose(contract -> messageExecutor.supply(TraceContext::getTraceId));
+            final var result = description.thenCombine(data, (metadata, artifact) -> {
+                seen.put("artifact", String.valueOf(artifact));
+                seen.put("store", String.valueOf(TraceContext.getTraceId()));
+                return artifact;
+            });
+
+            // The calling thread moves on to another request before the legs complete.
+            TraceContext.setTraceId(null);
+            release.countDown();
+            result.get(1, TimeUnit.MINUTES);
+
+            assertEquals(Map.of("agreement", RECEIVED_ID, "header", RECEIVED_ID,
+                "artifact", RECEIVED_ID, "store", RECEIVED_ID), seen);
+            assertNull(TraceContext.getTraceId());
+        } finally {
+            TraceContext.setTraceId(null);
+            messageExecutor.destroy();
+        }
+    }
+
+    @Test
+    void withTraceHeader_noTraceId_addsNoHeader() {
+        assertEquals(Map.of(), TraceContext.withTraceHeader(null));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static HttpTraceFilter createFilter() {
+        final var configuration = new HttpTraceConfiguration();
+        configuration.setSampleRate(0.0);
+        configuration.setMaxBodySize(0);
+        configuration.setExcludedPaths(new String[0]);
+        return new HttpTraceFilter(mock(HttpTraceEventHandler.class), configuration);
+    }
+}